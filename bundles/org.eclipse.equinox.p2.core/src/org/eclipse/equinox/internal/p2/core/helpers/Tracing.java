@@ -29,6 +29,7 @@ public class Tracing {
 	public static boolean DEBUG_METADATA_PARSING = false;
 	public static boolean DEBUG_MIRRORS = false;
 	public static boolean DEBUG_PARSE_PROBLEMS = false;
+	public static boolean DEBUG_PLANNER_MATCH_CACHE = false;
 	public static boolean DEBUG_PLANNER_OPERANDS = false;
 	public static boolean DEBUG_PLANNER_PROJECTOR = false;
 	public static boolean DEBUG_PLANNER_PROJECTOR_ENCODING = false;
@@ -51,6 +52,7 @@ public class Tracing {
 				DEBUG_METADATA_PARSING = options.getBooleanOption(Activator.ID + "/metadata/parsing", false); //$NON-NLS-1$
 				DEBUG_MIRRORS = options.getBooleanOption(Activator.ID + "/artifacts/mirrors", false); //$NON-NLS-1$
 				DEBUG_PARSE_PROBLEMS = options.getBooleanOption(Activator.ID + "/core/parseproblems", false); //$NON-NLS-1$
+				DEBUG_PLANNER_MATCH_CACHE = options.getBooleanOption(Activator.ID + "/planner/matchcache", false); //$NON-NLS-1$
 				DEBUG_PLANNER_OPERANDS = options.getBooleanOption(Activator.ID + "/planner/operands", false); //$NON-NLS-1$
 				DEBUG_PLANNER_PROJECTOR = options.getBooleanOption(Activator.ID + "/planner/projector", false); //$NON-NLS-1$
 				DEBUG_PLANNER_PROJECTOR_ENCODING = options.getBooleanOption(Activator.ID + "/planner/encoding", false); //$NON-NLS-1$
@@ -18,69 +18,25 @@ public class AttachmentHelper {
 	private static final IInstallableUnitFragment[] NO_FRAGMENTS = new IInstallableUnitFragment[0];
 
 	public static Collection<IInstallableUnit> attachFragments(Iterator<IInstallableUnit> toAttach, Map<IInstallableUnitFragment, List<IInstallableUnit>> fragmentsToIUs) {
-		Map<IInstallableUnit, IInstallableUnitFragment[]> fragmentBindings = new HashMap<>();
-		//Build a map inverse of the one provided in input (host --> List of fragments)
-		Map<IInstallableUnit, List<IInstallableUnitFragment>> iusToFragment = new HashMap<>(fragmentsToIUs.size());
+		// Check to make sure the hosts meet the requirements of the fragment
+		Map<IInstallableUnitFragment, List<IInstallableUnit>> hosts = new HashMap<>(fragmentsToIUs.size());
 		for (Map.Entry<IInstallableUnitFragment, List<IInstallableUnit>> mapping : fragmentsToIUs.entrySet()) {
 			IInstallableUnitFragment fragment = mapping.getKey();
-			List<IInstallableUnit> existingMatches = mapping.getValue();
-
-			for (IInstallableUnit host : existingMatches) {
-				List<IInstallableUnitFragment> potentialFragments = iusToFragment.get(host);
-				if (potentialFragments == null) {
-					potentialFragments = new ArrayList<>();
-					iusToFragment.put(host, potentialFragments);
-				}
-				potentialFragments.add(fragment);
+			List<IInstallableUnit> matchingHosts = new ArrayList<>(mapping.getValue().size());
+			for (IInstallableUnit host : mapping.getValue()) {
+				if (satisfiesAll(host, fragment.getHost()))
+					matchingHosts.add(host);
 			}
+			hosts.put(fragment, matchingHosts);
 		}
+		return attachFragments(toAttach, new FragmentHostIndex(hosts));
+	}
 
-		for (Map.Entry<IInstallableUnit, List<IInstallableUnitFragment>> entry : iusToFragment.entrySet()) {
-			IInstallableUnit hostIU = entry.getKey();
-			List<IInstallableUnitFragment> potentialIUFragments = entry.getValue();
-			ArrayList<IInstallableUnitFragment> applicableFragments = new ArrayList<>();
-			for (IInstallableUnitFragment potentialFragment : potentialIUFragments) {
-				if (hostIU.equals(potentialFragment))
-					continue;
-
-				// Check to make sure the host meets the requirements of the fragment
-				Collection<IRequirement> reqsFromFragment = potentialFragment.getHost();
-				boolean match = true;
-				boolean requirementMatched = false;
-				for (Iterator<IRequirement> iterator = reqsFromFragment.iterator(); iterator.hasNext() && match == true;) {
-					IRequirement reqs = iterator.next();
-					requirementMatched = false;
-					if (hostIU.satisfies(reqs))
-						requirementMatched = true;
-					if (requirementMatched == false) {
-						match = false;
-						break;
-					}
-
-				}
-				if (match) {
-					applicableFragments.add(potentialFragment);
-				}
-			}
-
-			IInstallableUnitFragment theFragment = null;
-			int specificityLevel = 0;
-			LinkedList<IInstallableUnitFragment> fragments = new LinkedList<>();
-			for (IInstallableUnitFragment fragment : applicableFragments) {
-				if (isTranslation(fragment)) {
-					fragments.add(fragment);
-					continue;
-				}
-				if (fragment.getHost().size() > specificityLevel) {
-					theFragment = fragment;
-					specificityLevel = fragment.getHost().size();
-				}
-			}
-			if (theFragment != null)
-				fragments.addFirst(theFragment);
-			if (!fragments.isEmpty())
-				fragmentBindings.put(hostIU, fragments.toArray(new IInstallableUnitFragment[fragments.size()]));
-		}
+	/**
+	 * Returns the given units with the fragments that the given index associates with them
+	 * attached. Fragments are returned as they are.
+	 */
+	public static Collection<IInstallableUnit> attachFragments(Iterator<IInstallableUnit> toAttach, FragmentHostIndex fragmentHosts) {
 		//build the collection of resolved IUs
 		Collection<IInstallableUnit> result = new HashSet<>();
 		while (toAttach.hasNext()) {
@@ -93,14 +49,43 @@ public class AttachmentHelper {
 				continue;
 			}
 			//return a new IU that combines the IU with its bound fragments
-			IInstallableUnitFragment[] fragments = fragmentBindings.get(iu);
-			if (fragments == null)
-				fragments = NO_FRAGMENTS;
-			result.add(MetadataFactory.createResolvedInstallableUnit(iu, fragments));
+			result.add(MetadataFactory.createResolvedInstallableUnit(iu, bindFragments(iu, fragmentHosts.getFragments(iu))));
 		}
 		return result;
 	}
 
+	// Selects the most specific of the fragments that the host can take, followed by all the translations
+	private static IInstallableUnitFragment[] bindFragments(IInstallableUnit hostIU, List<IInstallableUnitFragment> potentialIUFragments) {
+		if (potentialIUFragments.isEmpty())
+			return NO_FRAGMENTS;
+		IInstallableUnitFragment theFragment = null;
+		int specificityLevel = 0;
+		LinkedList<IInstallableUnitFragment> fragments = new LinkedList<>();
+		for (IInstallableUnitFragment fragment : potentialIUFragments) {
+			if (hostIU.equals(fragment))
+				continue;
+			if (isTranslation(fragment)) {
+				fragments.add(fragment);
+				continue;
+			}
+			if (fragment.getHost().size() > specificityLevel) {
+				theFragment = fragment;
+				specificityLevel = fragment.getHost().size();
+			}
+		}
+		if (theFragment != null)
+			fragments.addFirst(theFragment);
+		return fragments.isEmpty() ? NO_FRAGMENTS : fragments.toArray(new IInstallableUnitFragment[fragments.size()]);
+	}
+
+	private static boolean satisfiesAll(IInstallableUnit host, Collection<IRequirement> requirements) {
+		for (IRequirement requirement : requirements) {
+			if (!host.satisfies(requirement))
+				return false;
+		}
+		return true;
+	}
+
 	private static boolean isTranslation(IInstallableUnitFragment fragment) {
 		for (IProvidedCapability capability : fragment.getProvidedCapabilities()) {
 			// TODO make the constant in the TranslationSupport class public and use it
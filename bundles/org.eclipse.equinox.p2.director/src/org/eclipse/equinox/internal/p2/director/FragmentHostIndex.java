@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitFragment;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+
+/**
+ * Associates the fragments of a problem with their potential hosts, the units that satisfy
+ * every host requirement of a fragment, and the other way round. The {@link Projector} builds
+ * the index once when it encodes a problem, and the {@link AttachmentHelper} attaches the
+ * fragments of a solution from the index {@link #restrictTo(Collection, Predicate) restricted}
+ * to that solution. An index is not modified once created.
+ */
+public class FragmentHostIndex {
+	private final Map<IInstallableUnitFragment, Collection<IInstallableUnit>> hostsByFragment;
+	private final Map<IInstallableUnit, List<IInstallableUnitFragment>> fragmentsByHost;
+
+	/**
+	 * Creates an index from the given hosts of each fragment, which must satisfy the host
+	 * requirements of the fragment.
+	 */
+	public FragmentHostIndex(Map<IInstallableUnitFragment, ? extends Collection<IInstallableUnit>> hostsByFragment) {
+		this.hostsByFragment = new HashMap<>(hostsByFragment.size());
+		this.fragmentsByHost = new HashMap<>();
+		for (Map.Entry<IInstallableUnitFragment, ? extends Collection<IInstallableUnit>> entry : hostsByFragment.entrySet()) {
+			IInstallableUnitFragment fragment = entry.getKey();
+			this.hostsByFragment.put(fragment, Collections.unmodifiableCollection(entry.getValue()));
+			for (IInstallableUnit host : entry.getValue()) {
+				List<IInstallableUnitFragment> fragments = fragmentsByHost.get(host);
+				if (fragments == null) {
+					fragments = new ArrayList<>(1);
+					fragmentsByHost.put(host, fragments);
+				}
+				fragments.add(fragment);
+			}
+		}
+	}
+
+	/**
+	 * Indexes the fragments among the given units.
+	 * @param units the units of the problem
+	 * @param matcher returns the units of the problem matching a requirement
+	 */
+	public static FragmentHostIndex create(Collection<IInstallableUnit> units, Function<IRequirement, List<IInstallableUnit>> matcher) {
+		Map<IInstallableUnitFragment, Collection<IInstallableUnit>> hostsByFragment = new HashMap<>();
+		// The fragments of a host, translations for instance, tend to have equal host requirements
+		Map<List<IRequirement>, Collection<IInstallableUnit>> hostsByRequirements = new HashMap<>();
+		for (IInstallableUnit iu : units) {
+			if (!(iu instanceof IInstallableUnitFragment))
+				continue;
+			IInstallableUnitFragment fragment = (IInstallableUnitFragment) iu;
+			List<IRequirement> hostRequirements = new ArrayList<>(fragment.getHost());
+			Collection<IInstallableUnit> hosts = hostsByRequirements.get(hostRequirements);
+			if (hosts == null) {
+				hosts = findHosts(hostRequirements, matcher);
+				hostsByRequirements.put(hostRequirements, hosts);
+			}
+			hostsByFragment.put(fragment, hosts);
+		}
+		return new FragmentHostIndex(hostsByFragment);
+	}
+
+	private static Collection<IInstallableUnit> findHosts(List<IRequirement> hostRequirements, Function<IRequirement, List<IInstallableUnit>> matcher) {
+		if (hostRequirements.isEmpty())
+			return Collections.emptySet();
+		Set<IInstallableUnit> hosts = new LinkedHashSet<>(matcher.apply(hostRequirements.get(0)));
+		for (int i = 1; i < hostRequirements.size() && !hosts.isEmpty(); i++)
+			hosts.retainAll(matcher.apply(hostRequirements.get(i)));
+		return hosts;
+	}
+
+	/**
+	 * Returns the potential hosts of the given fragment.
+	 */
+	public Collection<IInstallableUnit> getHosts(IInstallableUnitFragment fragment) {
+		Collection<IInstallableUnit> hosts = hostsByFragment.get(fragment);
+		return hosts == null ? Collections.<IInstallableUnit> emptySet() : hosts;
+	}
+
+	/**
+	 * Returns the fragments that the given unit can host.
+	 */
+	public List<IInstallableUnitFragment> getFragments(IInstallableUnit host) {
+		List<IInstallableUnitFragment> fragments = fragmentsByHost.get(host);
+		return fragments == null ? Collections.<IInstallableUnitFragment> emptyList() : Collections.unmodifiableList(fragments);
+	}
+
+	/**
+	 * Returns the indexed fragments.
+	 */
+	public Set<IInstallableUnitFragment> getFragments() {
+		return Collections.unmodifiableSet(hostsByFragment.keySet());
+	}
+
+	/**
+	 * Returns an index of the given fragments that are selected, associated with their
+	 * selected hosts. Fragments left without a selected host are not indexed.
+	 */
+	public FragmentHostIndex restrictTo(Collection<IInstallableUnitFragment> fragments, Predicate<IInstallableUnit> selected) {
+		Map<IInstallableUnitFragment, Collection<IInstallableUnit>> restricted = new HashMap<>();
+		for (IInstallableUnitFragment fragment : fragments) {
+			Collection<IInstallableUnit> hosts = hostsByFragment.get(fragment);
+			if (hosts == null || hosts.isEmpty() || !selected.test(fragment))
+				continue;
+			List<IInstallableUnit> selectedHosts = new ArrayList<>(hosts.size());
+			for (IInstallableUnit host : hosts) {
+				if (selected.test(host))
+					selectedHosts.add(host);
+			}
+			if (!selectedHosts.isEmpty())
+				restricted.put(fragment, selectedHosts);
+		}
+		return new FragmentHostIndex(restricted);
+	}
+}
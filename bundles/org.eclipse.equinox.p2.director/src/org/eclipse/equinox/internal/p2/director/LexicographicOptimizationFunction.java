@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.math.BigInteger;
+import java.util.*;
+import org.eclipse.equinox.internal.p2.director.Projector.AbstractVariable;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.sat4j.pb.tools.LexicoHelper;
+import org.sat4j.pb.tools.WeightedObject;
+
+/**
+ * A cheaper alternative to the standard {@link OptimizationFunction}. The standard function
+ * folds all of its goals into a single objective whose weights are powers of the size of the
+ * profile, which quickly become very large integers that slow down every step of the
+ * optimization. This function states the same goals as criteria optimized one after the other,
+ * in order of importance:
+ * <ol>
+ * <li>install the requested patches,</li>
+ * <li>satisfy the optional requirements,</li>
+ * <li>prefer the installed version of each unit, or else its highest version.</li>
+ * </ol>
+ * The version of a unit is weighed by its rank among the versions of the unit in the slice
+ * rather than by a power of that rank, which keeps the weights below the number of versions
+ * of a unit. The two functions only rank solutions differently when the preferred versions
+ * cannot all be installed together: the standard function then rather moves several units one
+ * version down than one unit several versions down, whereas this one minimizes the total
+ * number of versions by which the units are moved down. Criteria that weigh nothing are not
+ * added, so a plain update is optimized in a single round.
+ */
+public class LexicographicOptimizationFunction extends OptimizationFunction {
+	private final List<AbstractVariable> optionalRequirementVariable;
+	private final LexicoHelper<Object, Explanation> dependencyHelper;
+	private final Collection<IInstallableUnit> excluded;
+
+	/**
+	 * @param excluded the units of the slice that are not part of the problem and must not be weighed
+	 */
+	public LexicographicOptimizationFunction(IQueryable<IInstallableUnit> lastState, List<AbstractVariable> abstractVariables, List<AbstractVariable> optionalRequirementVariable, IQueryable<IInstallableUnit> picker, IInstallableUnit selectionContext, Slice slice, LexicoHelper<Object, Explanation> dependencyHelper, Collection<IInstallableUnit> excluded) {
+		super(lastState, abstractVariables, optionalRequirementVariable, picker, selectionContext, slice);
+		this.optionalRequirementVariable = optionalRequirementVariable;
+		this.dependencyHelper = dependencyHelper;
+		this.excluded = excluded;
+	}
+
+	/**
+	 * Adds the criteria to the dependency helper. There is no single objective, so
+	 * <code>null</code> is returned.
+	 */
+	@Override
+	public List<WeightedObject<? extends Object>> createOptimizationFunction(IInstallableUnit metaIu, Collection<IInstallableUnit> newRoots) {
+		//The criteria are maximized by minimizing the number of their objects that are false
+		List<Object> patches = new ArrayList<>();
+		for (IInstallableUnit patch : getRequestedPatches(metaIu))
+			patches.add(dependencyHelper.not(patch));
+		if (!patches.isEmpty())
+			dependencyHelper.addCriterion(patches);
+
+		List<Object> optionals = new ArrayList<>(optionalRequirementVariable.size());
+		for (AbstractVariable var : optionalRequirementVariable)
+			optionals.add(dependencyHelper.not(var));
+		if (!optionals.isEmpty())
+			dependencyHelper.addCriterion(optionals);
+
+		List<WeightedObject<Object>> versions = createVersionWeights(metaIu, newRoots);
+		if (!versions.isEmpty())
+			dependencyHelper.addWeightedCriterion(versions);
+		return null;
+	}
+
+	// Weighs the versions as the standard function does, with the rank of a version in place of a power of it
+	private List<WeightedObject<Object>> createVersionWeights(IInstallableUnit metaIu, Collection<IInstallableUnit> newRoots) {
+		Set<IInstallableUnit> transitiveClosure = computeTransitiveClosure(newRoots);
+		List<WeightedObject<Object>> weightedObjects = new ArrayList<>();
+		for (String id : slice.getIds()) {
+			List<IInstallableUnit> conflictingEntries = slice.getUnits(id);
+			if (conflictingEntries.size() == 1) {
+				IInstallableUnit iu = conflictingEntries.get(0);
+				if (iu != metaIu && !excluded.contains(iu))
+					weightedObjects.add(WeightedObject.newWO((Object) iu, BigInteger.valueOf(2)));
+				continue;
+			}
+
+			Collections.sort(conflictingEntries, Collections.reverseOrder());
+			long rank = 2;
+			boolean foundInstalled = false;
+			boolean foundRoot = false;
+			for (IInstallableUnit iu : conflictingEntries) {
+				long weight = rank++;
+				if (!foundRoot && isInstalled(iu) && !transitiveClosure.contains(iu)) {
+					foundInstalled = true;
+					weight = 1;
+				} else if (!foundInstalled && !foundRoot && isRoot(iu, newRoots)) {
+					foundRoot = true;
+					weight = 1;
+				}
+				if (!excluded.contains(iu))
+					weightedObjects.add(WeightedObject.newWO((Object) iu, BigInteger.valueOf(weight)));
+			}
+		}
+		return weightedObjects;
+	}
+}
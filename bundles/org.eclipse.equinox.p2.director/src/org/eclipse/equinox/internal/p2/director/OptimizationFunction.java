@@ -12,7 +12,6 @@ package org.eclipse.equinox.internal.p2.director;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.Map.Entry;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.equinox.internal.p2.director.Projector.AbstractVariable;
 import org.eclipse.equinox.p2.metadata.*;
@@ -23,12 +22,12 @@ public class OptimizationFunction {
 
 	private IQueryable<IInstallableUnit> picker;
 	private IInstallableUnit selectionContext;
-	protected Map<String, Map<Version, IInstallableUnit>> slice; //The IUs that have been considered to be part of the problem
+	protected Slice slice; //The IUs that have been considered to be part of the problem
 	private int numberOfInstalledIUs; //TODO this should be renamed to consideredIUs or sliceSize
 	private IQueryable<IInstallableUnit> lastState;
 	private List<AbstractVariable> optionalRequirementVariable;
 
-	public OptimizationFunction(IQueryable<IInstallableUnit> lastState, List<AbstractVariable> abstractVariables, List<AbstractVariable> optionalRequirementVariable, IQueryable<IInstallableUnit> picker, IInstallableUnit selectionContext, Map<String, Map<Version, IInstallableUnit>> slice) {
+	public OptimizationFunction(IQueryable<IInstallableUnit> lastState, List<AbstractVariable> abstractVariables, List<AbstractVariable> optionalRequirementVariable, IQueryable<IInstallableUnit> picker, IInstallableUnit selectionContext, Slice slice) {
 		this.lastState = lastState;
 		this.optionalRequirementVariable = optionalRequirementVariable;
 		this.picker = picker;
@@ -41,24 +40,14 @@ public class OptimizationFunction {
 		numberOfInstalledIUs = sizeOf(lastState);
 		List<WeightedObject<? extends Object>> weightedObjects = new ArrayList<>();
 
-		Set<IInstallableUnit> transitiveClosure; //The transitive closure of the IUs we are adding (this also means updating)
-		if (newRoots.isEmpty()) {
-			transitiveClosure = Collections.emptySet();
-		} else {
-			IQueryable<IInstallableUnit> queryable = new Slicer(picker, selectionContext, false).slice(newRoots.toArray(new IInstallableUnit[newRoots.size()]), new NullProgressMonitor());
-			if (queryable == null) {
-				transitiveClosure = Collections.emptySet();
-			} else {
-				transitiveClosure = queryable.query(QueryUtil.ALL_UNITS, new NullProgressMonitor()).toSet();
-			}
-		}
+		Set<IInstallableUnit> transitiveClosure = computeTransitiveClosure(newRoots);
 
-		Set<Entry<String, Map<Version, IInstallableUnit>>> s = slice.entrySet();
+		Set<String> ids = slice.getIds();
 		final BigInteger POWER = BigInteger.valueOf(numberOfInstalledIUs > 0 ? numberOfInstalledIUs + 1 : 2);
 
 		BigInteger maxWeight = POWER;
-		for (Entry<String, Map<Version, IInstallableUnit>> entry : s) {
-			List<IInstallableUnit> conflictingEntries = new ArrayList<>(entry.getValue().values());
+		for (String id : ids) {
+			List<IInstallableUnit> conflictingEntries = slice.getUnits(id);
 			if (conflictingEntries.size() == 1) {
 				//Only one IU exists with the namespace.
 				IInstallableUnit iu = conflictingEntries.get(0);
@@ -93,7 +82,7 @@ public class OptimizationFunction {
 
 		// no need to add one here, since maxWeight is strictly greater than the
 		// maximal weight used so far.
-		maxWeight = maxWeight.multiply(POWER).multiply(BigInteger.valueOf(s.size()));
+		maxWeight = maxWeight.multiply(POWER).multiply(BigInteger.valueOf(ids.size()));
 
 		// Add the optional variables
 		BigInteger optionalVarWeight = maxWeight.negate();
@@ -104,7 +93,29 @@ public class OptimizationFunction {
 		maxWeight = maxWeight.multiply(POWER).add(BigInteger.ONE);
 
 		//Now we deal the optional IUs,
-		long countOptional = 1;
+		List<IInstallableUnit> requestedPatches = getRequestedPatches(metaIu);
+		long countOptional = requestedPatches.size() + 1;
+
+		// and we make sure that patches are always favored
+		BigInteger patchWeight = maxWeight.multiply(POWER).multiply(BigInteger.valueOf(countOptional)).negate();
+		for (Iterator<IInstallableUnit> iterator = requestedPatches.iterator(); iterator.hasNext();) {
+			weightedObjects.add(WeightedObject.newWO(iterator.next(), patchWeight));
+		}
+		return weightedObjects;
+	}
+
+	//The transitive closure of the IUs we are adding (this also means updating)
+	protected Set<IInstallableUnit> computeTransitiveClosure(Collection<IInstallableUnit> newRoots) {
+		if (newRoots.isEmpty())
+			return Collections.emptySet();
+		IQueryable<IInstallableUnit> queryable = new Slicer(picker, selectionContext, false).slice(newRoots.toArray(new IInstallableUnit[newRoots.size()]), new NullProgressMonitor());
+		if (queryable == null)
+			return Collections.emptySet();
+		return queryable.query(QueryUtil.ALL_UNITS, new NullProgressMonitor()).toSet();
+	}
+
+	//The patches optionally requested by the meta IU
+	protected List<IInstallableUnit> getRequestedPatches(IInstallableUnit metaIu) {
 		List<IInstallableUnit> requestedPatches = new ArrayList<>();
 		Collection<IRequirement> reqs = metaIu.getRequirements();
 		for (IRequirement req : reqs) {
@@ -113,26 +124,18 @@ public class OptimizationFunction {
 			IQueryResult<IInstallableUnit> matches = picker.query(QueryUtil.createMatchQuery(req.getMatches()), null);
 			for (Iterator<IInstallableUnit> iterator = matches.iterator(); iterator.hasNext();) {
 				IInstallableUnit match = iterator.next();
-				if (match instanceof IInstallableUnitPatch) {
+				if (match instanceof IInstallableUnitPatch)
 					requestedPatches.add(match);
-					countOptional = countOptional + 1;
-				}
 			}
 		}
-
-		// and we make sure that patches are always favored
-		BigInteger patchWeight = maxWeight.multiply(POWER).multiply(BigInteger.valueOf(countOptional)).negate();
-		for (Iterator<IInstallableUnit> iterator = requestedPatches.iterator(); iterator.hasNext();) {
-			weightedObjects.add(WeightedObject.newWO(iterator.next(), patchWeight));
-		}
-		return weightedObjects;
+		return requestedPatches;
 	}
 
 	protected boolean isInstalled(IInstallableUnit iu) {
 		return !lastState.query(QueryUtil.createIUQuery(iu), null).isEmpty();
 	}
 
-	private boolean isRoot(IInstallableUnit iu, Collection<IInstallableUnit> newRoots) {
+	protected boolean isRoot(IInstallableUnit iu, Collection<IInstallableUnit> newRoots) {
 		return newRoots.contains(iu);
 	}
 
@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
+
+/**
+ * Shrinks the problem given to the {@link Projector} by removing the units of a slice that
+ * cannot be part of an optimal solution:
+ * <ul>
+ * <li>Units that cannot be installed. Starting from the entry point, a greedy requirement of a
+ * unit that must be installed and that has a single applicable match forces that match into the
+ * solution. The versions that conflict with a forced unit through the singleton constraint, the
+ * units excluded by the negative requirements of forced units and the units whose filter does
+ * not match cannot be installed, which in turn may leave other requirements with a single match.</li>
+ * <li>Versions dominated by a newer version of the same unit. A version is dominated when the newer
+ * one has the same requirements, filter and singleton status, when every requirement matching
+ * the older version also matches the newer one and every negative requirement matching the newer
+ * version also matches the older one, and when the older version is neither installed nor a new
+ * root. Any solution holding the older version stays valid and becomes cheaper when the newer
+ * version replaces it.</li>
+ * </ul>
+ * The solutions of the reduced problem are the optimal solutions of the original problem as
+ * long as the optimization function ranks the remaining units as if the removed ones were still
+ * present, see {@link Projector#setReduction(IQueryable, Collection)}. Problems involving
+ * patches are not reduced.
+ */
+public class ProblemReducer {
+	private final IQueryable<IInstallableUnit> slice;
+	private final IInstallableUnit selectionContext;
+	private final Set<IInstallableUnit> nonGreedyIUs;
+	private final boolean considerMetaRequirements;
+	private final RequirementMatchCache matchCache;
+
+	private Map<String, List<IInstallableUnit>> versions;
+	private Set<IInstallableUnit> forced;
+	private Set<IInstallableUnit> eliminated;
+	private int unitCount;
+	private int infeasibleCount;
+	private int dominatedCount;
+	private int eliminatedRequirements;
+
+	public ProblemReducer(IQueryable<IInstallableUnit> slice, Map<String, String> context, Set<IInstallableUnit> nonGreedyIUs, boolean considerMetaRequirements, RequirementMatchCache matchCache) {
+		this.slice = slice;
+		this.selectionContext = InstallableUnit.contextIU(context);
+		this.nonGreedyIUs = nonGreedyIUs;
+		this.considerMetaRequirements = considerMetaRequirements;
+		this.matchCache = matchCache;
+	}
+
+	/**
+	 * Returns a queryable holding the units of the slice that remain once the units that cannot be
+	 * part of an optimal solution are removed, or the slice itself if nothing could be removed.
+	 * @param entryPoint the unit representing the profile, which must be installed
+	 * @param installed the units currently installed in the profile
+	 * @param newRoots the units being added to the profile
+	 */
+	public IQueryable<IInstallableUnit> reduce(IInstallableUnit entryPoint, IQueryable<IInstallableUnit> installed, Collection<IInstallableUnit> newRoots) {
+		versions = new HashMap<>();
+		forced = new HashSet<>();
+		eliminated = new HashSet<>();
+		Set<IInstallableUnit> units = slice.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet();
+		unitCount = units.size();
+		for (IInstallableUnit iu : units) {
+			if (iu instanceof IInstallableUnitPatch)
+				return unchanged();
+			iu = iu.unresolved();
+			List<IInstallableUnit> ius = versions.get(iu.getId());
+			if (ius == null) {
+				ius = new ArrayList<>(1);
+				versions.put(iu.getId(), ius);
+			}
+			ius.add(iu);
+			if (!isApplicable(iu))
+				eliminated.add(iu);
+		}
+
+		if (!propagate(entryPoint.unresolved()))
+			return unchanged();
+		infeasibleCount = eliminated.size();
+		eliminateDominated(installed, newRoots, entryPoint.unresolved());
+		dominatedCount = eliminated.size() - infeasibleCount;
+		if (eliminated.isEmpty())
+			return slice;
+
+		List<IInstallableUnit> remaining = new ArrayList<>(unitCount - eliminated.size());
+		for (IInstallableUnit iu : units) {
+			if (eliminated.contains(iu.unresolved()))
+				eliminatedRequirements += getRequirements(iu.unresolved()).size();
+			else
+				remaining.add(iu);
+		}
+		return new QueryableArray(remaining.toArray(new IInstallableUnit[remaining.size()]));
+	}
+
+	/**
+	 * Returns the units removed from the slice.
+	 */
+	public Collection<IInstallableUnit> getEliminated() {
+		return eliminated == null ? Collections.<IInstallableUnit> emptySet() : Collections.unmodifiableSet(eliminated);
+	}
+
+	/**
+	 * Returns the number of units that had to be installed in any solution.
+	 */
+	public int getForcedCount() {
+		return forced == null ? 0 : forced.size();
+	}
+
+	/**
+	 * Returns the number of units removed because they cannot be installed.
+	 */
+	public int getInfeasibleCount() {
+		return infeasibleCount;
+	}
+
+	/**
+	 * Returns the number of units removed because a newer version dominates them.
+	 */
+	public int getDominatedCount() {
+		return dominatedCount;
+	}
+
+	/**
+	 * Returns the number of requirements of the removed units, which the projector
+	 * does not turn into constraints.
+	 */
+	public int getEliminatedRequirements() {
+		return eliminatedRequirements;
+	}
+
+	@Override
+	public String toString() {
+		return "Problem reduction: " + eliminated.size() + " of " + unitCount + " units eliminated (" + infeasibleCount + " infeasible, " + dominatedCount + " dominated, " + getForcedCount() + " forced), " + eliminatedRequirements + " requirements eliminated"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	}
+
+	private IQueryable<IInstallableUnit> unchanged() {
+		forced.clear();
+		eliminated.clear();
+		return slice;
+	}
+
+	/**
+	 * Finds the units that must be installed and eliminates the ones that they exclude.
+	 * Returns <code>false</code> when the problem turns out to have no solution, which
+	 * is left to the projector to report.
+	 */
+	private boolean propagate(IInstallableUnit entryPoint) {
+		if (!force(entryPoint))
+			return false;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (IInstallableUnit iu : new ArrayList<>(forced)) {
+				for (IRequirement req : getRequirements(iu)) {
+					if (!isApplicable(req))
+						continue;
+					if (req.getMax() == 0) {
+						for (IInstallableUnit match : matchCache.getMatches(slice, req)) {
+							match = match.unresolved();
+							if (forced.contains(match))
+								return false;
+							changed |= eliminated.add(match);
+						}
+						continue;
+					}
+					if (req.getMin() == 0 || !req.isGreedy())
+						continue;
+					IInstallableUnit single = null;
+					int count = 0;
+					for (IInstallableUnit match : matchCache.getMatches(slice, req)) {
+						match = match.unresolved();
+						if (!eliminated.contains(match) && ++count == 1)
+							single = match;
+					}
+					if (count == 0)
+						return false;
+					if (count == 1 && !forced.contains(single)) {
+						if (!force(single))
+							return false;
+						changed = true;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	// Marks the given unit as installed and eliminates the versions it conflicts with
+	private boolean force(IInstallableUnit iu) {
+		forced.add(iu);
+		List<IInstallableUnit> ius = versions.get(iu.getId());
+		if (ius == null)
+			return true;
+		for (IInstallableUnit other : ius) {
+			if (other == iu || !(iu.isSingleton() || other.isSingleton()) || other.getVersion().equals(iu.getVersion()))
+				continue;
+			if (forced.contains(other))
+				return false;
+			eliminated.add(other);
+		}
+		return true;
+	}
+
+	private void eliminateDominated(IQueryable<IInstallableUnit> installed, Collection<IInstallableUnit> newRoots, IInstallableUnit entryPoint) {
+		// The requirements that are part of the problem matching each unit, as indexes into the list of requirements
+		Map<IInstallableUnit, BitSet> positive = new HashMap<>();
+		Map<IInstallableUnit, BitSet> negative = new HashMap<>();
+		Map<IRequirement, Integer> indexes = new HashMap<>();
+		for (List<IInstallableUnit> ius : versions.values()) {
+			for (IInstallableUnit iu : ius) {
+				if (eliminated.contains(iu))
+					continue;
+				for (IRequirement req : getRequirements(iu)) {
+					if (!isApplicable(req) || indexes.containsKey(req))
+						continue;
+					int index = indexes.size();
+					indexes.put(req, Integer.valueOf(index));
+					Map<IInstallableUnit, BitSet> target = req.getMax() == 0 ? negative : positive;
+					for (IInstallableUnit match : matchCache.getMatches(slice, req)) {
+						match = match.unresolved();
+						BitSet bits = target.get(match);
+						if (bits == null) {
+							bits = new BitSet();
+							target.put(match, bits);
+						}
+						bits.set(index);
+					}
+				}
+			}
+		}
+
+		Set<IInstallableUnit> roots = new HashSet<>();
+		for (IInstallableUnit root : newRoots)
+			roots.add(root.unresolved());
+		for (List<IInstallableUnit> ius : versions.values()) {
+			if (ius.size() < 2)
+				continue;
+			List<IInstallableUnit> candidates = new ArrayList<>(ius);
+			candidates.removeAll(eliminated);
+			Collections.sort(candidates, Collections.reverseOrder());
+			for (int i = 1; i < candidates.size(); i++) {
+				IInstallableUnit older = candidates.get(i);
+				if (older == entryPoint || forced.contains(older) || roots.contains(older) || nonGreedyIUs.contains(older) || !installed.query(QueryUtil.createIUQuery(older), null).isEmpty())
+					continue;
+				for (int j = 0; j < i; j++) {
+					IInstallableUnit newer = candidates.get(j);
+					if (newer.getVersion().compareTo(older.getVersion()) > 0 && dominates(newer, older, positive, negative)) {
+						eliminated.add(older);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private boolean dominates(IInstallableUnit newer, IInstallableUnit older, Map<IInstallableUnit, BitSet> positive, Map<IInstallableUnit, BitSet> negative) {
+		if (newer.getClass() != older.getClass() || newer.isSingleton() != older.isSingleton() || nonGreedyIUs.contains(newer))
+			return false;
+		if (!Objects.equals(newer.getFilter(), older.getFilter()))
+			return false;
+		if (!new HashSet<>(getRequirements(newer)).equals(new HashSet<>(getRequirements(older))))
+			return false;
+		return isSubset(positive.get(older), positive.get(newer)) && isSubset(negative.get(newer), negative.get(older));
+	}
+
+	private static boolean isSubset(BitSet subset, BitSet superset) {
+		if (subset == null)
+			return true;
+		if (superset == null)
+			return subset.isEmpty();
+		BitSet difference = (BitSet) subset.clone();
+		difference.andNot(superset);
+		return difference.isEmpty();
+	}
+
+	// The requirements that the projector encodes for a unit
+	private Collection<IRequirement> getRequirements(IInstallableUnit iu) {
+		boolean isFragment = iu instanceof IInstallableUnitFragment;
+		if (!isFragment && (!considerMetaRequirements || iu.getMetaRequirements().isEmpty()))
+			return iu.getRequirements();
+
+		ArrayList<IRequirement> aggregatedRequirements = new ArrayList<>(iu.getRequirements());
+		if (isFragment)
+			aggregatedRequirements.addAll(((IInstallableUnitFragment) iu).getHost());
+		if (considerMetaRequirements)
+			aggregatedRequirements.addAll(iu.getMetaRequirements());
+		return aggregatedRequirements;
+	}
+
+	private boolean isApplicable(IRequirement req) {
+		IMatchExpression<IInstallableUnit> filter = req.getFilter();
+		return filter == null || filter.isMatch(selectionContext);
+	}
+
+	private boolean isApplicable(IInstallableUnit iu) {
+		IMatchExpression<IInstallableUnit> filter = iu.getFilter();
+		return filter == null || filter.isMatch(selectionContext);
+	}
+}
@@ -18,21 +18,26 @@ package org.eclipse.equinox.internal.p2.director;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.*;
-import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.*;
 import org.eclipse.equinox.internal.p2.core.helpers.Tracing;
 import org.eclipse.equinox.internal.p2.director.Explanation.NotInstallableRoot;
 import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
+import org.eclipse.equinox.internal.provisional.p2.director.PlannerStatistics;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
 import org.eclipse.equinox.p2.query.*;
 import org.eclipse.osgi.util.NLS;
 import org.sat4j.minisat.restarts.LubyRestarts;
+import org.sat4j.minisat.restarts.MiniSATRestarts;
 import org.sat4j.pb.*;
 import org.sat4j.pb.core.PBSolverResolution;
 import org.sat4j.pb.tools.*;
 import org.sat4j.specs.*;
+import org.sat4j.specs.TimeoutException;
 
 /**
  * This class is the interface between SAT4J and the planner. It produces a
@@ -50,30 +55,52 @@ public class Projector {
 	 * The default SAT solver timeout (in number of conflicts). See bug 372529 for discussion.
 	 */
 	private static final int DEFAULT_SOLVER_TIMEOUT = 10000;
+	/**
+	 * The name of a Java system property giving the number of differently configured solvers
+	 * that race on the problem. The answer of the first solver to decide the problem is used
+	 * and the others are stopped. A single solver is used unless the value is greater than one.
+	 */
+	private static final String PROP_PROJECTOR_PORTFOLIO = "eclipse.p2.projector.portfolio"; //$NON-NLS-1$
+	/**
+	 * The number of solver configurations available to the portfolio. See {@link #createSolver(int)}.
+	 */
+	private static final int PORTFOLIO_CONFIGURATIONS = 3;
+	/**
+	 * The family of the jobs computing the explanation of a failure to find a solution.
+	 */
+	public static final Object EXPLANATION_JOB_FAMILY = new Object();
 	static boolean DEBUG = Tracing.DEBUG_PLANNER_PROJECTOR;
 	private static boolean DEBUG_ENCODING = Tracing.DEBUG_PLANNER_PROJECTOR_ENCODING;
+	private static boolean DEBUG_MATCH_CACHE = Tracing.DEBUG_PLANNER_MATCH_CACHE;
 	private IQueryable<IInstallableUnit> picker;
+	private RequirementMatchCache matchCache;
 	private QueryableArray patches;
 
 	private List<AbstractVariable> allOptionalAbstractRequirements;
 	private List<AbstractVariable> abstractVariables;
 
-	private Map<String, Map<Version, IInstallableUnit>> slice; //The IUs that have been considered to be part of the problem
+	private Slice slice; //The IUs that have been considered to be part of the problem
 
 	private IInstallableUnit selectionContext;
 
 	DependencyHelper<Object, Explanation> dependencyHelper;
+	private volatile IPBSolver solver;
+	private int solverConfiguration;
 	private Collection<IInstallableUnit> solution;
 	private Collection<Object> assumptions;
+	private int encodedUnits;
 
 	private MultiStatus result;
 
 	private Collection<IInstallableUnit> alreadyInstalledIUs;
 	private IQueryable<IInstallableUnit> lastState;
+	private IInstallableUnit[] alreadyExistingRoots;
+	private Collection<IInstallableUnit> newRoots;
 
 	private boolean considerMetaRequirements;
 	private IInstallableUnit entryPoint;
-	private Map<IInstallableUnitFragment, Set<IInstallableUnit>> fragments = new HashMap<>();
+	private FragmentHostIndex fragmentHosts; //The potential hosts of the fragments of the problem
+	private Set<IInstallableUnitFragment> fragments = new HashSet<>(); //The fragments whose requirements have been encoded
 
 	//Non greedy things
 	private Set<IInstallableUnit> nonGreedyIUs; //All the IUs that would satisfy non greedy dependencies
@@ -82,6 +109,11 @@ public class Projector {
 
 	private boolean emptyBecauseFiltered;
 	private boolean userDefinedFunction;
+	private boolean lexicographicFunction;
+
+	//The problem before it was reduced, see ProblemReducer
+	private IQueryable<IInstallableUnit> unreducedPicker;
+	private Collection<IInstallableUnit> eliminatedIUs = Collections.emptySet();
 
 	static class AbstractVariable {
 		//		private String name;
@@ -115,7 +147,7 @@ public class Projector {
 
 		@Override
 		public boolean belongsTo(Object family) {
-			return family == ExplanationJob.this;
+			return family == ExplanationJob.this || family == EXPLANATION_JOB_FAMILY;
 		}
 
 		@Override
@@ -163,7 +195,7 @@ public class Projector {
 
 	public Projector(IQueryable<IInstallableUnit> q, Map<String, String> context, Set<IInstallableUnit> nonGreedyIUs, boolean considerMetaRequirements) {
 		picker = q;
-		slice = new HashMap<>();
+		matchCache = new RequirementMatchCache(q);
 		selectionContext = InstallableUnit.contextIU(context);
 		abstractVariables = new ArrayList<>();
 		allOptionalAbstractRequirements = new ArrayList<>();
@@ -173,10 +205,29 @@ public class Projector {
 		this.considerMetaRequirements = considerMetaRequirements;
 	}
 
+	// Creates a projector for the problem of the given one that uses another solver configuration
+	private Projector(Projector template, int solverConfiguration) {
+		picker = template.picker;
+		matchCache = template.matchCache;
+		selectionContext = template.selectionContext;
+		abstractVariables = new ArrayList<>();
+		allOptionalAbstractRequirements = new ArrayList<>();
+		result = new MultiStatus(DirectorActivator.PI_DIRECTOR, IStatus.OK, Messages.Planner_Problems_resolving_plan, null);
+		assumptions = new ArrayList<>();
+		nonGreedyIUs = template.nonGreedyIUs;
+		considerMetaRequirements = template.considerMetaRequirements;
+		unreducedPicker = template.unreducedPicker;
+		eliminatedIUs = template.eliminatedIUs;
+		lexicographicFunction = template.lexicographicFunction;
+		this.solverConfiguration = solverConfiguration;
+	}
+
 	@SuppressWarnings("unchecked")
 	public void encode(IInstallableUnit entryPointIU, IInstallableUnit[] alreadyExistingRoots, IQueryable<IInstallableUnit> installedIUs, Collection<IInstallableUnit> newRoots, IProgressMonitor monitor) {
 		alreadyInstalledIUs = Arrays.asList(alreadyExistingRoots);
 		lastState = installedIUs;
+		this.alreadyExistingRoots = alreadyExistingRoots;
+		this.newRoots = newRoots;
 		this.entryPoint = entryPointIU;
 		try {
 			long start = 0;
@@ -194,9 +245,10 @@ public class Projector {
 					mysolver.setRestartStrategy(new LubyRestarts(512));
 					solver = mysolver;
 				} else {
-					solver = SolverFactory.newEclipseP2();
+					solver = createSolver(solverConfiguration);
 				}
 			}
+			this.solver = solver;
 			int timeout = DEFAULT_SOLVER_TIMEOUT;
 			String timeoutString = null;
 			try {
@@ -222,13 +274,16 @@ public class Projector {
 				dependencyHelper = new LexicoHelper<>(solver, false);
 				((UserFriendlyPBStringSolver<Object>) solver).setMapping(dependencyHelper.getMappingToDomain());
 			} else {
-				if (userDefinedFunction)
+				if (userDefinedFunction || lexicographicFunction)
 					dependencyHelper = new SteppedTimeoutLexicoHelper<>(solver);
 				else
 					dependencyHelper = new DependencyHelper<>(solver);
 			}
 			List<IInstallableUnit> iusToOrder = new ArrayList<>(queryResult.toSet());
 			Collections.sort(iusToOrder);
+			encodedUnits = iusToOrder.size();
+			slice = new Slice(encodedUnits);
+			fragmentHosts = FragmentHostIndex.create(iusToOrder, req -> selectApplicable(matchCache.getMatches(picker, req)));
 			for (Iterator<IInstallableUnit> iusToEncode = iusToOrder.iterator(); iusToEncode.hasNext();) {
 				if (monitor.isCanceled()) {
 					result.merge(Status.CANCEL_STATUS);
@@ -250,6 +305,8 @@ public class Projector {
 				long stop = System.currentTimeMillis();
 				Tracing.debug("Projection complete: " + (stop - start)); //$NON-NLS-1$
 			}
+			if (DEBUG_MATCH_CACHE)
+				Tracing.debug("Projector requirement matches: " + matchCache.getHits() + " hits, " + matchCache.getMisses() + " misses"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			if (DEBUG_ENCODING) {
 				System.out.println(solver.toString());
 			}
@@ -283,7 +340,29 @@ public class Projector {
 
 	//Create an optimization function favoring the highest version of each IU
 	private void createStandardOptimizationFunction(IInstallableUnit entryPointIU, Collection<IInstallableUnit> newRoots) {
-		List<WeightedObject<? extends Object>> weights = new OptimizationFunction(lastState, abstractVariables, allOptionalAbstractRequirements, picker, selectionContext, slice).createOptimizationFunction(entryPointIU, newRoots);
+		if (unreducedPicker == null) {
+			if (lexicographicFunction) {
+				new LexicographicOptimizationFunction(lastState, abstractVariables, allOptionalAbstractRequirements, picker, selectionContext, slice, (LexicoHelper<Object, Explanation>) dependencyHelper, eliminatedIUs).createOptimizationFunction(entryPointIU, newRoots);
+				return;
+			}
+			List<WeightedObject<? extends Object>> weights = new OptimizationFunction(lastState, abstractVariables, allOptionalAbstractRequirements, picker, selectionContext, slice).createOptimizationFunction(entryPointIU, newRoots);
+			createObjectiveFunction(weights);
+			return;
+		}
+
+		//Weigh the versions as if the eliminated IUs were still part of the problem, and leave the eliminated IUs out
+		Slice unreducedSlice = new Slice(slice);
+		for (IInstallableUnit iu : eliminatedIUs)
+			unreducedSlice.add(iu);
+		if (lexicographicFunction) {
+			new LexicographicOptimizationFunction(lastState, abstractVariables, allOptionalAbstractRequirements, unreducedPicker, selectionContext, unreducedSlice, (LexicoHelper<Object, Explanation>) dependencyHelper, eliminatedIUs).createOptimizationFunction(entryPointIU, newRoots);
+			return;
+		}
+		List<WeightedObject<? extends Object>> weights = new OptimizationFunction(lastState, abstractVariables, allOptionalAbstractRequirements, unreducedPicker, selectionContext, unreducedSlice).createOptimizationFunction(entryPointIU, newRoots);
+		for (Iterator<WeightedObject<? extends Object>> iterator = weights.iterator(); iterator.hasNext();) {
+			if (eliminatedIUs.contains(iterator.next().thing))
+				iterator.remove();
+		}
 		createObjectiveFunction(weights);
 	}
 
@@ -360,16 +439,9 @@ public class Projector {
 	}
 
 	private void determinePotentialHostsForFragment(IInstallableUnit iu) {
-		// determine matching hosts only for fragments
-		if (!(iu instanceof IInstallableUnitFragment))
-			return;
-
-		IInstallableUnitFragment fragment = (IInstallableUnitFragment) iu;
-		// for each host requirement, find matches and remember them 
-		for (IRequirement req : fragment.getHost()) {
-			List<IInstallableUnit> matches = getApplicableMatches(req);
-			rememberHostMatches((IInstallableUnitFragment) iu, matches);
-		}
+		// the matching hosts of the fragments are in the index, remember the fragment to look them up
+		if (iu instanceof IInstallableUnitFragment && !fragmentHosts.getHosts((IInstallableUnitFragment) iu).isEmpty())
+			fragments.add((IInstallableUnitFragment) iu);
 	}
 
 	private void expandRequirement(IRequirement req, IInstallableUnit iu, List<AbstractVariable> optionalAbstractRequirements, boolean isRootIu) throws ContradictionException {
@@ -465,12 +537,7 @@ public class Projector {
 
 	public void processIU(IInstallableUnit iu, boolean isRootIU) throws ContradictionException {
 		iu = iu.unresolved();
-		Map<Version, IInstallableUnit> iuSlice = slice.get(iu.getId());
-		if (iuSlice == null) {
-			iuSlice = new HashMap<>();
-			slice.put(iu.getId(), iuSlice);
-		}
-		iuSlice.put(iu.getVersion(), iu);
+		slice.add(iu);
 		if (!isApplicable(iu)) {
 			createNegation(iu, null);
 			return;
@@ -829,15 +896,20 @@ public class Projector {
 	 * @return a list of mandatory requirements if any, an empty list if req.isOptional().
 	 */
 	private List<IInstallableUnit> getApplicableMatches(IRequirement req) {
+		List<IInstallableUnit> matches = matchCache.getMatches(picker, req);
+		List<IInstallableUnit> target = selectApplicable(matches);
+		emptyBecauseFiltered = !matches.isEmpty() && target.isEmpty();
+		return target;
+	}
+
+	private List<IInstallableUnit> selectApplicable(List<IInstallableUnit> matches) {
 		List<IInstallableUnit> target = new ArrayList<>();
-		IQueryResult<IInstallableUnit> matches = picker.query(QueryUtil.createMatchQuery(req.getMatches()), null);
-		for (Iterator<IInstallableUnit> iterator = matches.iterator(); iterator.hasNext();) {
-			IInstallableUnit match = iterator.next();
+		for (int i = 0; i < matches.size(); i++) {
+			IInstallableUnit match = matches.get(i);
 			if (isApplicable(match)) {
 				target.add(match);
 			}
 		}
-		emptyBecauseFiltered = !matches.isEmpty() && target.isEmpty();
 		return target;
 	}
 
@@ -917,13 +989,11 @@ public class Projector {
 	//Create constraints to deal with singleton
 	//When there is a mix of singleton and non singleton, several constraints are generated
 	private void createConstraintsForSingleton() throws ContradictionException {
-		Set<Entry<String, Map<Version, IInstallableUnit>>> s = slice.entrySet();
-		for (Entry<String, Map<Version, IInstallableUnit>> entry : s) {
-			Map<Version, IInstallableUnit> conflictingEntries = entry.getValue();
-			if (conflictingEntries.size() < 2)
+		for (String id : slice.getIds()) {
+			List<IInstallableUnit> conflictingVersions = slice.getUnits(id);
+			if (conflictingVersions.size() < 2)
 				continue;
 
-			Collection<IInstallableUnit> conflictingVersions = conflictingEntries.values();
 			List<IInstallableUnit> singletons = new ArrayList<>();
 			List<IInstallableUnit> nonSingletons = new ArrayList<>();
 			for (IInstallableUnit iu : conflictingVersions) {
@@ -982,9 +1052,141 @@ public class Projector {
 		return v;
 	}
 
+	/**
+	 * Returns a solver for the standard optimization function. The configurations beyond the
+	 * first one are only used when several solvers race on the problem.
+	 */
+	private static IPBSolver createSolver(int configuration) {
+		if (configuration == 0)
+			return SolverFactory.newEclipseP2();
+		PBSolverResolution solver = SolverFactory.newCompetPBResLongWLMixedConstraintsObjectiveExpSimp();
+		solver.setSimplifier(solver.SIMPLE_SIMPLIFICATION);
+		if (configuration == 1)
+			solver.setRestartStrategy(new LubyRestarts(512));
+		else
+			solver.setRestartStrategy(new MiniSATRestarts());
+		return solver;
+	}
+
 	public IStatus invokeSolver(IProgressMonitor monitor) {
 		if (result.getSeverity() == IStatus.ERROR)
 			return result;
+		int portfolio = getPortfolioSize();
+		if (portfolio > 1 && !userDefinedFunction && !DEBUG_ENCODING)
+			return invokePortfolio(portfolio, monitor);
+		return solve(monitor);
+	}
+
+	/**
+	 * Races this projector against projectors that encode the same problem for differently
+	 * configured solvers. The first projector to decide the problem wins, the others are
+	 * stopped and this projector takes over the solution or the failure of the winner.
+	 */
+	private IStatus invokePortfolio(int size, IProgressMonitor monitor) {
+		List<Projector> members = new ArrayList<>(size);
+		members.add(this);
+		for (int i = 1; i < size; i++)
+			members.add(new Projector(this, i));
+
+		// Canceled to stop the members that are still encoding
+		IProgressMonitor stopMonitor = new NullProgressMonitor();
+		List<CompletableFuture<Projector>> running = new ArrayList<>(size);
+		for (Projector member : members) {
+			running.add(WorkerPool.submit(() -> {
+				if (member != this) {
+					member.encode(entryPoint, alreadyExistingRoots, lastState, newRoots, stopMonitor);
+					if (member.result.getSeverity() == IStatus.ERROR)
+						return member;
+				}
+				member.solve(stopMonitor);
+				return member;
+			}));
+		}
+
+		Projector winner = null;
+		try {
+			List<CompletableFuture<Projector>> pending = new ArrayList<>(running);
+			while (!pending.isEmpty() && winner == null) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				if (!await(CompletableFuture.anyOf(pending.toArray(new CompletableFuture<?>[pending.size()]))))
+					continue;
+				for (Iterator<CompletableFuture<Projector>> itor = pending.iterator(); itor.hasNext() && winner == null;) {
+					CompletableFuture<Projector> done = itor.next();
+					if (!done.isDone())
+						continue;
+					itor.remove();
+					// A member that failed is ignored, the others may still succeed
+					Projector member = done.isCompletedExceptionally() ? null : done.join();
+					if (member != null && (member.solution != null || member.result.getCode() == SimplePlanner.UNSATISFIABLE))
+						winner = member;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			stop(members, stopMonitor, running);
+		}
+
+		// Without a winner the status of this projector tells why the problem was not decided
+		if (winner != null && winner != this) {
+			dependencyHelper = winner.dependencyHelper;
+			solver = winner.solver;
+			solution = winner.solution;
+			fragmentHosts = winner.fragmentHosts;
+			fragments = winner.fragments;
+			assumptions = winner.assumptions;
+			encodedUnits = winner.encodedUnits;
+			slice = winner.slice;
+			result = winner.result;
+		}
+		if (DEBUG && winner != null)
+			Tracing.debug("Portfolio decided by solver configuration " + winner.solverConfiguration); //$NON-NLS-1$
+		return result;
+	}
+
+	// Stops the members and waits for them to finish so that none of them changes its state afterwards
+	private static void stop(List<Projector> members, IProgressMonitor stopMonitor, List<CompletableFuture<Projector>> running) {
+		stopMonitor.setCanceled(true);
+		CompletableFuture<Void> all = CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[running.size()]));
+		try {
+			do {
+				// A member that starts solving after its timeout was expired is stopped in the next round
+				for (Projector member : members) {
+					IPBSolver memberSolver = member.solver;
+					if (memberSolver != null)
+						memberSolver.expireTimeout();
+				}
+			} while (!await(all));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Waits a little for the given future to complete, normally or not, and tells whether it did.
+	// Waiting on a thread of the shared pool lets the pool add a thread for the members.
+	private static boolean await(CompletableFuture<?> future) throws InterruptedException {
+		try {
+			future.get(100, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException | java.util.concurrent.TimeoutException e) {
+			// The caller looks at the outcome of each member
+		}
+		return future.isDone();
+	}
+
+	private static int getPortfolioSize() {
+		String value = DirectorActivator.context == null ? null : DirectorActivator.context.getProperty(PROP_PROJECTOR_PORTFOLIO);
+		if (value != null) {
+			try {
+				return Math.min(Integer.parseInt(value.trim()), PORTFOLIO_CONFIGURATIONS);
+			} catch (NumberFormatException e) {
+				// Fall through to a single solver
+			}
+		}
+		return 1;
+	}
+
+	private IStatus solve(IProgressMonitor monitor) {
 		// CNF filename is given on the command line
 		long start = System.currentTimeMillis();
 		if (DEBUG)
@@ -1019,6 +1221,19 @@ public class Projector {
 		return result;
 	}
 
+	/**
+	 * Records the size of the encoded problem and the statistics of the solver that decided it.
+	 */
+	public void collectStatistics(PlannerStatistics statistics) {
+		statistics.setSliceSize(encodedUnits);
+		IPBSolver decidingSolver = solver;
+		if (decidingSolver == null)
+			return;
+		statistics.setVariables(decidingSolver.nVars());
+		statistics.setConstraints(decidingSolver.nConstraints());
+		statistics.setSolverStatistics(decidingSolver.getStat());
+	}
+
 	private void backToIU() {
 		solution = new ArrayList<>();
 		IVec<Object> sat4jSolution = dependencyHelper.getSolution();
@@ -1043,18 +1258,34 @@ public class Projector {
 		}
 	}
 
+	/**
+	 * Returns a copy of the units selected by the solver. The same projector may be asked
+	 * for its solution more than once when the planner reuses it for an identical problem.
+	 */
 	public Collection<IInstallableUnit> extractSolution() {
 		if (DEBUG)
 			printSolution(solution);
-		return solution;
+		return new ArrayList<>(solution);
 	}
 
 	public Set<Explanation> getExplanation(IProgressMonitor monitor) {
+		return getExplanation(monitor, 0);
+	}
+
+	/**
+	 * Computes the explanation of the failure to find a solution. When the given budget
+	 * elapses before the explanation is complete, the computation is stopped and the
+	 * possibly larger than necessary set of explanations found so far is returned.
+	 * @param monitor the monitor used to cancel the computation
+	 * @param budget the number of milliseconds after which to stop, or 0 to wait for the complete explanation
+	 */
+	public Set<Explanation> getExplanation(IProgressMonitor monitor, long budget) {
 		ExplanationJob job = new ExplanationJob();
 		job.schedule();
 		monitor.setTaskName(Messages.Planner_NoSolution);
 		IProgressMonitor pm = new InfiniteProgress(monitor);
 		pm.beginTask(Messages.Planner_NoSolution, 1000);
+		long start = System.currentTimeMillis();
 		try {
 			synchronized (job) {
 				while (job.getExplanationResult() == null && job.getState() != Job.NONE) {
@@ -1062,6 +1293,12 @@ public class Projector {
 						job.cancel();
 						throw new OperationCanceledException();
 					}
+					if (budget > 0 && System.currentTimeMillis() - start >= budget) {
+						if (DEBUG)
+							Tracing.debug("Explanation budget of " + budget + "ms elapsed"); //$NON-NLS-1$ //$NON-NLS-2$
+						job.cancel();
+						budget = 0;
+					}
 					pm.worked(1);
 					try {
 						job.wait(100);
@@ -1074,37 +1311,90 @@ public class Projector {
 		} finally {
 			monitor.done();
 		}
-		return job.getExplanationResult();
+		Set<Explanation> explanation = job.getExplanationResult();
+		return explanation == null ? Collections.<Explanation> emptySet() : explanation;
 	}
 
-	public Map<IInstallableUnitFragment, List<IInstallableUnit>> getFragmentAssociation() {
-		Map<IInstallableUnitFragment, List<IInstallableUnit>> resolvedFragments = new HashMap<>(fragments.size());
-		for (Entry<IInstallableUnitFragment, Set<IInstallableUnit>> fragment : fragments.entrySet()) {
-			if (!dependencyHelper.getBooleanValueFor(fragment.getKey()))
-				continue;
-			Set<IInstallableUnit> potentialHosts = fragment.getValue();
-			List<IInstallableUnit> resolvedHost = new ArrayList<>(potentialHosts.size());
-			for (IInstallableUnit host : potentialHosts) {
-				if (dependencyHelper.getBooleanValueFor(host))
-					resolvedHost.add(host);
+	/**
+	 * Computes the explanation of the failure to find a solution in the background. The returned
+	 * future completes with the explanation once it is found or, when the given budget elapses
+	 * first, with the possibly larger than necessary set of explanations found so far.
+	 * Cancelling the future stops the computation.
+	 * @param budget the number of milliseconds after which to stop, or 0 to wait for the complete explanation
+	 */
+	public CompletableFuture<Set<Explanation>> getExplanationInBackground(long budget) {
+		final ExplanationJob job = new ExplanationJob();
+		final Job timer = budget <= 0 ? null : new Job(Messages.Planner_NoSolution) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (DEBUG)
+					Tracing.debug("Explanation budget elapsed"); //$NON-NLS-1$
+				job.cancel();
+				return Status.OK_STATUS;
+			}
+		};
+		final CompletableFuture<Set<Explanation>> result = new CompletableFuture<Set<Explanation>>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				job.cancel();
+				return super.cancel(mayInterruptIfRunning);
 			}
-			if (resolvedHost.size() != 0)
-				resolvedFragments.put(fragment.getKey(), resolvedHost);
+		};
+		job.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				if (timer != null)
+					timer.cancel();
+				Set<Explanation> explanation = job.getExplanationResult();
+				result.complete(explanation == null ? Collections.<Explanation> emptySet() : explanation);
+			}
+		});
+		job.schedule();
+		if (timer != null) {
+			timer.setSystem(true);
+			timer.schedule(budget);
 		}
-		return resolvedFragments;
+		return result;
 	}
 
-	private void rememberHostMatches(IInstallableUnitFragment fragment, List<IInstallableUnit> matches) {
-		Set<IInstallableUnit> existingMatches = fragments.get(fragment);
-		if (existingMatches == null) {
-			existingMatches = new HashSet<>();
-			fragments.put(fragment, existingMatches);
-			existingMatches.addAll(matches);
-		}
-		existingMatches.retainAll(matches);
+
+	/**
+	 * Returns the fragments of the solution associated with the hosts of the solution they can attach to.
+	 */
+	public FragmentHostIndex getFragmentAssociation() {
+		return fragmentHosts.restrictTo(fragments, iu -> dependencyHelper.getBooleanValueFor(iu));
 	}
 
 	public void setUserDefined(boolean containsKey) {
 		userDefinedFunction = containsKey;
 	}
+
+	/**
+	 * Selects the {@link LexicographicOptimizationFunction} in place of the standard optimization
+	 * function. Must be called before {@link #encode}.
+	 */
+	public void setLexicographicOptimization(boolean lexicographic) {
+		lexicographicFunction = lexicographic;
+	}
+
+	/**
+	 * Sets the cache used to look up the units matching a requirement. This is typically
+	 * the cache of the slicer {@link RequirementMatchCache#restrictTo(IQueryable) restricted}
+	 * to the queryable given to this projector.
+	 */
+	public void setMatchCache(RequirementMatchCache matchCache) {
+		this.matchCache = matchCache;
+	}
+
+	/**
+	 * Indicates that the queryable given to this projector is the result of a {@link ProblemReducer reduction}.
+	 * The standard optimization function then ranks the versions of each IU as it would have for the
+	 * original problem, so that the optimal solutions of both problems are the same.
+	 * @param unreduced the queryable before the reduction
+	 * @param eliminated the IUs removed by the reduction
+	 */
+	public void setReduction(IQueryable<IInstallableUnit> unreduced, Collection<IInstallableUnit> eliminated) {
+		unreducedPicker = unreduced;
+		eliminatedIUs = eliminated;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.equinox.internal.p2.core.helpers.CollectionUtils;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
+
+/**
+ * Remembers the installable units that satisfy the match expression of a requirement
+ * in a given queryable. Requirements with equal match expressions share an entry.
+ * All entries are discarded when the cache is asked about a different queryable.
+ * <p>
+ * A cache populated by the slicer can be {@link #restrictTo(IQueryable) restricted}
+ * to the resulting slice, in which case the projector answers requirements that the
+ * slicer already expanded without querying again.
+ * </p><p>
+ * Lookups may be done concurrently. Two threads asking about the same requirement at the
+ * same time may both query but end up with equal matches.
+ * </p>
+ */
+public class RequirementMatchCache {
+	private static final IInstallableUnit[] NO_UNITS = new IInstallableUnit[0];
+
+	private volatile IQueryable<IInstallableUnit> queryable;
+	private final Map<IMatchExpression<IInstallableUnit>, IInstallableUnit[]> matches = new ConcurrentHashMap<>();
+
+	// When restricted, the cache of the super set along with the members of the
+	// queryable (mapped to themselves to find the instance to return) and the
+	// members that could not be found through the parent.
+	private RequirementMatchCache parent;
+	private Map<IInstallableUnit, IInstallableUnit> members;
+	private IInstallableUnit[] extras;
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	public RequirementMatchCache(IQueryable<IInstallableUnit> queryable) {
+		this.queryable = queryable;
+	}
+
+	/**
+	 * Returns the units of the given queryable that match the given requirement. The
+	 * applicability of the units in the current selection context is not checked.
+	 * A lookup counts as a hit when it is answered without querying.
+	 */
+	public List<IInstallableUnit> getMatches(IQueryable<IInstallableUnit> source, IRequirement req) {
+		if (source != queryable)
+			reset(source);
+		IMatchExpression<IInstallableUnit> key = req.getMatches();
+		IInstallableUnit[] units = matches.get(key);
+		if (units == null) {
+			units = parent == null ? null : parent.matches.get(key);
+			if (units == null) {
+				misses.incrementAndGet();
+				units = query(key);
+			} else {
+				hits.incrementAndGet();
+				units = restrict(key, units);
+			}
+			matches.put(key, units);
+		} else
+			hits.incrementAndGet();
+		return CollectionUtils.unmodifiableList(units);
+	}
+
+	/**
+	 * Creates a cache for a queryable that holds a subset of the units held by the queryable of
+	 * this cache. Entries present in this cache are used to answer the requests made to the new one.
+	 */
+	public RequirementMatchCache restrictTo(IQueryable<IInstallableUnit> subset) {
+		Set<IInstallableUnit> known = new HashSet<>();
+		for (IInstallableUnit[] units : matches.values())
+			known.addAll(Arrays.asList(units));
+
+		RequirementMatchCache restricted = new RequirementMatchCache(subset);
+		restricted.parent = this;
+		restricted.members = new HashMap<>();
+		ArrayList<IInstallableUnit> unknown = new ArrayList<>();
+		for (Iterator<IInstallableUnit> itor = subset.query(QueryUtil.createIUAnyQuery(), null).iterator(); itor.hasNext();) {
+			IInstallableUnit iu = itor.next();
+			if (restricted.members.containsKey(iu))
+				continue;
+			restricted.members.put(iu, iu);
+			if (!known.contains(iu))
+				unknown.add(iu);
+		}
+		restricted.extras = unknown.toArray(new IInstallableUnit[unknown.size()]);
+		return restricted;
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	private IInstallableUnit[] query(IMatchExpression<IInstallableUnit> key) {
+		return queryable.query(QueryUtil.createMatchQuery(key), null).toArray(IInstallableUnit.class);
+	}
+
+	// The units of the subset that match are the ones that matched in the super set
+	// plus the ones that the super set does not know about.
+	private IInstallableUnit[] restrict(IMatchExpression<IInstallableUnit> key, IInstallableUnit[] superSetMatches) {
+		Set<IInstallableUnit> result = new LinkedHashSet<>();
+		for (IInstallableUnit match : superSetMatches) {
+			IInstallableUnit member = members.get(match);
+			if (member != null)
+				result.add(member);
+		}
+		for (IInstallableUnit extra : extras)
+			if (key.isMatch(extra))
+				result.add(extra);
+		return result.isEmpty() ? NO_UNITS : result.toArray(new IInstallableUnit[result.size()]);
+	}
+
+	private synchronized void reset(IQueryable<IInstallableUnit> source) {
+		if (source == queryable)
+			return;
+		queryable = source;
+		matches.clear();
+		parent = null;
+		members = null;
+		extras = null;
+	}
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
+
+/**
+ * Keeps what the planner computed for the most recently used sets of available units so
+ * that the next resolution over the same units does not start from scratch.
+ * <p>
+ * For each set of available units the cache holds the indexed queryable and the
+ * {@link RequirementMatchCache} populated while slicing and encoding. A request that only
+ * differs from a previous one by some of its roots therefore finds the matches of most of
+ * its requirements without querying. Successful resolutions are kept as well, along with
+ * everything that determines them, and are handed out again for an identical problem.
+ * </p><p>
+ * Units are compared by identity. Reloading a repository or changing a profile yields new
+ * instances and thus a fresh resolution. The cached state is held softly.
+ * </p>
+ */
+class ResolutionCache {
+	private static final int MAX_ENTRIES = 4;
+	private static final int MAX_SOLUTIONS = 4;
+
+	/**
+	 * Everything that determines the outcome of a resolution over a given set of available units.
+	 */
+	static final class Key {
+		private final Set<IRequirement> requirements;
+		private final Set<IInstallableUnit> existingRoots;
+		private final Set<IInstallableUnit> additions;
+		private final Set<IInstallableUnit> installed;
+		private final Map<String, String> selectionContext;
+		private final boolean considerMetaRequirements;
+		private final boolean userDefined;
+		private final boolean lexicographic;
+		private final int hash;
+
+		Key(IInstallableUnit entryPoint, IInstallableUnit[] existingRoots, Collection<IInstallableUnit> additions, IQueryable<IInstallableUnit> installed, Map<String, String> selectionContext, boolean considerMetaRequirements, boolean userDefined, boolean lexicographic) {
+			this.requirements = new HashSet<>(entryPoint.getRequirements());
+			this.existingRoots = identitySet(Arrays.asList(existingRoots));
+			this.additions = identitySet(additions);
+			this.installed = identitySet(installed.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet());
+			this.selectionContext = new HashMap<>(selectionContext);
+			this.considerMetaRequirements = considerMetaRequirements;
+			this.userDefined = userDefined;
+			this.lexicographic = lexicographic;
+			hash = Objects.hash(requirements, this.existingRoots, this.additions, this.installed, this.selectionContext, Boolean.valueOf(considerMetaRequirements), Boolean.valueOf(userDefined), Boolean.valueOf(lexicographic));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && considerMetaRequirements == other.considerMetaRequirements && userDefined == other.userDefined && lexicographic == other.lexicographic && requirements.equals(other.requirements) && existingRoots.equals(other.existingRoots) && additions.equals(other.additions) && installed.equals(other.installed) && selectionContext.equals(other.selectionContext);
+		}
+	}
+
+	/**
+	 * The state kept for one set of available units. An entry is used by one resolution at a time.
+	 */
+	static final class Entry {
+		private final Set<IInstallableUnit> units;
+		private final QueryableArray queryable;
+		private final RequirementMatchCache matchCache;
+		private final Map<Key, Projector> solutions = new LinkedHashMap<Key, Projector>(MAX_SOLUTIONS + 1, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Projector> eldest) {
+				return size() > MAX_SOLUTIONS;
+			}
+		};
+
+		Entry(IInstallableUnit[] availableIUs) {
+			units = identitySet(Arrays.asList(availableIUs));
+			queryable = new QueryableArray(availableIUs);
+			matchCache = new RequirementMatchCache(queryable);
+		}
+
+		/**
+		 * Returns the queryable holding the available units.
+		 */
+		IQueryable<IInstallableUnit> getQueryable() {
+			return queryable;
+		}
+
+		/**
+		 * Returns the cache holding the requirement matches found in the queryable of this entry.
+		 */
+		RequirementMatchCache getMatchCache() {
+			return matchCache;
+		}
+
+		/**
+		 * Returns the projector that solved the problem described by the given key, or
+		 * <code>null</code> if that problem has not been solved over these units.
+		 */
+		Projector getSolution(Key key) {
+			return solutions.get(key);
+		}
+
+		void putSolution(Key key, Projector projector) {
+			solutions.put(key, projector);
+		}
+
+		boolean holds(IInstallableUnit[] availableIUs) {
+			if (units.size() != availableIUs.length)
+				return false;
+			for (IInstallableUnit iu : availableIUs)
+				if (!units.contains(iu))
+					return false;
+			return true;
+		}
+	}
+
+	private final boolean enabled;
+	private final LinkedList<SoftReference<Entry>> entries = new LinkedList<>();
+
+	ResolutionCache(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the entry for the given available units and withdraws it from the cache until
+	 * it is {@link #checkIn(Entry) checked in} again. A new entry is created if there is none.
+	 */
+	Entry checkOut(IInstallableUnit[] availableIUs) {
+		if (enabled) {
+			synchronized (entries) {
+				for (Iterator<SoftReference<Entry>> itor = entries.iterator(); itor.hasNext();) {
+					Entry entry = itor.next().get();
+					if (entry == null) {
+						itor.remove();
+						continue;
+					}
+					if (entry.holds(availableIUs)) {
+						itor.remove();
+						return entry;
+					}
+				}
+			}
+		}
+		return new Entry(availableIUs);
+	}
+
+	/**
+	 * Makes the given entry available to subsequent resolutions. The entry becomes the most
+	 * recently used one and replaces any entry created for the same units in the meantime.
+	 */
+	void checkIn(Entry entry) {
+		if (!enabled)
+			return;
+		synchronized (entries) {
+			for (Iterator<SoftReference<Entry>> itor = entries.iterator(); itor.hasNext();) {
+				Entry existing = itor.next().get();
+				if (existing == null || existing.units.equals(entry.units))
+					itor.remove();
+			}
+			entries.addFirst(new SoftReference<>(entry));
+			while (entries.size() > MAX_ENTRIES)
+				entries.removeLast();
+		}
+	}
+
+	static Set<IInstallableUnit> identitySet(Collection<IInstallableUnit> ius) {
+		Set<IInstallableUnit> result = Collections.newSetFromMap(new IdentityHashMap<IInstallableUnit, Boolean>(ius.size()));
+		result.addAll(ius);
+		return result;
+	}
+}
@@ -15,15 +15,17 @@ package org.eclipse.equinox.internal.p2.director;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.internal.p2.core.helpers.LogHelper;
 import org.eclipse.equinox.internal.p2.core.helpers.Tracing;
 import org.eclipse.equinox.internal.p2.director.Explanation.MissingIU;
 import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
 import org.eclipse.equinox.internal.p2.metadata.query.UpdateQuery;
 import org.eclipse.equinox.internal.p2.rollback.FormerState;
-import org.eclipse.equinox.internal.provisional.p2.director.PlannerStatus;
-import org.eclipse.equinox.internal.provisional.p2.director.RequestStatus;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.IProvisioningEventBus;
+import org.eclipse.equinox.internal.provisional.p2.director.*;
 import org.eclipse.equinox.p2.core.IAgentLocation;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.engine.*;
@@ -42,13 +44,23 @@ public class SimplePlanner implements IPlanner {
 	public static final String INCLUSION_RULES = "org.eclipse.equinox.p2.internal.inclusion.rules"; //$NON-NLS-1$
 	private static final String ID_IU_FOR_ACTIONS = "org.eclipse.equinox.p2.engine.actions.root"; //$NON-NLS-1$
 	private static final String EXPLANATION = "org.eclipse.equinox.p2.director.explain"; //$NON-NLS-1$
+	private static final String EXPLANATION_BACKGROUND = "org.eclipse.equinox.p2.director.explain.background"; //$NON-NLS-1$
+	private static final String EXPLANATION_TIMEOUT = "org.eclipse.equinox.p2.director.explain.timeout"; //$NON-NLS-1$
+	// The name of the context property selecting the optimization function, set to OPTIMIZATION_LEXICOGRAPHIC for the LexicographicOptimizationFunction
+	private static final String OPTIMIZATION = "org.eclipse.equinox.p2.planner.optimization"; //$NON-NLS-1$
+	private static final String OPTIMIZATION_LEXICOGRAPHIC = "lexicographic"; //$NON-NLS-1$
 	private static final String CONSIDER_METAREQUIREMENTS = "org.eclipse.equinox.p2.planner.resolveMetaRequirements"; //$NON-NLS-1$
+	// The name of the system property that can be set to false to stop reusing the work done by previous resolutions
+	private static final String PROP_RESOLUTION_CACHE = "eclipse.p2.planner.resolutionCache"; //$NON-NLS-1$
+	private static final String PROP_REDUCE = "eclipse.p2.planner.reduce"; //$NON-NLS-1$
+	private static final String PROP_PARALLELISM = "eclipse.p2.planner.parallelism"; //$NON-NLS-1$
 
 	static final int UNSATISFIABLE = 1; //status code indicating that the problem is not satisfiable
 
 	private final IProvisioningAgent agent;
 	private final IProfileRegistry profileRegistry;
 	private final IEngine engine;
+	private final ResolutionCache resolutionCache;
 
 	private IProvisioningPlan generateProvisioningPlan(Collection<IInstallableUnit> fromState, Collection<IInstallableUnit> toState, ProfileChangeRequest changeRequest, IProvisioningPlan installerPlan, ProvisioningContext context) {
 		IProvisioningPlan plan = engine.createPlan(changeRequest.getProfile(), context);
@@ -249,6 +261,10 @@ public class SimplePlanner implements IPlanner {
 	}
 
 	private IInstallableUnit[] gatherAvailableInstallableUnits(IInstallableUnit[] additionalSource, ProvisioningContext context, IProgressMonitor monitor) {
+		return gatherAvailableInstallableUnits(additionalSource, context, queryMetadata(context, monitor));
+	}
+
+	private IInstallableUnit[] gatherAvailableInstallableUnits(IInstallableUnit[] additionalSource, ProvisioningContext context, IInstallableUnit[] metadata) {
 		Map<String, IInstallableUnit> resultsMap = new HashMap<>();
 		if (additionalSource != null) {
 			for (int i = 0; i < additionalSource.length; i++) {
@@ -256,29 +272,34 @@ public class SimplePlanner implements IPlanner {
 				resultsMap.put(key, additionalSource[i]);
 			}
 		}
-		if (context == null) {
-			context = new ProvisioningContext(agent);
-		} else {
+		if (context != null) {
 			for (IInstallableUnit iu : context.getExtraInstallableUnits()) {
 				String key = iu.getId() + '_' + iu.getVersion().toString();
 				resultsMap.put(key, iu);
 			}
 		}
-		SubMonitor sub = SubMonitor.convert(monitor, 1000);
-		IQueryable<IInstallableUnit> queryable = context.getMetadata(sub.newChild(500));
-		IQueryResult<IInstallableUnit> matches = queryable.query(QueryUtil.createIUQuery(null, VersionRange.emptyRange), sub.newChild(500));
-		for (Iterator<IInstallableUnit> it = matches.iterator(); it.hasNext();) {
-			IInstallableUnit iu = it.next();
+		for (IInstallableUnit iu : metadata) {
 			String key = iu.getId() + "_" + iu.getVersion().toString(); //$NON-NLS-1$
 			IInstallableUnit currentIU = resultsMap.get(key);
 			if (currentIU == null || hasHigherFidelity(iu, currentIU))
 				resultsMap.put(key, iu);
 		}
-		sub.done();
 		Collection<IInstallableUnit> results = resultsMap.values();
 		return results.toArray(new IInstallableUnit[results.size()]);
 	}
 
+	// Returns the units available from the metadata repositories of the given context
+	private IInstallableUnit[] queryMetadata(ProvisioningContext context, IProgressMonitor monitor) {
+		if (context == null)
+			context = new ProvisioningContext(agent);
+		SubMonitor sub = SubMonitor.convert(monitor, 1000);
+		IQueryable<IInstallableUnit> queryable = context.getMetadata(sub.newChild(500));
+		IQueryResult<IInstallableUnit> matches = queryable.query(QueryUtil.createIUQuery(null, VersionRange.emptyRange), sub.newChild(500));
+		sub.done();
+		return matches.toArray(IInstallableUnit.class);
+	}
+
+
 	private static boolean hasHigherFidelity(IInstallableUnit iu, IInstallableUnit currentIU) {
 		if (Boolean.parseBoolean(currentIU.getProperty(IInstallableUnit.PROP_PARTIAL_IU)) && !Boolean.parseBoolean(iu.getProperty(IInstallableUnit.PROP_PARTIAL_IU)))
 			return true;
@@ -292,6 +313,7 @@ public class SimplePlanner implements IPlanner {
 		this.profileRegistry = (IProfileRegistry) agent.getService(IProfileRegistry.SERVICE_NAME);
 		Assert.isNotNull(engine);
 		Assert.isNotNull(profileRegistry);
+		this.resolutionCache = new ResolutionCache(DirectorActivator.context == null || !"false".equalsIgnoreCase(DirectorActivator.context.getProperty(PROP_RESOLUTION_CACHE))); //$NON-NLS-1$
 	}
 
 	private boolean satisfyMetaRequirements(Map<String, String> props) {
@@ -309,6 +331,12 @@ public class SimplePlanner implements IPlanner {
 	// Return the set of IUs representing the complete future state of the profile to satisfy the request or return a 
 	// ProvisioningPlan when the request can not be satisfied
 	private Object getSolutionFor(ProfileChangeRequest profileChangeRequest, ProvisioningContext context, IProgressMonitor monitor) {
+		return getSolutionFor(profileChangeRequest, context, null, new PlannerStatistics(), monitor);
+	}
+
+	// Same as above against the given units available from the repositories of the context, or those queried from the context when null.
+	// The work done is recorded in the given statistics.
+	private Object getSolutionFor(ProfileChangeRequest profileChangeRequest, ProvisioningContext context, IInstallableUnit[] metadata, PlannerStatistics statistics, IProgressMonitor monitor) {
 		SubMonitor sub = SubMonitor.convert(monitor, ExpandWork);
 		sub.setTaskName(Messages.Director_Task_Resolving_Dependencies);
 		try {
@@ -326,67 +354,220 @@ public class SimplePlanner implements IPlanner {
 					extraIUs.add(itor.next());
 			}
 
-			IInstallableUnit[] availableIUs = gatherAvailableInstallableUnits(extraIUs.toArray(new IInstallableUnit[extraIUs.size()]), context, sub.newChild(ExpandWork / 4));
+			IInstallableUnit[] additionalSource = extraIUs.toArray(new IInstallableUnit[extraIUs.size()]);
+			long start = System.currentTimeMillis();
+			IInstallableUnit[] availableIUs = metadata == null ? gatherAvailableInstallableUnits(additionalSource, context, sub.newChild(ExpandWork / 4)) : gatherAvailableInstallableUnits(additionalSource, context, metadata);
+			statistics.setGatherTime(System.currentTimeMillis() - start);
+			statistics.setAvailableUnits(availableIUs.length);
 
-			Slicer slicer = new Slicer(new QueryableArray(availableIUs), newSelectionContext, satisfyMetaRequirements(profileChangeRequest.getProfileProperties()));
-			IQueryable<IInstallableUnit> slice = slicer.slice(new IInstallableUnit[] {(IInstallableUnit) updatedPlan[0]}, sub.newChild(ExpandWork / 4));
-			if (slice == null) {
-				IProvisioningPlan plan = engine.createPlan(profile, context);
-				plan.setStatus(slicer.getStatus());
-				return plan;
+			ResolutionCache.Entry cached = resolutionCache.checkOut(availableIUs);
+			try {
+				return solve(profileChangeRequest, context, profile, updatedPlan, newSelectionContext, cached, statistics, sub);
+			} finally {
+				resolutionCache.checkIn(cached);
 			}
-			@SuppressWarnings("unchecked")
-			final IQueryable<IInstallableUnit>[] queryables = new IQueryable[] {slice, new QueryableArray(profileChangeRequest.getAdditions().toArray(new IInstallableUnit[profileChangeRequest.getAdditions().size()]))};
-			slice = new CompoundQueryable<>(queryables);
-			Projector projector = new Projector(slice, newSelectionContext, slicer.getNonGreedyIUs(), satisfyMetaRequirements(profileChangeRequest.getProfileProperties()));
-			projector.setUserDefined(profileChangeRequest.getPropertiesToAdd().containsKey("_internal_user_defined_"));
-			projector.encode((IInstallableUnit) updatedPlan[0], (IInstallableUnit[]) updatedPlan[1], profile, profileChangeRequest.getAdditions(), sub.newChild(ExpandWork / 4));
-			IStatus s = projector.invokeSolver(sub.newChild(ExpandWork / 4));
-			if (s.getSeverity() == IStatus.CANCEL) {
+		} finally {
+			sub.done();
+		}
+	}
+
+	// Slice, encode and solve the problem unless it has already been solved over the same available units
+	private Object solve(ProfileChangeRequest profileChangeRequest, ProvisioningContext context, IProfile profile, Object[] updatedPlan, Map<String, String> newSelectionContext, ResolutionCache.Entry cached, PlannerStatistics statistics, SubMonitor sub) {
+		boolean considerMetaRequirements = satisfyMetaRequirements(profileChangeRequest.getProfileProperties());
+		boolean userDefined = profileChangeRequest.getPropertiesToAdd().containsKey("_internal_user_defined_"); //$NON-NLS-1$
+		boolean lexicographic = context != null && OPTIMIZATION_LEXICOGRAPHIC.equalsIgnoreCase(context.getProperty(OPTIMIZATION));
+		ResolutionCache.Key key = new ResolutionCache.Key((IInstallableUnit) updatedPlan[0], (IInstallableUnit[]) updatedPlan[1], profileChangeRequest.getAdditions(), profile, newSelectionContext, considerMetaRequirements, userDefined, lexicographic);
+		Projector previous = cached.getSolution(key);
+		if (previous != null) {
+			if (Projector.DEBUG)
+				Tracing.debug("Reusing the solution of an identical problem"); //$NON-NLS-1$
+			statistics.setReused(true);
+			return previous;
+		}
+
+		long start = System.currentTimeMillis();
+		Slicer slicer = new Slicer(cached.getQueryable(), newSelectionContext, considerMetaRequirements);
+		slicer.setMatchCache(cached.getMatchCache());
+		IQueryable<IInstallableUnit> slice = slicer.slice(new IInstallableUnit[] {(IInstallableUnit) updatedPlan[0]}, sub.newChild(ExpandWork / 4));
+		statistics.setSliceTime(System.currentTimeMillis() - start);
+		if (slice == null) {
+			IProvisioningPlan plan = engine.createPlan(profile, context);
+			plan.setStatus(slicer.getStatus());
+			return plan;
+		}
+		@SuppressWarnings("unchecked")
+		final IQueryable<IInstallableUnit>[] queryables = new IQueryable[] {slice, new QueryableArray(profileChangeRequest.getAdditions().toArray(new IInstallableUnit[profileChangeRequest.getAdditions().size()]))};
+		slice = new CompoundQueryable<>(queryables);
+		RequirementMatchCache matchCache = slicer.getMatchCache().restrictTo(slice);
+		IQueryable<IInstallableUnit> problem = slice;
+		Collection<IInstallableUnit> eliminated = Collections.emptySet();
+		if (!userDefined && isReductionEnabled()) {
+			ProblemReducer reducer = new ProblemReducer(slice, newSelectionContext, slicer.getNonGreedyIUs(), considerMetaRequirements, matchCache);
+			problem = reducer.reduce((IInstallableUnit) updatedPlan[0], profile, profileChangeRequest.getAdditions());
+			eliminated = reducer.getEliminated();
+			statistics.setEliminatedUnits(eliminated.size());
+			statistics.setSliceTime(System.currentTimeMillis() - start);
+			if (Projector.DEBUG)
+				Tracing.debug(reducer.toString());
+		}
+		Projector projector = new Projector(problem, newSelectionContext, slicer.getNonGreedyIUs(), considerMetaRequirements);
+		projector.setMatchCache(problem == slice ? matchCache : slicer.getMatchCache().restrictTo(problem));
+		if (!eliminated.isEmpty())
+			projector.setReduction(slice, eliminated);
+		projector.setUserDefined(userDefined);
+		projector.setLexicographicOptimization(lexicographic);
+		start = System.currentTimeMillis();
+		projector.encode((IInstallableUnit) updatedPlan[0], (IInstallableUnit[]) updatedPlan[1], profile, profileChangeRequest.getAdditions(), sub.newChild(ExpandWork / 4));
+		statistics.setEncodingTime(System.currentTimeMillis() - start);
+		start = System.currentTimeMillis();
+		IStatus s = projector.invokeSolver(sub.newChild(ExpandWork / 4));
+		statistics.setSolvingTime(System.currentTimeMillis() - start);
+		projector.collectStatistics(statistics);
+		if (s.getSeverity() == IStatus.CANCEL) {
+			IProvisioningPlan plan = engine.createPlan(profile, context);
+			plan.setStatus(s);
+			return plan;
+		}
+		if (s.getSeverity() == IStatus.ERROR) {
+			sub.setTaskName(Messages.Planner_NoSolution);
+			if (s.getCode() != UNSATISFIABLE || (context != null && !(context.getProperty(EXPLANATION) == null || Boolean.TRUE.toString().equalsIgnoreCase(context.getProperty(EXPLANATION))))) {
 				IProvisioningPlan plan = engine.createPlan(profile, context);
 				plan.setStatus(s);
 				return plan;
 			}
-			if (s.getSeverity() == IStatus.ERROR) {
-				sub.setTaskName(Messages.Planner_NoSolution);
-				if (s.getCode() != UNSATISFIABLE || (context != null && !(context.getProperty(EXPLANATION) == null || Boolean.TRUE.toString().equalsIgnoreCase(context.getProperty(EXPLANATION))))) {
-					IProvisioningPlan plan = engine.createPlan(profile, context);
-					plan.setStatus(s);
-					return plan;
-				}
 
-				//Extract the explanation
-				Set<Explanation> explanation = projector.getExplanation(sub.newChild(ExpandWork / 4));
-				IStatus explanationStatus = convertExplanationToStatus(explanation);
-
-				Map<IInstallableUnit, RequestStatus>[] changes = buildDetailedErrors(profileChangeRequest);
-				Map<IInstallableUnit, RequestStatus> requestChanges = (changes == null) ? null : changes[0];
-				Map<IInstallableUnit, RequestStatus> requestSideEffects = (changes == null) ? null : changes[1];
-				PlannerStatus plannerStatus = new PlannerStatus(explanationStatus, new RequestStatus(null, RequestStatus.REMOVED, IStatus.ERROR, explanation), requestChanges, requestSideEffects, null);
+			//Explain the failure in terms of the problem as it was before its reduction
+			if (!eliminated.isEmpty()) {
+				projector = new Projector(slice, newSelectionContext, slicer.getNonGreedyIUs(), considerMetaRequirements);
+				projector.setMatchCache(matchCache);
+				projector.encode((IInstallableUnit) updatedPlan[0], (IInstallableUnit[]) updatedPlan[1], profile, profileChangeRequest.getAdditions(), sub.newChild(0));
+				projector.invokeSolver(sub.newChild(0));
+			}
 
-				IProvisioningPlan plan = engine.createPlan(profile, context);
-				plan.setStatus(plannerStatus);
+			IProvisioningPlan plan = engine.createPlan(profile, context);
+			long budget = getExplanationBudget(context);
+			final long explanationStart = System.currentTimeMillis();
+			if (context != null && Boolean.TRUE.toString().equalsIgnoreCase(context.getProperty(EXPLANATION_BACKGROUND))) {
+				//Return the failed plan right away, its status gives access to the explanation once found
+				final CompletableFuture<Set<Explanation>> explanation = projector.getExplanationInBackground(budget);
+				final CompletableFuture<PlannerStatus> explainedStatus = explanation.thenApply(found -> {
+					statistics.setExplanationTime(System.currentTimeMillis() - explanationStart);
+					PlannerStatus status = createFailureStatus(convertExplanationToStatus(found), found, profileChangeRequest, null);
+					status.setStatistics(statistics);
+					return status;
+				});
+				explainedStatus.whenComplete((status, e) -> {
+					if (e instanceof CancellationException)
+						explanation.cancel(true);
+				});
+				plan.setStatus(createFailureStatus(s, Collections.<Explanation> emptySet(), profileChangeRequest, explainedStatus));
 				return plan;
 			}
-			//The resolution succeeded. We can forget about the warnings since there is a solution.
-			if (Tracing.DEBUG && s.getSeverity() != IStatus.OK)
-				LogHelper.log(s);
-			s = Status.OK_STATUS;
 
-			return projector;
-		} finally {
-			sub.done();
+			//Extract the explanation
+			Set<Explanation> explanation = projector.getExplanation(sub.newChild(ExpandWork / 4), budget);
+			statistics.setExplanationTime(System.currentTimeMillis() - explanationStart);
+			plan.setStatus(createFailureStatus(convertExplanationToStatus(explanation), explanation, profileChangeRequest, null));
+			return plan;
+		}
+		//The resolution succeeded. We can forget about the warnings since there is a solution.
+		if (Tracing.DEBUG && s.getSeverity() != IStatus.OK)
+			LogHelper.log(s);
+		s = Status.OK_STATUS;
+
+		cached.putSolution(key, projector);
+		return projector;
+	}
+
+	private PlannerStatus createFailureStatus(IStatus status, Set<Explanation> explanation, ProfileChangeRequest profileChangeRequest, Future<PlannerStatus> explainedStatus) {
+		Map<IInstallableUnit, RequestStatus>[] changes = buildDetailedErrors(profileChangeRequest);
+		Map<IInstallableUnit, RequestStatus> requestChanges = (changes == null) ? null : changes[0];
+		Map<IInstallableUnit, RequestStatus> requestSideEffects = (changes == null) ? null : changes[1];
+		return new PlannerStatus(status, new RequestStatus(null, RequestStatus.REMOVED, IStatus.ERROR, explanation), requestChanges, requestSideEffects, null, explainedStatus);
+	}
+
+	// The number of milliseconds after which to stop explaining a failure, 0 if there is no limit
+	private static long getExplanationBudget(ProvisioningContext context) {
+		String value = context == null ? null : context.getProperty(EXPLANATION_TIMEOUT);
+		if (value == null)
+			return 0;
+		try {
+			return Math.max(0, Long.parseLong(value));
+		} catch (NumberFormatException e) {
+			return 0;
 		}
 	}
 
+	// The number of requests of a batch resolved concurrently, one per processor unless configured otherwise
+	private static int getParallelism() {
+		return WorkerPool.getParallelism(PROP_PARALLELISM, Runtime.getRuntime().availableProcessors());
+	}
+
+	private static boolean isReductionEnabled() {
+		return DirectorActivator.context != null && "true".equalsIgnoreCase(DirectorActivator.context.getProperty(PROP_REDUCE)); //$NON-NLS-1$
+	}
+
 	@Override
 	public IProvisioningPlan getProvisioningPlan(IProfileChangeRequest request, ProvisioningContext context, IProgressMonitor monitor) {
+		return getProvisioningPlan(request, context, null, monitor);
+	}
+
+	@Override
+	public IProvisioningPlan[] getProvisioningPlans(IProfileChangeRequest[] requests, ProvisioningContext context, IProgressMonitor monitor) {
+		SubMonitor sub = SubMonitor.convert(monitor, ExpandWork * (requests.length + 1));
+		sub.setTaskName(Messages.Director_Task_Resolving_Dependencies);
+		try {
+			//The repositories are queried once for all the requests
+			final IInstallableUnit[] metadata = queryMetadata(context, sub.newChild(ExpandWork));
+			IProvisioningPlan[] plans = new IProvisioningPlan[requests.length];
+			int parallelism = getParallelism();
+			if (parallelism <= 1 || requests.length < 2) {
+				for (int i = 0; i < requests.length; i++)
+					plans[i] = getProvisioningPlan(requests[i], context, metadata, sub.newChild(ExpandWork));
+				return plans;
+			}
+
+			// The progress of the requests resolved by the workers is reported as they complete
+			final IProgressMonitor cancelMonitor = new NullProgressMonitor() {
+				@Override
+				public boolean isCanceled() {
+					return sub.isCanceled();
+				}
+			};
+			List<CompletableFuture<IProvisioningPlan>> results = WorkerPool.submit(Arrays.asList(requests), parallelism, request -> getProvisioningPlan(request, context, metadata, cancelMonitor));
+			for (int i = 0; i < requests.length; i++) {
+				plans[i] = WorkerPool.join(results.get(i));
+				sub.worked(ExpandWork);
+			}
+			return plans;
+		} finally {
+			sub.done();
+		}
+	}
+
+	// Plans the given request against the given units available from the repositories of the context, or those queried from the context when null
+	private IProvisioningPlan getProvisioningPlan(IProfileChangeRequest request, ProvisioningContext context, IInstallableUnit[] metadata, IProgressMonitor monitor) {
+		PlannerStatistics statistics = new PlannerStatistics();
+		long start = System.currentTimeMillis();
+		IProvisioningPlan plan = createProvisioningPlan(request, context, metadata, statistics, monitor);
+		statistics.setTotalTime(System.currentTimeMillis() - start);
+		if (plan.getStatus() instanceof PlannerStatus)
+			((PlannerStatus) plan.getStatus()).setStatistics(statistics);
+		if (Projector.DEBUG)
+			Tracing.debug(statistics.toString());
+		IProvisioningEventBus eventBus = (IProvisioningEventBus) agent.getService(IProvisioningEventBus.SERVICE_NAME);
+		if (eventBus != null)
+			eventBus.publishEvent(new PlannerStatisticsEvent(plan, statistics));
+		return plan;
+	}
+
+	private IProvisioningPlan createProvisioningPlan(IProfileChangeRequest request, ProvisioningContext context, IInstallableUnit[] metadata, PlannerStatistics statistics, IProgressMonitor monitor) {
 		ProfileChangeRequest pcr = (ProfileChangeRequest) request;
 		SubMonitor sub = SubMonitor.convert(monitor, ExpandWork);
 		sub.setTaskName(Messages.Director_Task_Resolving_Dependencies);
 		try {
 			//Get the solution for the initial request
-			Object resolutionResult = getSolutionFor(pcr, context, sub.newChild(ExpandWork / 2));
+			Object resolutionResult = getSolutionFor(pcr, context, metadata, statistics, sub.newChild(ExpandWork / 2));
 			// a return value of a plan indicates failure when resolving so return.
 			if (resolutionResult instanceof IProvisioningPlan)
 				return (IProvisioningPlan) resolutionResult;
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.director;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.TranslationSupport;
+import org.eclipse.equinox.internal.p2.metadata.index.*;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.KeyWithLocale;
+import org.eclipse.equinox.p2.metadata.expression.IEvaluationContext;
+import org.eclipse.equinox.p2.metadata.expression.IExpression;
+import org.eclipse.equinox.p2.metadata.index.IIndex;
+
+/**
+ * The units of a resolution problem, used by the {@link Slicer} to collect the units it
+ * considers and by the {@link Projector} to group the versions of each unit.
+ * <p>
+ * Slices of large repositories hold tens of thousands of units, so the representation is kept
+ * compact: the units are numbered in the order in which they are added and stored in a single
+ * array, and the versions of a unit are the ordinals of the units sharing its id. The
+ * ordinals also serve as the id index when the slice is queried. Two units with the same id
+ * and version are the same unit of the slice.
+ * </p>
+ */
+public class Slice extends IndexProvider<IInstallableUnit> {
+	private IInstallableUnit[] units;
+	private int size;
+	private final Map<String, int[]> ordinalsById;
+	private IIndex<IInstallableUnit> capabilityIndex;
+	private IIndex<IInstallableUnit> idIndex;
+	private TranslationSupport translationSupport;
+
+	public Slice() {
+		this(16);
+	}
+
+	public Slice(int expectedSize) {
+		units = new IInstallableUnit[Math.max(expectedSize, 1)];
+		ordinalsById = new HashMap<>(Math.max(expectedSize / 2, 16));
+	}
+
+	/**
+	 * Creates a slice holding the units of the given one.
+	 */
+	public Slice(Slice slice) {
+		units = Arrays.copyOf(slice.units, Math.max(slice.size, 1));
+		size = slice.size;
+		ordinalsById = new HashMap<>(slice.ordinalsById);
+	}
+
+	/**
+	 * Adds a unit to the slice unless a unit with the same id and version is already part of it.
+	 * @return <code>true</code> if the unit was added
+	 */
+	public boolean add(IInstallableUnit iu) {
+		String id = iu.getId();
+		int[] ordinals = ordinalsById.get(id);
+		if (ordinals != null && indexOf(ordinals, iu) >= 0)
+			return false;
+		if (size == units.length)
+			units = Arrays.copyOf(units, size + (size >> 1) + 1);
+		units[size] = iu;
+		// Most units come in very few versions, grow the ordinals one at a time
+		if (ordinals == null) {
+			ordinals = new int[] {size};
+		} else {
+			ordinals = Arrays.copyOf(ordinals, ordinals.length + 1);
+			ordinals[ordinals.length - 1] = size;
+		}
+		ordinalsById.put(id, ordinals);
+		size++;
+		capabilityIndex = null;
+		return true;
+	}
+
+	private int indexOf(int[] ordinals, IInstallableUnit iu) {
+		for (int i = 0; i < ordinals.length; i++) {
+			if (units[ordinals[i]].getVersion().equals(iu.getVersion()))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns whether a unit with the id and version of the given one is part of the slice.
+	 */
+	public boolean contains(IInstallableUnit iu) {
+		int[] ordinals = ordinalsById.get(iu.getId());
+		return ordinals != null && indexOf(ordinals, iu) >= 0;
+	}
+
+	/**
+	 * Returns the number of units in the slice.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the unit with the given ordinal, the position at which it was added.
+	 */
+	public IInstallableUnit getUnit(int ordinal) {
+		if (ordinal < 0 || ordinal >= size)
+			throw new IndexOutOfBoundsException(Integer.toString(ordinal));
+		return units[ordinal];
+	}
+
+	/**
+	 * Returns the ids of the units in the slice.
+	 */
+	public Set<String> getIds() {
+		return Collections.unmodifiableSet(ordinalsById.keySet());
+	}
+
+	/**
+	 * Returns the versions of the unit with the given id, in the order in which they were added.
+	 */
+	public List<IInstallableUnit> getUnits(String id) {
+		int[] ordinals = ordinalsById.get(id);
+		if (ordinals == null)
+			return Collections.emptyList();
+		IInstallableUnit[] result = new IInstallableUnit[ordinals.length];
+		for (int i = 0; i < ordinals.length; i++)
+			result[i] = units[ordinals[i]];
+		return Arrays.asList(result);
+	}
+
+	@Override
+	public Iterator<IInstallableUnit> everything() {
+		return Arrays.asList(units).subList(0, size).iterator();
+	}
+
+	@Override
+	public synchronized IIndex<IInstallableUnit> getIndex(String memberName) {
+		if (InstallableUnit.MEMBER_PROVIDED_CAPABILITIES.equals(memberName)) {
+			if (capabilityIndex == null)
+				capabilityIndex = new CapabilityIndex(everything());
+			return capabilityIndex;
+		}
+		if (InstallableUnit.MEMBER_ID.equals(memberName)) {
+			if (idIndex == null)
+				idIndex = new SliceIdIndex();
+			return idIndex;
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized Object getManagedProperty(Object client, String memberName, Object key) {
+		if (!(client instanceof IInstallableUnit))
+			return null;
+		IInstallableUnit iu = (IInstallableUnit) client;
+		if (InstallableUnit.MEMBER_TRANSLATED_PROPERTIES.equals(memberName)) {
+			if (translationSupport == null)
+				translationSupport = new TranslationSupport(this);
+			return key instanceof KeyWithLocale ? translationSupport.getIUProperty(iu, (KeyWithLocale) key) : translationSupport.getIUProperty(iu, key.toString());
+		}
+		return null;
+	}
+
+	// Looks up the units by id in the ordinals of the slice rather than in a copy of them
+	class SliceIdIndex extends Index<IInstallableUnit> {
+		@Override
+		public Iterator<IInstallableUnit> getCandidates(IEvaluationContext ctx, IExpression variable, IExpression booleanExpr) {
+			Object queriedKeys = getQueriedIDs(ctx, variable, InstallableUnit.MEMBER_ID, booleanExpr, null);
+			if (queriedKeys == null)
+				return null;
+
+			if (queriedKeys instanceof Collection<?>) {
+				Set<IInstallableUnit> collector = new HashSet<>();
+				for (Object key : (Collection<?>) queriedKeys)
+					collector.addAll(getUnits((String) key));
+				return collector.iterator();
+			}
+			return getUnits((String) queriedKeys).iterator();
+		}
+	}
+}
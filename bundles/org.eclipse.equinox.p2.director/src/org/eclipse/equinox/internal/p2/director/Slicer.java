@@ -12,26 +12,34 @@
 package org.eclipse.equinox.internal.p2.director;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.internal.p2.core.helpers.LogHelper;
 import org.eclipse.equinox.internal.p2.core.helpers.Tracing;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnitPatch;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
 import org.eclipse.equinox.p2.query.*;
 import org.eclipse.osgi.util.NLS;
 
 public class Slicer {
+	/**
+	 * The name of the system property that gives the number of threads used to expand the
+	 * requirements of the units being sliced. Slicing is sequential unless it is set to a
+	 * number greater than one.
+	 */
+	private static final String PROP_PARALLELISM = "eclipse.p2.slicer.parallelism"; //$NON-NLS-1$
 	private static boolean DEBUG = false;
 	private final IQueryable<IInstallableUnit> possibilites;
 	private final boolean considerMetaRequirements;
 	protected final IInstallableUnit selectionContext;
-	private final Map<String, Map<Version, IInstallableUnit>> slice; //The IUs that have been considered to be part of the problem
 	private final MultiStatus result;
+	private RequirementMatchCache matchCache;
 
 	private LinkedList<IInstallableUnit> toProcess;
-	private Set<IInstallableUnit> considered; //IUs to add to the slice
+	private Slice considered; //IUs to add to the slice
 	private Set<IInstallableUnit> nonGreedyIUs = new HashSet<>(); //IUs that are brought in by non greedy dependencies
 
 	public Slicer(IQueryable<IInstallableUnit> input, Map<String, String> context, boolean considerMetaRequirements) {
@@ -42,8 +50,8 @@ public class Slicer {
 		this.possibilites = possibilites;
 		this.selectionContext = selectionContext;
 		this.considerMetaRequirements = considerMetaRequirements;
-		slice = new HashMap<>();
 		result = new MultiStatus(DirectorActivator.PI_DIRECTOR, IStatus.OK, Messages.Planner_Problems_resolving_plan, null);
+		matchCache = new RequirementMatchCache(possibilites);
 	}
 
 	public IQueryable<IInstallableUnit> slice(IInstallableUnit[] ius, IProgressMonitor monitor) {
@@ -55,20 +63,26 @@ public class Slicer {
 			}
 
 			validateInput(ius);
-			considered = new HashSet<>(Arrays.asList(ius));
-			toProcess = new LinkedList<>(considered);
-			while (!toProcess.isEmpty()) {
-				if (monitor.isCanceled()) {
-					result.merge(Status.CANCEL_STATUS);
-					throw new OperationCanceledException();
+			considered = new Slice();
+			toProcess = new LinkedList<>();
+			for (int i = 0; i < ius.length; i++)
+				consider(ius[i]);
+			int parallelism = WorkerPool.getParallelism(PROP_PARALLELISM, 1);
+			if (parallelism > 1)
+				processInParallel(parallelism, monitor);
+			else {
+				while (!toProcess.isEmpty()) {
+					checkCanceled(monitor);
+					processIU(toProcess.removeFirst());
 				}
-				processIU(toProcess.removeFirst());
 			}
 			computeNonGreedyIUs();
 			if (DEBUG) {
 				long stop = System.currentTimeMillis();
 				System.out.println("Slicing complete: " + (stop - start)); //$NON-NLS-1$
 			}
+			if (Tracing.DEBUG_PLANNER_MATCH_CACHE)
+				Tracing.debug("Slicer requirement matches: " + matchCache.getHits() + " hits, " + matchCache.getMisses() + " misses"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		} catch (IllegalStateException e) {
 			result.add(new Status(IStatus.ERROR, DirectorActivator.PI_DIRECTOR, e.getMessage(), e));
 		}
@@ -76,12 +90,11 @@ public class Slicer {
 			LogHelper.log(result);
 		if (result.getSeverity() == IStatus.ERROR)
 			return null;
-		return new QueryableArray(considered.toArray(new IInstallableUnit[considered.size()]));
+		return considered;
 	}
 
 	private void computeNonGreedyIUs() {
-		IQueryable<IInstallableUnit> queryable = new QueryableArray(considered.toArray(new IInstallableUnit[considered.size()]));
-		Iterator<IInstallableUnit> it = queryable.query(QueryUtil.ALL_UNITS, new NullProgressMonitor()).iterator();
+		Iterator<IInstallableUnit> it = considered.everything();
 		while (it.hasNext()) {
 			Collection<IRequirement> reqs = getRequirements(it.next().unresolved());
 			for (IRequirement req : reqs) {
@@ -89,7 +102,7 @@ public class Slicer {
 					continue;
 
 				if (!isGreedy(req)) {
-					nonGreedyIUs.addAll(queryable.query(QueryUtil.createMatchQuery(req.getMatches()), null).toUnmodifiableSet());
+					nonGreedyIUs.addAll(considered.query(QueryUtil.createMatchQuery(req.getMatches()), null).toUnmodifiableSet());
 				}
 			}
 		}
@@ -118,24 +131,56 @@ public class Slicer {
 		return filter == null || filter.isMatch(selectionContext);
 	}
 
+	/**
+	 * Expands the requirements of the units to process level by level. The units of a level are
+	 * expanded concurrently and the outcome is recorded in the order in which the units would
+	 * have been processed one by one, so the slice and the status are the same as when slicing
+	 * sequentially.
+	 */
+	private void processInParallel(int parallelism, IProgressMonitor monitor) {
+		while (!toProcess.isEmpty()) {
+			List<CompletableFuture<Expansion>> expansions = WorkerPool.submit(new ArrayList<>(toProcess), parallelism, this::expand);
+			toProcess.clear();
+			for (CompletableFuture<Expansion> expansion : expansions) {
+				checkCanceled(monitor);
+				record(WorkerPool.join(expansion));
+			}
+		}
+	}
+
+	private void checkCanceled(IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			result.merge(Status.CANCEL_STATUS);
+			throw new OperationCanceledException();
+		}
+	}
+
 	protected void processIU(IInstallableUnit iu) {
-		iu = iu.unresolved();
+		record(expand(iu));
+	}
 
-		Map<Version, IInstallableUnit> iuSlice = slice.get(iu.getId());
-		if (iuSlice == null) {
+	/**
+	 * The outcome of expanding the requirements of a unit: the applicable units that match its
+	 * requirements and the requirements that no applicable unit satisfies.
+	 */
+	private static final class Expansion {
+		final IInstallableUnit iu;
+		final List<IInstallableUnit> matches = new ArrayList<>();
+		List<IRequirement> unsatisfied;
 
-			iuSlice = new HashMap<>();
-			slice.put(iu.getId(), iuSlice);
-		}
-		iuSlice.put(iu.getVersion(), iu);
-		if (!isApplicable(iu)) {
-			return;
+		Expansion(IInstallableUnit iu) {
+			this.iu = iu;
 		}
+	}
 
-		Collection<IRequirement> reqs = getRequirements(iu);
-		if (reqs.isEmpty())
-			return;
-		for (IRequirement req : reqs) {
+	// Computes the expansion of a unit without looking at or changing the state of the slicer so that
+	// units can be expanded concurrently
+	private Expansion expand(IInstallableUnit iu) {
+		Expansion expansion = new Expansion(iu.unresolved());
+		if (!isApplicable(expansion.iu))
+			return expansion;
+
+		for (IRequirement req : getRequirements(expansion.iu)) {
 			if (!isApplicable(req))
 				continue;
 
@@ -143,8 +188,19 @@ public class Slicer {
 				continue;
 			}
 
-			expandRequirement(iu, req);
+			expandRequirement(expansion, req);
 		}
+		return expansion;
+	}
+
+	private void record(Expansion expansion) {
+		IInstallableUnit iu = expansion.iu;
+		if (expansion.unsatisfied != null)
+			for (IRequirement req : expansion.unsatisfied)
+				result.add(new Status(IStatus.WARNING, DirectorActivator.PI_DIRECTOR, NLS.bind(Messages.Planner_Unsatisfied_dependency, iu, req)));
+
+		for (IInstallableUnit match : expansion.matches)
+			consider(match);
 	}
 
 	protected boolean isGreedy(IRequirement req) {
@@ -177,27 +233,27 @@ public class Slicer {
 		return aggregatedRequirements;
 	}
 
-	private void expandRequirement(IInstallableUnit iu, IRequirement req) {
+	private void expandRequirement(Expansion expansion, IRequirement req) {
 		if (req.getMax() == 0)
 			return;
-		IQueryResult<IInstallableUnit> matches = possibilites.query(QueryUtil.createMatchQuery(req.getMatches()), null);
+		List<IInstallableUnit> matches = matchCache.getMatches(possibilites, req);
 		int validMatches = 0;
-		for (Iterator<IInstallableUnit> iterator = matches.iterator(); iterator.hasNext();) {
-			IInstallableUnit match = iterator.next();
+		for (int i = 0; i < matches.size(); i++) {
+			IInstallableUnit match = matches.get(i);
 			if (!isApplicable(match))
 				continue;
 			validMatches++;
-			Map<Version, IInstallableUnit> iuSlice = slice.get(match.getId());
-			if (iuSlice == null || !iuSlice.containsKey(match.getVersion()))
-				consider(match);
+			expansion.matches.add(match);
 		}
 
 		if (validMatches == 0) {
 			if (req.getMin() == 0) {
 				if (DEBUG)
-					System.out.println("No IU found to satisfy optional dependency of " + iu + " on req " + req); //$NON-NLS-1$//$NON-NLS-2$
+					System.out.println("No IU found to satisfy optional dependency of " + expansion.iu + " on req " + req); //$NON-NLS-1$//$NON-NLS-2$
 			} else {
-				result.add(new Status(IStatus.WARNING, DirectorActivator.PI_DIRECTOR, NLS.bind(Messages.Planner_Unsatisfied_dependency, iu, req)));
+				if (expansion.unsatisfied == null)
+					expansion.unsatisfied = new ArrayList<>(1);
+				expansion.unsatisfied.add(req);
 			}
 		}
 	}
@@ -210,4 +266,20 @@ public class Slicer {
 	Set<IInstallableUnit> getNonGreedyIUs() {
 		return nonGreedyIUs;
 	}
+
+	/**
+	 * Returns the cache holding the matches of the requirements expanded while slicing.
+	 */
+	public RequirementMatchCache getMatchCache() {
+		return matchCache;
+	}
+
+	/**
+	 * Sets the cache used to look up the units matching a requirement. A cache that was
+	 * populated by an earlier slicer over the same queryable answers the requirements that
+	 * slicer already expanded without querying again.
+	 */
+	public void setMatchCache(RequirementMatchCache matchCache) {
+		this.matchCache = matchCache;
+	}
 }
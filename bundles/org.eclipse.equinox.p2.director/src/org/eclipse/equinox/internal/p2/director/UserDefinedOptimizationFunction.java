@@ -23,7 +23,7 @@ public class UserDefinedOptimizationFunction extends OptimizationFunction {
 	private SteppedTimeoutLexicoHelper<Object, Explanation> dependencyHelper;
 	private IQueryable<IInstallableUnit> picker;
 
-	public UserDefinedOptimizationFunction(IQueryable<IInstallableUnit> lastState, List<AbstractVariable> abstractVariables, List<AbstractVariable> optionalVariables, IQueryable<IInstallableUnit> picker, IInstallableUnit selectionContext, Map<String, Map<Version, IInstallableUnit>> slice, DependencyHelper<Object, Explanation> dependencyHelper, Collection<IInstallableUnit> alreadyInstalledIUs) {
+	public UserDefinedOptimizationFunction(IQueryable<IInstallableUnit> lastState, List<AbstractVariable> abstractVariables, List<AbstractVariable> optionalVariables, IQueryable<IInstallableUnit> picker, IInstallableUnit selectionContext, Slice slice, DependencyHelper<Object, Explanation> dependencyHelper, Collection<IInstallableUnit> alreadyInstalledIUs) {
 		super(lastState, abstractVariables, optionalVariables, picker, selectionContext, slice);
 		this.picker = picker;
 		this.slice = slice;
@@ -35,7 +35,7 @@ public class UserDefinedOptimizationFunction extends OptimizationFunction {
 	public List<WeightedObject<? extends Object>> createOptimizationFunction(IInstallableUnit metaIu, Collection<IInstallableUnit> newRoots) {
 		List<WeightedObject<?>> weightedObjects = new ArrayList<>();
 		List<Object> objects = new ArrayList<>();
-		BigInteger weight = BigInteger.valueOf(slice.size() + 1);
+		BigInteger weight = BigInteger.valueOf(slice.getIds().size() + 1);
 		String[] criteria = new String[] {"+new", "-notuptodate", "-changed", "-removed"}; //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$//$NON-NLS-4$
 		BigInteger currentWeight = weight.pow(criteria.length - 1);
 		boolean maximizes;
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.provisional.p2.director;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Measures of the work done by the planner to compute a plan. The statistics of a plan are
+ * available from its {@link PlannerStatus} when it has one, and are published on the
+ * provisioning event bus in a {@link PlannerStatisticsEvent} for every plan.
+ * <p>
+ * Times are in milliseconds. The measures of a stage that did not take place are 0.
+ * </p>
+ */
+public class PlannerStatistics {
+	/**
+	 * The key of the number of conflicts in the {@link #getSolverStatistics() solver statistics}.
+	 */
+	public static final String SOLVER_CONFLICTS = "conflicts"; //$NON-NLS-1$
+	/**
+	 * The key of the number of decisions in the {@link #getSolverStatistics() solver statistics}.
+	 */
+	public static final String SOLVER_DECISIONS = "decisions"; //$NON-NLS-1$
+
+	private long totalTime;
+	private long gatherTime;
+	private long sliceTime;
+	private long encodingTime;
+	private long solvingTime;
+	private volatile long explanationTime;
+	private int availableUnits;
+	private int sliceSize;
+	private int eliminatedUnits;
+	private int variables;
+	private int constraints;
+	private Map<String, Number> solverStatistics = Collections.emptyMap();
+	private boolean reused;
+
+	/**
+	 * Returns the time spent computing the plan, explanations computed in the background excluded.
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	public void setTotalTime(long totalTime) {
+		this.totalTime = totalTime;
+	}
+
+	/**
+	 * Returns the time spent gathering the installable units available to the planner.
+	 */
+	public long getGatherTime() {
+		return gatherTime;
+	}
+
+	public void setGatherTime(long gatherTime) {
+		this.gatherTime = gatherTime;
+	}
+
+	/**
+	 * Returns the time spent slicing the available installable units, the reduction of the slice included.
+	 */
+	public long getSliceTime() {
+		return sliceTime;
+	}
+
+	public void setSliceTime(long sliceTime) {
+		this.sliceTime = sliceTime;
+	}
+
+	/**
+	 * Returns the time spent encoding the problem for the solver.
+	 */
+	public long getEncodingTime() {
+		return encodingTime;
+	}
+
+	public void setEncodingTime(long encodingTime) {
+		this.encodingTime = encodingTime;
+	}
+
+	/**
+	 * Returns the time spent by the solver, optimization included.
+	 */
+	public long getSolvingTime() {
+		return solvingTime;
+	}
+
+	public void setSolvingTime(long solvingTime) {
+		this.solvingTime = solvingTime;
+	}
+
+	/**
+	 * Returns the time spent explaining why no solution exists. For an explanation computed
+	 * in the background, this is 0 until the explanation is complete.
+	 */
+	public long getExplanationTime() {
+		return explanationTime;
+	}
+
+	public void setExplanationTime(long explanationTime) {
+		this.explanationTime = explanationTime;
+	}
+
+	/**
+	 * Returns the number of installable units available to the planner.
+	 */
+	public int getAvailableUnits() {
+		return availableUnits;
+	}
+
+	public void setAvailableUnits(int availableUnits) {
+		this.availableUnits = availableUnits;
+	}
+
+	/**
+	 * Returns the number of installable units that were encoded for the solver.
+	 */
+	public int getSliceSize() {
+		return sliceSize;
+	}
+
+	public void setSliceSize(int sliceSize) {
+		this.sliceSize = sliceSize;
+	}
+
+	/**
+	 * Returns the number of installable units removed from the slice before encoding.
+	 */
+	public int getEliminatedUnits() {
+		return eliminatedUnits;
+	}
+
+	public void setEliminatedUnits(int eliminatedUnits) {
+		this.eliminatedUnits = eliminatedUnits;
+	}
+
+	/**
+	 * Returns the number of variables of the encoded problem.
+	 */
+	public int getVariables() {
+		return variables;
+	}
+
+	public void setVariables(int variables) {
+		this.variables = variables;
+	}
+
+	/**
+	 * Returns the number of constraints of the encoded problem.
+	 */
+	public int getConstraints() {
+		return constraints;
+	}
+
+	public void setConstraints(int constraints) {
+		this.constraints = constraints;
+	}
+
+	/**
+	 * Returns the statistics reported by the solver, such as the number of conflicts,
+	 * decisions, propagations and restarts.
+	 */
+	public Map<String, Number> getSolverStatistics() {
+		return solverStatistics;
+	}
+
+	public void setSolverStatistics(Map<String, Number> solverStatistics) {
+		this.solverStatistics = solverStatistics == null ? Collections.<String, Number> emptyMap() : Collections.unmodifiableMap(solverStatistics);
+	}
+
+	/**
+	 * Returns the number of conflicts met by the solver, or -1 if the solver did not report it.
+	 */
+	public long getConflicts() {
+		Number value = solverStatistics.get(SOLVER_CONFLICTS);
+		return value == null ? -1 : value.longValue();
+	}
+
+	/**
+	 * Returns the number of decisions made by the solver, or -1 if the solver did not report it.
+	 */
+	public long getDecisions() {
+		Number value = solverStatistics.get(SOLVER_DECISIONS);
+		return value == null ? -1 : value.longValue();
+	}
+
+	/**
+	 * Returns whether the solution of an identical problem solved previously was reused,
+	 * in which case nothing was sliced, encoded or solved.
+	 */
+	public boolean isReused() {
+		return reused;
+	}
+
+	public void setReused(boolean reused) {
+		this.reused = reused;
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer result = new StringBuffer();
+		result.append("Planner statistics: total ").append(totalTime).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		result.append(", gather ").append(gatherTime).append("ms (").append(availableUnits).append(" units)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (reused)
+			return result.append(", solution reused").toString(); //$NON-NLS-1$
+		result.append(", slice ").append(sliceTime).append("ms (").append(sliceSize).append(" units, ").append(eliminatedUnits).append(" eliminated)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		result.append(", encoding ").append(encodingTime).append("ms (").append(variables).append(" variables, ").append(constraints).append(" constraints)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		result.append(", solving ").append(solvingTime).append("ms ").append(solverStatistics); //$NON-NLS-1$ //$NON-NLS-2$
+		if (explanationTime > 0)
+			result.append(", explanation ").append(explanationTime).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		return result.toString();
+	}
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.provisional.p2.director;
+
+import java.util.EventObject;
+import org.eclipse.equinox.p2.engine.IProvisioningPlan;
+
+/**
+ * An event published by the planner once it has computed a plan, carrying the
+ * statistics of the planning. The source of the event is the plan.
+ */
+public class PlannerStatisticsEvent extends EventObject {
+	private static final long serialVersionUID = -4102377451297235113L;
+
+	private final transient PlannerStatistics statistics;
+
+	public PlannerStatisticsEvent(IProvisioningPlan plan, PlannerStatistics statistics) {
+		super(plan);
+		this.statistics = statistics;
+	}
+
+	public IProvisioningPlan getPlan() {
+		return (IProvisioningPlan) getSource();
+	}
+
+	public PlannerStatistics getStatistics() {
+		return statistics;
+	}
+}
@@ -11,6 +11,8 @@
 package org.eclipse.equinox.internal.provisional.p2.director;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.query.Collector;
@@ -23,15 +25,28 @@ public class PlannerStatus implements IStatus {
 	private final Map<IInstallableUnit, RequestStatus> requestChanges;
 	private final Map<IInstallableUnit, RequestStatus> requestSideEffects;
 	private final IQueryable<IInstallableUnit> plannedState;
+	private final Future<PlannerStatus> explainedStatus;
+	private PlannerStatistics statistics;
 
 	private static final IQueryable<IInstallableUnit> EMPTY_IU_QUERYABLE = (query, monitor) -> Collector.emptyCollector();
 
 	public PlannerStatus(IStatus status, RequestStatus globalRequestStatus, Map<IInstallableUnit, RequestStatus> requestChanges, Map<IInstallableUnit, RequestStatus> requestSideEffects, IQueryable<IInstallableUnit> plannedState) {
+		this(status, globalRequestStatus, requestChanges, requestSideEffects, plannedState, null);
+	}
+
+	/**
+	 * Creates the status of a plan whose failure is being explained in the background.
+	 * 
+	 * @param explainedStatus the future status holding the explanation of the failure, or <code>null</code>
+	 * if this status already holds it
+	 */
+	public PlannerStatus(IStatus status, RequestStatus globalRequestStatus, Map<IInstallableUnit, RequestStatus> requestChanges, Map<IInstallableUnit, RequestStatus> requestSideEffects, IQueryable<IInstallableUnit> plannedState, Future<PlannerStatus> explainedStatus) {
 		this.status = status;
 		this.globalRequestStatus = globalRequestStatus;
 		this.requestChanges = requestChanges;
 		this.requestSideEffects = requestSideEffects;
 		this.plannedState = (plannedState == null) ? EMPTY_IU_QUERYABLE : plannedState;
+		this.explainedStatus = explainedStatus;
 	}
 
 	/**
@@ -43,6 +58,32 @@ public class PlannerStatus implements IStatus {
 		return globalRequestStatus;
 	}
 
+	/**
+	 * Returns the status holding the explanation of the failure of the planning. When the
+	 * explanation is computed in the background, the request status of this status holds no
+	 * explanation and the returned future completes with a status that does. Cancelling the
+	 * future stops the computation of the explanation. Otherwise the future is already done
+	 * and returns this status.
+	 * 
+	 * @return The future status explaining the failure of the planning
+	 */
+	public Future<PlannerStatus> getExplainedStatus() {
+		return explainedStatus == null ? CompletableFuture.completedFuture(this) : explainedStatus;
+	}
+
+	/**
+	 * Returns the statistics of the planning that produced this status.
+	 * 
+	 * @return The statistics of the planning, or <code>null</code> if they were not recorded
+	 */
+	public PlannerStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(PlannerStatistics statistics) {
+		this.statistics = statistics;
+	}
+
 	/**
 	 * Returns a map of the problems associated with changes to the given installable unit
 	 * in this plan. A status with severity {@link IStatus#OK} is returned if the unit
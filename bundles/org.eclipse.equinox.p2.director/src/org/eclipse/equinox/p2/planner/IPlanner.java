@@ -44,6 +44,20 @@ public interface IPlanner {
 	 */
 	public IProvisioningPlan getProvisioningPlan(IProfileChangeRequest profileChangeRequest, ProvisioningContext context, IProgressMonitor monitor);
 
+	/**
+	 * Returns the plans describing the set of changes that must be performed to
+	 * satisfy each of the given profile change requests. The installable units
+	 * available in the context are queried once for all the requests, which are
+	 * then sliced and solved independently of each other and concurrently.
+	 * 
+	 * @param profileChangeRequests the requests to be evaluated
+	 * @param context the context in which the requests are processed
+	 * @param monitor a monitor on which planning
+	 * @return the plans, in the order of the requests
+	 * @since 2.5
+	 */
+	public IProvisioningPlan[] getProvisioningPlans(IProfileChangeRequest[] profileChangeRequests, ProvisioningContext context, IProgressMonitor monitor);
+
 	public IProvisioningPlan getDiffPlan(IProfile currentProfile, IProfile targetProfile, IProgressMonitor monitor);
 
 	public IProfileChangeRequest createChangeRequest(IProfile profileToChange);
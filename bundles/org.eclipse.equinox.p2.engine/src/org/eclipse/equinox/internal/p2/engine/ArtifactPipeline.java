@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import java.util.*;
+import java.util.function.Function;
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.equinox.p2.metadata.IArtifactKey;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRequest;
+
+/**
+ * The artifacts downloaded by the collect phase of a pipelined {@link PhaseSet}. The download
+ * runs in the background while the following phases are performed, and the {@link DownloadManager}
+ * reports each artifact as it becomes available. A phase that requires the artifacts of its
+ * operands takes the operands in the order their artifacts become available and, once a
+ * {@link Verifier} is set, only after it has verified them.
+ */
+public class ArtifactPipeline {
+	private static final long CANCEL_POLL_INTERVAL = 100;
+
+	/**
+	 * Verifies the artifacts of the operands before the phases that require them are performed.
+	 * The methods are called by the thread performing the phases.
+	 */
+	public interface Verifier {
+		/**
+		 * Verifies the artifacts of the given operand, which are available. Returns a status with
+		 * the code {@link ArtifactPipeline#CONFIRMATION_REQUIRED} to hold the operand back until the artifacts
+		 * of the held operands are confirmed, or a status that is not OK to stop the operation.
+		 */
+		IStatus verify(Operand operand);
+
+		/**
+		 * Confirms the artifacts of the operands held back by {@link #verify(Operand)}, once all
+		 * the artifacts are available. Returns a status that is not OK to stop the operation.
+		 */
+		IStatus confirm();
+	}
+
+	/**
+	 * The code of the status returned by a verifier to hold an operand back.
+	 */
+	public static final int CONFIRMATION_REQUIRED = 1;
+
+	// The number of requests for each artifact that are not yet performed
+	private final Map<IArtifactKey, Integer> pending = new HashMap<>();
+	private Job download;
+	private IStatus result;
+	private Verifier verifier;
+	private final Set<Operand> verified = new HashSet<>();
+	private final Set<Operand> held = new HashSet<>();
+	private boolean confirmed;
+	// The status of the verifier when it stopped the operation
+	private IStatus failure;
+
+	/**
+	 * Records that the artifact of the given request is going to be downloaded.
+	 */
+	public synchronized void add(IArtifactRequest request) {
+		pending.merge(request.getArtifactKey(), 1, Integer::sum);
+	}
+
+	/**
+	 * Records that the artifact of the given request has been downloaded.
+	 */
+	public synchronized void available(IArtifactRequest request) {
+		IArtifactKey key = request.getArtifactKey();
+		Integer count = pending.get(key);
+		if (count == null)
+			return;
+		if (count.intValue() == 1)
+			pending.remove(key);
+		else
+			pending.put(key, count - 1);
+		notifyAll();
+	}
+
+	/**
+	 * Runs the given download in the background.
+	 */
+	public void start(final Function<IProgressMonitor, IStatus> downloader) {
+		Job job = new Job(Messages.download_artifact) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				IStatus status = Status.OK_STATUS;
+				try {
+					status = downloader.apply(monitor);
+				} catch (RuntimeException e) {
+					status = new Status(IStatus.ERROR, EngineActivator.ID, e.getMessage(), e);
+				} finally {
+					done(status);
+				}
+				// The status of the download is reported by the phase set
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		synchronized (this) {
+			download = job;
+		}
+		job.schedule();
+	}
+
+	synchronized void done(IStatus status) {
+		result = status;
+		if (status.isOK())
+			pending.clear();
+		notifyAll();
+	}
+
+	/**
+	 * Sets the verifier of the artifacts required by the phases that follow.
+	 */
+	public synchronized void setVerifier(Verifier verifier) {
+		this.verifier = verifier;
+	}
+
+	/**
+	 * Returns the status of the verifier if it stopped the operation, otherwise the status of
+	 * the download, or <code>null</code> while it runs.
+	 */
+	public synchronized IStatus getResult() {
+		if (failure != null && (result == null || result.isOK()))
+			return failure;
+		return result;
+	}
+
+	/**
+	 * Removes and returns the first of the given operands whose artifacts, as required by the
+	 * given phase, are available and verified. Waits for further artifacts when none is, and
+	 * returns <code>null</code> when the download ended without providing the artifacts of any
+	 * of them or when the verifier stopped the operation.
+	 */
+	Operand take(Phase phase, List<Operand> operands, IProgressMonitor monitor) throws InterruptedException {
+		while (true) {
+			Operand unverified = null;
+			boolean confirm = false;
+			Verifier current;
+			synchronized (this) {
+				if (failure != null)
+					return null;
+				current = verifier;
+				for (Iterator<Operand> it = operands.iterator(); it.hasNext() && unverified == null;) {
+					Operand operand = it.next();
+					if (!isAvailable(phase, operand))
+						continue;
+					if (isVerified(phase, operand)) {
+						it.remove();
+						return operand;
+					}
+					if (!held.contains(operand))
+						unverified = operand;
+				}
+				if (unverified == null) {
+					if (result != null) {
+						// The held operands are confirmed together once the download succeeded
+						if (!result.isOK() || confirmed || !isHeld(operands))
+							return null;
+						confirm = true;
+					} else {
+						if (monitor.isCanceled())
+							throw new OperationCanceledException();
+						wait(CANCEL_POLL_INTERVAL);
+						continue;
+					}
+				}
+			}
+			// The artifacts are verified without blocking the download
+			if (confirm) {
+				IStatus status = current.confirm();
+				synchronized (this) {
+					confirmed = true;
+					if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+						failure = status;
+				}
+				continue;
+			}
+			IStatus status = current.verify(unverified);
+			synchronized (this) {
+				if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+					failure = status;
+				else if (status.getCode() == CONFIRMATION_REQUIRED)
+					held.add(unverified);
+				else
+					verified.add(unverified);
+			}
+		}
+	}
+
+	private boolean isVerified(Phase phase, Operand operand) {
+		if (verifier == null || verified.contains(operand) || !phase.isApplicable(operand) || phase.getRequiredArtifacts(operand).isEmpty())
+			return true;
+		return confirmed && failure == null && held.contains(operand);
+	}
+
+	private boolean isHeld(List<Operand> operands) {
+		for (Operand operand : operands) {
+			if (held.contains(operand))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean isAvailable(Phase phase, Operand operand) {
+		if (pending.isEmpty() || !phase.isApplicable(operand))
+			return true;
+		Collection<IArtifactKey> keys = phase.getRequiredArtifacts(operand);
+		for (IArtifactKey key : keys) {
+			if (pending.containsKey(key))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels the download, if it is still running.
+	 */
+	public void cancel() {
+		Job job;
+		synchronized (this) {
+			job = download;
+		}
+		if (job != null)
+			job.cancel();
+	}
+
+	/**
+	 * Waits for the download to end and returns its status. The operation must not be
+	 * committed or rolled back while artifacts are still being written.
+	 */
+	public synchronized IStatus join() {
+		boolean interrupted = false;
+		while (download != null && result == null) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		return result == null ? Status.OK_STATUS : result;
+	}
+}
@@ -0,0 +1,373 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.zip.*;
+import javax.xml.parsers.ParserConfigurationException;
+import org.eclipse.equinox.internal.p2.metadata.repository.io.MetadataParser;
+import org.eclipse.equinox.internal.p2.metadata.repository.io.MetadataWriter;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.osgi.util.NLS;
+import org.xml.sax.*;
+
+/**
+ * A state of a profile in the binary profile format. The file is read into memory at once
+ * and closed, and only the tables describing the profile are decoded: the units of the
+ * profile are {@link LazyInstallableUnit}s that know their id, version and provided
+ * capabilities, and materialise the rest of the unit from the bytes read when it is first
+ * needed. The file is not kept open or mapped so that the state can be removed while the
+ * profile is in use.
+ * <p>
+ * The file starts with a string table holding every id, version, property and capability
+ * string of the profile once. It is followed by the profile properties, a table of the
+ * distinct provided capabilities of the units, and a table of the units with their kind, id,
+ * version, capabilities, profile properties and the offset of their body. The body of a unit
+ * is its metadata, as written in the XML profile format, compressed on its own so that any
+ * unit can be materialised without reading the others.
+ * </p>
+ */
+public class BinaryProfile {
+	private static final int MAGIC = 0x70327066; // "p2pf"
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte KIND_UNIT = 0;
+	private static final byte KIND_FRAGMENT = 1;
+	private static final byte KIND_PATCH = 2;
+
+	final File file;
+	private final ByteBuffer buffer;
+	private final String profileId;
+	private final long timestamp;
+	private final Map<String, String> properties;
+	private final LazyInstallableUnit[] units;
+	private final List<Map<String, String>> unitProperties;
+	private final int[] bodyOffsets;
+	private final int[] bodyLengths;
+	private UnitParser parser;
+
+	private BinaryProfile(File file, ByteBuffer buffer) throws IOException {
+		this.file = file;
+		this.buffer = buffer;
+		if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+			throw new IOException(NLS.bind(Messages.error_parsing_profile, file));
+
+		String[] strings = new String[buffer.getInt()];
+		for (int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		Version[] versions = new Version[strings.length];
+
+		profileId = strings[buffer.getInt()];
+		timestamp = buffer.getLong();
+		properties = readProperties(strings);
+
+		IProvidedCapability[] capabilities = new IProvidedCapability[buffer.getInt()];
+		for (int i = 0; i < capabilities.length; i++) {
+			String namespace = strings[buffer.getInt()];
+			String name = strings[buffer.getInt()];
+			capabilities[i] = MetadataFactory.createProvidedCapability(namespace, name, getVersion(strings, versions, buffer.getInt()));
+		}
+
+		int unitCount = buffer.getInt();
+		units = new LazyInstallableUnit[unitCount];
+		unitProperties = new ArrayList<>(unitCount);
+		bodyOffsets = new int[unitCount];
+		bodyLengths = new int[unitCount];
+		for (int i = 0; i < unitCount; i++) {
+			byte kind = buffer.get();
+			String id = strings[buffer.getInt()];
+			Version version = getVersion(strings, versions, buffer.getInt());
+			int capabilityCount = buffer.getInt();
+			Collection<IProvidedCapability> unitCapabilities = null;
+			if (capabilityCount >= 0) {
+				IProvidedCapability[] interned = new IProvidedCapability[capabilityCount];
+				for (int j = 0; j < capabilityCount; j++)
+					interned[j] = capabilities[buffer.getInt()];
+				unitCapabilities = Collections.unmodifiableList(Arrays.asList(interned));
+			}
+			if (kind == KIND_FRAGMENT)
+				units[i] = new LazyInstallableUnit.Fragment(this, i, id, version, unitCapabilities);
+			else if (kind == KIND_PATCH)
+				units[i] = new LazyInstallableUnit.Patch(this, i, id, version, unitCapabilities);
+			else
+				units[i] = new LazyInstallableUnit(this, i, id, version, unitCapabilities);
+			unitProperties.add(readProperties(strings));
+			bodyOffsets[i] = buffer.getInt();
+			bodyLengths[i] = buffer.getInt();
+		}
+		int bodiesStart = buffer.position();
+		for (int i = 0; i < unitCount; i++)
+			bodyOffsets[i] += bodiesStart;
+	}
+
+	private static Version getVersion(String[] strings, Version[] versions, int index) {
+		if (versions[index] == null)
+			versions[index] = Version.create(strings[index]);
+		return versions[index];
+	}
+
+	private Map<String, String> readProperties(String[] strings) {
+		int count = buffer.getInt();
+		if (count == 0)
+			return null;
+		Map<String, String> result = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++)
+			result.put(strings[buffer.getInt()], strings[buffer.getInt()]);
+		return result;
+	}
+
+	/**
+	 * Reads the profile state held by the given file.
+	 */
+	public static BinaryProfile read(File file) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		try {
+			return new BinaryProfile(file, buffer);
+		} catch (RuntimeException e) {
+			// A truncated or otherwise corrupt file
+			throw new IOException(NLS.bind(Messages.error_parsing_profile, file), e);
+		}
+	}
+
+	/**
+	 * Writes the given profile in the binary profile format. The units of the profile that were
+	 * read from a binary profile are copied without being materialised.
+	 */
+	public static void write(IProfile profile, OutputStream output) throws IOException {
+		StringTable strings = new StringTable();
+		ByteArrayOutputStream tables = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(tables);
+		ByteArrayOutputStream bodies = new ByteArrayOutputStream();
+
+		out.writeInt(strings.indexOf(profile.getProfileId()));
+		out.writeLong(profile.getTimestamp());
+		writeProperties(profile.getProperties(), strings, out);
+
+		Set<IInstallableUnit> ius = profile.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet();
+		Map<IProvidedCapability, Integer> capabilityIndexes = new HashMap<>();
+		List<IProvidedCapability> capabilities = new ArrayList<>();
+		ByteArrayOutputStream unitTable = new ByteArrayOutputStream();
+		DataOutputStream unitOut = new DataOutputStream(unitTable);
+		for (IInstallableUnit iu : ius) {
+			unitOut.writeByte(iu instanceof IInstallableUnitFragment ? KIND_FRAGMENT : iu instanceof IInstallableUnitPatch ? KIND_PATCH : KIND_UNIT);
+			unitOut.writeInt(strings.indexOf(iu.getId()));
+			unitOut.writeInt(strings.indexOf(iu.getVersion().toString()));
+			Collection<IProvidedCapability> provided = iu.getProvidedCapabilities();
+			if (isInternable(provided)) {
+				unitOut.writeInt(provided.size());
+				for (IProvidedCapability capability : provided) {
+					Integer index = capabilityIndexes.get(capability);
+					if (index == null) {
+						index = Integer.valueOf(capabilities.size());
+						capabilityIndexes.put(capability, index);
+						capabilities.add(capability);
+					}
+					unitOut.writeInt(index.intValue());
+				}
+			} else {
+				unitOut.writeInt(-1);
+			}
+			Map<String, String> iuProperties = profile.getInstallableUnitProperties(iu);
+			writeProperties(iuProperties == null ? Collections.<String, String> emptyMap() : iuProperties, strings, unitOut);
+			byte[] body = iu instanceof LazyInstallableUnit ? ((LazyInstallableUnit) iu).getEncoded() : encode(iu);
+			unitOut.writeInt(bodies.size());
+			unitOut.writeInt(body.length);
+			bodies.write(body);
+		}
+
+		out.writeInt(capabilities.size());
+		for (IProvidedCapability capability : capabilities) {
+			out.writeInt(strings.indexOf(capability.getNamespace()));
+			out.writeInt(strings.indexOf(capability.getName()));
+			out.writeInt(strings.indexOf(capability.getVersion().toString()));
+		}
+		out.writeInt(ius.size());
+		unitTable.writeTo(out);
+		out.flush();
+
+		DataOutputStream header = new DataOutputStream(output);
+		header.writeInt(MAGIC);
+		header.writeInt(FORMAT_VERSION);
+		strings.write(header);
+		tables.writeTo(header);
+		bodies.writeTo(header);
+		header.flush();
+	}
+
+	// Only the capabilities made of a namespace, a name and a version are held in the capability table
+	private static boolean isInternable(Collection<IProvidedCapability> capabilities) {
+		for (IProvidedCapability capability : capabilities) {
+			Map<String, Object> capabilityProperties = capability.getProperties();
+			if (capabilityProperties.size() != 2 || capability.getName() == null || capability.getVersion() == null)
+				return false;
+		}
+		return true;
+	}
+
+	private static void writeProperties(Map<String, String> properties, StringTable strings, DataOutputStream out) throws IOException {
+		out.writeInt(properties.size());
+		for (Map.Entry<String, String> entry : properties.entrySet()) {
+			out.writeInt(strings.indexOf(entry.getKey()));
+			out.writeInt(strings.indexOf(entry.getValue()));
+		}
+	}
+
+	private static byte[] encode(IInstallableUnit iu) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		DeflaterOutputStream output = new DeflaterOutputStream(body);
+		MetadataWriter writer = new MetadataWriter(output, null);
+		writer.writeInstallableUnits(Collections.singleton(iu).iterator(), 1);
+		writer.flush();
+		output.finish();
+		return body.toByteArray();
+	}
+
+	public String getProfileId() {
+		return profileId;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+
+	public IInstallableUnit[] getInstallableUnits() {
+		return units.clone();
+	}
+
+	/**
+	 * Returns the profile properties of the given unit of this profile, or <code>null</code>
+	 * if the unit has none.
+	 */
+	public Map<String, String> getInstallableUnitProperties(IInstallableUnit iu) {
+		if (iu instanceof LazyInstallableUnit && ((LazyInstallableUnit) iu).getSource() == this)
+			return unitProperties.get(((LazyInstallableUnit) iu).getOrdinal());
+		return null;
+	}
+
+	synchronized byte[] getEncoded(int ordinal) {
+		byte[] body = new byte[bodyLengths[ordinal]];
+		ByteBuffer view = buffer.duplicate();
+		view.position(bodyOffsets[ordinal]);
+		view.get(body);
+		return body;
+	}
+
+	/*
+	 * Decodes the unit with the given ordinal from the bytes read from the file.
+	 */
+	synchronized IInstallableUnit materialize(int ordinal) {
+		try {
+			if (parser == null)
+				parser = new UnitParser();
+			return parser.parse(new InflaterInputStream(new ByteArrayInputStream(getEncoded(ordinal))));
+		} catch (IOException e) {
+			throw new IllegalStateException(NLS.bind(Messages.error_parsing_profile, file), e);
+		}
+	}
+
+	private static class StringTable {
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+
+		int indexOf(String string) {
+			Integer index = indexes.get(string);
+			if (index == null) {
+				index = Integer.valueOf(strings.size());
+				indexes.put(string, index);
+				strings.add(string);
+			}
+			return index.intValue();
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			out.writeInt(strings.size());
+			for (String string : strings) {
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	/*
+	 * Parses the body of a unit, a units element holding the unit.
+	 */
+	class UnitParser extends MetadataParser {
+		UnitParser() {
+			super(EngineActivator.getContext(), EngineActivator.ID);
+		}
+
+		IInstallableUnit parse(InputStream stream) throws IOException {
+			this.status = null;
+			try {
+				if (xmlReader == null)
+					getParser();
+				UnitsHandler unitsHandler = new UnitsHandler();
+				xmlReader.setContentHandler(new DocHandler(INSTALLABLE_UNITS_ELEMENT, unitsHandler));
+				xmlReader.parse(new InputSource(stream));
+				if (unitsHandler.units.size() != 1)
+					throw new IOException(getErrorMessage());
+				return MetadataFactory.createInstallableUnit(unitsHandler.units.get(0));
+			} catch (SAXException | ParserConfigurationException e) {
+				throw new IOException(e.getMessage(), e);
+			} finally {
+				stream.close();
+			}
+		}
+
+		@Override
+		protected Object getRootObject() {
+			return this;
+		}
+
+		@Override
+		protected String getErrorMessage() {
+			return NLS.bind(Messages.error_parsing_profile, file);
+		}
+
+		@Override
+		public String toString() {
+			return file.toString();
+		}
+
+		class UnitsHandler extends RootHandler {
+			final List<InstallableUnitDescription> units = new ArrayList<>(1);
+
+			@Override
+			protected void handleRootAttributes(Attributes attributes) {
+				// the size of a body is always one
+			}
+
+			@Override
+			public void startElement(String name, Attributes attributes) {
+				if (name.equals(INSTALLABLE_UNIT_ELEMENT)) {
+					new InstallableUnitHandler(this, attributes, units);
+				} else {
+					invalidElement(name, attributes);
+				}
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import org.eclipse.equinox.internal.p2.engine.phases.Collect;
 import org.eclipse.equinox.internal.provisional.p2.core.eventbus.IProvisioningEventBus;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.engine.ProvisioningContext;
+import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.expression.ExpressionUtil;
 import org.eclipse.equinox.p2.query.*;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
@@ -26,6 +27,7 @@ public class DownloadManager {
 	private ProvisioningContext provContext = null;
 	ArrayList<IArtifactRequest> requestsToProcess = new ArrayList<>();
 	private IProvisioningAgent agent = null;
+	private ArtifactPipeline pipeline = null;
 
 	/**
 	 * This Comparator sorts the repositories such that local repositories are first.
@@ -52,12 +54,61 @@ public class DownloadManager {
 		this.agent = agent;
 	}
 
+	/*
+	 * Creates a download manager reporting each artifact to the given pipeline
+	 * as soon as it is downloaded.
+	 */
+	public DownloadManager(ProvisioningContext context, IProvisioningAgent agent, ArtifactPipeline pipeline) {
+		this(context, agent);
+		this.pipeline = pipeline;
+	}
+
+	/**
+	 * Notifies the pipeline when the artifact of the request it wraps is available.
+	 */
+	private static class NotifyingRequest implements IArtifactRequest {
+		private final IArtifactRequest request;
+		private final ArtifactPipeline pipeline;
+
+		NotifyingRequest(IArtifactRequest request, ArtifactPipeline pipeline) {
+			this.request = request;
+			this.pipeline = pipeline;
+		}
+
+		@Override
+		public IArtifactKey getArtifactKey() {
+			return request.getArtifactKey();
+		}
+
+		@Override
+		public void perform(IArtifactRepository sourceRepository, IProgressMonitor monitor) {
+			request.perform(sourceRepository, monitor);
+			IStatus result = request.getResult();
+			if (result != null && result.isOK())
+				pipeline.available(request);
+		}
+
+		@Override
+		public IStatus getResult() {
+			return request.getResult();
+		}
+
+		@Override
+		public String toString() {
+			return request.toString();
+		}
+	}
+
 	/*
 	 * Add the given artifact to the download queue. When it
 	 * is downloaded, put it in the specified location.
 	 */
 	public void add(IArtifactRequest toAdd) {
 		Assert.isNotNull(toAdd);
+		if (pipeline != null) {
+			pipeline.add(toAdd);
+			toAdd = new NotifyingRequest(toAdd, pipeline);
+		}
 		requestsToProcess.add(toAdd);
 	}
 
@@ -73,6 +73,8 @@ public class Engine implements IEngine {
 				DebugHelper.debug(ENGINE, "Beginning engine operation for profile=" + profile.getProfileId() + " [" + profile.getTimestamp() + "]:" + DebugHelper.LINE_SEPARATOR + DebugHelper.formatOperation(phaseSet, operands, context)); //$NON-NLS-1$//$NON-NLS-2$//$NON-NLS-3$
 
 			EngineSession session = new EngineSession(agent, profile, context);
+			if (isMetricsEnabled())
+				session.setMetrics(new EngineMetrics());
 
 			MultiStatus result = phaseSet.perform(session, operands, monitor);
 			if (result.isOK() || result.matches(IStatus.INFO | IStatus.WARNING)) {
@@ -97,6 +99,12 @@ public class Engine implements IEngine {
 					LogHelper.log(status);
 				eventBus.publishEvent(new CommitOperationEvent(profile, phaseSet, operands, this));
 			}
+			EngineMetrics metrics = session.getMetrics();
+			if (metrics != null) {
+				if (DebugHelper.DEBUG_ENGINE)
+					DebugHelper.debug(ENGINE, "Metrics of engine operation for profile=" + profile.getProfileId() + ":" + DebugHelper.LINE_SEPARATOR + metrics); //$NON-NLS-1$ //$NON-NLS-2$
+				eventBus.publishEvent(new EngineMetricsEvent(profile, phaseSet, operands, this, metrics, result));
+			}
 			//if there is only one child status, return that status instead because it will have more context
 			IStatus[] children = result.getChildren();
 			return children.length == 1 ? children[0] : result;
@@ -106,6 +114,10 @@ public class Engine implements IEngine {
 		}
 	}
 
+	private static boolean isMetricsEnabled() {
+		return Boolean.parseBoolean(EngineActivator.getProperty(EngineActivator.PROP_ENGINE_METRICS));
+	}
+
 	protected IStatus validate(IProfile iprofile, PhaseSet phaseSet, Operand[] operands, ProvisioningContext context, IProgressMonitor monitor) {
 		checkArguments(iprofile, phaseSet, operands, context, monitor);
 
@@ -48,6 +48,45 @@ public class EngineActivator implements BundleActivator {
 	 */
 	public static final String PROFILE_FORMAT_UNCOMPRESSED = "uncompressed"; //$NON-NLS-1$
 
+	/**
+	 * Value for the PROP_PROFILE_FORMAT system property specifying that the changes
+	 * to a profile are written as deltas to the previous state of the profile, with
+	 * a complete snapshot of the profile written periodically.
+	 */
+	public static final String PROFILE_FORMAT_JOURNAL = "journal"; //$NON-NLS-1$
+
+	/**
+	 * Value for the PROP_PROFILE_FORMAT system property specifying that profiles are
+	 * written in the binary profile format, whose installable units are decoded on
+	 * demand.
+	 */
+	public static final String PROFILE_FORMAT_BINARY = "binary"; //$NON-NLS-1$
+
+	/**
+	 * System property specifying the number of operands of a phase that the engine may
+	 * perform concurrently. Operands are performed one at a time unless the property is
+	 * greater than one, and then only those whose actions the phase declares parallel safe,
+	 * such as the actions installing bundles. The operands are performed on the threads shared
+	 * with the planner. The property is read once per operation.
+	 */
+	public static final String PROP_ENGINE_PARALLELISM = "eclipse.p2.engine.parallelism"; //$NON-NLS-1$
+
+	/**
+	 * System property specifying whether the engine should perform the phases following the
+	 * collect phase while the artifacts are downloaded. A phase requiring artifacts performs
+	 * each operand once its artifacts are available and trusted; the operands whose artifacts
+	 * the user must trust are performed once the user confirmed it, after the download.
+	 * Defaults to <code>false</code>.
+	 */
+	public static final String PROP_ENGINE_PIPELINED = "eclipse.p2.engine.pipelined"; //$NON-NLS-1$
+
+	/**
+	 * System property specifying whether the engine should measure the time spent by each
+	 * phase, touchpoint type and action of an operation, and report it in an event once the
+	 * operation is committed or rolled back. Defaults to <code>false</code>.
+	 */
+	public static final String PROP_ENGINE_METRICS = "eclipse.p2.engine.metrics"; //$NON-NLS-1$
+
 	/**
 	 * System property specifying how the engine should handle unsigned artifacts.
 	 * If this property is undefined, the default value is assumed to be "prompt".
@@ -76,6 +115,15 @@ public class EngineActivator implements BundleActivator {
 		return context;
 	}
 
+	/**
+	 * Returns the value of the given property of the framework, or of the system when the
+	 * framework is not running.
+	 */
+	public static String getProperty(String key) {
+		BundleContext bundleContext = context;
+		return bundleContext == null ? System.getProperty(key) : bundleContext.getProperty(key);
+	}
+
 	/**
 	 * This property indicates repositories that are passed via the fragments mechanism.
 	 */
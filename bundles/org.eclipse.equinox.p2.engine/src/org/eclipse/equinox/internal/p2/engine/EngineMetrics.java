@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent by an engine operation, aggregated per phase, per touchpoint type and
+ * per action. Times are measured in nanoseconds. The CPU time is that of the thread
+ * performing the phase or the action, and is not recorded when the virtual machine
+ * does not measure the CPU time of threads.
+ */
+public class EngineMetrics {
+	public static final String PHASE = "phase"; //$NON-NLS-1$
+	public static final String TOUCHPOINT = "touchpoint"; //$NON-NLS-1$
+	public static final String ACTION = "action"; //$NON-NLS-1$
+
+	// The upper bounds of the buckets of the histograms, in milliseconds
+	static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+	private static final String WALL_TIME_HISTOGRAM = "p2_engine_wall_time_milliseconds"; //$NON-NLS-1$
+	private static final String CPU_TIME_COUNTER = "p2_engine_cpu_time_milliseconds_total"; //$NON-NLS-1$
+
+	/**
+	 * The time spent by the occurrences of a phase, of the actions of a touchpoint type or of an action.
+	 */
+	public static class Metric {
+		private int count;
+		private long wallTime;
+		private long cpuTime;
+		private long maxWallTime;
+		private final long[] histogram = new long[BUCKET_BOUNDS.length + 1];
+
+		synchronized void add(long wall, long cpu) {
+			count++;
+			wallTime += wall;
+			if (cpu > 0)
+				cpuTime += cpu;
+			maxWallTime = Math.max(maxWallTime, wall);
+			int bucket = 0;
+			while (bucket < BUCKET_BOUNDS.length && wall > TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS[bucket]))
+				bucket++;
+			histogram[bucket]++;
+		}
+
+		public synchronized int getCount() {
+			return count;
+		}
+
+		public synchronized long getWallTime() {
+			return wallTime;
+		}
+
+		public synchronized long getCpuTime() {
+			return cpuTime;
+		}
+
+		public synchronized long getMaxWallTime() {
+			return maxWallTime;
+		}
+
+		/**
+		 * Returns the number of occurrences in each bucket of {@link EngineMetrics#getBucketBounds()},
+		 * followed by the number of occurrences exceeding the last bound.
+		 */
+		public synchronized long[] getHistogram() {
+			return histogram.clone();
+		}
+	}
+
+	private final ThreadMXBean threads;
+	private final Map<String, Map<String, Metric>> metrics = new LinkedHashMap<>();
+
+	public EngineMetrics() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		threads = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled() ? bean : null;
+		metrics.put(PHASE, new LinkedHashMap<String, Metric>());
+		metrics.put(TOUCHPOINT, new LinkedHashMap<String, Metric>());
+		metrics.put(ACTION, new LinkedHashMap<String, Metric>());
+	}
+
+	/**
+	 * Returns the upper bounds of the buckets of the histograms, in milliseconds.
+	 */
+	public static long[] getBucketBounds() {
+		return BUCKET_BOUNDS.clone();
+	}
+
+	/**
+	 * Returns the CPU time of the current thread, or -1 if it is not measured.
+	 */
+	public long getCurrentThreadCpuTime() {
+		return threads == null ? -1 : threads.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * Records an occurrence of the given key of the given category that started at the given
+	 * wall time, as returned by {@link System#nanoTime()}, and thread CPU time.
+	 */
+	public void record(String category, String key, long startWallTime, long startCpuTime) {
+		long wall = System.nanoTime() - startWallTime;
+		long cpu = startCpuTime < 0 ? -1 : getCurrentThreadCpuTime() - startCpuTime;
+		getMetric(category, key).add(wall, cpu);
+	}
+
+	private synchronized Metric getMetric(String category, String key) {
+		Map<String, Metric> categoryMetrics = metrics.get(category);
+		if (categoryMetrics == null) {
+			categoryMetrics = new LinkedHashMap<>();
+			metrics.put(category, categoryMetrics);
+		}
+		Metric metric = categoryMetrics.get(key);
+		if (metric == null) {
+			metric = new Metric();
+			categoryMetrics.put(key, metric);
+		}
+		return metric;
+	}
+
+	/**
+	 * Returns the metrics of the given category by key, in the order they were first recorded.
+	 */
+	public synchronized Map<String, Metric> getMetrics(String category) {
+		Map<String, Metric> categoryMetrics = metrics.get(category);
+		if (categoryMetrics == null)
+			return Collections.emptyMap();
+		return Collections.unmodifiableMap(new LinkedHashMap<>(categoryMetrics));
+	}
+
+	/**
+	 * Writes the histograms of the wall times and the totals of the CPU times in the
+	 * Prometheus text format, labelled with the category and the key of each metric.
+	 */
+	public void writeHistograms(Writer writer) throws IOException {
+		Map<String, Map<String, Metric>> snapshot = new LinkedHashMap<>();
+		synchronized (this) {
+			for (Map.Entry<String, Map<String, Metric>> entry : metrics.entrySet())
+				snapshot.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+		}
+		writer.write("# TYPE " + WALL_TIME_HISTOGRAM + " histogram\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Map.Entry<String, Map<String, Metric>> category : snapshot.entrySet()) {
+			for (Map.Entry<String, Metric> entry : category.getValue().entrySet()) {
+				String labels = "category=\"" + escape(category.getKey()) + "\",key=\"" + escape(entry.getKey()) + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+				Metric metric = entry.getValue();
+				long[] histogram = metric.getHistogram();
+				long cumulative = 0;
+				for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+					cumulative += histogram[i];
+					writer.write(WALL_TIME_HISTOGRAM + "_bucket{" + labels + ",le=\"" + BUCKET_BOUNDS[i] + "\"} " + cumulative + '\n'); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				writer.write(WALL_TIME_HISTOGRAM + "_bucket{" + labels + ",le=\"+Inf\"} " + metric.getCount() + '\n'); //$NON-NLS-1$ //$NON-NLS-2$
+				writer.write(WALL_TIME_HISTOGRAM + "_sum{" + labels + "} " + TimeUnit.NANOSECONDS.toMillis(metric.getWallTime()) + '\n'); //$NON-NLS-1$ //$NON-NLS-2$
+				writer.write(WALL_TIME_HISTOGRAM + "_count{" + labels + "} " + metric.getCount() + '\n'); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		writer.write("# TYPE " + CPU_TIME_COUNTER + " counter\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Map.Entry<String, Map<String, Metric>> category : snapshot.entrySet()) {
+			for (Map.Entry<String, Metric> entry : category.getValue().entrySet()) {
+				String labels = "category=\"" + escape(category.getKey()) + "\",key=\"" + escape(entry.getKey()) + '"'; //$NON-NLS-1$ //$NON-NLS-2$
+				writer.write(CPU_TIME_COUNTER + '{' + labels + "} " + TimeUnit.NANOSECONDS.toMillis(entry.getValue().getCpuTime()) + '\n'); //$NON-NLS-1$
+			}
+		}
+		writer.flush();
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	}
+
+	/**
+	 * Returns a report of the metrics, listing the keys of each category by decreasing wall time.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		List<String> categories;
+		synchronized (this) {
+			categories = new ArrayList<>(metrics.keySet());
+		}
+		for (String category : categories) {
+			List<Map.Entry<String, Metric>> entries = new ArrayList<>(getMetrics(category).entrySet());
+			entries.sort((e1, e2) -> Long.compare(e2.getValue().getWallTime(), e1.getValue().getWallTime()));
+			for (Map.Entry<String, Metric> entry : entries) {
+				Metric metric = entry.getValue();
+				buffer.append(category).append(' ').append(entry.getKey());
+				buffer.append(": count=").append(metric.getCount()); //$NON-NLS-1$
+				buffer.append(", wall=").append(TimeUnit.NANOSECONDS.toMillis(metric.getWallTime())).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+				buffer.append(", max=").append(TimeUnit.NANOSECONDS.toMillis(metric.getMaxWallTime())).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+				buffer.append(", cpu=").append(TimeUnit.NANOSECONDS.toMillis(metric.getCpuTime())).append("ms"); //$NON-NLS-1$ //$NON-NLS-2$
+				buffer.append(DebugHelper.LINE_SEPARATOR);
+			}
+		}
+		return buffer.toString();
+	}
+}
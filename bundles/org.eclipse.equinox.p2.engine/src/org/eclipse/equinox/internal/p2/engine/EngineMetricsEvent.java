@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.p2.engine.IEngine;
+import org.eclipse.equinox.p2.engine.IProfile;
+
+/**
+ * Reports the metrics of an engine operation once it has been committed or rolled back.
+ */
+public class EngineMetricsEvent extends TransactionEvent {
+	private static final long serialVersionUID = 4917307467843520381L;
+	private EngineMetrics metrics;
+	private IStatus status;
+
+	public EngineMetricsEvent(IProfile profile, PhaseSet phaseSet, Operand[] operands, IEngine engine, EngineMetrics metrics, IStatus status) {
+		super(profile, phaseSet, operands, engine);
+		this.metrics = metrics;
+		this.status = status;
+	}
+
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the result of the operation.
+	 */
+	public IStatus getStatus() {
+		return status;
+	}
+}
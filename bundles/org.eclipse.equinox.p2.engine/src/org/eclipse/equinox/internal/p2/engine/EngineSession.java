@@ -42,7 +42,10 @@ public class EngineSession {
 	boolean currentPhaseActive;
 
 	private List<ActionsRecord> currentActionRecords;
-	private ActionsRecord currentRecord;
+	// The operands of a parallel phase are recorded on the threads performing them
+	private final ThreadLocal<ActionsRecord> currentRecord = new ThreadLocal<>();
+	// The last operand started, reported in the context of errors raised outside of an operand
+	private volatile ActionsRecord contextRecord;
 
 	private IProfile profile;
 
@@ -54,6 +57,12 @@ public class EngineSession {
 
 	private final IProvisioningAgent agent;
 
+	private ArtifactPipeline artifactPipeline;
+
+	private int parallelism = 1;
+
+	private EngineMetrics metrics;
+
 	public EngineSession(IProvisioningAgent agent, IProfile profile, ProvisioningContext context) {
 		super();
 		this.agent = agent;
@@ -73,6 +82,40 @@ public class EngineSession {
 		return context;
 	}
 
+	/**
+	 * Returns the artifacts being collected while the phases of the session are performed,
+	 * or <code>null</code> if the artifacts are collected before.
+	 */
+	public ArtifactPipeline getArtifactPipeline() {
+		return artifactPipeline;
+	}
+
+	void setArtifactPipeline(ArtifactPipeline artifactPipeline) {
+		this.artifactPipeline = artifactPipeline;
+	}
+
+	/**
+	 * Returns the number of operands of a phase performed concurrently in the session.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the metrics recorded for the session, or <code>null</code> if none are recorded.
+	 */
+	public EngineMetrics getMetrics() {
+		return metrics;
+	}
+
+	void setMetrics(EngineMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public File getProfileDataDirectory() {
 		SimpleProfileRegistry profileRegistry = (SimpleProfileRegistry) agent.getService(IProfileRegistry.SERVICE_NAME);
 		return profileRegistry.getProfileDataDirectory(profile.getProfileId());
@@ -166,7 +209,8 @@ public class EngineSession {
 			}
 			currentPhaseActive = false;
 			currentActionRecords = null;
-			currentRecord = null;
+			currentRecord.remove();
+			contextRecord = null;
 		}
 		currentPhase = null;
 
@@ -302,38 +346,43 @@ public class EngineSession {
 			debugPhaseExit(phase);
 	}
 
-	void recordOperandStart(Operand operand) {
+	synchronized void recordOperandStart(Operand operand) {
 		if (operand == null)
 			throw new IllegalArgumentException(Messages.null_operand);
 
-		if (currentRecord != null)
+		if (currentRecord.get() != null)
 			throw new IllegalStateException(Messages.operand_started);
 
-		currentRecord = new ActionsRecord(operand);
-		currentActionRecords.add(currentRecord);
+		ActionsRecord record = new ActionsRecord(operand);
+		currentRecord.set(record);
+		contextRecord = record;
+		currentActionRecords.add(record);
 
 		if (DebugHelper.DEBUG_ENGINE_SESSION)
 			debugOperandStart(operand);
 	}
 
-	void recordOperandEnd(Operand operand) {
-		if (currentRecord == null)
+	synchronized void recordOperandEnd(Operand operand) {
+		ActionsRecord record = currentRecord.get();
+		if (record == null)
 			throw new IllegalStateException(Messages.operand_not_started);
 
-		if (currentRecord.operand != operand)
+		if (record.operand != operand)
 			throw new IllegalArgumentException(Messages.not_current_operand);
 
-		currentRecord = null;
+		currentRecord.remove();
+		if (contextRecord == record)
+			contextRecord = null;
 
 		if (DebugHelper.DEBUG_ENGINE_SESSION)
 			debugOperandEnd(operand);
 	}
 
-	void recordActionExecute(ProvisioningAction action, Map<String, Object> parameters) {
+	synchronized void recordActionExecute(ProvisioningAction action, Map<String, Object> parameters) {
 		if (action == null)
 			throw new IllegalArgumentException(Messages.null_action);
 
-		currentRecord.actions.add(action);
+		currentRecord.get().actions.add(action);
 
 		Touchpoint touchpoint = action.getTouchpoint();
 		if (touchpoint != null)
@@ -362,11 +411,12 @@ public class EngineSession {
 		return message;
 	}
 
-	private Object getCurrentActionId() {
-		if (currentRecord == null || currentRecord.actions.isEmpty())
+	private synchronized Object getCurrentActionId() {
+		ActionsRecord record = getContextRecord();
+		if (record == null || record.actions.isEmpty())
 			return EMPTY_STRING;
 
-		Object currentAction = currentRecord.actions.get(currentRecord.actions.size() - 1);
+		Object currentAction = record.actions.get(record.actions.size() - 1);
 		if (currentAction instanceof ParameterizedProvisioningAction) {
 			ParameterizedProvisioningAction parameterizedAction = (ParameterizedProvisioningAction) currentAction;
 			currentAction = parameterizedAction.getAction();
@@ -374,6 +424,11 @@ public class EngineSession {
 		return currentAction.getClass().getName();
 	}
 
+	private ActionsRecord getContextRecord() {
+		ActionsRecord record = currentRecord.get();
+		return record != null ? record : contextRecord;
+	}
+
 	private String getCurrentPhaseId() {
 		if (currentPhase == null)
 			return EMPTY_STRING;
@@ -381,9 +436,10 @@ public class EngineSession {
 	}
 
 	private String getCurrentOperandId() {
-		if (currentRecord == null)
+		ActionsRecord record = getContextRecord();
+		if (record == null)
 			return EMPTY_STRING;
-		return currentRecord.operand.toString();
+		return record.operand.toString();
 	}
 
 	private static void debugPhaseEnter(Phase phase) {
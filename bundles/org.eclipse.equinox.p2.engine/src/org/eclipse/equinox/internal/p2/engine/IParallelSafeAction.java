@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+/**
+ * Implemented by the provisioning actions that may be executed concurrently with the actions
+ * of other operands when the engine performs the operands of a phase in parallel. Such an
+ * action must guard the state it shares with the other operands, such as the profile or the
+ * configuration of the framework, and must execute and undo each operand independently of
+ * the order of the others.
+ */
+public interface IParallelSafeAction {
+	// Marker interface
+}
@@ -95,6 +95,19 @@ public abstract class InstallableUnitPhase extends Phase {
 		return true;
 	}
 
+	@Override
+	final protected Collection<IArtifactKey> getRequiredArtifacts(Operand operand) {
+		if (!(operand instanceof InstallableUnitOperand))
+			return Collections.emptyList();
+
+		InstallableUnitOperand iuOperand = (InstallableUnitOperand) operand;
+		return getRequiredArtifacts(iuOperand);
+	}
+
+	protected Collection<IArtifactKey> getRequiredArtifacts(InstallableUnitOperand operand) {
+		return Collections.emptyList();
+	}
+
 	protected final List<ProvisioningAction> getActions(IInstallableUnit unit, String key) {
 		List<ITouchpointInstruction> instructions = getInstructions(unit, key);
 		int instrSize = instructions.size();
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
+import org.eclipse.equinox.p2.metadata.expression.IMemberProvider;
+
+/**
+ * An installable unit of a {@link BinaryProfile}. The id, the version and, when they could be
+ * interned, the provided capabilities of the unit are known up front so that the units of a
+ * profile can be indexed and queried by id or capability without being materialised. The
+ * rest of the unit is read from the profile the first time it is needed.
+ */
+public class LazyInstallableUnit implements IInstallableUnit, IMemberProvider {
+	private final BinaryProfile source;
+	private final int ordinal;
+	private final String id;
+	private final Version version;
+	private final Collection<IProvidedCapability> providedCapabilities;
+	private volatile IInstallableUnit unit;
+
+	LazyInstallableUnit(BinaryProfile source, int ordinal, String id, Version version, Collection<IProvidedCapability> providedCapabilities) {
+		this.source = source;
+		this.ordinal = ordinal;
+		this.id = id;
+		this.version = version;
+		this.providedCapabilities = providedCapabilities;
+	}
+
+	/**
+	 * Returns the materialised unit, reading it from the profile if needed.
+	 */
+	protected IInstallableUnit unit() {
+		IInstallableUnit result = unit;
+		if (result == null) {
+			result = source.materialize(ordinal);
+			unit = result;
+		}
+		return result;
+	}
+
+	public boolean isMaterialized() {
+		return unit != null;
+	}
+
+	BinaryProfile getSource() {
+		return source;
+	}
+
+	int getOrdinal() {
+		return ordinal;
+	}
+
+	byte[] getEncoded() {
+		return source.getEncoded(ordinal);
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public Version getVersion() {
+		return version;
+	}
+
+	@Override
+	public Collection<IProvidedCapability> getProvidedCapabilities() {
+		if (providedCapabilities != null)
+			return providedCapabilities;
+		return unit().getProvidedCapabilities();
+	}
+
+	@Override
+	public Collection<IArtifactKey> getArtifacts() {
+		return unit().getArtifacts();
+	}
+
+	@Override
+	public IMatchExpression<IInstallableUnit> getFilter() {
+		return unit().getFilter();
+	}
+
+	@Override
+	public Collection<IInstallableUnitFragment> getFragments() {
+		// The units of a profile are not resolved
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Map<String, String> getProperties() {
+		return unit().getProperties();
+	}
+
+	@Override
+	public String getProperty(String key) {
+		return unit().getProperty(key);
+	}
+
+	@Override
+	public String getProperty(String key, String locale) {
+		return unit().getProperty(key, locale);
+	}
+
+	@Override
+	public Collection<IRequirement> getRequirements() {
+		return unit().getRequirements();
+	}
+
+	@Override
+	public Collection<IRequirement> getMetaRequirements() {
+		return unit().getMetaRequirements();
+	}
+
+	@Override
+	public Collection<ITouchpointData> getTouchpointData() {
+		return unit().getTouchpointData();
+	}
+
+	@Override
+	public ITouchpointType getTouchpointType() {
+		return unit().getTouchpointType();
+	}
+
+	@Override
+	public boolean isResolved() {
+		return false;
+	}
+
+	@Override
+	public boolean isSingleton() {
+		return unit().isSingleton();
+	}
+
+	@Override
+	public boolean satisfies(IRequirement candidate) {
+		return candidate.isMatch(this);
+	}
+
+	@Override
+	public IInstallableUnit unresolved() {
+		return this;
+	}
+
+	@Override
+	public IUpdateDescriptor getUpdateDescriptor() {
+		return unit().getUpdateDescriptor();
+	}
+
+	@Override
+	public Collection<ILicense> getLicenses() {
+		return unit().getLicenses();
+	}
+
+	@Override
+	public Collection<ILicense> getLicenses(String locale) {
+		return unit().getLicenses(locale);
+	}
+
+	@Override
+	public ICopyright getCopyright() {
+		return unit().getCopyright();
+	}
+
+	@Override
+	public ICopyright getCopyright(String locale) {
+		return unit().getCopyright(locale);
+	}
+
+	@Override
+	public Object getMember(String memberName) {
+		if (InstallableUnit.MEMBER_ID == memberName)
+			return id;
+		if (InstallableUnit.MEMBER_VERSION == memberName)
+			return version;
+		if (InstallableUnit.MEMBER_PROVIDED_CAPABILITIES == memberName)
+			return getProvidedCapabilities();
+		IInstallableUnit materialized = unit();
+		if (materialized instanceof IMemberProvider)
+			return ((IMemberProvider) materialized).getMember(memberName);
+		throw new IllegalArgumentException("No such member: " + memberName); //$NON-NLS-1$
+	}
+
+	@Override
+	public int compareTo(IInstallableUnit other) {
+		int cmp = id.compareTo(other.getId());
+		if (cmp == 0)
+			cmp = version.compareTo(other.getVersion());
+		return cmp;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof IInstallableUnit))
+			return false;
+		IInstallableUnit other = (IInstallableUnit) obj;
+		return id.equals(other.getId()) && version.equals(other.getVersion());
+	}
+
+	// The hash code of the InstallableUnit with the same id and version
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + id.hashCode();
+		result = prime * result + version.hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return id + ' ' + version;
+	}
+
+	static class Fragment extends LazyInstallableUnit implements IInstallableUnitFragment {
+		Fragment(BinaryProfile source, int ordinal, String id, Version version, Collection<IProvidedCapability> providedCapabilities) {
+			super(source, ordinal, id, version, providedCapabilities);
+		}
+
+		@Override
+		public Collection<IRequirement> getHost() {
+			return ((IInstallableUnitFragment) unit()).getHost();
+		}
+	}
+
+	static class Patch extends LazyInstallableUnit implements IInstallableUnitPatch {
+		Patch(BinaryProfile source, int ordinal, String id, Version version, Collection<IProvidedCapability> providedCapabilities) {
+			super(source, ordinal, id, version, providedCapabilities);
+		}
+
+		@Override
+		public IRequirement[][] getApplicabilityScope() {
+			return ((IInstallableUnitPatch) unit()).getApplicabilityScope();
+		}
+
+		@Override
+		public List<IRequirementChange> getRequirementsChange() {
+			return ((IInstallableUnitPatch) unit()).getRequirementsChange();
+		}
+
+		@Override
+		public IRequirement getLifeCycle() {
+			return ((IInstallableUnitPatch) unit()).getLifeCycle();
+		}
+	}
+}
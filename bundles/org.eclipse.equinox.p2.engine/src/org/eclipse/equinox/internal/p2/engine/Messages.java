@@ -26,6 +26,7 @@ public class Messages extends NLS {
 
 	public static String CertificateChecker_CertificateError;
 	public static String CertificateChecker_CertificateRejected;
+	public static String CertificateChecker_ConfirmationRequired;
 	public static String CertificateChecker_KeystoreConnectionError;
 
 	public static String CertificateChecker_SignedContentError;
@@ -104,6 +105,7 @@ public class Messages extends NLS {
 
 	public static String SimpleProfileRegistry_Bad_profile_location;
 	public static String SimpleProfileRegistry_CannotRemoveCurrentSnapshot;
+	public static String SimpleProfileRegistry_Journal_State_Missing;
 	public static String SimpleProfileRegistry_Parser_Error_Parsing_Registry;
 	public static String SimpleProfileRegistry_Parser_Has_Incompatible_Version;
 	public static String SimpleProfileRegistry_Profile_in_use;
@@ -12,13 +12,17 @@
 package org.eclipse.equinox.internal.p2.engine;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.runtime.*;
 import org.eclipse.equinox.internal.p2.core.helpers.LogHelper;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
 import org.eclipse.equinox.internal.provisional.p2.core.eventbus.IProvisioningEventBus;
 import org.eclipse.equinox.p2.engine.IProfile;
 import org.eclipse.equinox.p2.engine.ProvisioningContext;
 import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
 import org.eclipse.equinox.p2.engine.spi.Touchpoint;
+import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.osgi.util.NLS;
 
 public abstract class Phase {
@@ -33,8 +37,13 @@ public abstract class Phase {
 	protected static final String PARM_AGENT = "agent"; //$NON-NLS-1$
 	protected static final String PARM_FORCED = "forced"; //$NON-NLS-1$
 	protected static final String PARM_TOUCHPOINT = "touchpoint"; //$NON-NLS-1$
+	/**
+	 * Internal property.
+	 */
+	protected static final String PARM_ARTIFACT_PIPELINE = "artifactPipeline"; //$NON-NLS-1$
 	protected static final String LAST_RESULT_INTERNAL_NAME = "_p2_internal_last_result_variable_"; //$NON-NLS-1$ //
 	protected static final String LAST_RESULT_PUBLIC_NAME = "lastResult"; //$NON-NLS-1$
+	private static final long CANCEL_POLL_INTERVAL = 100;
 
 	protected final String phaseId;
 	protected final int weight;
@@ -46,7 +55,10 @@ public abstract class Phase {
 	private Map<String, Object> phaseParameters = new HashMap<>();
 	private Map<Touchpoint, Map<String, Object>> touchpointToTouchpointPhaseParameters = new HashMap<>();
 	private Map<Touchpoint, Map<String, Object>> touchpointToTouchpointOperandParameters = new HashMap<>();
+	private Map<Touchpoint, String> touchpointToTouchpointType = new HashMap<>();
+	private EngineMetrics metrics;
 	ActionManager actionManager; // injected from phaseset
+	private final Object touchpointLock = new Object();
 	protected boolean isPaused = false;
 
 	protected Phase(String phaseId, int weight, boolean forced) {
@@ -84,6 +96,21 @@ public abstract class Phase {
 	}
 
 	void perform(MultiStatus status, EngineSession session, Operand[] operands, IProgressMonitor monitor) {
+		EngineMetrics metrics = session.getMetrics();
+		if (metrics == null) {
+			performPhase(status, session, operands, monitor);
+			return;
+		}
+		long wallTime = System.nanoTime();
+		long cpuTime = metrics.getCurrentThreadCpuTime();
+		try {
+			performPhase(status, session, operands, monitor);
+		} finally {
+			metrics.record(EngineMetrics.PHASE, phaseId, wallTime, cpuTime);
+		}
+	}
+
+	private void performPhase(MultiStatus status, EngineSession session, Operand[] operands, IProgressMonitor monitor) {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, prePerformWork + mainPerformWork + postPerformWork);
 		session.recordPhaseEnter(this);
 		broadcastPhaseEvent(session, operands, PhaseEvent.TYPE_START);
@@ -110,17 +137,27 @@ public abstract class Phase {
 
 	void prePerform(MultiStatus status, EngineSession session, IProgressMonitor monitor) {
 		IProfile profile = session.getProfile();
+		metrics = session.getMetrics();
 		phaseParameters.put(PARM_PROFILE, profile);
 		phaseParameters.put(PARM_PROFILE_DATA_DIRECTORY, session.getProfileDataDirectory());
 		phaseParameters.put(PARM_CONTEXT, session.getProvisioningContext());
 		phaseParameters.put(PARM_PHASE_ID, phaseId);
 		phaseParameters.put(PARM_FORCED, Boolean.toString(forced));
 		phaseParameters.put(PARM_AGENT, session.getAgent());
+		if (session.getArtifactPipeline() != null)
+			phaseParameters.put(PARM_ARTIFACT_PIPELINE, session.getArtifactPipeline());
 		mergeStatus(status, initializePhase(monitor, profile, phaseParameters));
 	}
 
 	private void mainPerform(MultiStatus status, EngineSession session, Operand[] operands, SubMonitor subMonitor) {
+		int parallelism = session.getParallelism();
+		if (parallelism > 1) {
+			mainPerformParallel(status, session, operands, parallelism, subMonitor);
+			return;
+		}
 		IProfile profile = session.getProfile();
+		ArtifactPipeline pipeline = session.getArtifactPipeline();
+		List<Operand> remaining = pipeline == null ? null : new LinkedList<>(Arrays.asList(operands));
 		subMonitor.beginTask(null, operands.length);
 		for (int i = 0; i < operands.length; i++) {
 			subMonitor.setWorkRemaining(operands.length - i);
@@ -136,7 +173,9 @@ public abstract class Phase {
 				if (subMonitor.isCanceled())
 					throw new OperationCanceledException();
 			}
-			Operand operand = operands[i];
+			Operand operand = pipeline == null ? operands[i] : takeOperand(status, pipeline, remaining, subMonitor);
+			if (operand == null)
+				return;
 			if (!isApplicable(operand))
 				continue;
 
@@ -159,82 +198,389 @@ public abstract class Phase {
 				operandParameters = touchpointToTouchpointOperandParameters.get(operandTouchpoint);
 			}
 
-			if (actions != null) {
-				Object lastResult = null;
-				for (int j = 0; j < actions.size(); j++) {
-					ProvisioningAction action = actions.get(j);
-					Map<String, Object> parameters = operandParameters;
-					Touchpoint touchpoint = action.getTouchpoint();
-					if (touchpoint != null) {
-						mergeStatus(status, initializeTouchpointParameters(profile, operand, touchpoint, subMonitor));
-						if (status.matches(IStatus.ERROR | IStatus.CANCEL))
-							return;
-
-						parameters = touchpointToTouchpointOperandParameters.get(touchpoint);
+			performActions(status, session, profile, operand, actions, operandParameters, touchpointToTouchpointOperandParameters, subMonitor);
+			if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+				return;
+			mergeStatus(status, touchpointCompleteOperand(profile, operand, operandParameters, subMonitor));
+			mergeStatus(status, completeOperand(profile, operand, operandParameters, subMonitor));
+			if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+				return;
+			operandParameters = null;
+			session.recordOperandEnd(operand);
+			subMonitor.worked(1);
+		}
+	}
+
+	/*
+	 * Performs the operands whose actions are all parallel safe on at most the given number of
+	 * threads of the shared worker pool. An operand with an action that is not parallel safe waits for the operands
+	 * dispatched before it and is performed alone, so that it sees the same state as in a
+	 * sequential run.
+	 */
+	private void mainPerformParallel(MultiStatus status, EngineSession session, Operand[] operands, int parallelism, SubMonitor subMonitor) {
+		IProfile profile = session.getProfile();
+		ArtifactPipeline pipeline = session.getArtifactPipeline();
+		List<Operand> remaining = pipeline == null ? null : new LinkedList<>(Arrays.asList(operands));
+		subMonitor.beginTask(null, operands.length);
+		Semaphore permits = new Semaphore(parallelism);
+		AtomicBoolean stopped = new AtomicBoolean();
+		List<Future<IStatus>> running = new ArrayList<>();
+		try {
+			for (int i = 0; i < operands.length; i++) {
+				if (subMonitor.isCanceled()) {
+					stopped.set(true);
+					awaitOperands(status, running, stopped, subMonitor);
+					throw new OperationCanceledException();
+				}
+				while (isPaused) {
+					try {
+						Thread.sleep(1000);
+					} catch (InterruptedException e) {
+						stopped.set(true);
+						awaitOperands(status, running, stopped, subMonitor);
+						mergeStatus(status, new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.phase_thread_interrupted_error, phaseId), e));
+						return;
 					}
-					if (lastResult != null) {
-						parameters = new HashMap<>(parameters);
-						parameters.put(LAST_RESULT_INTERNAL_NAME, lastResult);
+					if (subMonitor.isCanceled()) {
+						stopped.set(true);
+						awaitOperands(status, running, stopped, subMonitor);
+						throw new OperationCanceledException();
 					}
-					parameters = Collections.unmodifiableMap(parameters);
+				}
+				Operand operand;
+				try {
+					operand = pipeline == null ? operands[i] : takeOperand(status, pipeline, remaining, subMonitor);
+				} catch (OperationCanceledException e) {
+					stopped.set(true);
+					awaitOperands(status, running, stopped, subMonitor);
+					throw e;
+				}
+				if (operand == null) {
+					stopped.set(true);
+					awaitOperands(status, running, stopped, subMonitor);
+					return;
+				}
+				if (!isApplicable(operand))
+					continue;
 
-					IStatus actionStatus = null;
+				List<ProvisioningAction> actions = getActions(operand);
+				if (isParallelSafe(actions)) {
+					try {
+						acquire(permits, subMonitor);
+					} catch (InterruptedException e) {
+						stopped.set(true);
+						awaitOperands(status, running, stopped, subMonitor);
+						mergeStatus(status, new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.phase_thread_interrupted_error, phaseId), e));
+						return;
+					} catch (OperationCanceledException e) {
+						stopped.set(true);
+						awaitOperands(status, running, stopped, subMonitor);
+						throw e;
+					}
 					try {
-						session.recordActionExecute(action, parameters);
-						actionStatus = action.execute(parameters);
-						lastResult = action.getResult();
+						running.add(WorkerPool.submit(() -> {
+							IStatus result = null;
+							try {
+								if (stopped.get())
+									return null;
+								result = performOperand(session, profile, operand, actions);
+								return result;
+							} finally {
+								if (result == null || result.matches(IStatus.ERROR | IStatus.CANCEL))
+									stopped.set(true);
+								permits.release();
+							}
+						}));
 					} catch (RuntimeException e) {
-						if (!forced)
-							throw e;
-						// "action.execute" calls user code and might throw an unchecked exception
-						// we catch the error here to gather information on where the problem occurred.
-						actionStatus = new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.forced_action_execute_error, action.getClass().getName()), e);
-					} catch (LinkageError e) {
-						if (!forced)
-							throw e;
-						// Catch linkage errors as these are generally recoverable but let other Errors propagate (see bug 222001)
-						actionStatus = new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.forced_action_execute_error, action.getClass().getName()), e);
+						permits.release();
+						throw e;
 					}
-					if (forced && actionStatus != null && actionStatus.matches(IStatus.ERROR)) {
-						MultiStatus result = new MultiStatus(EngineActivator.ID, IStatus.ERROR, getProblemMessage(), null);
-						result.add(new Status(IStatus.ERROR, EngineActivator.ID, session.getContextString(this, operand, action), null));
-						LogHelper.log(result);
-						actionStatus = Status.OK_STATUS;
+					continue;
+				}
+
+				awaitOperands(status, running, stopped, subMonitor);
+				if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+					return;
+				mergeStatus(status, performOperand(session, profile, operand, actions));
+				if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+					return;
+				subMonitor.worked(1);
+			}
+			awaitOperands(status, running, stopped, subMonitor);
+		} finally {
+			if (!running.isEmpty()) {
+				// The operands must end before the operation is rolled back
+				stopped.set(true);
+				drainOperands(running);
+			}
+		}
+	}
+
+	/*
+	 * Waits for a thread to perform another operand, checking the monitor for cancellation.
+	 */
+	private static void acquire(Semaphore permits, IProgressMonitor monitor) throws InterruptedException {
+		while (!permits.tryAcquire(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+		}
+	}
+
+	/*
+	 * Waits for the given operands to end, ignoring their result.
+	 */
+	private static void drainOperands(List<Future<IStatus>> running) {
+		boolean interrupted = false;
+		for (Future<IStatus> future : running) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException | CancellationException e) {
+					break;
+				}
+			}
+		}
+		running.clear();
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/*
+	 * Waits for the given operands to be performed and merges their status. No further
+	 * operand is started once one of them fails or the monitor is canceled.
+	 */
+	private void awaitOperands(MultiStatus status, List<Future<IStatus>> running, AtomicBoolean stopped, SubMonitor subMonitor) {
+		boolean canceled = false;
+		boolean interrupted = false;
+		Throwable failure = null;
+		for (Future<IStatus> future : running) {
+			while (true) {
+				try {
+					mergeStatus(status, future.get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS));
+					break;
+				} catch (TimeoutException e) {
+					if (subMonitor.isCanceled()) {
+						stopped.set(true);
+						canceled = true;
 					}
-					mergeStatus(status, actionStatus);
-					if (status.matches(IStatus.ERROR | IStatus.CANCEL))
-						return;
+				} catch (InterruptedException e) {
+					// Keep waiting, the operands that are running cannot be rolled back before they end
+					stopped.set(true);
+					interrupted = true;
+				} catch (ExecutionException e) {
+					stopped.set(true);
+					if (failure == null)
+						failure = e.getCause();
+					break;
 				}
 			}
-			mergeStatus(status, touchpointCompleteOperand(profile, operand, operandParameters, subMonitor));
-			mergeStatus(status, completeOperand(profile, operand, operandParameters, subMonitor));
+			subMonitor.worked(1);
+		}
+		running.clear();
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+			mergeStatus(status, new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.phase_thread_interrupted_error, phaseId)));
+		}
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (canceled)
+			throw new OperationCanceledException();
+	}
+
+	/*
+	 * Performs an operand of a parallel phase. The parameters of the operand are held apart
+	 * from the ones of the operands performed concurrently. The session records the operand
+	 * on the calling thread, and leaves it started if performing it fails so that its actions
+	 * are undone on rollback.
+	 */
+	private IStatus performOperand(EngineSession session, IProfile profile, Operand operand, List<ProvisioningAction> actions) {
+		MultiStatus status = new MultiStatus(EngineActivator.ID, IStatus.OK, null, null);
+		IProgressMonitor monitor = new NullProgressMonitor();
+		session.recordOperandStart(operand);
+		Map<String, Object> parameters = new HashMap<>(phaseParameters);
+		parameters.put(PARM_OPERAND, operand);
+		Map<Touchpoint, Map<String, Object>> touchpointParameters = new HashMap<>();
+		mergeStatus(status, initializeOperand(profile, operand, parameters, monitor));
+		if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+			return status;
+
+		Touchpoint operandTouchpoint = (Touchpoint) parameters.get(PARM_TOUCHPOINT);
+		if (operandTouchpoint != null) {
+			mergeStatus(status, initializeTouchpointParameters(profile, operand, operandTouchpoint, parameters, touchpointParameters, monitor));
+			if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+				return status;
+
+			parameters = touchpointParameters.get(operandTouchpoint);
+		}
+
+		performActions(status, session, profile, operand, actions, parameters, touchpointParameters, monitor);
+		if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+			return status;
+		mergeStatus(status, touchpointCompleteOperand(profile, operand, parameters, touchpointParameters, monitor));
+		mergeStatus(status, completeOperand(profile, operand, parameters, monitor));
+		if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+			return status;
+		session.recordOperandEnd(operand);
+		return status;
+	}
+
+	private void performActions(MultiStatus status, EngineSession session, IProfile profile, Operand operand, List<ProvisioningAction> actions, Map<String, Object> parameters, Map<Touchpoint, Map<String, Object>> touchpointParameters, IProgressMonitor monitor) {
+		if (actions == null)
+			return;
+		EngineMetrics metrics = session.getMetrics();
+		Object lastResult = null;
+		for (int j = 0; j < actions.size(); j++) {
+			ProvisioningAction action = actions.get(j);
+			Map<String, Object> actionParameters = parameters;
+			Touchpoint touchpoint = action.getTouchpoint();
+			if (touchpoint != null) {
+				mergeStatus(status, initializeTouchpointParameters(profile, operand, touchpoint, parameters, touchpointParameters, monitor));
+				if (status.matches(IStatus.ERROR | IStatus.CANCEL))
+					return;
+
+				actionParameters = touchpointParameters.get(touchpoint);
+			}
+			if (lastResult != null) {
+				actionParameters = new HashMap<>(actionParameters);
+				actionParameters.put(LAST_RESULT_INTERNAL_NAME, lastResult);
+			}
+			actionParameters = Collections.unmodifiableMap(actionParameters);
+
+			IStatus actionStatus = null;
+			long wallTime = System.nanoTime();
+			long cpuTime = metrics == null ? -1 : metrics.getCurrentThreadCpuTime();
+			try {
+				session.recordActionExecute(action, actionParameters);
+				actionStatus = action.execute(actionParameters);
+				lastResult = action.getResult();
+			} catch (RuntimeException e) {
+				if (!forced)
+					throw e;
+				// "action.execute" calls user code and might throw an unchecked exception
+				// we catch the error here to gather information on where the problem occurred.
+				actionStatus = new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.forced_action_execute_error, action.getClass().getName()), e);
+			} catch (LinkageError e) {
+				if (!forced)
+					throw e;
+				// Catch linkage errors as these are generally recoverable but let other Errors propagate (see bug 222001)
+				actionStatus = new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.forced_action_execute_error, action.getClass().getName()), e);
+			} finally {
+				if (metrics != null) {
+					metrics.record(EngineMetrics.TOUCHPOINT, getTouchpointType(operand), wallTime, cpuTime);
+					metrics.record(EngineMetrics.ACTION, getActionId(action), wallTime, cpuTime);
+				}
+			}
+			if (forced && actionStatus != null && actionStatus.matches(IStatus.ERROR)) {
+				MultiStatus result = new MultiStatus(EngineActivator.ID, IStatus.ERROR, getProblemMessage(), null);
+				result.add(new Status(IStatus.ERROR, EngineActivator.ID, session.getContextString(this, operand, action), null));
+				LogHelper.log(result);
+				actionStatus = Status.OK_STATUS;
+			}
+			mergeStatus(status, actionStatus);
 			if (status.matches(IStatus.ERROR | IStatus.CANCEL))
 				return;
-			operandParameters = null;
-			session.recordOperandEnd(operand);
-			subMonitor.worked(1);
 		}
 	}
 
+	private long getCurrentThreadCpuTime() {
+		return metrics == null ? -1 : metrics.getCurrentThreadCpuTime();
+	}
+
+	// The touchpoint calls made around the actions are recorded with the actions of the touchpoint type
+	private void recordTouchpoint(String touchpointType, long wallTime, long cpuTime) {
+		if (metrics != null)
+			metrics.record(EngineMetrics.TOUCHPOINT, touchpointType, wallTime, cpuTime);
+	}
+
+	private static String getTouchpointType(Operand operand) {
+		if (operand instanceof InstallableUnitOperand) {
+			InstallableUnitOperand iuOperand = (InstallableUnitOperand) operand;
+			IInstallableUnit unit = iuOperand.second() != null ? iuOperand.second() : iuOperand.first();
+			if (unit != null && unit.getTouchpointType() != null)
+				return unit.getTouchpointType().getId();
+		}
+		return ITouchpointType.NONE.getId();
+	}
+
+	// The name of a parsed action, such as "installBundle", or else the class of the action
+	private static String getActionId(ProvisioningAction action) {
+		if (action instanceof ParameterizedProvisioningAction) {
+			String actionText = ((ParameterizedProvisioningAction) action).getActionText();
+			if (actionText != null) {
+				int index = actionText.indexOf('(');
+				return (index == -1 ? actionText : actionText.substring(0, index)).trim();
+			}
+			action = ((ParameterizedProvisioningAction) action).getAction();
+		}
+		return action.getClass().getName();
+	}
+
+	/*
+	 * Takes the next operand whose artifacts are available when the artifacts are collected while
+	 * the phase is performed. Returns null, with the status of the download merged, when the
+	 * download failed before the artifacts of the remaining operands were available.
+	 */
+	private Operand takeOperand(MultiStatus status, ArtifactPipeline pipeline, List<Operand> remaining, IProgressMonitor monitor) {
+		try {
+			Operand operand = pipeline.take(this, remaining, monitor);
+			if (operand == null)
+				mergeStatus(status, pipeline.getResult());
+			return operand;
+		} catch (InterruptedException e) {
+			mergeStatus(status, new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.phase_thread_interrupted_error, phaseId), e));
+			return null;
+		}
+	}
+
+	private boolean isParallelSafe(List<ProvisioningAction> actions) {
+		if (actions == null || actions.isEmpty())
+			return false;
+		for (ProvisioningAction action : actions) {
+			if (!isParallelSafe(action))
+				return false;
+		}
+		return true;
+	}
+
 	private IStatus initializeTouchpointParameters(IProfile profile, Operand operand, Touchpoint touchpoint, IProgressMonitor monitor) {
-		if (touchpointToTouchpointOperandParameters.containsKey(touchpoint))
+		return initializeTouchpointParameters(profile, operand, touchpoint, operandParameters, touchpointToTouchpointOperandParameters, monitor);
+	}
+
+	private IStatus initializeTouchpointParameters(IProfile profile, Operand operand, Touchpoint touchpoint, Map<String, Object> parameters, Map<Touchpoint, Map<String, Object>> touchpointParameters, IProgressMonitor monitor) {
+		if (touchpointParameters.containsKey(touchpoint))
 			return Status.OK_STATUS;
 
-		Map<String, Object> touchpointPhaseParameters = touchpointToTouchpointPhaseParameters.get(touchpoint);
-		if (touchpointPhaseParameters == null) {
-			touchpointPhaseParameters = new HashMap<>(phaseParameters);
-			IStatus status = touchpoint.initializePhase(monitor, profile, phaseId, touchpointPhaseParameters);
+		// Touchpoints are not required to be thread safe, they are called one operand at a time
+		synchronized (touchpointLock) {
+			Map<String, Object> touchpointPhaseParameters = touchpointToTouchpointPhaseParameters.get(touchpoint);
+			String touchpointType = getTouchpointType(operand);
+			if (touchpointPhaseParameters == null) {
+				touchpointPhaseParameters = new HashMap<>(phaseParameters);
+				long wallTime = System.nanoTime();
+				long cpuTime = getCurrentThreadCpuTime();
+				IStatus status = touchpoint.initializePhase(monitor, profile, phaseId, touchpointPhaseParameters);
+				recordTouchpoint(touchpointType, wallTime, cpuTime);
+				if (status != null && status.matches(IStatus.ERROR | IStatus.CANCEL))
+					return status;
+				touchpointToTouchpointPhaseParameters.put(touchpoint, touchpointPhaseParameters);
+				touchpointToTouchpointType.put(touchpoint, touchpointType);
+			}
+
+			Map<String, Object> touchpointOperandParameters = new HashMap<>(touchpointPhaseParameters);
+			touchpointOperandParameters.putAll(parameters);
+			long wallTime = System.nanoTime();
+			long cpuTime = getCurrentThreadCpuTime();
+			IStatus status = touchpoint.initializeOperand(profile, touchpointOperandParameters);
+			recordTouchpoint(touchpointType, wallTime, cpuTime);
 			if (status != null && status.matches(IStatus.ERROR | IStatus.CANCEL))
 				return status;
-			touchpointToTouchpointPhaseParameters.put(touchpoint, touchpointPhaseParameters);
+			touchpointParameters.put(touchpoint, touchpointOperandParameters);
 		}
-
-		Map<String, Object> touchpointOperandParameters = new HashMap<>(touchpointPhaseParameters);
-		touchpointOperandParameters.putAll(operandParameters);
-		IStatus status = touchpoint.initializeOperand(profile, touchpointOperandParameters);
-		if (status != null && status.matches(IStatus.ERROR | IStatus.CANCEL))
-			return status;
-		touchpointToTouchpointOperandParameters.put(touchpoint, touchpointOperandParameters);
 		return Status.OK_STATUS;
 	}
 
@@ -321,9 +667,13 @@ public abstract class Phase {
 		for (Map.Entry<Touchpoint, Map<String, Object>> entry : touchpointToTouchpointPhaseParameters.entrySet()) {
 			Touchpoint touchpoint = entry.getKey();
 			Map<String, Object> touchpointParameters = entry.getValue();
+			long wallTime = System.nanoTime();
+			long cpuTime = getCurrentThreadCpuTime();
 			mergeStatus(status, touchpoint.completePhase(monitor, profile, phaseId, touchpointParameters));
+			recordTouchpoint(touchpointToTouchpointType.get(touchpoint), wallTime, cpuTime);
 		}
 		touchpointToTouchpointPhaseParameters.clear();
+		touchpointToTouchpointType.clear();
 		return status;
 	}
 
@@ -332,16 +682,25 @@ public abstract class Phase {
 	}
 
 	IStatus touchpointCompleteOperand(IProfile profile, Operand operand, Map<String, Object> parameters, IProgressMonitor monitor) {
-		if (touchpointToTouchpointOperandParameters.isEmpty())
+		return touchpointCompleteOperand(profile, operand, parameters, touchpointToTouchpointOperandParameters, monitor);
+	}
+
+	private IStatus touchpointCompleteOperand(IProfile profile, Operand operand, Map<String, Object> parameters, Map<Touchpoint, Map<String, Object>> touchpointParameters, IProgressMonitor monitor) {
+		if (touchpointParameters.isEmpty())
 			return Status.OK_STATUS;
 
 		MultiStatus status = new MultiStatus(EngineActivator.ID, IStatus.OK, null, null);
-		for (Map.Entry<Touchpoint, Map<String, Object>> entry : touchpointToTouchpointOperandParameters.entrySet()) {
-			Touchpoint touchpoint = entry.getKey();
-			Map<String, Object> touchpointParameters = entry.getValue();
-			mergeStatus(status, touchpoint.completeOperand(profile, touchpointParameters));
+		synchronized (touchpointLock) {
+			for (Map.Entry<Touchpoint, Map<String, Object>> entry : touchpointParameters.entrySet()) {
+				Touchpoint touchpoint = entry.getKey();
+				Map<String, Object> touchpointOperandParameters = entry.getValue();
+				long wallTime = System.nanoTime();
+				long cpuTime = getCurrentThreadCpuTime();
+				mergeStatus(status, touchpoint.completeOperand(profile, touchpointOperandParameters));
+				recordTouchpoint(getTouchpointType(operand), wallTime, cpuTime);
+			}
 		}
-		touchpointToTouchpointOperandParameters.clear();
+		touchpointParameters.clear();
 		return status;
 	}
 
@@ -351,6 +710,29 @@ public abstract class Phase {
 
 	protected abstract List<ProvisioningAction> getActions(Operand operand);
 
+	/**
+	 * Returns the keys of the artifacts that must be available before the given operand is
+	 * performed. When the artifacts are collected while the following phases are performed,
+	 * the operands of the phase are taken in the order their artifacts become available.
+	 * Subclasses performing operands on collected artifacts should override.
+	 */
+	protected Collection<IArtifactKey> getRequiredArtifacts(Operand operand) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns whether the given action may be executed concurrently with the actions of other
+	 * operands when the engine performs the operands of a phase in parallel. An operand is only
+	 * dispatched to another thread when all its actions are parallel safe, and the
+	 * initializeOperand and completeOperand methods of the phase are then called concurrently.
+	 * By default, the actions implementing {@link IParallelSafeAction} are parallel safe.
+	 */
+	protected boolean isParallelSafe(ProvisioningAction action) {
+		if (action instanceof ParameterizedProvisioningAction)
+			action = ((ParameterizedProvisioningAction) action).getAction();
+		return action instanceof IParallelSafeAction;
+	}
+
 	/**
 	 * Returns a human-readable message to be displayed in case of an error performing
 	 * this phase. Subclasses should override.
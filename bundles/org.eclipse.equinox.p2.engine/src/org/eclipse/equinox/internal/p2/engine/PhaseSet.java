@@ -12,6 +12,7 @@ package org.eclipse.equinox.internal.p2.engine;
 
 import java.util.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
 import org.eclipse.equinox.p2.engine.*;
 import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
 import org.eclipse.osgi.util.NLS;
@@ -30,6 +31,32 @@ public class PhaseSet implements IPhaseSet {
 	}
 
 	public final MultiStatus perform(EngineSession session, Operand[] operands, IProgressMonitor monitor) {
+		session.setParallelism(WorkerPool.getParallelism(EngineActivator.PROP_ENGINE_PARALLELISM, 1));
+		if (!isPipelined())
+			return performPhases(session, operands, monitor);
+		ArtifactPipeline pipeline = new ArtifactPipeline();
+		session.setArtifactPipeline(pipeline);
+		MultiStatus result = null;
+		IStatus downloadStatus;
+		try {
+			result = performPhases(session, operands, monitor);
+		} finally {
+			if (result == null || result.matches(IStatus.ERROR | IStatus.CANCEL))
+				pipeline.cancel();
+			// The artifacts must be written before the operation is committed or rolled back
+			downloadStatus = pipeline.join();
+			session.setArtifactPipeline(null);
+		}
+		if (!downloadStatus.isOK() && !result.matches(IStatus.ERROR | IStatus.CANCEL))
+			result.merge(downloadStatus);
+		return result;
+	}
+
+	private static boolean isPipelined() {
+		return Boolean.parseBoolean(EngineActivator.getProperty(EngineActivator.PROP_ENGINE_PIPELINED));
+	}
+
+	private MultiStatus performPhases(EngineSession session, Operand[] operands, IProgressMonitor monitor) {
 		MultiStatus status = new MultiStatus(EngineActivator.ID, IStatus.OK, null, null);
 		int[] weights = getProgressWeights(operands);
 		int totalWork = getTotalWork(weights);
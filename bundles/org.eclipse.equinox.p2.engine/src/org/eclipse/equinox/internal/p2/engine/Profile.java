@@ -37,7 +37,9 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 	class ProfilePropertyIndex implements IIndex<IInstallableUnit> {
 		@Override
 		public Iterator<IInstallableUnit> getCandidates(IEvaluationContext ctx, IExpression variable, IExpression booleanExpr) {
-			return iuProperties.keySet().iterator();
+			synchronized (Profile.this) {
+				return new ArrayList<>(iuProperties.keySet()).iterator();
+			}
 		}
 	}
 
@@ -65,7 +67,11 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 	 */
 	private OrderedProperties storage = new OrderedProperties();
 
+	// The units and their properties are changed concurrently when the engine performs the
+	// operands of a phase in parallel, so they are only accessed while holding the lock of
+	// the profile. The units are copied on write once handed to a query or an index.
 	private IUMap ius = new IUMap();
+	private boolean iusShared;
 	final Map<IInstallableUnit, OrderedProperties> iuProperties = new HashMap<>();
 	private boolean changed = false;
 
@@ -170,13 +176,13 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 	public synchronized IIndex<IInstallableUnit> getIndex(String memberName) {
 		if (InstallableUnit.MEMBER_ID.equals(memberName)) {
 			if (idIndex == null)
-				idIndex = new IdIndex(ius);
+				idIndex = new IdIndex(getSharedUnits());
 			return idIndex;
 		}
 
 		if (InstallableUnit.MEMBER_PROVIDED_CAPABILITIES.equals(memberName)) {
 			if (capabilityIndex == null)
-				capabilityIndex = new CapabilityIndex(ius.iterator());
+				capabilityIndex = new CapabilityIndex(getSharedUnits().iterator());
 			return capabilityIndex;
 		}
 
@@ -189,8 +195,29 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 	}
 
 	@Override
-	public Iterator<IInstallableUnit> everything() {
-		return ius.iterator();
+	public synchronized Iterator<IInstallableUnit> everything() {
+		return getSharedUnits().iterator();
+	}
+
+	/**
+	 * Returns the units for reading outside of the lock. They are no longer changed in place.
+	 */
+	private IUMap getSharedUnits() {
+		iusShared = true;
+		return ius;
+	}
+
+	/**
+	 * Returns the units for changing them, copying those read outside of the lock.
+	 */
+	private IUMap getUnitsForWrite() {
+		if (iusShared) {
+			ius = ius.clone();
+			iusShared = false;
+		}
+		idIndex = null;
+		capabilityIndex = null;
+		return ius;
 	}
 
 	@Override
@@ -218,7 +245,7 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 	}
 
 	@Override
-	public String getInstallableUnitProperty(IInstallableUnit iu, String key) {
+	public synchronized String getInstallableUnitProperty(IInstallableUnit iu, String key) {
 		OrderedProperties properties = iuProperties.get(iu);
 		if (properties == null)
 			return null;
@@ -226,7 +253,7 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 		return properties.getProperty(key);
 	}
 
-	public String setInstallableUnitProperty(IInstallableUnit iu, String key, String value) {
+	public synchronized String setInstallableUnitProperty(IInstallableUnit iu, String key, String value) {
 		//		String iuKey = createIUKey(iu);
 		OrderedProperties properties = iuProperties.get(iu);
 		if (properties == null) {
@@ -238,7 +265,7 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 		return (String) properties.setProperty(key, value);
 	}
 
-	public String removeInstallableUnitProperty(IInstallableUnit iu, String key) {
+	public synchronized String removeInstallableUnitProperty(IInstallableUnit iu, String key) {
 		//		String iuKey = createIUKey(iu);
 		OrderedProperties properties = iuProperties.get(iu);
 		if (properties == null)
@@ -284,26 +311,28 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 		changed = true;
 	}
 
-	public void addInstallableUnit(IInstallableUnit iu) {
+	public synchronized void addInstallableUnit(IInstallableUnit iu) {
 		iu = iu.unresolved();
 		if (ius.contains(iu))
 			return;
 
-		ius.add(iu);
+		getUnitsForWrite().add(iu);
 		changed = true;
 	}
 
-	public void removeInstallableUnit(IInstallableUnit iu) {
+	public synchronized void removeInstallableUnit(IInstallableUnit iu) {
 		iu = iu.unresolved();
-		ius.remove(iu);
+		getUnitsForWrite().remove(iu);
 		changed = true;
 	}
 
 	@Override
-	public Map<String, String> getInstallableUnitProperties(IInstallableUnit iu) {
+	public synchronized Map<String, String> getInstallableUnitProperties(IInstallableUnit iu) {
 		OrderedProperties properties = iuProperties.get(iu);
 		if (properties == null)
 			properties = new OrderedProperties();
+		else
+			properties = new OrderedProperties(properties);
 
 		return OrderedProperties.unmodifiableProperties(properties);
 	}
@@ -321,13 +350,13 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 		changed = isChanged;
 	}
 
-	public void clearInstallableUnits() {
-		ius.clear();
+	public synchronized void clearInstallableUnits() {
+		getUnitsForWrite().clear();
 		iuProperties.clear();
 		changed = true;
 	}
 
-	public Profile snapshot() {
+	public synchronized Profile snapshot() {
 		Profile parentSnapshot = null;
 		if (parentProfile != null)
 			parentSnapshot = parentProfile.snapshot();
@@ -354,18 +383,18 @@ public class Profile extends IndexProvider<IInstallableUnit> implements IProfile
 		return snapshot;
 	}
 
-	public void addInstallableUnitProperties(IInstallableUnit iu, Map<String, String> properties) {
+	public synchronized void addInstallableUnitProperties(IInstallableUnit iu, Map<String, String> properties) {
 		for (Entry<String, String> entry : properties.entrySet()) {
 			setInstallableUnitProperty(iu, entry.getKey(), entry.getValue());
 		}
 	}
 
-	public void clearInstallableUnitProperties(IInstallableUnit iu) {
+	public synchronized void clearInstallableUnitProperties(IInstallableUnit iu) {
 		iuProperties.remove(iu);
 		changed = true;
 	}
 
-	public void clearOrphanedInstallableUnitProperties() {
+	public synchronized void clearOrphanedInstallableUnitProperties() {
 		Set<IInstallableUnit> keys = iuProperties.keySet();
 		//		Set orphans = new HashSet();
 		Collection<IInstallableUnit> toRemove = new ArrayList<>();
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.engine;
+
+import java.util.*;
+import java.util.Map.Entry;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.query.QueryUtil;
+
+/**
+ * The changes between two states of a profile, as recorded in the profile journal of the
+ * {@link SimpleProfileRegistry}. A delta records the profile properties that were set or
+ * removed, the installable units that were added or removed, and the complete properties of
+ * each installable unit whose properties changed.
+ */
+public class ProfileDelta {
+	private final String profileId;
+	private long timestamp;
+	private final long previousTimestamp;
+	private final Map<String, String> setProperties = new LinkedHashMap<>();
+	private final Set<String> removedProperties = new LinkedHashSet<>();
+	private final List<IInstallableUnit> addedUnits = new ArrayList<>();
+	private final Set<IVersionedId> removedUnits = new LinkedHashSet<>();
+	private final Map<IVersionedId, Map<String, String>> unitProperties = new LinkedHashMap<>();
+
+	public ProfileDelta(String profileId, long timestamp, long previousTimestamp) {
+		this.profileId = profileId;
+		this.timestamp = timestamp;
+		this.previousTimestamp = previousTimestamp;
+	}
+
+	/**
+	 * Computes the changes that turn the previous state of a profile into the current one.
+	 * The delta is stamped with the timestamp of the current state once that state is saved.
+	 */
+	public static ProfileDelta compute(IProfile previous, IProfile current) {
+		ProfileDelta delta = new ProfileDelta(current.getProfileId(), 0, previous.getTimestamp());
+
+		Map<String, String> previousProperties = previous.getProperties();
+		for (Entry<String, String> entry : current.getProperties().entrySet()) {
+			if (!entry.getValue().equals(previousProperties.get(entry.getKey())))
+				delta.setProperties.put(entry.getKey(), entry.getValue());
+		}
+		Map<String, String> currentProperties = current.getProperties();
+		for (String key : previousProperties.keySet()) {
+			if (!currentProperties.containsKey(key))
+				delta.removedProperties.add(key);
+		}
+
+		Set<IInstallableUnit> previousUnits = previous.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet();
+		Set<IInstallableUnit> currentUnits = current.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet();
+		for (IInstallableUnit iu : previousUnits) {
+			if (!currentUnits.contains(iu))
+				delta.removedUnits.add(new VersionedId(iu.getId(), iu.getVersion()));
+		}
+		for (IInstallableUnit iu : currentUnits) {
+			Map<String, String> properties = current.getInstallableUnitProperties(iu);
+			if (!previousUnits.contains(iu)) {
+				delta.addedUnits.add(iu);
+				if (!properties.isEmpty())
+					delta.unitProperties.put(new VersionedId(iu.getId(), iu.getVersion()), new LinkedHashMap<>(properties));
+			} else if (!properties.equals(previous.getInstallableUnitProperties(iu))) {
+				delta.unitProperties.put(new VersionedId(iu.getId(), iu.getVersion()), new LinkedHashMap<>(properties));
+			}
+		}
+		return delta;
+	}
+
+	public String getProfileId() {
+		return profileId;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Returns the timestamp of the state of the profile that this delta applies to.
+	 */
+	public long getPreviousTimestamp() {
+		return previousTimestamp;
+	}
+
+	public Map<String, String> getSetProperties() {
+		return setProperties;
+	}
+
+	public Set<String> getRemovedProperties() {
+		return removedProperties;
+	}
+
+	public List<IInstallableUnit> getAddedUnits() {
+		return addedUnits;
+	}
+
+	public Set<IVersionedId> getRemovedUnits() {
+		return removedUnits;
+	}
+
+	/**
+	 * Returns the complete properties of the installable units whose properties changed.
+	 * An empty map means that all the properties of the unit were removed.
+	 */
+	public Map<IVersionedId, Map<String, String>> getUnitProperties() {
+		return unitProperties;
+	}
+
+	public boolean isEmpty() {
+		return setProperties.isEmpty() && removedProperties.isEmpty() && addedUnits.isEmpty() && removedUnits.isEmpty() && unitProperties.isEmpty();
+	}
+}
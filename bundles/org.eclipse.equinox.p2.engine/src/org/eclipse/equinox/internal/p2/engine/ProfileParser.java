@@ -10,11 +10,9 @@
  *******************************************************************************/
 package org.eclipse.equinox.internal.p2.engine;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 import org.eclipse.equinox.internal.p2.metadata.repository.io.MetadataParser;
-import org.eclipse.equinox.p2.metadata.IInstallableUnit;
-import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.metadata.*;
 import org.osgi.framework.BundleContext;
 import org.xml.sax.Attributes;
 
@@ -182,4 +180,195 @@ public abstract class ProfileParser extends MetadataParser implements ProfileXML
 			}
 		}
 	}
+
+	/**
+	 * Handler for the changes between two states of a profile, as written by
+	 * {@link ProfileWriter#writeProfileDelta(ProfileDelta)}.
+	 */
+	protected class ProfileDeltaHandler extends RootHandler {
+
+		private final String[] required = new String[] {ID_ATTRIBUTE, TIMESTAMP_ATTRIBUTE, PREVIOUS_TIMESTAMP_ATTRIBUTE};
+
+		private ProfileDelta delta;
+		private PropertiesHandler propertiesHandler;
+		private InstallableUnitsHandler unitsHandler;
+
+		@Override
+		protected void handleRootAttributes(Attributes attributes) {
+			String[] values = parseRequiredAttributes(attributes, required);
+			delta = new ProfileDelta(values[0], parseTimestamp(values[1]), parseTimestamp(values[2]));
+		}
+
+		private long parseTimestamp(String value) {
+			try {
+				return Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				invalidAttributeValue(PROFILE_DELTA_ELEMENT, TIMESTAMP_ATTRIBUTE, value, e);
+				return 0;
+			}
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			if (PROPERTIES_ELEMENT.equals(name)) {
+				if (propertiesHandler == null) {
+					propertiesHandler = new PropertiesHandler(this, attributes);
+				} else {
+					duplicateElement(this, name, attributes);
+				}
+			} else if (REMOVED_PROPERTIES_ELEMENT.equals(name)) {
+				new RemovedPropertiesHandler(this, delta.getRemovedProperties());
+			} else if (INSTALLABLE_UNITS_ELEMENT.equals(name)) {
+				if (unitsHandler == null) {
+					unitsHandler = new InstallableUnitsHandler(this, attributes);
+				} else {
+					duplicateElement(this, name, attributes);
+				}
+			} else if (REMOVED_UNITS_ELEMENT.equals(name)) {
+				new RemovedUnitsHandler(this, delta.getRemovedUnits());
+			} else if (IUS_PROPERTIES_ELEMENT.equals(name)) {
+				new UnitsPropertiesHandler(this, delta.getUnitProperties());
+			} else {
+				invalidElement(name, attributes);
+			}
+		}
+
+		@Override
+		protected void finished() {
+			if (propertiesHandler != null)
+				delta.getSetProperties().putAll(propertiesHandler.getProperties());
+			if (unitsHandler != null)
+				delta.getAddedUnits().addAll(Arrays.asList(unitsHandler.getUnits()));
+		}
+
+		public ProfileDelta getDelta() {
+			return delta;
+		}
+	}
+
+	protected class RemovedPropertiesHandler extends AbstractHandler {
+
+		private final Set<String> keys;
+
+		public RemovedPropertiesHandler(AbstractHandler parentHandler, Set<String> keys) {
+			super(parentHandler, REMOVED_PROPERTIES_ELEMENT);
+			this.keys = keys;
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			if (name.equals(PROPERTY_ELEMENT)) {
+				new RemovedPropertyHandler(this, attributes, keys);
+			} else {
+				invalidElement(name, attributes);
+			}
+		}
+	}
+
+	protected class RemovedPropertyHandler extends AbstractHandler {
+
+		private final String[] required = new String[] {PROPERTY_NAME_ATTRIBUTE};
+
+		public RemovedPropertyHandler(AbstractHandler parentHandler, Attributes attributes, Set<String> keys) {
+			super(parentHandler, PROPERTY_ELEMENT);
+			String key = parseRequiredAttributes(attributes, required)[0];
+			if (key != null)
+				keys.add(key);
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			noSubElements(name, attributes);
+		}
+	}
+
+	protected class RemovedUnitsHandler extends AbstractHandler {
+
+		private final Set<IVersionedId> units;
+
+		public RemovedUnitsHandler(AbstractHandler parentHandler, Set<IVersionedId> units) {
+			super(parentHandler, REMOVED_UNITS_ELEMENT);
+			this.units = units;
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			if (name.equals(INSTALLABLE_UNIT_ELEMENT)) {
+				new RemovedUnitHandler(this, attributes, units);
+			} else {
+				invalidElement(name, attributes);
+			}
+		}
+	}
+
+	protected class RemovedUnitHandler extends AbstractHandler {
+
+		private final String[] required = new String[] {ID_ATTRIBUTE, VERSION_ATTRIBUTE};
+
+		public RemovedUnitHandler(AbstractHandler parentHandler, Attributes attributes, Set<IVersionedId> units) {
+			super(parentHandler, INSTALLABLE_UNIT_ELEMENT);
+			String[] values = parseRequiredAttributes(attributes, required);
+			Version version = checkVersion(INSTALLABLE_UNIT_ELEMENT, VERSION_ATTRIBUTE, values[1]);
+			if (values[0] != null)
+				units.add(new VersionedId(values[0], version));
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			noSubElements(name, attributes);
+		}
+	}
+
+	// Unlike IUsPropertiesHandler, keeps the units whose properties were all removed
+	protected class UnitsPropertiesHandler extends AbstractHandler {
+
+		private final Map<IVersionedId, Map<String, String>> unitProperties;
+
+		public UnitsPropertiesHandler(AbstractHandler parentHandler, Map<IVersionedId, Map<String, String>> unitProperties) {
+			super(parentHandler, IUS_PROPERTIES_ELEMENT);
+			this.unitProperties = unitProperties;
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			if (name.equals(IU_PROPERTIES_ELEMENT)) {
+				new UnitPropertiesHandler(this, attributes, unitProperties);
+			} else {
+				invalidElement(name, attributes);
+			}
+		}
+	}
+
+	protected class UnitPropertiesHandler extends AbstractHandler {
+
+		private final String[] required = new String[] {ID_ATTRIBUTE, VERSION_ATTRIBUTE};
+
+		private IVersionedId unit;
+		private Map<IVersionedId, Map<String, String>> unitProperties;
+		private PropertiesHandler propertiesHandler;
+
+		public UnitPropertiesHandler(AbstractHandler parentHandler, Attributes attributes, Map<IVersionedId, Map<String, String>> unitProperties) {
+			super(parentHandler, IU_PROPERTIES_ELEMENT);
+			this.unitProperties = unitProperties;
+			String[] values = parseRequiredAttributes(attributes, required);
+			Version version = checkVersion(IU_PROPERTIES_ELEMENT, VERSION_ATTRIBUTE, values[1]);
+			if (values[0] != null)
+				unit = new VersionedId(values[0], version);
+		}
+
+		@Override
+		protected void finished() {
+			if (isValidXML() && unit != null && propertiesHandler != null)
+				unitProperties.put(unit, propertiesHandler.getProperties());
+		}
+
+		@Override
+		public void startElement(String name, Attributes attributes) {
+			if (name.equals(PROPERTIES_ELEMENT)) {
+				propertiesHandler = new PropertiesHandler(this, attributes);
+			} else {
+				invalidElement(name, attributes);
+			}
+		}
+	}
 }
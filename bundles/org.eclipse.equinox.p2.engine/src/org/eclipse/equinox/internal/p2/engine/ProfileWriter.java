@@ -15,6 +15,7 @@ import java.util.*;
 import org.eclipse.equinox.internal.p2.metadata.repository.io.MetadataWriter;
 import org.eclipse.equinox.p2.engine.IProfile;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IVersionedId;
 import org.eclipse.equinox.p2.query.QueryUtil;
 
 public class ProfileWriter extends MetadataWriter implements ProfileXMLConstants {
@@ -45,6 +46,61 @@ public class ProfileWriter extends MetadataWriter implements ProfileXMLConstants
 		flush();
 	}
 
+	/**
+	 * Writes the changes between two states of a profile. Only the installable units that were
+	 * added are written in full.
+	 */
+	public void writeProfileDelta(ProfileDelta delta) {
+		start(PROFILE_DELTA_ELEMENT);
+		attribute(ID_ATTRIBUTE, delta.getProfileId());
+		attribute(TIMESTAMP_ATTRIBUTE, Long.toString(delta.getTimestamp()));
+		attribute(PREVIOUS_TIMESTAMP_ATTRIBUTE, Long.toString(delta.getPreviousTimestamp()));
+		writeProperties(delta.getSetProperties());
+		Set<String> removedProperties = delta.getRemovedProperties();
+		if (!removedProperties.isEmpty()) {
+			start(REMOVED_PROPERTIES_ELEMENT);
+			attribute(COLLECTION_SIZE_ATTRIBUTE, removedProperties.size());
+			for (String key : removedProperties) {
+				start(PROPERTY_ELEMENT);
+				attribute(PROPERTY_NAME_ATTRIBUTE, key);
+				end(PROPERTY_ELEMENT);
+			}
+			end(REMOVED_PROPERTIES_ELEMENT);
+		}
+		writeInstallableUnits(delta.getAddedUnits().iterator(), delta.getAddedUnits().size());
+		Set<IVersionedId> removedUnits = delta.getRemovedUnits();
+		if (!removedUnits.isEmpty()) {
+			start(REMOVED_UNITS_ELEMENT);
+			attribute(COLLECTION_SIZE_ATTRIBUTE, removedUnits.size());
+			for (IVersionedId unit : removedUnits) {
+				start(INSTALLABLE_UNIT_ELEMENT);
+				attribute(ID_ATTRIBUTE, unit.getId());
+				attribute(VERSION_ATTRIBUTE, unit.getVersion().toString());
+				end(INSTALLABLE_UNIT_ELEMENT);
+			}
+			end(REMOVED_UNITS_ELEMENT);
+		}
+		Map<IVersionedId, Map<String, String>> unitProperties = delta.getUnitProperties();
+		if (!unitProperties.isEmpty()) {
+			start(IUS_PROPERTIES_ELEMENT);
+			attribute(COLLECTION_SIZE_ATTRIBUTE, unitProperties.size());
+			for (Map.Entry<IVersionedId, Map<String, String>> entry : unitProperties.entrySet()) {
+				start(IU_PROPERTIES_ELEMENT);
+				attribute(ID_ATTRIBUTE, entry.getKey().getId());
+				attribute(VERSION_ATTRIBUTE, entry.getKey().getVersion().toString());
+				// Written even when empty, an empty element records that all the properties were removed
+				start(PROPERTIES_ELEMENT);
+				attribute(COLLECTION_SIZE_ATTRIBUTE, entry.getValue().size());
+				entry.getValue().forEach(this::writeProperty);
+				end(PROPERTIES_ELEMENT);
+				end(IU_PROPERTIES_ELEMENT);
+			}
+			end(IUS_PROPERTIES_ELEMENT);
+		}
+		end(PROFILE_DELTA_ELEMENT);
+		flush();
+	}
+
 	private void writeInstallableUnitsProperties(Iterator<IInstallableUnit> it, int size, IProfile profile) {
 		if (size == 0)
 			return;
@@ -31,4 +31,11 @@ public interface ProfileXMLConstants extends XMLConstants {
 	public static final String IUS_PROPERTIES_ELEMENT = "iusProperties"; //$NON-NLS-1$
 	public static final String IU_PROPERTIES_ELEMENT = "iuProperties"; //$NON-NLS-1$
 	public static final String PROFILE_TARGET = "profile"; //$NON-NLS-1$
+
+	// Constants for the profile delta elements of the profile journal
+
+	public static final String PROFILE_DELTA_ELEMENT = "profileDelta"; //$NON-NLS-1$
+	public static final String PREVIOUS_TIMESTAMP_ATTRIBUTE = "previous"; //$NON-NLS-1$
+	public static final String REMOVED_PROPERTIES_ELEMENT = "removedProperties"; //$NON-NLS-1$
+	public static final String REMOVED_UNITS_ELEMENT = "removedUnits"; //$NON-NLS-1$
 }
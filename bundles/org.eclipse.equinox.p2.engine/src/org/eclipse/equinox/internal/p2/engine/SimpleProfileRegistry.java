@@ -45,6 +45,10 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 
 	private static final String PROFILE_EXT = ".profile"; //$NON-NLS-1$
 	private static final String PROFILE_GZ_EXT = ".profile.gz"; //$NON-NLS-1$
+	private static final String PROFILE_DELTA_EXT = ".profile.delta.gz"; //$NON-NLS-1$
+	private static final String PROFILE_BIN_EXT = ".profile.bin"; //$NON-NLS-1$
+	// The number of deltas written after a snapshot before the next snapshot is written
+	private static final int JOURNAL_COMPACTION_INTERVAL = 20;
 	public static final String DEFAULT_STORAGE_DIR = "profileRegistry"; //$NON-NLS-1$
 	private static final String DATA_EXT = ".data"; //$NON-NLS-1$
 
@@ -199,12 +203,9 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		if (!profileDirectory.isDirectory())
 			return null;
 
-		File profileFile = new File(profileDirectory, Long.toString(timestamp) + PROFILE_GZ_EXT);
-		if (!profileFile.exists()) {
-			profileFile = new File(profileDirectory, Long.toString(timestamp) + PROFILE_EXT);
-			if (!profileFile.exists())
-				return null;
-		}
+		File profileFile = findProfileFile(profileDirectory, timestamp);
+		if (profileFile == null)
+			return null;
 
 		Parser parser = new Parser(EngineActivator.getContext(), EngineActivator.ID);
 		try {
@@ -230,7 +231,7 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		File[] profileFiles = profileDirectory.listFiles(new FileFilter() {
 			@Override
 			public boolean accept(File pathname) {
-				return (pathname.getName().endsWith(PROFILE_EXT) || pathname.getName().endsWith(PROFILE_GZ_EXT)) && pathname.isFile() && !pathname.getName().startsWith("._"); //$NON-NLS-1$
+				return isProfileFile(pathname.getName()) && pathname.isFile() && !pathname.getName().startsWith("._"); //$NON-NLS-1$
 			}
 		});
 
@@ -391,6 +392,7 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		ProfileLock lock = profileLocks.get(id);
 		lock.checkLocked();
 
+		ProfileDelta changes = isJournalEnabled() ? ProfileDelta.compute(current, profile) : null;
 		current.clearLocalProperties();
 		current.clearInstallableUnits();
 
@@ -403,7 +405,7 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 			if (iuProperties != null)
 				current.addInstallableUnitProperties(iu, iuProperties);
 		}
-		saveProfile(current);
+		saveProfile(current, changes);
 		profile.clearOrphanedInstallableUnitProperties();
 		profile.setTimestamp(current.getTimestamp());
 		broadcastChangeEvent(id, IProfileEvent.CHANGED);
@@ -493,12 +495,10 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		if (!profileDirectory.isDirectory())
 			return;
 
-		File profileFile = new File(profileDirectory, Long.toString(timestamp) + PROFILE_GZ_EXT);
-		if (!profileFile.exists()) {
-			profileFile = new File(profileDirectory, Long.toString(timestamp) + PROFILE_EXT);
-			if (!profileFile.exists())
-				return;
-		}
+		File profileFile = findProfileFile(profileDirectory, timestamp);
+		if (profileFile == null)
+			return;
+		compactSuccessor(id, profileDirectory, timestamp);
 		FileUtils.deleteAll(profileFile);
 		// Ignore the return value here. If there was a problem removing the profile state
 		// properties we don't want to fail the whole operation since the profile state itself 
@@ -506,6 +506,49 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		removeProfileStateProperties(id, timestamp, null);
 	}
 
+	/**
+	 * Returns the file holding the state of a profile with the given timestamp, or
+	 * <code>null</code> if there is no such state.
+	 */
+	File findProfileFile(File profileDirectory, long timestamp) {
+		String[] extensions = new String[] {PROFILE_GZ_EXT, PROFILE_EXT, PROFILE_BIN_EXT, PROFILE_DELTA_EXT};
+		for (int i = 0; i < extensions.length; i++) {
+			File profileFile = new File(profileDirectory, Long.toString(timestamp) + extensions[i]);
+			if (profileFile.exists())
+				return profileFile;
+		}
+		return null;
+	}
+
+	static boolean isProfileFile(String fileName) {
+		return fileName.endsWith(PROFILE_GZ_EXT) || fileName.endsWith(PROFILE_EXT) || fileName.endsWith(PROFILE_BIN_EXT) || fileName.endsWith(PROFILE_DELTA_EXT);
+	}
+
+	/*
+	 * Writes the state of a profile that follows the given one as a snapshot if it is written
+	 * as a delta, so that the given state can be removed without breaking the journal.
+	 */
+	private void compactSuccessor(String id, File profileDirectory, long timestamp) throws ProvisionException {
+		long[] timestamps = listProfileTimestamps(id);
+		int index = Arrays.binarySearch(timestamps, timestamp);
+		if (index < 0 || index == timestamps.length - 1)
+			return;
+		File successorFile = new File(profileDirectory, Long.toString(timestamps[index + 1]) + PROFILE_DELTA_EXT);
+		if (!successorFile.exists())
+			return;
+
+		Parser parser = new Parser(EngineActivator.getContext(), EngineActivator.ID);
+		File snapshotFile = new File(profileDirectory, Long.toString(timestamps[index + 1]) + PROFILE_GZ_EXT);
+		try {
+			parser.parse(successorFile);
+			writeProfileFile(snapshotFile, true, parser.getProfileMap().get(id), null);
+		} catch (IOException e) {
+			snapshotFile.delete();
+			throw new ProvisionException(new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.error_persisting_profile, id), e));
+		}
+		FileUtils.deleteAll(successorFile);
+	}
+
 	private void broadcastChangeEvent(String profileId, int reason) {
 		if (eventBus != null)
 			eventBus.publishEvent(new ProfileEvent(profileId, reason));
@@ -568,7 +611,7 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		File[] profileFiles = profileDirectory.listFiles(new FileFilter() {
 			@Override
 			public boolean accept(File pathname) {
-				return (pathname.getName().endsWith(PROFILE_GZ_EXT) || pathname.getName().endsWith(PROFILE_EXT)) && !pathname.isDirectory();
+				return isProfileFile(pathname.getName()) && !pathname.isDirectory();
 			}
 		});
 		// protect against NPE
@@ -591,6 +634,14 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 	}
 
 	private void saveProfile(Profile profile) {
+		saveProfile(profile, null);
+	}
+
+	/*
+	 * Saves a new state of the given profile. When the changes since the previous state are given,
+	 * they are written instead of the whole profile unless a snapshot of the profile is due.
+	 */
+	private void saveProfile(Profile profile, ProfileDelta changes) {
 		File profileDirectory = getProfileFolder(profile.getProfileId());
 		profileDirectory.mkdir();
 
@@ -599,7 +650,14 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		if (currentTimestamp <= previousTimestamp)
 			currentTimestamp = previousTimestamp + 1;
 		boolean shouldGzipFile = shouldGzipFile(profile);
-		File profileFile = new File(profileDirectory, Long.toString(currentTimestamp) + (shouldGzipFile ? PROFILE_GZ_EXT : PROFILE_EXT));
+		if (changes != null && !(shouldGzipFile && shouldWriteDelta(profile, profileDirectory, changes)))
+			changes = null;
+		String extension = PROFILE_EXT;
+		if (changes != null)
+			extension = PROFILE_DELTA_EXT;
+		else if (shouldGzipFile)
+			extension = isBinaryEnabled() ? PROFILE_BIN_EXT : PROFILE_GZ_EXT;
+		File profileFile = new File(profileDirectory, Long.toString(currentTimestamp) + extension);
 
 		// Log a stack trace to see who is writing the profile.
 		if (DebugHelper.DEBUG_PROFILE_REGISTRY)
@@ -607,18 +665,37 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 
 		profile.setTimestamp(currentTimestamp);
 		profile.setChanged(false);
+		if (changes != null)
+			changes.setTimestamp(currentTimestamp);
+		try {
+			writeProfileFile(profileFile, shouldGzipFile, profile, changes);
+		} catch (IOException e) {
+			profile.setTimestamp(previousTimestamp);
+			profileFile.delete();
+			LogHelper.log(new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.error_persisting_profile, profile.getProfileId()), e));
+		}
+	}
+
+	/*
+	 * Writes the given changes to a profile if any, and the whole profile otherwise.
+	 */
+	private void writeProfileFile(File profileFile, boolean gzip, Profile profile, ProfileDelta changes) throws IOException {
 		OutputStream os = null;
 		try {
-			if (shouldGzipFile)
+			if (profileFile.getName().endsWith(PROFILE_BIN_EXT)) {
+				os = new BufferedOutputStream(new FileOutputStream(profileFile));
+				BinaryProfile.write(profile, os);
+				return;
+			}
+			if (gzip)
 				os = new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(profileFile)));
 			else
 				os = new BufferedOutputStream(new FileOutputStream(profileFile));
 			Writer writer = new Writer(os);
-			writer.writeProfile(profile);
-		} catch (IOException e) {
-			profile.setTimestamp(previousTimestamp);
-			profileFile.delete();
-			LogHelper.log(new Status(IStatus.ERROR, EngineActivator.ID, NLS.bind(Messages.error_persisting_profile, profile.getProfileId()), e));
+			if (changes != null)
+				writer.writeProfileDelta(changes);
+			else
+				writer.writeProfile(profile);
 		} finally {
 			try {
 				if (os != null)
@@ -629,6 +706,39 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		}
 	}
 
+	/*
+	 * Returns whether the given changes to a profile can be written as a delta: they must apply to
+	 * the latest state of the profile, and fewer deltas than the compaction interval must have been
+	 * written since the last snapshot. Profiles with a parent are always written as snapshots.
+	 */
+	private boolean shouldWriteDelta(Profile profile, File profileDirectory, ProfileDelta changes) {
+		if (profile.getParentProfile() != null)
+			return false;
+		long[] timestamps = listProfileTimestamps(profile.getProfileId());
+		if (timestamps.length == 0 || timestamps[timestamps.length - 1] != changes.getPreviousTimestamp())
+			return false;
+		int journalLength = 0;
+		for (int i = timestamps.length - 1; i >= 0 && new File(profileDirectory, Long.toString(timestamps[i]) + PROFILE_DELTA_EXT).exists(); i--)
+			journalLength++;
+		return journalLength < JOURNAL_COMPACTION_INTERVAL;
+	}
+
+	/**
+	 * Returns whether profiles should be written in the binary profile format.
+	 */
+	private boolean isBinaryEnabled() {
+		String format = EngineActivator.getContext().getProperty(EngineActivator.PROP_PROFILE_FORMAT);
+		return EngineActivator.PROFILE_FORMAT_BINARY.equals(format);
+	}
+
+	/**
+	 * Returns whether the changes to profiles should be written as deltas to their previous state.
+	 */
+	private boolean isJournalEnabled() {
+		String format = EngineActivator.getContext().getProperty(EngineActivator.PROP_PROFILE_FORMAT);
+		return EngineActivator.PROFILE_FORMAT_JOURNAL.equals(format);
+	}
+
 	public void setEventBus(IProvisioningEventBus bus) {
 		this.eventBus = bus;
 	}
@@ -726,25 +836,65 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		}
 
 		public void parse(File file) throws IOException {
-			InputStream is;
-			if (file.getName().endsWith(PROFILE_GZ_EXT)) {
-				is = new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)));
-			} else { // backward compatibility. SimpleProfileRegistry doesn't write non-gzipped profiles any more. 
-				is = new BufferedInputStream(new FileInputStream(file));
+			if (file.getName().endsWith(PROFILE_DELTA_EXT)) {
+				parseJournal(file);
+				return;
+			}
+			ProfileHandler profileHandler = parseSnapshot(file);
+			profileHandlers.put(profileHandler.getProfileId(), profileHandler);
+		}
+
+		private ProfileHandler parseSnapshot(File file) throws IOException {
+			if (file.getName().endsWith(PROFILE_BIN_EXT))
+				return new BinaryProfileHandler(BinaryProfile.read(file));
+			ProfileHandler profileHandler = new ProfileHandler();
+			parse(openStream(file), PROFILE_ELEMENT, profileHandler);
+			return profileHandler;
+		}
+
+		private InputStream openStream(File file) throws IOException {
+			if (file.getName().endsWith(PROFILE_GZ_EXT) || file.getName().endsWith(PROFILE_DELTA_EXT))
+				return new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)));
+			// backward compatibility. SimpleProfileRegistry doesn't write non-gzipped profiles any more.
+			return new BufferedInputStream(new FileInputStream(file));
+		}
+
+		/*
+		 * Parses a state of a profile written as a delta by applying the deltas that lead to it,
+		 * oldest first, to the snapshot of the profile they start from.
+		 */
+		private void parseJournal(File file) throws IOException {
+			LinkedList<ProfileDelta> deltas = new LinkedList<>();
+			File stateFile = file;
+			while (stateFile.getName().endsWith(PROFILE_DELTA_EXT)) {
+				ProfileDeltaHandler deltaHandler = new ProfileDeltaHandler();
+				parse(openStream(stateFile), PROFILE_DELTA_ELEMENT, deltaHandler);
+				ProfileDelta delta = deltaHandler.getDelta();
+				deltas.addFirst(delta);
+				File previousFile = delta.getPreviousTimestamp() < delta.getTimestamp() ? findProfileFile(stateFile.getParentFile(), delta.getPreviousTimestamp()) : null;
+				if (previousFile == null)
+					throw new IOException(NLS.bind(Messages.SimpleProfileRegistry_Journal_State_Missing, Long.toString(delta.getPreviousTimestamp()), stateFile));
+				stateFile = previousFile;
 			}
-			parse(is);
+			ProfileHandler snapshotHandler = parseSnapshot(stateFile);
+			JournalProfileHandler profileHandler = new JournalProfileHandler(snapshotHandler, deltas);
+			profileHandlers.put(profileHandler.getProfileId(), profileHandler);
 		}
 
 		public synchronized void parse(InputStream stream) throws IOException {
+			ProfileHandler profileHandler = new ProfileHandler();
+			parse(stream, PROFILE_ELEMENT, profileHandler);
+			profileHandlers.put(profileHandler.getProfileId(), profileHandler);
+		}
+
+		private synchronized void parse(InputStream stream, String rootName, RootHandler rootHandler) throws IOException {
 			this.status = null;
 			try {
 				// TODO: currently not caching the parser since we make no assumptions
 				//		 or restrictions on concurrent parsing
 				getParser();
-				ProfileHandler profileHandler = new ProfileHandler();
-				xmlReader.setContentHandler(new ProfileDocHandler(PROFILE_ELEMENT, profileHandler));
+				xmlReader.setContentHandler(new ProfileDocHandler(rootName, rootHandler));
 				xmlReader.parse(new InputSource(stream));
-				profileHandlers.put(profileHandler.getProfileId(), profileHandler);
 			} catch (SAXException e) {
 				IOException ioException = new IOException(e.getMessage());
 				ioException.initCause(e);
@@ -807,6 +957,105 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 			profileMap.put(profileId, profile);
 		}
 
+		/*
+		 * A state of a profile obtained by applying deltas to a snapshot of the profile.
+		 */
+		final class JournalProfileHandler extends ProfileHandler {
+			private final String parentId;
+			private final long timestamp;
+			private final Map<String, String> properties;
+			private final Map<IVersionedId, IInstallableUnit> units = new LinkedHashMap<>();
+			private final Map<IVersionedId, Map<String, String>> unitProperties = new HashMap<>();
+
+			JournalProfileHandler(ProfileHandler snapshotHandler, List<ProfileDelta> deltas) {
+				super(snapshotHandler.getProfileId());
+				parentId = snapshotHandler.getParentId();
+				Map<String, String> snapshotProperties = snapshotHandler.getProperties();
+				properties = snapshotProperties == null ? new LinkedHashMap<>() : new LinkedHashMap<>(snapshotProperties);
+				IInstallableUnit[] ius = snapshotHandler.getInstallableUnits();
+				if (ius != null) {
+					for (int i = 0; i < ius.length; i++) {
+						IVersionedId unit = new VersionedId(ius[i].getId(), ius[i].getVersion());
+						units.put(unit, ius[i]);
+						Map<String, String> iuProperties = snapshotHandler.getIUProperties(ius[i]);
+						if (iuProperties != null)
+							unitProperties.put(unit, iuProperties);
+					}
+				}
+				long stateTimestamp = snapshotHandler.getTimestamp();
+				for (ProfileDelta delta : deltas) {
+					properties.keySet().removeAll(delta.getRemovedProperties());
+					properties.putAll(delta.getSetProperties());
+					for (IVersionedId unit : delta.getRemovedUnits()) {
+						units.remove(unit);
+						unitProperties.remove(unit);
+					}
+					for (IInstallableUnit iu : delta.getAddedUnits())
+						units.put(new VersionedId(iu.getId(), iu.getVersion()), iu);
+					unitProperties.putAll(delta.getUnitProperties());
+					stateTimestamp = delta.getTimestamp();
+				}
+				timestamp = stateTimestamp;
+			}
+
+			@Override
+			public String getParentId() {
+				return parentId;
+			}
+
+			@Override
+			public long getTimestamp() {
+				return timestamp;
+			}
+
+			@Override
+			public Map<String, String> getProperties() {
+				return properties;
+			}
+
+			@Override
+			public IInstallableUnit[] getInstallableUnits() {
+				return units.values().toArray(new IInstallableUnit[units.size()]);
+			}
+
+			@Override
+			public Map<String, String> getIUProperties(IInstallableUnit iu) {
+				return unitProperties.get(new VersionedId(iu.getId(), iu.getVersion()));
+			}
+		}
+
+		/*
+		 * A state of a profile read from the binary profile format.
+		 */
+		final class BinaryProfileHandler extends ProfileHandler {
+			private final BinaryProfile binaryProfile;
+
+			BinaryProfileHandler(BinaryProfile binaryProfile) {
+				super(binaryProfile.getProfileId());
+				this.binaryProfile = binaryProfile;
+			}
+
+			@Override
+			public long getTimestamp() {
+				return binaryProfile.getTimestamp();
+			}
+
+			@Override
+			public Map<String, String> getProperties() {
+				return binaryProfile.getProperties();
+			}
+
+			@Override
+			public IInstallableUnit[] getInstallableUnits() {
+				return binaryProfile.getInstallableUnits();
+			}
+
+			@Override
+			public Map<String, String> getIUProperties(IInstallableUnit iu) {
+				return binaryProfile.getInstallableUnitProperties(iu);
+			}
+		}
+
 		private final class ProfileDocHandler extends DocHandler {
 
 			public ProfileDocHandler(String rootName, RootHandler rootHandler) {
@@ -933,7 +1182,7 @@ public class SimpleProfileRegistry implements IProfileRegistry, IAgentService {
 		File[] profileFiles = profileDirectory.listFiles(new FileFilter() {
 			@Override
 			public boolean accept(File pathname) {
-				return (pathname.getName().endsWith(PROFILE_GZ_EXT) || pathname.getName().endsWith(PROFILE_EXT)) && pathname.isFile();
+				return isProfileFile(pathname.getName()) && pathname.isFile();
 			}
 		});
 		return profileFiles.length > 0;
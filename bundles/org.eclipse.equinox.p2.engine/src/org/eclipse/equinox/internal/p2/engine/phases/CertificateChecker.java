@@ -35,6 +35,12 @@ import org.osgi.util.tracker.ServiceTracker;
 public class CertificateChecker {
 	private static final String DEBUG_PREFIX = "certificate checker"; //$NON-NLS-1$
 
+	/**
+	 * The code of the status returned by {@link #check()} when the user must be prompted
+	 * to trust the artifacts.
+	 */
+	public static final int CONFIRMATION_REQUIRED = 1;
+
 	private ArrayList<File> artifacts;
 	private final IProvisioningAgent agent;
 
@@ -48,17 +54,30 @@ public class CertificateChecker {
 	}
 
 	public IStatus start() {
+		return checkCertificates(true);
+	}
+
+	/**
+	 * Checks the certificates without prompting the user. Returns a status with the code
+	 * {@link #CONFIRMATION_REQUIRED} if the artifacts are only trusted once the user confirms
+	 * it, in which case they must be checked again with {@link #start()}.
+	 */
+	public IStatus check() {
+		return checkCertificates(false);
+	}
+
+	private IStatus checkCertificates(boolean prompt) {
 		final BundleContext context = EngineActivator.getContext();
 		ServiceReference<SignedContentFactory> contentFactoryRef = context.getServiceReference(SignedContentFactory.class);
 		SignedContentFactory verifierFactory = context.getService(contentFactoryRef);
 		try {
-			return checkCertificates(verifierFactory);
+			return checkCertificates(verifierFactory, prompt);
 		} finally {
 			context.ungetService(contentFactoryRef);
 		}
 	}
 
-	private IStatus checkCertificates(SignedContentFactory verifierFactory) {
+	private IStatus checkCertificates(SignedContentFactory verifierFactory, boolean prompt) {
 		UIServices serviceUI = (UIServices) agent.getService(UIServices.SERVICE_NAME);
 		SignedContent content = null;
 		SignerInfo[] signerInfo = null;
@@ -150,6 +169,9 @@ public class CertificateChecker {
 		if (details == null && unTrustedCertificateChains == null)
 			return status;
 
+		if (!prompt)
+			return new Status(IStatus.INFO, EngineActivator.ID, CONFIRMATION_REQUIRED, Messages.CertificateChecker_ConfirmationRequired, null);
+
 		TrustInfo trustInfo = serviceUI.getTrustInfo(unTrustedCertificateChains, details);
 
 		// If user doesn't trust unsigned content, cancel the operation
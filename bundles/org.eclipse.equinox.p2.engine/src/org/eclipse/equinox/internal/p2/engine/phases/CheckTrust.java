@@ -12,36 +12,100 @@ package org.eclipse.equinox.internal.p2.engine.phases;
 
 import java.io.File;
 import java.util.*;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.equinox.internal.p2.engine.InstallableUnitOperand;
-import org.eclipse.equinox.internal.p2.engine.InstallableUnitPhase;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.internal.p2.engine.*;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.engine.IProfile;
 import org.eclipse.equinox.p2.engine.PhaseSetFactory;
 import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
+import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.ITouchpointType;
 
 /**
  * An install phase that checks if the certificates used to sign the artifacts
- * being installed are from a trusted source.
+ * being installed are from a trusted source. When the artifacts are collected while
+ * the following phases are performed, the phase does not wait for them: the artifacts
+ * of each operand are checked when a following phase requires them, and only the
+ * operands whose artifacts the user must trust are held back until the download ends.
  */
 public class CheckTrust extends InstallableUnitPhase {
 
 	public static final String PARM_ARTIFACT_FILES = "artifactFiles"; //$NON-NLS-1$
 
+	private ArtifactPipeline pipeline;
+
+	/**
+	 * Checks the artifacts of each operand as they become available, and prompts the user
+	 * once for those that are not trusted without confirmation.
+	 */
+	private class TrustVerifier implements ArtifactPipeline.Verifier {
+		private final Map<String, Object> parameters;
+		private final List<File> unconfirmed = new ArrayList<>();
+
+		TrustVerifier(Map<String, Object> parameters) {
+			this.parameters = parameters;
+		}
+
+		@Override
+		public IStatus verify(Operand operand) {
+			if (!(operand instanceof InstallableUnitOperand) || ((InstallableUnitOperand) operand).second() == null)
+				return Status.OK_STATUS;
+			InstallableUnitOperand iuOperand = (InstallableUnitOperand) operand;
+			List<File> files = new ArrayList<>();
+			Map<String, Object> operandParameters = new HashMap<>(parameters);
+			operandParameters.put(PARM_OPERAND, operand);
+			operandParameters.put(PARM_IU, iuOperand.second());
+			operandParameters.put(PARM_ARTIFACT_FILES, files);
+			// The actions only collect the files of the artifacts and have nothing to undo
+			List<ProvisioningAction> actions = getActions(iuOperand);
+			if (actions != null) {
+				for (ProvisioningAction action : actions) {
+					IStatus status = action.execute(operandParameters);
+					if (status != null && status.matches(IStatus.ERROR | IStatus.CANCEL))
+						return status;
+				}
+			}
+			if (files.isEmpty())
+				return Status.OK_STATUS;
+			CertificateChecker certificateChecker = new CertificateChecker((IProvisioningAgent) parameters.get(PARM_AGENT));
+			certificateChecker.add(files.toArray());
+			IStatus status = certificateChecker.check();
+			if (status.getCode() != CertificateChecker.CONFIRMATION_REQUIRED || status.matches(IStatus.ERROR | IStatus.CANCEL))
+				return status;
+			unconfirmed.addAll(files);
+			return new Status(IStatus.INFO, EngineActivator.ID, ArtifactPipeline.CONFIRMATION_REQUIRED, status.getMessage(), null);
+		}
+
+		@Override
+		public IStatus confirm() {
+			CertificateChecker certificateChecker = new CertificateChecker((IProvisioningAgent) parameters.get(PARM_AGENT));
+			certificateChecker.add(unconfirmed.toArray());
+			return certificateChecker.start();
+		}
+	}
+
 	public CheckTrust(int weight) {
 		super(PhaseSetFactory.PHASE_CHECK_TRUST, weight);
 	}
 
 	@Override
 	protected boolean isApplicable(InstallableUnitOperand op) {
-		return (op.second() != null);
+		// When pipelined, the operands are checked by the phases that require their artifacts
+		return (op.second() != null) && pipeline == null;
+	}
+
+	@Override
+	protected Collection<IArtifactKey> getRequiredArtifacts(InstallableUnitOperand operand) {
+		return operand.second().getArtifacts();
 	}
 
 	@Override
 	protected IStatus completePhase(IProgressMonitor monitor, IProfile profile, Map<String, Object> parameters) {
+		if (pipeline != null) {
+			pipeline = null;
+			return Status.OK_STATUS;
+		}
 		@SuppressWarnings("unchecked")
 		Collection<File> artifactRequests = (Collection<File>) parameters.get(PARM_ARTIFACT_FILES);
 		IProvisioningAgent agent = (IProvisioningAgent) parameters.get(PARM_AGENT);
@@ -84,6 +148,9 @@ public class CheckTrust extends InstallableUnitPhase {
 	@Override
 	protected IStatus initializePhase(IProgressMonitor monitor, IProfile profile, Map<String, Object> parameters) {
 		parameters.put(PARM_ARTIFACT_FILES, new ArrayList<File>());
+		pipeline = (ArtifactPipeline) parameters.get(PARM_ARTIFACT_PIPELINE);
+		if (pipeline != null)
+			pipeline.setVerifier(new TrustVerifier(new HashMap<>(parameters)));
 		return super.initializePhase(monitor, profile, parameters);
 	}
 
@@ -94,8 +94,9 @@ public class Collect extends InstallableUnitPhase {
 				return Status.CANCEL_STATUS;
 		}
 
+		ArtifactPipeline pipeline = (ArtifactPipeline) parameters.get(PARM_ARTIFACT_PIPELINE);
 		List<IArtifactRequest> totalArtifactRequests = new ArrayList<>(artifactRequests.size());
-		DownloadManager dm = new DownloadManager(context, agent);
+		DownloadManager dm = new DownloadManager(context, agent, pipeline);
 		for (IArtifactRequest[] requests : artifactRequests) {
 			for (int i = 0; i < requests.length; i++) {
 				dm.add(requests[i]);
@@ -105,6 +106,14 @@ public class Collect extends InstallableUnitPhase {
 		IProvisioningEventBus bus = (IProvisioningEventBus) agent.getService(IProvisioningEventBus.SERVICE_NAME);
 		if (bus != null)
 			bus.publishEvent(new CollectEvent(CollectEvent.TYPE_OVERALL_START, null, context, totalArtifactRequests.toArray(new IArtifactRequest[totalArtifactRequests.size()])));
+		if (pipeline == null)
+			return download(dm, bus, context, totalArtifactRequests, monitor);
+		// The following phases are performed while the artifacts are downloaded
+		pipeline.start(m -> download(dm, bus, context, totalArtifactRequests, m));
+		return Status.OK_STATUS;
+	}
+
+	private IStatus download(DownloadManager dm, IProvisioningEventBus bus, ProvisioningContext context, List<IArtifactRequest> totalArtifactRequests, IProgressMonitor monitor) {
 		IStatus downloadStatus = dm.start(monitor);
 		try {
 			return downloadStatus;
@@ -27,7 +27,7 @@ import org.eclipse.osgi.util.NLS;
 
 public class Configure extends InstallableUnitPhase {
 
-	final static class BeforeConfigureEventAction extends ProvisioningAction {
+	final static class BeforeConfigureEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
@@ -50,7 +50,7 @@ public class Configure extends InstallableUnitPhase {
 		}
 	}
 
-	final static class AfterConfigureEventAction extends ProvisioningAction {
+	final static class AfterConfigureEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
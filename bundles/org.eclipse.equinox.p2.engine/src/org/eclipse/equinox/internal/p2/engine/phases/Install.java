@@ -26,7 +26,7 @@ import org.eclipse.osgi.util.NLS;
 
 public class Install extends InstallableUnitPhase {
 
-	final static class BeforeInstallEventAction extends ProvisioningAction {
+	final static class BeforeInstallEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
@@ -50,7 +50,7 @@ public class Install extends InstallableUnitPhase {
 		}
 	}
 
-	final static class AfterInstallEventAction extends ProvisioningAction {
+	final static class AfterInstallEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
@@ -83,6 +83,11 @@ public class Install extends InstallableUnitPhase {
 		return (op.second() != null && !op.second().equals(op.first()));
 	}
 
+	@Override
+	protected Collection<IArtifactKey> getRequiredArtifacts(InstallableUnitOperand operand) {
+		return operand.second().getArtifacts();
+	}
+
 	@Override
 	protected List<ProvisioningAction> getActions(InstallableUnitOperand currentOperand) {
 		//TODO: monitor.subTask(NLS.bind(Messages.Engine_Installing_IU, unit.getId()));
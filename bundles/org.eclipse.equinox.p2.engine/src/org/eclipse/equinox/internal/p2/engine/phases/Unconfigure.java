@@ -26,7 +26,7 @@ import org.eclipse.equinox.p2.query.QueryUtil;
 
 public class Unconfigure extends InstallableUnitPhase {
 
-	final static class BeforeUnConfigureEventAction extends ProvisioningAction {
+	final static class BeforeUnConfigureEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
@@ -49,7 +49,7 @@ public class Unconfigure extends InstallableUnitPhase {
 		}
 	}
 
-	final static class AfterUnConfigureEventAction extends ProvisioningAction {
+	final static class AfterUnConfigureEventAction extends ProvisioningAction implements IParallelSafeAction {
 
 		@Override
 		public IStatus execute(Map<String, Object> parameters) {
@@ -50,6 +50,7 @@ public class LocalMetadataRepository extends AbstractMetadataRepository implemen
 	protected HashSet<IRepositoryReference> repositories = new HashSet<>();
 	private IIndex<IInstallableUnit> idIndex;
 	private IIndex<IInstallableUnit> capabilityIndex;
+	private IIndex<IInstallableUnit> propertyIndex;
 	private TranslationSupport translationSupport;
 	private boolean snapshotNeeded = false;
 	private boolean disableSave = false;
@@ -107,6 +108,7 @@ public class LocalMetadataRepository extends AbstractMetadataRepository implemen
 		}
 		units.addAll(installableUnits);
 		capabilityIndex = null; // Generated, not backed by units
+		propertyIndex = null;
 		save();
 	}
 
@@ -138,6 +140,13 @@ public class LocalMetadataRepository extends AbstractMetadataRepository implemen
 				capabilityIndex = new CapabilityIndex(units.iterator());
 			return capabilityIndex;
 		}
+
+		if (InstallableUnit.MEMBER_PROPERTIES.equals(memberName)) {
+			snapshotNeeded = true;
+			if (propertyIndex == null)
+				propertyIndex = new PropertyIndex(units.iterator());
+			return propertyIndex;
+		}
 		return null;
 	}
 
@@ -221,6 +230,7 @@ public class LocalMetadataRepository extends AbstractMetadataRepository implemen
 		} else
 			units.clear();
 		capabilityIndex = null; // Generated, not backed by units.
+		propertyIndex = null;
 		save();
 	}
 
@@ -236,6 +246,7 @@ public class LocalMetadataRepository extends AbstractMetadataRepository implemen
 			}
 			units.removeAll(installableUnits);
 			capabilityIndex = null; // Generated, not backed by units.
+			propertyIndex = null;
 		}
 		if (changed)
 			save();
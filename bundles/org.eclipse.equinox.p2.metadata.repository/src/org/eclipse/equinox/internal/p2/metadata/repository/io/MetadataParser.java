@@ -20,6 +20,7 @@ import java.util.Map.Entry;
 import org.eclipse.equinox.internal.p2.core.helpers.OrderedProperties;
 import org.eclipse.equinox.internal.p2.metadata.ArtifactKey;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.MetadataPool;
 import org.eclipse.equinox.internal.p2.persistence.XMLParser;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.metadata.MetadataFactory.*;
@@ -37,6 +38,17 @@ public abstract class MetadataParser extends XMLParser implements XMLConstants {
 		super(context, bundleId);
 	}
 
+	// Versions and ranges repeat across units and repositories so share them
+	@Override
+	public Version checkVersion(String element, String attribute, String value) {
+		return MetadataPool.intern(super.checkVersion(element, attribute, value));
+	}
+
+	@Override
+	public VersionRange checkVersionRange(String element, String attribute, String value) {
+		return MetadataPool.intern(super.checkVersionRange(element, attribute, value));
+	}
+
 	protected abstract class AbstractMetadataHandler extends AbstractHandler {
 
 		public AbstractMetadataHandler(ContentHandler parentHandler, String elementHandled) {
@@ -153,7 +165,7 @@ public abstract class MetadataParser extends XMLParser implements XMLConstants {
 			if (values[0] == null)
 				return;
 
-			id = values[0];
+			id = MetadataPool.intern(values[0]);
 			version = checkVersion(INSTALLABLE_UNIT_ELEMENT, VERSION_ATTRIBUTE, values[1]);
 			singleton = checkBoolean(INSTALLABLE_UNIT_ELEMENT, SINGLETON_ATTRIBUTE, values[2], true).booleanValue();
 		}
@@ -518,8 +530,8 @@ public abstract class MetadataParser extends XMLParser implements XMLConstants {
 			this.capabilities = capabilities;
 
 			String[] values = parseRequiredAttributes(attributes, REQUIRED_PROVIDED_CAPABILITY_ATTRIBUTES);
-			this.namespace = values[0];
-			this.name = values[1];
+			this.namespace = MetadataPool.intern(values[0]);
+			this.name = MetadataPool.intern(values[1]);
 			this.version = checkVersion(PROVIDED_CAPABILITY_ELEMENT, VERSION_ATTRIBUTE, values[2]);
 		}
 
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.equinox.p2.core.IPool;
+
+/**
+ * A thread safe pool that holds its objects weakly. Unlike the {@link org.eclipse.equinox.p2.core.WeakPool}
+ * an object is only considered to be a duplicate of a pooled object when both are of the same class, so
+ * the pool never hands out an instance of another implementation than the one it was given.
+ * <p>
+ * The pool counts the number of requests and the number of requests that were answered with an
+ * already pooled object.
+ * </p>
+ */
+public class ConcurrentWeakPool<T> implements IPool<T> {
+	private static class Entry<T> extends WeakReference<T> {
+		private final int hash;
+
+		Entry(T referent, ReferenceQueue<? super T> queue) {
+			super(referent, queue);
+			hash = referent.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this)
+				return true;
+			if (!(o instanceof Entry<?>))
+				return false;
+			Entry<?> other = (Entry<?>) o;
+			if (hash != other.hash)
+				return false;
+			// Cleared entries are only equal to themselves
+			Object referent = get();
+			Object otherReferent = other.get();
+			return referent != null && otherReferent != null && referent.getClass() == otherReferent.getClass() && referent.equals(otherReferent);
+		}
+	}
+
+	private final ConcurrentHashMap<Entry<T>, Entry<T>> pool = new ConcurrentHashMap<>();
+	private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+
+	@Override
+	public T add(T newObject) {
+		if (newObject == null)
+			return null;
+
+		expungeStaleEntries();
+		requests.increment();
+		Entry<T> newEntry = new Entry<>(newObject, queue);
+		for (;;) {
+			Entry<T> existing = pool.putIfAbsent(newEntry, newEntry);
+			if (existing == null)
+				return newObject;
+			T pooled = existing.get();
+			if (pooled != null) {
+				hits.increment();
+				return pooled;
+			}
+			// The existing entry was cleared after it was found. Get rid of it and try again
+			pool.remove(existing, existing);
+		}
+	}
+
+	/**
+	 * Returns the number of objects currently held by the pool.
+	 */
+	public int size() {
+		expungeStaleEntries();
+		return pool.size();
+	}
+
+	/**
+	 * Returns the number of non <code>null</code> objects that have been added to the pool.
+	 */
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	/**
+	 * Returns the number of times {@link #add(Object)} returned an object that was already pooled.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	private void expungeStaleEntries() {
+		Object stale;
+		while ((stale = queue.poll()) != null)
+			pool.remove(stale);
+	}
+}
@@ -11,12 +11,10 @@
  *******************************************************************************/
 package org.eclipse.equinox.internal.p2.metadata;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import org.eclipse.equinox.internal.p2.core.helpers.CollectionUtils;
 import org.eclipse.equinox.p2.core.IPool;
@@ -30,21 +28,24 @@ import org.eclipse.equinox.p2.query.QueryUtil;
 
 /**
  * A map that stores {@link IInstallableUnit} instances in a way that is efficient to query
+ * <p>
+ * The map is an open addressed hash table of ids using linear probing. All units
+ * are kept in one array and the units that share an id are chained together using
+ * an int array of links, so no objects are created per entry and no buckets are
+ * copied when units are added or removed.
  */
 public class IUMap implements Cloneable {
 	/**
 	 * Iterator over all the {@link IInstallableUnit} instances in the map.
 	 */
 	public class MapIterator implements Iterator<IInstallableUnit> {
-		//iterator over the keys in UIMap
-		private final Iterator<Object> unitIterator;
-		private IInstallableUnit[] currentBucket;
-		private int bucketIndex = 0;
-		private IInstallableUnit nextElement = null;
+		// position in the id table
+		private int idIndex = -1;
+		// position of the next unit in the unit array
+		private int unitIndex = NONE;
 
 		MapIterator() {
 			super();
-			unitIterator = units.values().iterator();
 		}
 
 		@Override
@@ -57,8 +58,8 @@ public class IUMap implements Cloneable {
 			if (!positionNext())
 				throw new NoSuchElementException();
 
-			IInstallableUnit nxt = nextElement;
-			nextElement = null;
+			IInstallableUnit nxt = units[unitIndex];
+			unitIndex = links[unitIndex];
 			return nxt;
 		}
 
@@ -68,89 +69,126 @@ public class IUMap implements Cloneable {
 		}
 
 		private boolean positionNext() {
-			if (nextElement != null)
+			if (unitIndex != NONE)
 				return true;
 
-			if (currentBucket != null) {
-				nextElement = currentBucket[bucketIndex];
-				if (++bucketIndex == currentBucket.length) {
-					currentBucket = null;
-					bucketIndex = -1;
+			String[] keys = ids;
+			while (++idIndex < keys.length) {
+				if (keys[idIndex] != null) {
+					unitIndex = heads[idIndex];
+					return true;
 				}
-				return true;
-			}
-
-			if (!unitIterator.hasNext())
-				return false;
-
-			Object val = unitIterator.next();
-			if (val instanceof IInstallableUnit)
-				nextElement = (IInstallableUnit) val;
-			else {
-				currentBucket = (IInstallableUnit[]) val;
-				nextElement = currentBucket[0];
-				bucketIndex = 1;
 			}
-			return true;
+			idIndex = keys.length;
+			return false;
 		}
 	}
 
+	private static final int NONE = -1;
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	/**
+	 * The open addressed table of ids. The length is always a power of two.
+	 */
+	private String[] ids;
+
+	/**
+	 * Index in {@link #units} of the first and the last unit for the id at
+	 * the same position in {@link #ids}.
+	 */
+	private int[] heads;
+	private int[] tails;
+
 	/**
-	 * Map<String,Object> mapping IU id to either arrays of iu's or a single iu with that id.
+	 * All units. Units with the same id are chained through {@link #links}.
+	 * Unused positions are chained into a free list starting at {@link #free}.
 	 */
-	final Map<String, Object> units = new HashMap<>();
+	private IInstallableUnit[] units;
+	private int[] links;
+
+	private int free = NONE;
+	private int unitsTop;
+	private int idCount;
 
 	public IUMap() {
-		//
+		this(0);
+	}
+
+	/**
+	 * Creates a map that is sized to hold <code>expectedSize</code> units
+	 * without rehashing.
+	 * @param expectedSize The expected number of units
+	 */
+	public IUMap(int expectedSize) {
+		int tableSize = tableSizeFor(expectedSize);
+		ids = new String[tableSize];
+		heads = new int[tableSize];
+		tails = new int[tableSize];
+		int unitsSize = Math.max(expectedSize, MINIMUM_CAPACITY);
+		units = new IInstallableUnit[unitsSize];
+		links = new int[unitsSize];
 	}
 
 	private IUMap(IUMap cloneSource) {
-		units.putAll(cloneSource.units);
+		ids = cloneSource.ids.clone();
+		heads = cloneSource.heads.clone();
+		tails = cloneSource.tails.clone();
+		units = cloneSource.units.clone();
+		links = cloneSource.links.clone();
+		free = cloneSource.free;
+		unitsTop = cloneSource.unitsTop;
+		idCount = cloneSource.idCount;
 	}
 
 	public void add(IInstallableUnit unit) {
 		String key = unit.getId();
-		Object matching = units.get(key);
-		if (matching == null) {
-			units.put(key, unit);
-			return;
-		}
-
-		// We already had something at this key position. It must be
-		// preserved.
-		if (matching.getClass().isArray()) {
-			// Entry is an array. Add unique
-			IInstallableUnit[] iuArr = (IInstallableUnit[]) matching;
-			int idx = iuArr.length;
-			while (--idx >= 0)
-				if (iuArr[idx].equals(unit))
+		int slot = indexOf(key);
+		if (slot >= 0) {
+			// We already had something at this key position. It must be
+			// preserved. Add unique.
+			for (int idx = heads[slot]; idx != NONE; idx = links[idx])
+				if (units[idx].equals(unit))
 					// This unit has already been added
 					return;
 
-			IInstallableUnit[] iuArrPlus = new IInstallableUnit[iuArr.length + 1];
-			System.arraycopy(iuArr, 0, iuArrPlus, 0, iuArr.length);
-			iuArrPlus[iuArr.length] = unit;
-			units.put(unit.getId(), iuArrPlus);
-		} else {
-			IInstallableUnit old = (IInstallableUnit) matching;
-			if (!old.equals(unit))
-				units.put(key, new IInstallableUnit[] {old, unit});
+			int unitIndex = allocateUnit(unit);
+			links[tails[slot]] = unitIndex;
+			tails[slot] = unitIndex;
+			return;
+		}
+
+		if ((idCount + 1) * 4 > ids.length * 3) {
+			rehash(ids.length * 2);
+			slot = indexOf(key);
 		}
+		slot = -(slot + 1);
+		int unitIndex = allocateUnit(unit);
+		ids[slot] = key;
+		heads[slot] = unitIndex;
+		tails[slot] = unitIndex;
+		++idCount;
 	}
 
 	public void addAll(IInstallableUnit[] toAdd) {
+		ensureCapacity(toAdd.length);
 		for (int i = 0; i < toAdd.length; i++)
 			add(toAdd[i]);
 	}
 
 	public void addAll(Collection<IInstallableUnit> toAdd) {
+		ensureCapacity(toAdd.size());
 		for (IInstallableUnit unit : toAdd) {
 			add(unit);
 		}
 	}
 
 	public void clear() {
-		units.clear();
+		Arrays.fill(ids, null);
+		Arrays.fill(units, 0, unitsTop, null);
+		free = NONE;
+		unitsTop = 0;
+		idCount = 0;
 	}
 
 	@Override
@@ -172,10 +210,22 @@ public class IUMap implements Cloneable {
 	 * @return The units corresponding to the given <code>id</code>.
 	 */
 	public Collection<IInstallableUnit> getUnits(String id) {
-		Object bucket = units.get(id);
-		if (bucket == null)
+		int slot = indexOf(id);
+		if (slot < 0)
 			return Collections.emptyList();
-		return bucket.getClass().isArray() ? CollectionUtils.unmodifiableList((IInstallableUnit[]) bucket) : Collections.singletonList((IInstallableUnit) bucket);
+
+		int head = heads[slot];
+		if (links[head] == NONE)
+			return Collections.singletonList(units[head]);
+
+		int count = 0;
+		for (int idx = head; idx != NONE; idx = links[idx])
+			++count;
+		IInstallableUnit[] bucket = new IInstallableUnit[count];
+		count = 0;
+		for (int idx = head; idx != NONE; idx = links[idx])
+			bucket[count++] = units[idx];
+		return CollectionUtils.unmodifiableList(bucket);
 	}
 
 	public IQueryResult<IInstallableUnit> get(String id) {
@@ -200,36 +250,28 @@ public class IUMap implements Cloneable {
 	}
 
 	public void remove(IInstallableUnit unit) {
-		String key = unit.getId();
-		Object matching = units.get(key);
-		if (matching == null)
-			return;
-
-		if (matching instanceof IInstallableUnit) {
-			if (matching.equals(unit))
-				units.remove(key);
+		int slot = indexOf(unit.getId());
+		if (slot < 0)
 			return;
-		}
 
-		IInstallableUnit[] array = (IInstallableUnit[]) matching;
-		int idx = array.length;
-		while (--idx >= 0) {
-			if (unit.equals(array[idx])) {
-				if (array.length == 2) {
-					// We no longer need this array. Replace it with the
-					// entry that we keep.
-					units.put(key, idx == 0 ? array[1] : array[0]);
-					break;
-				}
-
-				// Shrink the array
-				IInstallableUnit[] newArray = new IInstallableUnit[array.length - 1];
-				if (idx > 0)
-					System.arraycopy(array, 0, newArray, 0, idx);
-				if (idx + 1 < array.length)
-					System.arraycopy(array, idx + 1, newArray, idx, array.length - (idx + 1));
-				units.put(key, newArray);
-				break;
+		int prev = NONE;
+		for (int idx = heads[slot]; idx != NONE; prev = idx, idx = links[idx]) {
+			if (unit.equals(units[idx])) {
+				int next = links[idx];
+				if (prev == NONE) {
+					if (next == NONE) {
+						// This was the last unit with this id
+						releaseUnit(idx);
+						deleteSlot(slot);
+						return;
+					}
+					heads[slot] = next;
+				} else
+					links[prev] = next;
+				if (tails[slot] == idx)
+					tails[slot] = prev;
+				releaseUnit(idx);
+				return;
 			}
 		}
 	}
@@ -251,18 +293,129 @@ public class IUMap implements Cloneable {
 			return;
 		}
 
-		Iterator<Entry<String, Object>> entries = units.entrySet().iterator();
-		while (entries.hasNext()) {
-			Entry<String, Object> entry = entries.next();
-			Object value = entry.getValue();
-			if (value.getClass().isArray()) {
-				IInstallableUnit[] array = (IInstallableUnit[]) value;
-				for (int i = 0; i < array.length; i++) {
-					array[i] = iuPool.add(array[i]);
-				}
-			} else {
-				entry.setValue(iuPool.add((IInstallableUnit) value));
+		for (int i = 0; i < unitsTop; i++) {
+			IInstallableUnit unit = units[i];
+			if (unit != null)
+				units[i] = iuPool.add(unit);
+		}
+	}
+
+	/**
+	 * Ensure that <code>additionalUnits</code> more units can be added
+	 * without growing the internal arrays more than once.
+	 */
+	private void ensureCapacity(int additionalUnits) {
+		int required = unitsTop + additionalUnits;
+		if (required > units.length) {
+			units = Arrays.copyOf(units, required);
+			links = Arrays.copyOf(links, required);
+		}
+		if ((idCount + additionalUnits) * 4 > ids.length * 3)
+			rehash(tableSizeFor(idCount + additionalUnits));
+	}
+
+	private int allocateUnit(IInstallableUnit unit) {
+		int unitIndex = free;
+		if (unitIndex != NONE)
+			free = links[unitIndex];
+		else {
+			if (unitsTop == units.length) {
+				int newCapacity = unitsTop + (unitsTop >> 1) + 1;
+				units = Arrays.copyOf(units, newCapacity);
+				links = Arrays.copyOf(links, newCapacity);
 			}
+			unitIndex = unitsTop++;
 		}
+		units[unitIndex] = unit;
+		links[unitIndex] = NONE;
+		return unitIndex;
+	}
+
+	private void releaseUnit(int unitIndex) {
+		units[unitIndex] = null;
+		links[unitIndex] = free;
+		free = unitIndex;
+	}
+
+	/**
+	 * Returns the slot of the given <code>id</code>, or <code>-(insertionSlot + 1)</code>
+	 * when the id is not present.
+	 */
+	private int indexOf(String id) {
+		String[] keys = ids;
+		int mask = keys.length - 1;
+		int slot = hash(id) & mask;
+		for (;;) {
+			String key = keys[slot];
+			if (key == null)
+				return -(slot + 1);
+			if (key == id || key.equals(id))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Removes the id at the given slot and shifts subsequent entries of the same
+	 * probe sequence back so that no tombstones are needed.
+	 */
+	private void deleteSlot(int slot) {
+		String[] keys = ids;
+		int mask = keys.length - 1;
+		int hole = slot;
+		int idx = slot;
+		for (;;) {
+			idx = (idx + 1) & mask;
+			String key = keys[idx];
+			if (key == null)
+				break;
+			int home = hash(key) & mask;
+			// Move the entry if its home slot is not within (hole, idx]
+			if (hole <= idx ? (home <= hole || home > idx) : (home <= hole && home > idx)) {
+				keys[hole] = key;
+				heads[hole] = heads[idx];
+				tails[hole] = tails[idx];
+				hole = idx;
+			}
+		}
+		keys[hole] = null;
+		--idCount;
+	}
+
+	private void rehash(int newSize) {
+		String[] oldIds = ids;
+		int[] oldHeads = heads;
+		int[] oldTails = tails;
+		ids = new String[newSize];
+		heads = new int[newSize];
+		tails = new int[newSize];
+		int mask = newSize - 1;
+		for (int i = 0; i < oldIds.length; i++) {
+			String key = oldIds[i];
+			if (key == null)
+				continue;
+			int slot = hash(key) & mask;
+			while (ids[slot] != null)
+				slot = (slot + 1) & mask;
+			ids[slot] = key;
+			heads[slot] = oldHeads[i];
+			tails[slot] = oldTails[i];
+		}
+	}
+
+	private static int hash(String id) {
+		int h = id.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns a power of two table size that keeps the load factor of
+	 * <code>expectedIds</code> below 0.75.
+	 */
+	private static int tableSizeFor(int expectedIds) {
+		int size = MINIMUM_CAPACITY;
+		while (size * 3 < expectedIds * 4)
+			size <<= 1;
+		return size;
 	}
 }
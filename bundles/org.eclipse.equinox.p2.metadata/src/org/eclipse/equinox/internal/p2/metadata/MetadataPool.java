@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata;
+
+import org.eclipse.equinox.p2.metadata.*;
+
+/**
+ * Shares the immutable parts of the metadata that repeat across installable units and
+ * repositories, such as versions, version ranges, capability names and the capabilities and
+ * requirements themselves. The pools hold their objects weakly so nothing is retained once the
+ * repositories that use them are gone.
+ * <p>
+ * Pooling can be turned off by setting the system property <code>eclipse.p2.metadata.pool</code>
+ * to <code>false</code>.
+ * </p>
+ */
+public final class MetadataPool {
+	/**
+	 * The name of the system property that controls whether metadata is pooled.
+	 */
+	public static final String PROP_POOL_METADATA = "eclipse.p2.metadata.pool"; //$NON-NLS-1$
+
+	private static final boolean enabled = !"false".equalsIgnoreCase(System.getProperty(PROP_POOL_METADATA)); //$NON-NLS-1$
+
+	private static final ConcurrentWeakPool<String> strings = new ConcurrentWeakPool<>();
+	private static final ConcurrentWeakPool<Version> versions = new ConcurrentWeakPool<>();
+	private static final ConcurrentWeakPool<VersionRange> ranges = new ConcurrentWeakPool<>();
+	private static final ConcurrentWeakPool<IProvidedCapability> capabilities = new ConcurrentWeakPool<>();
+	private static final ConcurrentWeakPool<IRequirement> requirements = new ConcurrentWeakPool<>();
+
+	private MetadataPool() {
+		// Not instantiated
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static String intern(String value) {
+		return enabled ? strings.add(value) : value;
+	}
+
+	public static Version intern(Version version) {
+		return enabled ? versions.add(version) : version;
+	}
+
+	public static VersionRange intern(VersionRange range) {
+		return enabled ? ranges.add(range) : range;
+	}
+
+	public static IProvidedCapability intern(IProvidedCapability capability) {
+		return enabled ? capabilities.add(capability) : capability;
+	}
+
+	/**
+	 * Returns a shared requirement equal to the given one. Requirements with a description
+	 * are returned as is since the description does not take part in equality.
+	 */
+	public static IRequirement intern(IRequirement requirement) {
+		return enabled && requirement != null && requirement.getDescription() == null ? requirements.add(requirement) : requirement;
+	}
+
+	/**
+	 * Returns a summary of the size of each pool and how many of the requests made to it
+	 * were answered with an already pooled object.
+	 */
+	public static String getStatistics() {
+		StringBuilder bld = new StringBuilder();
+		bld.append("Metadata pool:"); //$NON-NLS-1$
+		appendStatistics(bld, "strings", strings); //$NON-NLS-1$
+		appendStatistics(bld, "versions", versions); //$NON-NLS-1$
+		appendStatistics(bld, "ranges", ranges); //$NON-NLS-1$
+		appendStatistics(bld, "capabilities", capabilities); //$NON-NLS-1$
+		appendStatistics(bld, "requirements", requirements); //$NON-NLS-1$
+		return bld.toString();
+	}
+
+	private static void appendStatistics(StringBuilder bld, String name, ConcurrentWeakPool<?> pool) {
+		long requests = pool.getRequestCount();
+		long hits = pool.getHitCount();
+		bld.append(' ').append(name).append('=').append(pool.size());
+		bld.append(" (").append(hits).append('/').append(requests).append(" shared"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (requests > 0)
+			bld.append(", ").append(hits * 100 / requests).append('%'); //$NON-NLS-1$
+		bld.append(')');
+	}
+}
@@ -33,6 +33,14 @@ public class OSGiVersion extends BasicVersion {
 
 	private final Comparable<?> qualifier;
 
+	// The numeric components packed into one long when each of them fits in
+	// PACKED_BITS bits, or -1 when they don't.
+	private final transient long packed;
+
+	private final transient int hash;
+
+	private static final int PACKED_BITS = 21;
+
 	static {
 		allowedOSGiChars = new boolean[128];
 		for (int c = '0'; c <= '9'; ++c)
@@ -82,16 +90,76 @@ public class OSGiVersion extends BasicVersion {
 		return (major == 0 && minor == 0 && micro == 0 && qualifier == VersionVector.MINS_VALUE) ? (BasicVersion) emptyVersion : new OSGiVersion(major, minor, micro, qualifier);
 	}
 
+	/**
+	 * Parses a version that is in the plain OSGi form <code>major[.minor[.micro[.qualifier]]]</code>
+	 * without using the generic version format. Returns <code>null</code> when the version is not in
+	 * that form, including when it is invalid, and leaves it to the generic parser to deal with it.
+	 */
+	static BasicVersion parseOSGi(String version, int start, int maxPos) {
+		int major = 0;
+		int minor = 0;
+		int micro = 0;
+		int pos = start;
+		for (int segment = 0; segment < 3; ++segment) {
+			int value = 0;
+			int first = pos;
+			for (; pos < maxPos; ++pos) {
+				char c = version.charAt(pos);
+				if (c < '0' || c > '9')
+					break;
+				value = value * 10 + (c - '0');
+			}
+			// Nine digits never overflow an int
+			int digits = pos - first;
+			if (digits == 0 || digits > 9)
+				return null;
+
+			if (segment == 0)
+				major = value;
+			else if (segment == 1)
+				minor = value;
+			else
+				micro = value;
+
+			if (pos == maxPos)
+				return (major == 0 && minor == 0 && micro == 0) ? (BasicVersion) emptyVersion : new OSGiVersion(major, minor, micro, VersionVector.MINS_VALUE, false);
+			if (version.charAt(pos++) != '.')
+				return null;
+		}
+
+		if (pos == maxPos)
+			return null;
+		boolean[] allowed = allowedOSGiChars;
+		for (int idx = pos; idx < maxPos; ++idx) {
+			char c = version.charAt(idx);
+			if (c >= allowed.length || !allowed[c])
+				return null;
+		}
+		String qualifier = version.substring(pos, maxPos);
+		if (IVersionFormat.DEFAULT_MAX_STRING_TRANSLATION.equals(qualifier))
+			// Leave the special cases to the generic parser
+			return null;
+		return new OSGiVersion(major, minor, micro, qualifier.intern(), false);
+	}
+
 	public OSGiVersion(int major, int minor, int micro, Comparable<? extends Object> qualifier) {
+		this(major, minor, micro, qualifier, true);
+	}
+
+	private OSGiVersion(int major, int minor, int micro, Comparable<? extends Object> qualifier, boolean validate) {
 		this.major = major;
 		this.minor = minor;
 		this.micro = micro;
-		if (!isValidOSGiQualifier(qualifier))
-			throw new IllegalArgumentException(NLS.bind(Messages._0_is_not_a_valid_qualifier_in_osgi_1, "qualifier", this)); //$NON-NLS-1$
-		//intern the qualifier string to avoid duplication
-		if (qualifier instanceof String)
-			qualifier = ((String) qualifier).intern();
+		if (validate) {
+			if (!isValidOSGiQualifier(qualifier))
+				throw new IllegalArgumentException(NLS.bind(Messages._0_is_not_a_valid_qualifier_in_osgi_1, "qualifier", this)); //$NON-NLS-1$
+			//intern the qualifier string to avoid duplication
+			if (qualifier instanceof String)
+				qualifier = ((String) qualifier).intern();
+		}
 		this.qualifier = qualifier;
+		this.packed = (major | minor | micro) >>> PACKED_BITS == 0 ? ((long) major << (2 * PACKED_BITS)) | ((long) minor << PACKED_BITS) | micro : -1;
+		this.hash = (major << 24) + (minor << 16) + (micro << 8) + qualifier.hashCode();
 	}
 
 	@Override
@@ -102,15 +170,20 @@ public class OSGiVersion extends BasicVersion {
 			result = VersionVector.compare(getVector(), null, ov.getVector(), ov.getPad());
 		} else {
 			OSGiVersion ov = (OSGiVersion) v;
-			result = major - ov.major;
-			if (result == 0) {
-				result = minor - ov.minor;
+			if (packed >= 0 && ov.packed >= 0) {
+				if (packed != ov.packed)
+					return packed > ov.packed ? 1 : -1;
+				result = 0;
+			} else {
+				result = major - ov.major;
 				if (result == 0) {
-					result = micro - ov.micro;
+					result = minor - ov.minor;
 					if (result == 0)
-						result = VersionVector.compareSegments(qualifier, ov.qualifier);
+						result = micro - ov.micro;
 				}
 			}
+			if (result == 0 && qualifier != ov.qualifier)
+				result = VersionVector.compareSegments(qualifier, ov.qualifier);
 		}
 		return result;
 	}
@@ -129,7 +202,7 @@ public class OSGiVersion extends BasicVersion {
 		}
 
 		OSGiVersion other = (OSGiVersion) object;
-		return micro == other.micro && minor == other.minor && major == other.major && qualifier.equals(other.qualifier);
+		return hash == other.hash && micro == other.micro && minor == other.minor && major == other.major && qualifier.equals(other.qualifier);
 	}
 
 	@Override
@@ -164,7 +237,7 @@ public class OSGiVersion extends BasicVersion {
 
 	@Override
 	public int hashCode() {
-		return (major << 24) + (minor << 16) + (micro << 8) + qualifier.hashCode();
+		return hash;
 	}
 
 	@Override
@@ -234,10 +307,7 @@ public class OSGiVersion extends BasicVersion {
 	}
 
 	private Object readResolve() {
-		OSGiVersion v = this;
-		// Preserve the empty string singleton.
-		if (qualifier.equals(VersionVector.MINS_VALUE))
-			v = new OSGiVersion(major, minor, micro, VersionVector.MINS_VALUE);
-		return v;
+		// Preserve the empty string singleton and compute the transient fields.
+		return new OSGiVersion(major, minor, micro, qualifier.equals(VersionVector.MINS_VALUE) ? VersionVector.MINS_VALUE : qualifier);
 	}
 }
@@ -63,16 +63,18 @@ public class ProvidedCapability implements IProvidedCapability, IMemberProvider
 			resolvedProps.put(PROPERTY_VERSION, Version.emptyVersion);
 		}
 
-		this.properties = Collections.unmodifiableMap(props);
+		// Keep a copy, capabilities are shared between units once pooled
+		this.properties = Collections.unmodifiableMap(resolvedProps);
 	}
 
 	public ProvidedCapability(String namespace, String name, Version version) {
 		Assert.isNotNull(namespace, NLS.bind(Messages.provided_capability_namespace_not_defined, null));
 		Assert.isNotNull(name, NLS.bind(Messages.provided_capability_name_not_defined, namespace));
 		this.namespace = namespace;
-		this.properties = new HashMap<>();
-		properties.put(namespace, name);
-		properties.put(PROPERTY_VERSION, version == null ? Version.emptyVersion : version);
+		Map<String, Object> props = new HashMap<>();
+		props.put(namespace, name);
+		props.put(PROPERTY_VERSION, version == null ? Version.emptyVersion : version);
+		this.properties = Collections.unmodifiableMap(props);
 	}
 
 	@Override
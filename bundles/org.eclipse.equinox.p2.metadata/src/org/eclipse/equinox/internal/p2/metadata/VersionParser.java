@@ -73,7 +73,9 @@ public abstract class VersionParser {
 		VersionFormat fmt = null;
 		char c = version.charAt(pos);
 		if (isDigit(c)) {
-			return OSGiVersion.fromVector(VersionFormat.OSGI_FORMAT.parse(version, pos, maxPos));
+			// Most versions are plain OSGi versions that don't need the generic format
+			BasicVersion osgiVersion = OSGiVersion.parseOSGi(version, pos, maxPos);
+			return osgiVersion != null ? osgiVersion : OSGiVersion.fromVector(VersionFormat.OSGI_FORMAT.parse(version, pos, maxPos));
 		}
 
 		if (!isLetter(c))
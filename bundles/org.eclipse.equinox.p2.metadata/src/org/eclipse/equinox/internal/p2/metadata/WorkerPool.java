@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.osgi.framework.BundleContext;
+
+/**
+ * The threads shared by the queries, the slicer and the planner to work concurrently. The
+ * pool is created when first used, has one thread per processor and is never shut down. The
+ * parallelism of each piece of work is bounded by the number of workers it submits, so
+ * callers with different settings can share the pool.
+ */
+public final class WorkerPool {
+
+	private static final class Holder {
+		static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	private WorkerPool() {
+		// Not instantiated
+	}
+
+	/**
+	 * Returns the parallelism configured by the given property of the framework, or of the
+	 * system when the framework is not running, or the given default when it is not set
+	 * or is not a number.
+	 */
+	public static int getParallelism(String property, int defaultValue) {
+		BundleContext context = MetadataActivator.getContext();
+		String value = context == null ? System.getProperty(property) : context.getProperty(property);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				// Fall through to the default
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Applies the function to each of the items using at most the given number of threads of
+	 * the shared pool. Returns the futures of the results in the order of the items.
+	 */
+	public static <T, R> List<CompletableFuture<R>> submit(List<? extends T> items, int parallelism, Function<? super T, ? extends R> function) {
+		List<CompletableFuture<R>> results = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++)
+			results.add(new CompletableFuture<R>());
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for (int i = next.getAndIncrement(); i < items.size(); i = next.getAndIncrement()) {
+				try {
+					results.get(i).complete(function.apply(items.get(i)));
+				} catch (Throwable e) {
+					results.get(i).completeExceptionally(e);
+				}
+			}
+		};
+		int workers = Math.min(Math.max(parallelism, 1), items.size());
+		for (int i = 0; i < workers; i++)
+			Holder.POOL.execute(worker);
+		return results;
+	}
+
+	/**
+	 * Runs the given task, which may block, on a thread of the shared pool. The pool adds a
+	 * thread while the task runs so that blocking does not hold back the other work, and the
+	 * caller bounds the number of tasks it submits at once. Returns the future of the result.
+	 */
+	public static <R> CompletableFuture<R> submit(Supplier<? extends R> task) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		Holder.POOL.execute(() -> {
+			try {
+				ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+					@Override
+					public boolean block() {
+						try {
+							result.complete(task.get());
+						} catch (Throwable e) {
+							result.completeExceptionally(e);
+						}
+						return true;
+					}
+
+					@Override
+					public boolean isReleasable() {
+						return result.isDone();
+					}
+				});
+			} catch (InterruptedException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Waits for the given result and returns it, rethrowing the exception thrown by the
+	 * function that computed it.
+	 */
+	public static <R> R join(CompletableFuture<R> result) {
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw e;
+		}
+	}
+}
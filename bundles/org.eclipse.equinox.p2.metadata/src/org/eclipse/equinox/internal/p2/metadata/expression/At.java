@@ -49,7 +49,10 @@ class At extends Binary {
 		} else
 			lval = lhs.evaluate(context);
 
-		Object rval = rhs.evaluate(context);
+		return at(lval, rhs.evaluate(context));
+	}
+
+	static Object at(Object lval, Object rval) {
 		if (lval == null)
 			throw new IllegalArgumentException("Unable to use [] on null"); //$NON-NLS-1$
 
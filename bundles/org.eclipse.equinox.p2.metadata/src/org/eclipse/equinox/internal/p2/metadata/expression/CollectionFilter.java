@@ -10,7 +10,7 @@
  *******************************************************************************/
 package org.eclipse.equinox.internal.p2.metadata.expression;
 
-import java.util.Iterator;
+import java.util.*;
 import org.eclipse.equinox.p2.metadata.expression.IEvaluationContext;
 import org.eclipse.equinox.p2.metadata.expression.IExpressionVisitor;
 import org.eclipse.equinox.p2.metadata.index.IIndex;
@@ -94,19 +94,22 @@ public abstract class CollectionFilter extends Unary {
 	}
 
 	private transient IIndexProvider<?> lastIndexProvider;
-	private transient IIndex<?> lastIndex;
+	private transient List<IIndex<?>> lastIndexes;
 
-	private IIndex<?> getIndex(Class<?> elementClass, IIndexProvider<?> indexProvider) {
+	// The indexes of the provider for the members used by the lambda, in the order of preference
+	private List<IIndex<?>> getIndexes(Class<?> elementClass, IIndexProvider<?> indexProvider) {
 		if (lastIndexProvider == indexProvider)
-			return lastIndex;
+			return lastIndexes;
 
+		List<IIndex<?>> indexes = new ArrayList<>();
 		for (String member : getIndexCandidateMembers(elementClass, lambda.getItemVariable(), lambda.getOperand())) {
 			IIndex<?> index = indexProvider.getIndex(member);
 			if (index != null)
-				lastIndex = index;
+				indexes.add(index);
 		}
+		lastIndexes = indexes;
 		lastIndexProvider = indexProvider;
-		return lastIndex;
+		return indexes;
 	}
 
 	protected Iterator<?> getInnerIterator(IEvaluationContext context) {
@@ -117,8 +120,8 @@ public abstract class CollectionFilter extends Unary {
 			IIndexProvider<?> indexProvider = context.getIndexProvider();
 			if (indexProvider != null) {
 				Class<?> elementClass = ((Everything<?>) collection).getElementClass();
-				IIndex<?> index = getIndex(elementClass, indexProvider);
-				if (index != null) {
+				// Fall back to the next index when one cannot answer the lambda
+				for (IIndex<?> index : getIndexes(elementClass, indexProvider)) {
 					Iterator<?> indexed = index.getCandidates(context, lambda.getItemVariable(), lambda.getOperand());
 					if (indexed != null)
 						return indexed;
@@ -125,6 +125,8 @@ public class EvaluationContext implements IEvaluationContext {
 
 	private IIndexProvider<?> indexProvider;
 
+	private OrdinalSet.Ordinals ordinals;
+
 	EvaluationContext(EvaluationContext parentContext, Object[] parameters) {
 		this.parentContext = parentContext;
 		this.parameters = parameters;
@@ -163,4 +165,39 @@ public class EvaluationContext implements IEvaluationContext {
 	public void setIndexProvider(IIndexProvider<?> indexProvider) {
 		this.indexProvider = indexProvider;
 	}
+
+	/**
+	 * Returns the ordinals that the set operations of an evaluation use for the elements
+	 * of their sets. All contexts created for the same evaluation share the ordinals until
+	 * they are released.
+	 */
+	static OrdinalSet.Ordinals getOrdinals(IEvaluationContext context) {
+		EvaluationContext root = getRoot(context);
+		if (root == null)
+			return new OrdinalSet.Ordinals();
+		if (root.ordinals == null)
+			root.ordinals = new OrdinalSet.Ordinals();
+		return root.ordinals;
+	}
+
+	/**
+	 * Releases the ordinals of the evaluation that used the given context. A context that is
+	 * kept for many evaluations, such as the one of a match query, would otherwise hold on to
+	 * the elements of all of them.
+	 */
+	static void releaseOrdinals(IEvaluationContext context) {
+		EvaluationContext root = getRoot(context);
+		if (root != null)
+			root.ordinals = null;
+	}
+
+	// The shared root context must not hold state
+	private static EvaluationContext getRoot(IEvaluationContext context) {
+		if (!(context instanceof EvaluationContext))
+			return null;
+		EvaluationContext root = (EvaluationContext) context;
+		while (root.parentContext != null && root.parentContext != INSTANCE)
+			root = root.parentContext;
+		return root == INSTANCE ? null : root;
+	}
 }
@@ -104,10 +104,18 @@ public abstract class Expression implements IExpression, Comparable<Expression>,
 		}
 	}
 
+	/**
+	 * Returns the members of the item variable that the operand uses and that an index may
+	 * answer, in the order of preference. The properties come last since their index only
+	 * covers some of the keys.
+	 */
 	public static List<String> getIndexCandidateMembers(Class<?> elementClass, Variable itemVariable, Expression operand) {
 		MembersFinder finder = new MembersFinder(elementClass, itemVariable);
 		operand.accept(finder);
-		return finder.getMembers();
+		List<String> members = finder.getMembers();
+		if (members.size() > 1 && members.remove(InstallableUnit.MEMBER_PROPERTIES))
+			members.add(InstallableUnit.MEMBER_PROPERTIES);
+		return members;
 	}
 
 	/**
@@ -437,6 +445,19 @@ public abstract class Expression implements IExpression, Comparable<Expression>,
 		throw new IllegalArgumentException();
 	}
 
+	/**
+	 * Returns the set that the given iterator iterates over when that set is an
+	 * {@link OrdinalSet} using the given ordinals, or <code>null</code> otherwise.
+	 */
+	static OrdinalSet asOrdinalSet(Iterator<?> itor, OrdinalSet.Ordinals ordinals) {
+		if (itor instanceof IRepeatableIterator<?>) {
+			Object provider = ((IRepeatableIterator<?>) itor).getIteratorProvider();
+			if (provider instanceof OrdinalSet && ((OrdinalSet) provider).getOrdinals() == ordinals)
+				return (OrdinalSet) provider;
+		}
+		return null;
+	}
+
 	static Set<?> asSet(Object val, boolean forcePrivateCopy) {
 		if (val == null)
 			throw new IllegalArgumentException("Cannot convert null into an set"); //$NON-NLS-1$
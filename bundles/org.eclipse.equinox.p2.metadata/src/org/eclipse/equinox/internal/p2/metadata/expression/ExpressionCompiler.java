@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Cloudsmith Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Cloudsmith Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata.expression;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.expression.Member.DynamicMember;
+import org.eclipse.equinox.internal.p2.metadata.expression.Member.EmptyMember;
+import org.eclipse.equinox.internal.p2.metadata.expression.Member.LengthMember;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.expression.IExpression;
+import org.eclipse.equinox.p2.metadata.expression.IMemberProvider;
+
+/**
+ * Compiles the boolean expression of an {@link MatchExpression} into a tree of
+ * specialized closures. The closures read the candidate and the lambda variables
+ * from a slot array and the parameters from the parameter array of the match
+ * expression, so no evaluation contexts are created and boolean results are
+ * never boxed.
+ * <p>
+ * Only a subset of the expression language is compiled: boolean operators,
+ * comparisons, matches, member and indexed access, literals, parameters and the
+ * <code>exists</code> and <code>all</code> collection filters over a member. An
+ * expression that uses anything else is not compiled and will continue to be
+ * interpreted.
+ */
+public final class ExpressionCompiler {
+	/**
+	 * A compiled value.
+	 */
+	static abstract class Value {
+		abstract Object get(Object[] params, Object[] slots);
+
+		boolean test(Object[] params, Object[] slots) {
+			return get(params, slots) == Boolean.TRUE;
+		}
+	}
+
+	/**
+	 * A compiled value that is known to be a boolean.
+	 */
+	static abstract class Predicate extends Value {
+		@Override
+		final Object get(Object[] params, Object[] slots) {
+			return Boolean.valueOf(test(params, slots));
+		}
+
+		@Override
+		abstract boolean test(Object[] params, Object[] slots);
+	}
+
+	/**
+	 * The result of a compilation.
+	 */
+	public static final class CompiledExpression {
+		private final Value root;
+		private final int slotCount;
+		private final int parameterCount;
+
+		CompiledExpression(Value root, int slotCount, int parameterCount) {
+			this.root = root;
+			this.slotCount = slotCount;
+			this.parameterCount = parameterCount;
+		}
+
+		/**
+		 * Returns <code>true</code> if this compiled expression can be used with
+		 * the given parameters, i.e. if the parameters cover all parameter positions
+		 * that are referenced from the expression.
+		 */
+		public boolean acceptsParameters(Object[] params) {
+			return params.length >= parameterCount;
+		}
+
+		public boolean isMatch(Object[] params, Object candidate) {
+			Object[] slots = new Object[slotCount];
+			slots[0] = candidate;
+			return root.test(params, slots);
+		}
+	}
+
+	/**
+	 * Marker used in the cache for expressions that cannot be compiled.
+	 */
+	private static final CompiledExpression NOT_COMPILABLE = new CompiledExpression(null, 0, 0);
+
+	/**
+	 * Compiled expressions keyed by their predicate. The closures never refer to the
+	 * nodes of the compiled expression so the keys are not kept alive by the values.
+	 */
+	private static final Map<Expression, CompiledExpression> cache = new WeakHashMap<>();
+
+	/**
+	 * Stateless instance used for the matching algorithm of {@link Matches}.
+	 */
+	private static final Matches MATCHER = new Matches(Literal.NULL_CONSTANT, Literal.NULL_CONSTANT);
+
+	/**
+	 * Stateless instance used for the length computation of {@link LengthMember}.
+	 */
+	private static final LengthMember LENGTH = new LengthMember(Literal.NULL_CONSTANT);
+
+	/**
+	 * Returns the compiled form of the given boolean <code>expression</code>. The
+	 * compiled form is cached so that all match expressions that share the same
+	 * predicate also share the compiled form.
+	 * @param expression The expression to compile.
+	 * @return The compiled expression or <code>null</code> if the expression cannot be compiled.
+	 */
+	public static CompiledExpression compile(Expression expression) {
+		CompiledExpression compiled;
+		synchronized (cache) {
+			compiled = cache.get(expression);
+		}
+		if (compiled == null) {
+			ExpressionCompiler compiler = new ExpressionCompiler();
+			Value root = compiler.compileValue(expression);
+			compiled = root == null ? NOT_COMPILABLE : new CompiledExpression(root, compiler.slotCount, compiler.parameterCount);
+			synchronized (cache) {
+				cache.put(expression, compiled);
+			}
+		}
+		return compiled == NOT_COMPILABLE ? null : compiled;
+	}
+
+	/**
+	 * Variables that are in scope, mapped to the slot that holds their value.
+	 */
+	private final IdentityHashMap<Variable, Integer> scope = new IdentityHashMap<>();
+
+	private int slotCount = 1;
+
+	private int parameterCount;
+
+	private ExpressionCompiler() {
+		scope.put(ExpressionFactory.THIS, Integer.valueOf(0));
+	}
+
+	private Value[] compileValues(Expression[] expressions) {
+		Value[] values = new Value[expressions.length];
+		for (int idx = 0; idx < expressions.length; ++idx) {
+			values[idx] = compileValue(expressions[idx]);
+			if (values[idx] == null)
+				return null;
+		}
+		return values;
+	}
+
+	private Value compileValue(Expression expression) {
+		switch (expression.getExpressionType()) {
+			case IExpression.TYPE_LITERAL :
+				return compileLiteral(((Literal) expression).value);
+			case IExpression.TYPE_PARAMETER :
+				return compileParameter((Parameter) expression);
+			case IExpression.TYPE_VARIABLE :
+				return compileVariable((Variable) expression);
+			case IExpression.TYPE_MEMBER :
+				return compileMember((Member) expression);
+			case IExpression.TYPE_AT :
+				return compileAt((At) expression);
+			case IExpression.TYPE_AND :
+				return compileAnd((NAry) expression);
+			case IExpression.TYPE_OR :
+				return compileOr((NAry) expression);
+			case IExpression.TYPE_NOT :
+				return compileNot((Not) expression);
+			case IExpression.TYPE_EQUALS :
+			case IExpression.TYPE_NOT_EQUALS :
+				return compileEquals((Equals) expression);
+			case IExpression.TYPE_LESS :
+			case IExpression.TYPE_LESS_EQUAL :
+			case IExpression.TYPE_GREATER :
+			case IExpression.TYPE_GREATER_EQUAL :
+				return compileCompare((Compare) expression);
+			case IExpression.TYPE_MATCHES :
+				return compileMatches((Matches) expression);
+			case IExpression.TYPE_EXISTS :
+			case IExpression.TYPE_ALL :
+				return compileCollectionFilter((CollectionFilter) expression);
+			default :
+				return null;
+		}
+	}
+
+	private static Value compileLiteral(final Object value) {
+		if (value == Boolean.TRUE || value == Boolean.FALSE) {
+			final boolean bool = ((Boolean) value).booleanValue();
+			return new Predicate() {
+				@Override
+				boolean test(Object[] params, Object[] slots) {
+					return bool;
+				}
+			};
+		}
+		return new Value() {
+			@Override
+			Object get(Object[] params, Object[] slots) {
+				return value;
+			}
+		};
+	}
+
+	private Value compileParameter(Parameter parameter) {
+		if (parameter.getClass() != Parameter.class)
+			return null;
+		final int position = parameter.position;
+		if (position >= parameterCount)
+			parameterCount = position + 1;
+		return new Value() {
+			@Override
+			Object get(Object[] params, Object[] slots) {
+				return params[position];
+			}
+		};
+	}
+
+	private Value compileVariable(Variable variable) {
+		Integer slot = scope.get(variable);
+		if (slot == null)
+			return null;
+		final int slotIndex = slot.intValue();
+		return new Value() {
+			@Override
+			Object get(Object[] params, Object[] slots) {
+				return slots[slotIndex];
+			}
+		};
+	}
+
+	private Value compileMember(Member member) {
+		final Value operand = compileValue(member.operand);
+		if (operand == null)
+			return null;
+
+		if (member instanceof EmptyMember) {
+			return new Predicate() {
+				@Override
+				boolean test(Object[] params, Object[] slots) {
+					Object val = operand.get(params, slots);
+					return (val instanceof Iterator<?>) ? !((Iterator<?>) val).hasNext() : LENGTH.getLength(val) == 0;
+				}
+			};
+		}
+
+		if (member instanceof LengthMember) {
+			return new Value() {
+				@Override
+				Object get(Object[] params, Object[] slots) {
+					return Integer.valueOf(LENGTH.getLength(operand.get(params, slots)));
+				}
+			};
+		}
+
+		if (!(member instanceof DynamicMember))
+			return null;
+
+		final String name = member.getName();
+		final DynamicMember dynamicMember = new DynamicMember(Literal.NULL_CONSTANT, name);
+		return new Value() {
+			@Override
+			Object get(Object[] params, Object[] slots) {
+				Object self = operand.get(params, slots);
+				if (self instanceof IMemberProvider)
+					return ((IMemberProvider) self).getMember(name);
+				return dynamicMember.invoke(self);
+			}
+		};
+	}
+
+	private Value compileAt(At at) {
+		final Value rhs = compileValue(at.rhs);
+		if (rhs == null)
+			return null;
+
+		if (at.lhs instanceof DynamicMember) {
+			DynamicMember lm = (DynamicMember) at.lhs;
+			String name = lm.getName();
+			if (InstallableUnit.MEMBER_TRANSLATED_PROPERTIES == name || InstallableUnit.MEMBER_PROFILE_PROPERTIES == name)
+				// Managed properties need the index provider of the evaluation context
+				return null;
+
+			if (InstallableUnit.MEMBER_PROPERTIES == name) {
+				final Value instance = compileValue(lm.operand);
+				if (instance == null)
+					return null;
+				final DynamicMember member = new DynamicMember(Literal.NULL_CONSTANT, name);
+				return new Value() {
+					@Override
+					Object get(Object[] params, Object[] slots) {
+						Object self = instance.get(params, slots);
+						if (self instanceof IInstallableUnit)
+							// Avoid full copy of the properties map just to get one member
+							return ((IInstallableUnit) self).getProperty((String) rhs.get(params, slots));
+						Object lval = self instanceof IMemberProvider ? ((IMemberProvider) self).getMember(InstallableUnit.MEMBER_PROPERTIES) : member.invoke(self);
+						return At.at(lval, rhs.get(params, slots));
+					}
+				};
+			}
+		}
+
+		final Value lhs = compileValue(at.lhs);
+		if (lhs == null)
+			return null;
+		return new Value() {
+			@Override
+			Object get(Object[] params, Object[] slots) {
+				Object lval = lhs.get(params, slots);
+				return At.at(lval, rhs.get(params, slots));
+			}
+		};
+	}
+
+	private Value compileAnd(NAry and) {
+		final Value[] operands = compileValues(and.operands);
+		if (operands == null)
+			return null;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				for (int idx = 0; idx < operands.length; ++idx)
+					if (!operands[idx].test(params, slots))
+						return false;
+				return true;
+			}
+		};
+	}
+
+	private Value compileOr(NAry or) {
+		final Value[] operands = compileValues(or.operands);
+		if (operands == null)
+			return null;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				for (int idx = 0; idx < operands.length; ++idx)
+					if (operands[idx].test(params, slots))
+						return true;
+				return false;
+			}
+		};
+	}
+
+	private Value compileNot(Not not) {
+		final Value operand = compileValue(not.operand);
+		if (operand == null)
+			return null;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				return !operand.test(params, slots);
+			}
+		};
+	}
+
+	private Value compileEquals(Equals equals) {
+		final Value lhs = compileValue(equals.lhs);
+		final Value rhs = compileValue(equals.rhs);
+		if (lhs == null || rhs == null)
+			return null;
+		final boolean negate = equals.negate;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				return Equals.isEqual(lhs.get(params, slots), rhs.get(params, slots), negate);
+			}
+		};
+	}
+
+	private Value compileCompare(Compare compare) {
+		final Value lhs = compileValue(compare.lhs);
+		final Value rhs = compileValue(compare.rhs);
+		if (lhs == null || rhs == null)
+			return null;
+		final boolean compareLess = compare.compareLess;
+		final boolean equalOK = compare.equalOK;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				return Compare.compare(lhs.get(params, slots), rhs.get(params, slots), compareLess, equalOK);
+			}
+		};
+	}
+
+	private Value compileMatches(Matches matches) {
+		final Value lhs = compileValue(matches.lhs);
+		final Value rhs = compileValue(matches.rhs);
+		if (lhs == null || rhs == null)
+			return null;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				return MATCHER.match(lhs.get(params, slots), rhs.get(params, slots));
+			}
+		};
+	}
+
+	private Value compileCollectionFilter(CollectionFilter filter) {
+		// Only collections that are obtained from a member are compiled. Anything
+		// else might be an index aware iterator over everything.
+		LambdaExpression lambda = filter.lambda;
+		if (!(filter.operand instanceof Member) || lambda.getClass() != LambdaExpression.class)
+			return null;
+
+		final Value collection = compileValue(filter.operand);
+		if (collection == null)
+			return null;
+
+		Variable itemVariable = lambda.getItemVariable();
+		if (scope.containsKey(itemVariable))
+			return null;
+		final int slot = slotCount++;
+		scope.put(itemVariable, Integer.valueOf(slot));
+		final Value body = compileValue(lambda.operand);
+		scope.remove(itemVariable);
+		if (body == null)
+			return null;
+
+		final boolean exists = filter.getExpressionType() == IExpression.TYPE_EXISTS;
+		return new Predicate() {
+			@Override
+			boolean test(Object[] params, Object[] slots) {
+				Object value = collection.get(params, slots);
+				if (value instanceof Collection<?>) {
+					for (Object item : (Collection<?>) value) {
+						slots[slot] = item;
+						if (body.test(params, slots) == exists)
+							return exists;
+					}
+					return !exists;
+				}
+				Iterator<?> itor = RepeatableIterator.create(value);
+				while (itor.hasNext()) {
+					slots[slot] = itor.next();
+					if (body.test(params, slots) == exists)
+						return exists;
+				}
+				return !exists;
+			}
+		};
+	}
+}
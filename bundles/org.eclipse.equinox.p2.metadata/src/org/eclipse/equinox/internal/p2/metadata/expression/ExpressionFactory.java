@@ -17,6 +17,14 @@ import org.eclipse.equinox.p2.metadata.expression.*;
 import org.eclipse.equinox.p2.query.IQuery;
 
 public class ExpressionFactory implements IExpressionFactory, IExpressionConstants {
+	/**
+	 * System property that controls if frequently used match expressions are compiled
+	 * into closures. Set it to <code>false</code> to always interpret the expressions.
+	 */
+	public static final String PROP_COMPILE_EXPRESSIONS = "eclipse.p2.expression.compile"; //$NON-NLS-1$
+
+	private static volatile boolean compilationEnabled = !"false".equalsIgnoreCase(System.getProperty(PROP_COMPILE_EXPRESSIONS)); //$NON-NLS-1$
+
 	public static final Variable EVERYTHING = new Variable(VARIABLE_EVERYTHING);
 	protected static final Map<String, Constructor<?>> functionMap;
 	public static final IExpressionFactory INSTANCE = new ExpressionFactory();
@@ -40,6 +48,22 @@ public class ExpressionFactory implements IExpressionFactory, IExpressionConstan
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if match expressions are compiled once they are used often enough.
+	 */
+	public static boolean isCompilationEnabled() {
+		return compilationEnabled;
+	}
+
+	/**
+	 * Controls if match expressions are compiled once they are used often enough or if
+	 * they are always interpreted.
+	 * @param enabled <code>false</code> to fall back to interpretation
+	 */
+	public static void setCompilationEnabled(boolean enabled) {
+		compilationEnabled = enabled;
+	}
+
 	protected static Expression[] convertArray(IExpression[] operands) {
 		Expression[] ops = new Expression[operands.length];
 		System.arraycopy(operands, 0, ops, 0, operands.length);
@@ -28,13 +28,22 @@ final class Intersect extends Binary {
 
 	@Override
 	public Iterator<?> evaluateAsIterator(IEvaluationContext context) {
+		OrdinalSet.Ordinals ordinals = EvaluationContext.getOrdinals(context);
 		Set<?> resultSet = asSet(lhs.evaluate(context), false); // Safe since it will not be modified
 		Iterator<?> itor = rhs.evaluateAsIterator(context);
-		Set<Object> retained = new HashSet<>();
-		while (itor.hasNext()) {
-			Object value = itor.next();
-			if (resultSet.contains(value))
-				retained.add(value);
+		OrdinalSet retained;
+		OrdinalSet rhsSet = asOrdinalSet(itor, ordinals);
+		if (rhsSet != null) {
+			// Both sides share ordinals so the intersection is a bitwise and
+			retained = OrdinalSet.copyOf(ordinals, resultSet);
+			retained.retainAll(rhsSet);
+		} else {
+			retained = new OrdinalSet(ordinals);
+			while (itor.hasNext()) {
+				Object value = itor.next();
+				if (resultSet.contains(value))
+					retained.add(value);
+			}
 		}
 		return RepeatableIterator.create(retained);
 	}
@@ -30,9 +30,10 @@ final class Latest extends UnaryCollectionFilter {
 		HashMap<String, IVersionedId> greatestIUVersion;
 		if (operand instanceof Select) {
 			// Inline element evaluation here so that we don't build a map that is
-			// larger then it has to be
+			// larger then it has to be. The candidates are obtained the same way the
+			// select would obtain them so that an index is used when available.
 			Select select = (Select) operand;
-			Iterator<?> iterator = select.operand.evaluateAsIterator(context);
+			Iterator<?> iterator = select.getInnerIterator(context);
 			if (!iterator.hasNext())
 				return Collections.EMPTY_SET.iterator();
 
@@ -81,7 +82,8 @@ final class Latest extends UnaryCollectionFilter {
 					greatestIUVersion.put(id, prev);
 			}
 		}
-		return greatestIUVersion.values().iterator();
+		// The values are already unique so there's no need to copy them again
+		return RepeatableIterator.create(greatestIUVersion.values());
 	}
 
 	@Override
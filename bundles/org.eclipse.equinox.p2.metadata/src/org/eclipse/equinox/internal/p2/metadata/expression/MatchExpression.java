@@ -12,6 +12,7 @@ package org.eclipse.equinox.internal.p2.metadata.expression;
 
 import java.util.Arrays;
 import org.eclipse.equinox.internal.p2.core.helpers.CollectionUtils;
+import org.eclipse.equinox.internal.p2.metadata.expression.ExpressionCompiler.CompiledExpression;
 import org.eclipse.equinox.p2.metadata.expression.*;
 
 /**
@@ -21,8 +22,21 @@ import org.eclipse.equinox.p2.metadata.expression.*;
  */
 public class MatchExpression<T> extends Unary implements IMatchExpression<T> {
 	private static final Object[] noParams = new Object[0];
+
+	/**
+	 * The number of interpreted matches after which the predicate is compiled.
+	 */
+	private static final int COMPILE_THRESHOLD = 8;
+
 	private final Object[] parameters;
 
+	private transient CompiledExpression compiled;
+
+	/**
+	 * The number of interpreted matches, or -1 if the predicate cannot be compiled.
+	 */
+	private transient int matchCount;
+
 	MatchExpression(Expression expression, Object[] parameters) {
 		super(expression);
 		this.parameters = parameters == null ? noParams : parameters;
@@ -83,15 +97,47 @@ public class MatchExpression<T> extends Unary implements IMatchExpression<T> {
 
 	@Override
 	public boolean isMatch(IEvaluationContext context, T value) {
+		CompiledExpression ce = getCompiled();
+		if (ce != null)
+			return ce.isMatch(parameters, value);
 		ExpressionFactory.THIS.setValue(context, value);
-		return Boolean.TRUE == operand.evaluate(context);
+		try {
+			return Boolean.TRUE == operand.evaluate(context);
+		} finally {
+			// Each candidate is a separate evaluation
+			EvaluationContext.releaseOrdinals(context);
+		}
 	}
 
 	@Override
 	public boolean isMatch(T value) {
+		CompiledExpression ce = getCompiled();
+		if (ce != null)
+			return ce.isMatch(parameters, value);
 		return isMatch(createContext(), value);
 	}
 
+	/**
+	 * Returns the compiled form of the predicate once this expression has been
+	 * used often enough, or <code>null</code> if the predicate should be interpreted.
+	 */
+	private CompiledExpression getCompiled() {
+		if (!ExpressionFactory.isCompilationEnabled())
+			return null;
+
+		CompiledExpression ce = compiled;
+		if (ce == null && matchCount >= 0 && ++matchCount >= COMPILE_THRESHOLD) {
+			ce = ExpressionCompiler.compile(operand);
+			if (ce != null && ce.acceptsParameters(parameters))
+				compiled = ce;
+			else {
+				ce = null;
+				matchCount = -1;
+			}
+		}
+		return ce;
+	}
+
 	@Override
 	public void toLDAPString(StringBuffer bld) {
 		operand.toLDAPString(bld);
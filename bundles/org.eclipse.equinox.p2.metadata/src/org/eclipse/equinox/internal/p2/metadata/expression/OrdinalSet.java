@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata.expression;
+
+import java.util.*;
+
+/**
+ * A set that represents its elements as bits in a {@link BitSet}. The bit of an element
+ * is given by the ordinal that the {@link Ordinals} of the set assigns to it. Sets that
+ * share the same ordinals are intersected and merged using word level operations.
+ */
+final class OrdinalSet extends AbstractSet<Object> {
+	/**
+	 * Assigns dense ordinals to objects. Equal objects are given the same ordinal. The
+	 * ordinal of an instance that has been seen before is found by identity which avoids
+	 * computing the hash code and calling equals on the instance again.
+	 */
+	static final class Ordinals {
+		private final IdentityHashMap<Object, Integer> identities = new IdentityHashMap<>();
+		private final HashMap<Object, Integer> ordinals = new HashMap<>();
+		private final ArrayList<Object> values = new ArrayList<>();
+
+		/**
+		 * Returns the ordinal of the given value, assigning a new one if needed.
+		 */
+		int ordinal(Object value) {
+			Integer ordinal = identities.get(value);
+			if (ordinal == null) {
+				ordinal = ordinals.get(value);
+				if (ordinal == null) {
+					ordinal = Integer.valueOf(values.size());
+					ordinals.put(value, ordinal);
+					values.add(value);
+				}
+				identities.put(value, ordinal);
+			}
+			return ordinal.intValue();
+		}
+
+		/**
+		 * Returns the ordinal of the given value or -1 if no ordinal has been assigned to it.
+		 */
+		int find(Object value) {
+			Integer ordinal = identities.get(value);
+			if (ordinal == null) {
+				ordinal = ordinals.get(value);
+				if (ordinal == null)
+					return -1;
+				identities.put(value, ordinal);
+			}
+			return ordinal.intValue();
+		}
+
+		Object get(int ordinal) {
+			return values.get(ordinal);
+		}
+	}
+
+	private final Ordinals ordinals;
+	private final BitSet bits;
+	private int size;
+
+	OrdinalSet(Ordinals ordinals) {
+		this(ordinals, new BitSet(), 0);
+	}
+
+	private OrdinalSet(Ordinals ordinals, BitSet bits, int size) {
+		this.ordinals = ordinals;
+		this.bits = bits;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a new set with the same elements as the given collection that uses the given ordinals.
+	 */
+	static OrdinalSet copyOf(Ordinals ordinals, Collection<?> collection) {
+		if (collection instanceof OrdinalSet) {
+			OrdinalSet set = (OrdinalSet) collection;
+			if (set.ordinals == ordinals)
+				return new OrdinalSet(ordinals, (BitSet) set.bits.clone(), set.size);
+		}
+		OrdinalSet result = new OrdinalSet(ordinals);
+		for (Object value : collection)
+			result.add(value);
+		return result;
+	}
+
+	Ordinals getOrdinals() {
+		return ordinals;
+	}
+
+	@Override
+	public boolean add(Object value) {
+		int ordinal = ordinals.ordinal(value);
+		if (bits.get(ordinal))
+			return false;
+		bits.set(ordinal);
+		++size;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<?> c) {
+		if (!isCompatible(c))
+			return super.addAll(c);
+		bits.or(((OrdinalSet) c).bits);
+		return updateSize();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		if (!isCompatible(c))
+			return super.retainAll(c);
+		bits.and(((OrdinalSet) c).bits);
+		return updateSize();
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		int ordinal = ordinals.find(value);
+		return ordinal >= 0 && bits.get(ordinal);
+	}
+
+	@Override
+	public boolean remove(Object value) {
+		int ordinal = ordinals.find(value);
+		if (ordinal < 0 || !bits.get(ordinal))
+			return false;
+		bits.clear(ordinal);
+		--size;
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		bits.clear();
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<Object> iterator() {
+		return new Iterator<Object>() {
+			private int next = bits.nextSetBit(0);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public Object next() {
+				if (next < 0)
+					throw new NoSuchElementException();
+				last = next;
+				next = bits.nextSetBit(next + 1);
+				return ordinals.get(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0)
+					throw new IllegalStateException();
+				bits.clear(last);
+				--size;
+				last = -1;
+			}
+		};
+	}
+
+	private boolean isCompatible(Collection<?> c) {
+		return c instanceof OrdinalSet && ((OrdinalSet) c).ordinals == ordinals;
+	}
+
+	private boolean updateSize() {
+		int newSize = bits.cardinality();
+		boolean changed = newSize != size;
+		size = newSize;
+		return changed;
+	}
+}
@@ -35,7 +35,24 @@ public class QueryResult<T> implements IQueryResult<T> {
 	 * @param iterator The iterator to use as the result iterator.
 	 */
 	public QueryResult(Iterator<T> iterator) {
-		this.iterator = (iterator instanceof IRepeatableIterator<?>) ? (IRepeatableIterator<T>) iterator : RepeatableIterator.create(iterator);
+		this(iterator, false);
+	}
+
+	/**
+	 * Create a QueryResult based on the given iterator. When <code>lazy</code> is <code>true</code>,
+	 * elements are pulled from the iterator as the result is perused instead of up front, so
+	 * a caller that only looks at the first few elements, or checks {@link #isEmpty()}, never
+	 * causes the remaining elements to be computed. Methods that need all elements, such as
+	 * {@link #toSet()} or {@link #toArray(Class)}, drain the iterator.
+	 *
+	 * @param iterator The iterator to use as the result iterator.
+	 * @param lazy <code>true</code> if the iterator should be consumed on demand.
+	 */
+	public QueryResult(Iterator<T> iterator, boolean lazy) {
+		if (iterator instanceof IRepeatableIterator<?>)
+			this.iterator = (IRepeatableIterator<T>) iterator;
+		else
+			this.iterator = lazy ? RepeatableIterator.createLazy(iterator) : RepeatableIterator.create(iterator);
 	}
 
 	public QueryResult(Collection<T> collection) {
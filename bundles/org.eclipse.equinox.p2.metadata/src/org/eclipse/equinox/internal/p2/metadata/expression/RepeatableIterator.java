@@ -41,6 +41,15 @@ public class RepeatableIterator<T> implements IRepeatableIterator<T> {
 		return iterator instanceof IRepeatableIterator<?> ? ((IRepeatableIterator<T>) iterator).getCopy() : new RepeatableIterator<>(iterator);
 	}
 
+	/**
+	 * Creates a repeatable iterator that pulls elements from the given iterator on demand.
+	 * Unlike {@link #create(Iterator)}, the given iterator is not drained up front. The
+	 * elements that have been pulled are remembered so that copies can repeat them.
+	 */
+	public static <T> IRepeatableIterator<T> createLazy(Iterator<T> iterator) {
+		return iterator instanceof IRepeatableIterator<?> ? ((IRepeatableIterator<T>) iterator).getCopy() : new LazyIterator<>(new LazyIterator.Buffer<>(iterator));
+	}
+
 	public static <T> IRepeatableIterator<T> create(Collection<T> values) {
 		return new RepeatableIterator<>(values);
 	}
@@ -201,4 +210,77 @@ public class RepeatableIterator<T> implements IRepeatableIterator<T> {
 			throw new UnsupportedOperationException();
 		}
 	}
+
+	static class LazyIterator<T> implements IRepeatableIterator<T> {
+		/**
+		 * The elements pulled so far from the source, shared by all copies.
+		 * Duplicates are skipped in the same way the eager iterator skips them.
+		 */
+		static class Buffer<T> {
+			private final ArrayList<T> values = new ArrayList<>();
+			private final HashSet<T> seen = new HashSet<>();
+			private Iterator<T> source;
+
+			Buffer(Iterator<T> source) {
+				this.source = source;
+			}
+
+			boolean fill(int size) {
+				while (values.size() < size) {
+					if (source == null)
+						return false;
+					if (!source.hasNext()) {
+						source = null;
+						return false;
+					}
+					T value = source.next();
+					if (seen.add(value))
+						values.add(value);
+				}
+				return true;
+			}
+
+			List<T> drain() {
+				fill(Integer.MAX_VALUE);
+				return values;
+			}
+		}
+
+		private final Buffer<T> buffer;
+		private int position;
+
+		LazyIterator(Buffer<T> buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public IRepeatableIterator<T> getCopy() {
+			return new LazyIterator<>(buffer);
+		}
+
+		/**
+		 * Returns the elements of the source. Calling this method drains the source.
+		 */
+		@Override
+		public Object getIteratorProvider() {
+			return buffer.drain();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return buffer.fill(position + 1);
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return buffer.values.get(position++);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
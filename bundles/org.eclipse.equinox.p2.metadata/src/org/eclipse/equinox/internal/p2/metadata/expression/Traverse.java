@@ -33,10 +33,10 @@ final class Traverse extends CollectionFilter {
 
 	@Override
 	public Iterator<?> evaluateAsIterator(IEvaluationContext context, Iterator<?> iterator) {
-		HashSet<Object> collector = new HashSet<>();
+		OrdinalSet collector = new OrdinalSet(EvaluationContext.getOrdinals(context));
 		while (iterator.hasNext())
 			traverse(collector, iterator.next(), context);
-		return collector.iterator();
+		return RepeatableIterator.create(collector);
 	}
 
 	@Override
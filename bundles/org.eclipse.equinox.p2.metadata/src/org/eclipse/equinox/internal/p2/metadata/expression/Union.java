@@ -11,7 +11,6 @@
 package org.eclipse.equinox.internal.p2.metadata.expression;
 
 import java.util.Iterator;
-import java.util.Set;
 import org.eclipse.equinox.p2.metadata.expression.IEvaluationContext;
 
 /**
@@ -28,11 +27,17 @@ final class Union extends Binary {
 
 	@Override
 	public Iterator<?> evaluateAsIterator(IEvaluationContext context) {
-		@SuppressWarnings("unchecked")
-		Set<Object> resultSet = (Set<Object>) asSet(lhs.evaluate(context), true);
+		OrdinalSet.Ordinals ordinals = EvaluationContext.getOrdinals(context);
+		OrdinalSet resultSet = OrdinalSet.copyOf(ordinals, asSet(lhs.evaluate(context), false));
 		Iterator<?> itor = rhs.evaluateAsIterator(context);
-		while (itor.hasNext())
-			resultSet.add(itor.next());
+		OrdinalSet rhsSet = asOrdinalSet(itor, ordinals);
+		if (rhsSet != null)
+			// Both sides share ordinals so the union is a bitwise or
+			resultSet.addAll(rhsSet);
+		else {
+			while (itor.hasNext())
+				resultSet.add(itor.next());
+		}
 		return RepeatableIterator.create(resultSet);
 	}
 
@@ -54,7 +54,7 @@ final class Unique extends Binary {
 		Set<Object> uniqueSet;
 		if (explicitCache == null)
 			// No cache, we just ensure that the iteration is unique
-			uniqueSet = new HashSet<>();
+			uniqueSet = new OrdinalSet(EvaluationContext.getOrdinals(context));
 		else {
 			if (!(explicitCache instanceof Set<?>))
 				throw new IllegalArgumentException("Unique cache must be a java.util.Set"); //$NON-NLS-1$
@@ -11,11 +11,13 @@
 package org.eclipse.equinox.internal.p2.metadata.index;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
@@ -32,6 +34,8 @@ import org.eclipse.equinox.internal.p2.metadata.expression.Unary;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.IProvidedCapability;
 import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.metadata.VersionRange;
 import org.eclipse.equinox.p2.metadata.expression.ExpressionUtil;
 import org.eclipse.equinox.p2.metadata.expression.IEvaluationContext;
 import org.eclipse.equinox.p2.metadata.expression.IExpression;
@@ -39,19 +43,116 @@ import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
 
 /**
  * An in-memory implementation of a CapabilityIndex based on a Map.
+ * <p>
+ * Besides the name based map, the index keeps a two-level map keyed on namespace
+ * and name where the providers are sorted on the provided version. Requirements
+ * that are expressed as a version range are answered by a binary search in that
+ * sorted list rather than by returning every provider of the name.
  */
 @SuppressWarnings("unchecked")
 public class CapabilityIndex extends Index<IInstallableUnit> {
 
+	/**
+	 * The providers of one namespace and name, sorted on provided version.
+	 */
+	private static final class VersionedProviders {
+		private Version[] versions = new Version[4];
+		private IInstallableUnit[] units = new IInstallableUnit[4];
+		private int size;
+
+		/**
+		 * Providers that didn't declare a version. They are always returned as
+		 * candidates since we cannot tell if they match or not.
+		 */
+		private List<IInstallableUnit> unversioned;
+
+		void add(Version version, IInstallableUnit iu) {
+			if (version == null) {
+				if (unversioned == null)
+					unversioned = new ArrayList<>(2);
+				unversioned.add(iu);
+				return;
+			}
+			if (size == versions.length) {
+				int newCapacity = size * 2;
+				versions = Arrays.copyOf(versions, newCapacity);
+				units = Arrays.copyOf(units, newCapacity);
+			}
+			versions[size] = version;
+			units[size++] = iu;
+		}
+
+		void sort() {
+			if (size > 1) {
+				Integer[] order = new Integer[size];
+				for (int idx = 0; idx < size; ++idx)
+					order[idx] = Integer.valueOf(idx);
+				Arrays.sort(order, (a, b) -> versions[a.intValue()].compareTo(versions[b.intValue()]));
+				Version[] sortedVersions = new Version[size];
+				IInstallableUnit[] sortedUnits = new IInstallableUnit[size];
+				for (int idx = 0; idx < size; ++idx) {
+					int from = order[idx].intValue();
+					sortedVersions[idx] = versions[from];
+					sortedUnits[idx] = units[from];
+				}
+				versions = sortedVersions;
+				units = sortedUnits;
+			} else if (versions.length != size) {
+				versions = Arrays.copyOf(versions, size);
+				units = Arrays.copyOf(units, size);
+			}
+		}
+
+		/**
+		 * Returns the index of the first provider whose version is greater than
+		 * (or equal to when <code>inclusive</code> is <code>true</code>) the
+		 * given <code>version</code>.
+		 */
+		private int firstAbove(Version version, boolean inclusive) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				int cmp = versions[mid].compareTo(version);
+				if (cmp < 0 || (cmp == 0 && !inclusive))
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			return low;
+		}
+
+		List<IInstallableUnit> getUnits(VersionRange range) {
+			int from = 0;
+			int to = size;
+			if (range != null && !VersionRange.emptyRange.equals(range)) {
+				from = firstAbove(range.getMinimum(), range.getIncludeMinimum());
+				to = firstAbove(range.getMaximum(), !range.getIncludeMaximum());
+			}
+			List<IInstallableUnit> matches = from < to ? Arrays.asList(units).subList(from, to) : Collections.emptyList();
+			if (unversioned == null)
+				return matches;
+			ArrayList<IInstallableUnit> result = new ArrayList<>(matches.size() + unversioned.size());
+			result.addAll(matches);
+			result.addAll(unversioned);
+			return result;
+		}
+	}
+
 	private final Map<String, Object> capabilityMap;
 
+	private final Map<String, Map<String, VersionedProviders>> versionedCapabilityMap;
+
 	public CapabilityIndex(Iterator<IInstallableUnit> itor) {
 		HashMap<String, Object> index = new HashMap<>(300);
+		HashMap<String, Map<String, VersionedProviders>> versionedIndex = new HashMap<>();
 		while (itor.hasNext()) {
 			IInstallableUnit iu = itor.next();
 			Collection<IProvidedCapability> pcs = iu.getProvidedCapabilities();
 			for (IProvidedCapability pc : pcs) {
 				String name = pc.getName();
+				versionedIndex.computeIfAbsent(pc.getNamespace(), ns -> new HashMap<>()).computeIfAbsent(name, n -> new VersionedProviders()).add(pc.getVersion(), iu);
+
 				Object prev = index.put(name, iu);
 				if (prev == null || prev == iu)
 					continue;
@@ -66,7 +167,11 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 				index.put(name, list);
 			}
 		}
+		for (Map<String, VersionedProviders> providersByName : versionedIndex.values())
+			for (VersionedProviders providers : providersByName.values())
+				providers.sort();
 		this.capabilityMap = index;
+		this.versionedCapabilityMap = versionedIndex;
 	}
 
 	private Object getRequirementIDs(IEvaluationContext ctx, IExpression requirement, Object queriedKeys) {
@@ -131,7 +236,7 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 		// index usage query
 		//
 		IMatchExpression<IInstallableUnit> rm = ((IRequirement) rhsObj).getMatches();
-		return RequiredCapability.isVersionRangeRequirement(rm) ? concatenateUnique(queriedKeys, rm.getParameters()[0]) : getRequirementIDs(rm.createContext(), ((Unary) rm).operand, queriedKeys);
+		return RequiredCapability.isVersionRangeRequirement(rm) ? concatenateUnique(queriedKeys, rm) : getRequirementIDs(rm.createContext(), ((Unary) rm).operand, queriedKeys);
 	}
 
 	@Override
@@ -145,6 +250,13 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 		int type = booleanExpr.getExpressionType();
 		if (type == 0) {
 			// wrapper
+			if (variable == ExpressionFactory.THIS && booleanExpr instanceof IMatchExpression<?>) {
+				// The match expression of a version range requirement can use
+				// the versioned index directly
+				IMatchExpression<IInstallableUnit> rm = (IMatchExpression<IInstallableUnit>) booleanExpr;
+				if (RequiredCapability.isVersionRangeRequirement(rm))
+					return getVersionedMatches(rm).iterator();
+			}
 			expr = ((Unary) booleanExpr).operand;
 			type = expr.getExpressionType();
 		}
@@ -206,7 +318,7 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 				// index usage query
 				//
 				IMatchExpression<IInstallableUnit> rm = ((IRequirement) rhsObj).getMatches();
-				queriedKeys = RequiredCapability.isVersionRangeRequirement(rm) ? concatenateUnique(queriedKeys, rm.getParameters()[0]) : getRequirementIDs(rm.createContext(), ((Unary) rm).operand, queriedKeys);
+				queriedKeys = RequiredCapability.isVersionRangeRequirement(rm) ? concatenateUnique(queriedKeys, rm) : getRequirementIDs(rm.createContext(), ((Unary) rm).operand, queriedKeys);
 				break;
 
 			default :
@@ -225,7 +337,9 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 		} else if (queriedKeys instanceof Collection<?>) {
 			matchingIUs = new HashSet<>();
 			for (Object key : (Collection<Object>) queriedKeys)
-				collectMatchingIUs((String) key, matchingIUs);
+				collectMatchingIUs(key, matchingIUs);
+		} else if (queriedKeys instanceof IMatchExpression<?>) {
+			matchingIUs = getVersionedMatches((IMatchExpression<IInstallableUnit>) queriedKeys);
 		} else {
 			Object v = capabilityMap.get(queriedKeys);
 			if (v == null)
@@ -238,8 +352,26 @@ public class CapabilityIndex extends Index<IInstallableUnit> {
 		return matchingIUs.iterator();
 	}
 
-	private void collectMatchingIUs(String name, Collection<IInstallableUnit> collector) {
-		Object v = capabilityMap.get(name);
+	/**
+	 * Returns the providers of the namespace and name of a version range requirement
+	 * whose provided version is within the range of the requirement.
+	 */
+	private Collection<IInstallableUnit> getVersionedMatches(IMatchExpression<IInstallableUnit> rm) {
+		Map<String, VersionedProviders> providersByName = versionedCapabilityMap.get(RequiredCapability.extractNamespace(rm));
+		if (providersByName == null)
+			return Collections.emptySet();
+		VersionedProviders providers = providersByName.get(RequiredCapability.extractName(rm));
+		if (providers == null)
+			return Collections.emptySet();
+		return providers.getUnits(RequiredCapability.extractRange(rm));
+	}
+
+	private void collectMatchingIUs(Object key, Collection<IInstallableUnit> collector) {
+		if (key instanceof IMatchExpression<?>) {
+			collector.addAll(getVersionedMatches((IMatchExpression<IInstallableUnit>) key));
+			return;
+		}
+		Object v = capabilityMap.get(key);
 		if (v == null)
 			return;
 		if (v instanceof IInstallableUnit)
@@ -139,7 +139,7 @@ public abstract class Index<T> implements IIndex<T> {
 		return null;
 	}
 
-	private static Object safeEvaluate(IEvaluationContext ctx, IExpression expr) {
+	protected static Object safeEvaluate(IEvaluationContext ctx, IExpression expr) {
 		try {
 			return expr.evaluate(ctx);
 		} catch (IllegalArgumentException e) {
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.p2.metadata.index;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.expression.Binary;
+import org.eclipse.equinox.internal.p2.metadata.expression.Unary;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.metadata.expression.*;
+import org.eclipse.equinox.p2.query.QueryUtil;
+
+/**
+ * An index that maps the values of selected properties to the installable units that have
+ * them. The index is used for expressions that compare such a property with a value, i.e.
+ * <code>properties[$0] == $1</code>, alone or combined using <code>&amp;&amp;</code> and
+ * <code>||</code>.
+ */
+public class PropertyIndex extends Index<IInstallableUnit> {
+	/**
+	 * The keys of the properties that are used to categorize installable units.
+	 */
+	public static final String[] TYPE_KEYS = {QueryUtil.PROP_TYPE_GROUP, QueryUtil.PROP_TYPE_CATEGORY, QueryUtil.PROP_TYPE_PATCH, InstallableUnitDescription.PROP_TYPE_PRODUCT};
+
+	private final Map<String, Map<String, List<IInstallableUnit>>> valueMaps = new HashMap<>();
+
+	public PropertyIndex(Iterator<IInstallableUnit> itor) {
+		this(itor, TYPE_KEYS);
+	}
+
+	public PropertyIndex(Iterator<IInstallableUnit> itor, String... keys) {
+		for (String key : keys)
+			valueMaps.put(key, new HashMap<String, List<IInstallableUnit>>());
+
+		while (itor.hasNext()) {
+			IInstallableUnit iu = itor.next();
+			for (Map.Entry<String, Map<String, List<IInstallableUnit>>> entry : valueMaps.entrySet()) {
+				String value = iu.getProperty(entry.getKey());
+				if (value == null)
+					continue;
+				Map<String, List<IInstallableUnit>> valueMap = entry.getValue();
+				String normalized = normalize(value);
+				List<IInstallableUnit> ius = valueMap.get(normalized);
+				if (ius == null) {
+					ius = new ArrayList<>();
+					valueMap.put(normalized, ius);
+				}
+				ius.add(iu);
+			}
+		}
+	}
+
+	@Override
+	public Iterator<IInstallableUnit> getCandidates(IEvaluationContext ctx, IExpression variable, IExpression booleanExpr) {
+		IExpression targetExpr = booleanExpr;
+		if (booleanExpr instanceof IMatchExpression<?>) {
+			targetExpr = ((Unary) targetExpr).operand;
+			ctx = ((IMatchExpression<?>) booleanExpr).createContext();
+		}
+		Collection<IInstallableUnit> candidates = findCandidates(ctx, variable, targetExpr);
+		return candidates == null ? null : candidates.iterator();
+	}
+
+	private Collection<IInstallableUnit> findCandidates(IEvaluationContext ctx, IExpression variable, IExpression expr) {
+		switch (expr.getExpressionType()) {
+			case IExpression.TYPE_EQUALS :
+				Binary eqExpr = (Binary) expr;
+				Collection<IInstallableUnit> candidates = findCandidates(ctx, variable, eqExpr.lhs, eqExpr.rhs);
+				return candidates == null ? findCandidates(ctx, variable, eqExpr.rhs, eqExpr.lhs) : candidates;
+
+			case IExpression.TYPE_AND :
+				// AND is OK if at least one of the branches can use the index
+				for (IExpression operand : ExpressionUtil.getOperands(expr)) {
+					candidates = findCandidates(ctx, variable, operand);
+					if (candidates != null)
+						return candidates;
+				}
+				return null;
+
+			case IExpression.TYPE_OR :
+				// OR is OK if all the branches can use the index
+				Set<IInstallableUnit> union = new LinkedHashSet<>();
+				for (IExpression operand : ExpressionUtil.getOperands(expr)) {
+					candidates = findCandidates(ctx, variable, operand);
+					if (candidates == null)
+						return null;
+					union.addAll(candidates);
+				}
+				return union;
+		}
+		return null;
+	}
+
+	private Collection<IInstallableUnit> findCandidates(IEvaluationContext ctx, IExpression variable, IExpression propertyExpr, IExpression valueExpr) {
+		if (propertyExpr.getExpressionType() != IExpression.TYPE_AT)
+			return null;
+
+		Binary atExpr = (Binary) propertyExpr;
+		if (!isIndexedMember(atExpr.lhs, variable, InstallableUnit.MEMBER_PROPERTIES))
+			return null;
+
+		Map<String, List<IInstallableUnit>> valueMap = valueMaps.get(safeEvaluate(ctx, atExpr.rhs));
+		if (valueMap == null)
+			return null;
+
+		// Strings are compared with booleans the same way the equals expression coerces them
+		Object value = safeEvaluate(ctx, valueExpr);
+		if (!(value instanceof String || value instanceof Boolean))
+			return null;
+		List<IInstallableUnit> ius = valueMap.get(normalize(value.toString()));
+		return ius == null ? Collections.<IInstallableUnit> emptyList() : ius;
+	}
+
+	private static String normalize(String value) {
+		return value.trim().toLowerCase(Locale.ENGLISH);
+	}
+}
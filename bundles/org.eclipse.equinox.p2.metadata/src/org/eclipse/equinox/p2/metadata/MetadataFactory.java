@@ -28,6 +28,7 @@ import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnitFragment;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnitPatch;
 import org.eclipse.equinox.internal.p2.metadata.License;
+import org.eclipse.equinox.internal.p2.metadata.MetadataPool;
 import org.eclipse.equinox.internal.p2.metadata.ProvidedCapability;
 import org.eclipse.equinox.internal.p2.metadata.RequiredCapability;
 import org.eclipse.equinox.internal.p2.metadata.RequiredPropertiesMatch;
@@ -457,7 +458,7 @@ public final class MetadataFactory {
 	 * @param version The capability version
 	 */
 	public static IProvidedCapability createProvidedCapability(String namespace, String name, Version version) {
-		return new ProvidedCapability(namespace, name, version);
+		return MetadataPool.intern(new ProvidedCapability(MetadataPool.intern(namespace), MetadataPool.intern(name), MetadataPool.intern(version)));
 	}
 
 	/**
@@ -468,7 +469,7 @@ public final class MetadataFactory {
 	 * @since 2.4
 	 */
 	public static IProvidedCapability createProvidedCapability(String namespace, Map<String, Object> properties) {
-		return new ProvidedCapability(namespace, properties);
+		return MetadataPool.intern(new ProvidedCapability(MetadataPool.intern(namespace), properties));
 	}
 
 	/**
@@ -486,7 +487,7 @@ public final class MetadataFactory {
 	 * @return the requirement
 	 */
 	public static IRequirement createRequirement(String namespace, String name, VersionRange range, String filter, boolean optional, boolean multiple, boolean greedy) {
-		return new RequiredCapability(namespace, name, range, InstallableUnit.parseFilter(filter), optional ? 0 : 1, multiple ? Integer.MAX_VALUE : 1, greedy, null);
+		return createRequiredCapability(namespace, name, range, InstallableUnit.parseFilter(filter), optional ? 0 : 1, multiple ? Integer.MAX_VALUE : 1, greedy, null);
 	}
 
 	/**
@@ -505,7 +506,7 @@ public final class MetadataFactory {
 	 * @return the requirement
 	 */
 	public static IRequirement createRequirement(String namespace, String name, VersionRange range, IMatchExpression<IInstallableUnit> filter, boolean optional, boolean multiple) {
-		return new RequiredCapability(namespace, name, range, filter, optional ? 0 : 1, multiple ? Integer.MAX_VALUE : 1, true, null);
+		return createRequiredCapability(namespace, name, range, filter, optional ? 0 : 1, multiple ? Integer.MAX_VALUE : 1, true, null);
 	}
 
 	/**
@@ -522,7 +523,7 @@ public final class MetadataFactory {
 	 * @return the requirement
 	 */
 	public static IRequirement createRequirement(String namespace, String name, VersionRange range, IMatchExpression<IInstallableUnit> filter, int minCard, int maxCard, boolean greedy) {
-		return new RequiredCapability(namespace, name, range, filter, minCard, maxCard, greedy, null);
+		return createRequiredCapability(namespace, name, range, filter, minCard, maxCard, greedy, null);
 	}
 
 	/**
@@ -540,7 +541,7 @@ public final class MetadataFactory {
 	 * @return the requirement
 	 */
 	public static IRequirement createRequirement(String namespace, String name, VersionRange range, IMatchExpression<IInstallableUnit> filter, int minCard, int maxCard, boolean greedy, String description) {
-		return new RequiredCapability(namespace, name, range, filter, minCard, maxCard, greedy, description);
+		return createRequiredCapability(namespace, name, range, filter, minCard, maxCard, greedy, description);
 	}
 
 	/**
@@ -801,7 +802,7 @@ public final class MetadataFactory {
 			String namespace = RequiredCapability.extractNamespace(requirement);
 			String name = RequiredCapability.extractName(requirement);
 			VersionRange range = RequiredCapability.extractRange(requirement);
-			return new RequiredCapability(namespace, name, range, envFilter, minCard, maxCard, greedy, description);
+			return createRequiredCapability(namespace, name, range, envFilter, minCard, maxCard, greedy, description);
 		}
 
 		if (RequiredPropertiesMatch.isPropertiesMatchRequirement(requirement)) {
@@ -813,6 +814,10 @@ public final class MetadataFactory {
 		return new Requirement(requirement, envFilter, minCard, maxCard, greedy, description);
 	}
 
+	private static IRequirement createRequiredCapability(String namespace, String name, VersionRange range, IMatchExpression<IInstallableUnit> filter, int minCard, int maxCard, boolean greedy, String description) {
+		return MetadataPool.intern(new RequiredCapability(MetadataPool.intern(namespace), MetadataPool.intern(name), MetadataPool.intern(range), filter, minCard, maxCard, greedy, description));
+	}
+
 	private static ITouchpointType getCachedTouchpointType(String id, Version version) {
 		for (int i = 0; i < typeCache.length; i++) {
 			if (typeCache[i] != null && typeCache[i].getId().equals(id) && typeCache[i].getVersion().equals(version))
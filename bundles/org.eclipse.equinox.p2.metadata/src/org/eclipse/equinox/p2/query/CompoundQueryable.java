@@ -11,12 +11,19 @@
 package org.eclipse.equinox.p2.query;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.WorkerPool;
 import org.eclipse.equinox.internal.p2.metadata.expression.CompoundIterator;
+import org.eclipse.equinox.internal.p2.metadata.expression.MatchExpression;
 import org.eclipse.equinox.internal.p2.metadata.index.CompoundIndex;
 import org.eclipse.equinox.internal.p2.metadata.index.IndexProvider;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
@@ -29,9 +36,16 @@ import org.eclipse.equinox.p2.metadata.index.IIndexProvider;
 /**
  * A queryable that holds a number of other IQueryables and provides
  * a mechanism for querying the entire set.
+ * <p>
+ * When the system property <code>eclipse.p2.query.parallelism</code> is set to a
+ * number greater than one, match queries are performed on the held queryables
+ * concurrently using at most that many threads. The results are merged in the
+ * order of the queryables.
+ * </p>
  * @since 2.0
  */
 public final class CompoundQueryable<T> extends IndexProvider<T> {
+	private static final String PROP_PARALLELISM = "eclipse.p2.query.parallelism"; //$NON-NLS-1$
 
 	static class PassThroughIndex<T> implements IIndex<T> {
 		private final Iterator<T> iterator;
@@ -74,6 +88,44 @@ public final class CompoundQueryable<T> extends IndexProvider<T> {
 		this(new IQueryable[] {query1, query2});
 	}
 
+	@Override
+	public IQueryResult<T> query(IQuery<T> query, IProgressMonitor monitor) {
+		// Subclasses may depend on state that a copy of the query would not have
+		if (queryables.length > 1 && query != null && query.getClass() == ExpressionMatchQuery.class) {
+			int parallelism = WorkerPool.getParallelism(PROP_PARALLELISM, 1);
+			if (parallelism > 1)
+				return parallelQuery((ExpressionMatchQuery<T>) query, parallelism, monitor);
+		}
+		return super.query(query, monitor);
+	}
+
+	/**
+	 * A match is decided by each candidate alone so the result is the union of the
+	 * results of the held queryables.
+	 */
+	private IQueryResult<T> parallelQuery(ExpressionMatchQuery<T> query, int parallelism, IProgressMonitor monitor) {
+		if (monitor != null)
+			monitor.beginTask(null, queryables.length);
+
+		MatchExpression<T> expression = (MatchExpression<T>) query.getExpression();
+		List<CompletableFuture<IQueryResult<T>>> results = WorkerPool.submit(Arrays.asList(queryables), parallelism, queryable -> {
+			// The evaluation context of a query is not thread safe so each queryable gets a copy
+			ExpressionMatchQuery<T> copy = new ExpressionMatchQuery<>(query.getMatchingClass(), expression.operand, expression.getParameters());
+			return queryable.query(copy, new NullProgressMonitor());
+		});
+
+		LinkedHashSet<T> result = new LinkedHashSet<>();
+		for (CompletableFuture<IQueryResult<T>> queryResult : results) {
+			for (Iterator<T> itor = WorkerPool.join(queryResult).iterator(); itor.hasNext();)
+				result.add(itor.next());
+			if (monitor != null)
+				monitor.worked(1);
+		}
+		if (monitor != null)
+			monitor.done();
+		return result.isEmpty() ? Collector.emptyCollector() : new CollectionResult<>(result);
+	}
+
 	@Override
 	public IIndex<T> getIndex(String memberName) {
 		// Check that at least one of the queryable can present an index
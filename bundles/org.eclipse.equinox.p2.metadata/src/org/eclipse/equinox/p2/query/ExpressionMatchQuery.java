@@ -96,8 +96,7 @@ public class ExpressionMatchQuery<T> implements IMatchQuery<T>, IQueryWithIndex<
 	public boolean isMatch(T candidate) {
 		if (!matchingClass.isInstance(candidate))
 			return false;
-		ExpressionFactory.THIS.setValue(context, candidate);
-		return Boolean.TRUE == expression.evaluate(context);
+		return expression.isMatch(context, candidate);
 	}
 
 	@Override
@@ -29,10 +29,12 @@ import org.eclipse.equinox.p2.metadata.index.IQueryWithIndex;
 public class ExpressionQuery<T> implements IQueryWithIndex<T> {
 	private final IContextExpression<T> expression;
 	private final Class<? extends T> elementClass;
+	private final boolean bounded;
 
 	public ExpressionQuery(Class<? extends T> elementClass, IExpression expression, Object... parameters) {
 		this.elementClass = elementClass;
 		this.expression = ExpressionUtil.getFactory().contextExpression(expression, parameters);
+		this.bounded = isBounded(this.expression);
 	}
 
 	public ExpressionQuery(Class<? extends T> matchingClass, String expression, Object... parameters) {
@@ -45,12 +47,12 @@ public class ExpressionQuery<T> implements IQueryWithIndex<T> {
 
 	@Override
 	public IQueryResult<T> perform(IIndexProvider<T> indexProvider) {
-		return new QueryResult<>(expression.iterator(expression.createContext(elementClass, indexProvider)));
+		return new QueryResult<>(expression.iterator(expression.createContext(elementClass, indexProvider)), bounded);
 	}
 
 	@Override
 	public IQueryResult<T> perform(Iterator<T> iterator) {
-		return new QueryResult<>(expression.iterator(expression.createContext(elementClass, iterator)));
+		return new QueryResult<>(expression.iterator(expression.createContext(elementClass, iterator)), bounded);
 	}
 
 	@Override
@@ -58,6 +60,15 @@ public class ExpressionQuery<T> implements IQueryWithIndex<T> {
 		return expression;
 	}
 
+	/**
+	 * The result of a query that limits the number of elements is streamed so that
+	 * no more candidates than needed are evaluated. Other results are collected up
+	 * front and are therefore not affected by later changes to the queried source.
+	 */
+	private static boolean isBounded(IContextExpression<?> expression) {
+		return expression instanceof ContextExpression<?> && ((ContextExpression<?>) expression).operand.getExpressionType() == IExpression.TYPE_LIMIT;
+	}
+
 	public static <T> Class<? extends T> getElementClass(IQuery<T> query) {
 		@SuppressWarnings("unchecked")
 		Class<? extends T> elementClass = (Class<T>) Object.class;
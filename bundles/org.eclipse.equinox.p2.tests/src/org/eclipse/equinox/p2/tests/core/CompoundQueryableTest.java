@@ -9,10 +9,10 @@
 ******************************************************************************/
 package org.eclipse.equinox.p2.tests.core;
 
-import java.util.Arrays;
-import java.util.Iterator;
+import java.util.*;
 import junit.framework.TestCase;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.tests.harness.TestProgressMonitor;
 import org.eclipse.equinox.p2.query.*;
 import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
@@ -290,4 +290,30 @@ public class CompoundQueryableTest extends TestCase {
 		assertTrue("1.0", monitor.isDone());
 		assertTrue("1.1", monitor.isWorkDone());
 	}
+
+	public void testParallelMatchQuery() {
+		IQueryable<Integer> cQueryable = QueryUtil.compoundQueryable(Arrays.asList(queryable1, queryable2, queryable3));
+		IQuery<Integer> query = new ExpressionMatchQuery<>(Integer.class, "this >= $0", 5);
+		Set<Integer> sequential = cQueryable.query(query, new NullProgressMonitor()).toUnmodifiableSet();
+
+		String parallelism = System.getProperty("eclipse.p2.query.parallelism");
+		System.setProperty("eclipse.p2.query.parallelism", "4");
+		try {
+			CompoundQueryTestProgressMonitor monitor = new CompoundQueryTestProgressMonitor();
+			IQueryResult<Integer> queryResult = cQueryable.query(query, monitor);
+			assertEquals("1.0", sequential, queryResult.toUnmodifiableSet());
+			// The results of the queryables are merged in order
+			List<Integer> merged = new ArrayList<>();
+			for (Iterator<Integer> iterator = queryResult.iterator(); iterator.hasNext();)
+				merged.add(iterator.next());
+			assertEquals("1.1", Arrays.asList(5, 6, 8, 10, 12, 7, 9, 11, 13), merged);
+			assertTrue("1.2", monitor.isDone());
+			assertTrue("1.3", monitor.isWorkDone());
+		} finally {
+			if (parallelism == null)
+				System.clearProperty("eclipse.p2.query.parallelism");
+			else
+				System.setProperty("eclipse.p2.query.parallelism", parallelism);
+		}
+	}
 }
@@ -19,6 +19,7 @@ public class AllTests extends TestCase {
 
 	public static Test suite() {
 		TestSuite suite = new TestSuite(AllTests.class.getName());
+		suite.addTestSuite(BinaryProfileTest.class);
 		suite.addTestSuite(CertificateCheckerTest.class);
 		suite.addTestSuite(DownloadManagerTest.class);
 		suite.addTestSuite(InstructionParserTest.class);
@@ -26,11 +27,15 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(PhaseApplicabilityTest.class);
 		suite.addTestSuite(PhaseSetTest.class);
 		suite.addTestSuite(PhaseTest.class);
+		suite.addTestSuite(ParallelPhaseTest.class);
+		suite.addTestSuite(PipelinedPhaseSetTest.class);
+		suite.addTestSuite(EngineMetricsTest.class);
 		suite.addTestSuite(ParameterizedProvisioningActionTest.class);
 		suite.addTestSuite(ProfileMetadataRepositoryTest.class);
 		suite.addTestSuite(ProfileTest.class);
 		suite.addTestSuite(ProfilePreferencesTest.class);
 		suite.addTestSuite(ProfileRegistryTest.class);
+		suite.addTestSuite(ProfileJournalTest.class);
 		suite.addTestSuite(ProvisioningContextTest.class);
 		suite.addTestSuite(SurrogateProfileHandlerTest.class);
 		suite.addTestSuite(ActionManagerTest.class);
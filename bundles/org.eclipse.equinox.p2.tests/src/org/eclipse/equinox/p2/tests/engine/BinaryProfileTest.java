@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.engine;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Collections;
+import org.eclipse.equinox.internal.p2.engine.*;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Tests the binary profile format, whose installable units are read on demand.
+ */
+public class BinaryProfileTest extends AbstractProvisioningTest {
+	private static final String PROFILE_ID = "BinaryProfileTest";
+	private File folder;
+	private SimpleProfileRegistry registry;
+	private IRequirement requiresB;
+	private IInstallableUnit a;
+	private IInstallableUnit b;
+	private IInstallableUnitFragment f;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.getProperties().put(EngineActivator.PROP_PROFILE_FORMAT, EngineActivator.PROFILE_FORMAT_BINARY);
+		folder = getTempFolder();
+		folder.mkdirs();
+		registry = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		requiresB = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "B", VersionRange.emptyRange, null, false, false);
+		a = createIU("A", Version.create("1.0.0"), new IRequirement[] {requiresB});
+		b = createIU("B", Version.create("2.0.0"));
+		f = createIUFragment(a, "F", Version.create("1.0.0"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.getProperties().remove(EngineActivator.PROP_PROFILE_FORMAT);
+		delete(folder);
+		super.tearDown();
+	}
+
+	private void commit(SimpleProfileRegistry profileRegistry, Profile profile) {
+		profile.setChanged(false);
+		profileRegistry.lockProfile(profile);
+		try {
+			profile.setChanged(true);
+			profileRegistry.updateProfile(profile);
+		} finally {
+			profileRegistry.unlockProfile(profile);
+			profile.setChanged(false);
+		}
+	}
+
+	private File[] listFiles(final String extension) {
+		File profileFolder = new File(folder, PROFILE_ID + ".profile");
+		return profileFolder.listFiles((FileFilter) pathname -> pathname.getName().endsWith(extension));
+	}
+
+	private IInstallableUnit getUnit(IProfile profile, String id) {
+		return profile.query(QueryUtil.createIUQuery(id), null).iterator().next();
+	}
+
+	private void writeProfile() throws ProvisionException {
+		Profile profile = (Profile) registry.addProfile(PROFILE_ID, Collections.singletonMap("p", "v"));
+		profile.addInstallableUnit(a);
+		profile.addInstallableUnit(b);
+		profile.addInstallableUnit(f);
+		profile.setInstallableUnitProperty(a, "root", "true");
+		commit(registry, profile);
+	}
+
+	public void testLazyUnits() throws ProvisionException {
+		writeProfile();
+		assertEquals(2, listFiles(".profile.bin").length);
+
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		IProfile profile = restored.getProfile(PROFILE_ID);
+		assertEquals("v", profile.getProperty("p"));
+		assertEquals(3, queryResultSize(profile.query(QueryUtil.createIUAnyQuery(), null)));
+
+		// Queries by id and by capability do not materialise the units
+		LazyInstallableUnit lazyB = (LazyInstallableUnit) getUnit(profile, "B");
+		assertEquals(Collections.singleton(b), profile.query(QueryUtil.createMatchQuery(requiresB.getMatches()), null).toUnmodifiableSet());
+		assertFalse(lazyB.isMaterialized());
+		LazyInstallableUnit lazyA = (LazyInstallableUnit) getUnit(profile, "A");
+		assertEquals("true", profile.getInstallableUnitProperty(a, "root"));
+		assertFalse(lazyA.isMaterialized());
+
+		assertEquals(a, lazyA);
+		assertEquals(a.hashCode(), lazyA.hashCode());
+		assertEquals(a.getRequirements(), lazyA.getRequirements());
+		assertEquals(a.getTouchpointType(), lazyA.getTouchpointType());
+		assertTrue(lazyA.isMaterialized());
+		IInstallableUnit lazyF = getUnit(profile, "F");
+		assertTrue(lazyF instanceof IInstallableUnitFragment);
+		assertEquals(f.getHost(), ((IInstallableUnitFragment) lazyF).getHost());
+	}
+
+	public void testRewrite() throws ProvisionException {
+		writeProfile();
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		Profile profile = (Profile) restored.getProfile(PROFILE_ID);
+		profile.setProperty("p", "v2");
+		commit(restored, profile);
+
+		// The units are copied to the new state without being materialised
+		LazyInstallableUnit lazyB = (LazyInstallableUnit) getUnit(profile, "B");
+		assertFalse(lazyB.isMaterialized());
+		assertEquals(3, listFiles(".profile.bin").length);
+		restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		IProfile rewritten = restored.getProfile(PROFILE_ID);
+		assertEquals("v2", rewritten.getProperty("p"));
+		assertEquals(b.getProperties(), getUnit(rewritten, "B").getProperties());
+		assertEquals("true", rewritten.getInstallableUnitProperty(a, "root"));
+	}
+
+	public void testPreviousStates() throws ProvisionException {
+		System.getProperties().remove(EngineActivator.PROP_PROFILE_FORMAT);
+		Profile profile = (Profile) registry.addProfile(PROFILE_ID);
+		profile.addInstallableUnit(a);
+		commit(registry, profile);
+		System.getProperties().put(EngineActivator.PROP_PROFILE_FORMAT, EngineActivator.PROFILE_FORMAT_BINARY);
+		profile.addInstallableUnit(b);
+		commit(registry, profile);
+
+		// The states written as XML and in the binary format are read alike
+		long[] timestamps = registry.listProfileTimestamps(PROFILE_ID);
+		assertEquals(3, timestamps.length);
+		assertEquals(1, listFiles(".profile.bin").length);
+		assertEquals(1, queryResultSize(registry.getProfile(PROFILE_ID, timestamps[1]).query(QueryUtil.createIUAnyQuery(), null)));
+		assertEquals(2, queryResultSize(new SimpleProfileRegistry(getAgent(), folder, null, false).getProfile(PROFILE_ID).query(QueryUtil.createIUAnyQuery(), null)));
+	}
+
+	public void testRemoveReadState() throws ProvisionException {
+		writeProfile();
+		long[] timestamps = registry.listProfileTimestamps(PROFILE_ID);
+		assertEquals(2, timestamps.length);
+		Profile profile = (Profile) registry.getProfile(PROFILE_ID);
+		profile.setProperty("p", "v2");
+		commit(registry, profile);
+
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		IProfile previous = restored.getProfile(PROFILE_ID, timestamps[1]);
+		LazyInstallableUnit lazyA = (LazyInstallableUnit) getUnit(previous, "A");
+		assertFalse(lazyA.isMaterialized());
+
+		// The file of a state that was read is not held open
+		restored.removeProfile(PROFILE_ID, timestamps[1]);
+		assertEquals(2, listFiles(".profile.bin").length);
+		assertEquals(2, restored.listProfileTimestamps(PROFILE_ID).length);
+		assertEquals(a.getRequirements(), lazyA.getRequirements());
+	}
+}
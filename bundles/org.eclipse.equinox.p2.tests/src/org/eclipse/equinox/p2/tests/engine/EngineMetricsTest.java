@@ -0,0 +1,221 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.engine;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.internal.p2.engine.*;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.ProvisioningListener;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
+import org.eclipse.equinox.p2.engine.spi.Touchpoint;
+import org.eclipse.equinox.p2.metadata.ITouchpointType;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Tests the metrics recorded by the engine for the phases and actions of an operation.
+ */
+public class EngineMetricsTest extends AbstractProvisioningTest {
+
+	public static class SleepAction extends ProvisioningAction {
+		@Override
+		public IStatus execute(Map<String, Object> parameters) {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				return Status.CANCEL_STATUS;
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(Map<String, Object> parameters) {
+			return Status.OK_STATUS;
+		}
+	}
+
+	static void sleep() {
+		try {
+			Thread.sleep(20);
+		} catch (InterruptedException e) {
+			// The time is not asserted exactly
+		}
+	}
+
+	public static class SleepTouchpoint extends Touchpoint {
+		@Override
+		public IStatus initializePhase(IProgressMonitor monitor, IProfile profile, String phaseId, Map<String, Object> parameters) {
+			sleep();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus initializeOperand(IProfile profile, Map<String, Object> parameters) {
+			sleep();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus completeOperand(IProfile profile, Map<String, Object> parameters) {
+			sleep();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus completePhase(IProgressMonitor monitor, IProfile profile, String phaseId, Map<String, Object> parameters) {
+			sleep();
+			return Status.OK_STATUS;
+		}
+	}
+
+	class SleepPhase extends InstallableUnitPhase {
+		Touchpoint touchpoint;
+
+		SleepPhase() {
+			super("sleep", 1);
+		}
+
+		@Override
+		protected IStatus initializeOperand(IProfile profile, InstallableUnitOperand operand, Map<String, Object> parameters, IProgressMonitor monitor) {
+			if (touchpoint != null)
+				parameters.put(PARM_TOUCHPOINT, touchpoint);
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			return Collections.<ProvisioningAction> singletonList(new SleepAction());
+		}
+	}
+
+	class MetricsListener implements ProvisioningListener {
+		EngineMetricsEvent event;
+		CountDownLatch latch = new CountDownLatch(1);
+
+		@Override
+		public void notify(EventObject o) {
+			if (o instanceof EngineMetricsEvent) {
+				event = (EngineMetricsEvent) o;
+				latch.countDown();
+			}
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.getProperties().remove(EngineActivator.PROP_ENGINE_METRICS);
+		super.tearDown();
+	}
+
+	private IStatus perform(String... ids) {
+		return perform(new SleepPhase(), ids);
+	}
+
+	private IStatus perform(SleepPhase phase, String... ids) {
+		IEngine engine = getEngine();
+		IProfile profile = createProfile("EngineMetricsTest");
+		IProvisioningPlan plan = engine.createPlan(profile, null);
+		for (String id : ids)
+			plan.addInstallableUnit(createIU(id));
+		return engine.perform(plan, new PhaseSet(new Phase[] {phase}), new NullProgressMonitor());
+	}
+
+	private EngineMetrics performWithMetrics(SleepPhase phase, String... ids) throws InterruptedException {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_METRICS, "true");
+		MetricsListener listener = new MetricsListener();
+		getEventBus().addListener(listener);
+		try {
+			assertOK(perform(phase, ids));
+			assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+		} finally {
+			getEventBus().removeListener(listener);
+		}
+		assertOK(listener.event.getStatus());
+		return listener.event.getMetrics();
+	}
+
+	public void testMetricsEvent() throws InterruptedException {
+		EngineMetrics metrics = performWithMetrics(new SleepPhase(), "a", "b", "c");
+
+		EngineMetrics.Metric phase = metrics.getMetrics(EngineMetrics.PHASE).get("sleep");
+		assertEquals(1, phase.getCount());
+		assertTrue(phase.getWallTime() >= TimeUnit.MILLISECONDS.toNanos(60));
+		EngineMetrics.Metric action = metrics.getMetrics(EngineMetrics.ACTION).get(SleepAction.class.getName());
+		assertEquals(3, action.getCount());
+		assertTrue(action.getMaxWallTime() >= TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(action.getWallTime() <= phase.getWallTime());
+		EngineMetrics.Metric touchpoint = metrics.getMetrics(EngineMetrics.TOUCHPOINT).get(ITouchpointType.NONE.getId());
+		assertEquals(3, touchpoint.getCount());
+		assertTrue(metrics.toString().contains("action " + SleepAction.class.getName() + ": count=3"));
+	}
+
+	public void testTouchpointCalls() throws InterruptedException {
+		SleepPhase phase = new SleepPhase();
+		phase.touchpoint = new SleepTouchpoint();
+		EngineMetrics metrics = performWithMetrics(phase, "a", "b", "c");
+
+		// The phase and the operands are initialized and completed around the actions
+		EngineMetrics.Metric touchpoint = metrics.getMetrics(EngineMetrics.TOUCHPOINT).get(ITouchpointType.NONE.getId());
+		assertEquals(3 + 2 * 3 + 2, touchpoint.getCount());
+		assertTrue(touchpoint.getWallTime() >= TimeUnit.MILLISECONDS.toNanos(20 * 11));
+		EngineMetrics.Metric action = metrics.getMetrics(EngineMetrics.ACTION).get(SleepAction.class.getName());
+		assertEquals(3, action.getCount());
+	}
+
+	public void testNoMetricsByDefault() throws InterruptedException {
+		MetricsListener listener = new MetricsListener();
+		getEventBus().addListener(listener);
+		try {
+			assertOK(perform("a"));
+			assertFalse(listener.latch.await(1, TimeUnit.SECONDS));
+		} finally {
+			getEventBus().removeListener(listener);
+		}
+	}
+
+	public void testHistograms() throws IOException {
+		EngineMetrics metrics = new EngineMetrics();
+		long now = System.nanoTime();
+		metrics.record(EngineMetrics.ACTION, "installBundle", now, -1);
+		metrics.record(EngineMetrics.ACTION, "installBundle", now - TimeUnit.SECONDS.toNanos(3), -1);
+		metrics.record(EngineMetrics.ACTION, "say \"hi\"", now - TimeUnit.MINUTES.toNanos(2), -1);
+
+		long[] histogram = metrics.getMetrics(EngineMetrics.ACTION).get("installBundle").getHistogram();
+		assertEquals(EngineMetrics.getBucketBounds().length + 1, histogram.length);
+		assertEquals(1, histogram[0]);
+		assertEquals(2, histogram[0] + histogram[Arrays.binarySearch(EngineMetrics.getBucketBounds(), 5000)]);
+		assertEquals(1, metrics.getMetrics(EngineMetrics.ACTION).get("say \"hi\"").getHistogram()[histogram.length - 1]);
+
+		// A time just over a bound falls in the next bucket
+		metrics.record(EngineMetrics.ACTION, "collect", System.nanoTime() - TimeUnit.MICROSECONDS.toNanos(1000500), -1);
+		histogram = metrics.getMetrics(EngineMetrics.ACTION).get("collect").getHistogram();
+		assertEquals(0, histogram[Arrays.binarySearch(EngineMetrics.getBucketBounds(), 1000)]);
+		assertEquals(1, histogram[Arrays.binarySearch(EngineMetrics.getBucketBounds(), 2500)]);
+
+		StringWriter writer = new StringWriter();
+		metrics.writeHistograms(writer);
+		String exported = writer.toString();
+		assertTrue(exported.contains("p2_engine_wall_time_milliseconds_bucket{category=\"action\",key=\"installBundle\",le=\"1\"} 1\n"));
+		assertTrue(exported.contains("p2_engine_wall_time_milliseconds_bucket{category=\"action\",key=\"installBundle\",le=\"5000\"} 2\n"));
+		assertTrue(exported.contains("p2_engine_wall_time_milliseconds_count{category=\"action\",key=\"installBundle\"} 2\n"));
+		assertTrue(exported.contains("p2_engine_wall_time_milliseconds_bucket{category=\"action\",key=\"say \\\"hi\\\"\",le=\"+Inf\"} 1\n"));
+		assertTrue(exported.contains("p2_engine_cpu_time_milliseconds_total{category=\"action\",key=\"installBundle\"} 0\n"));
+	}
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.frameworkadmin.BundleInfo;
+import org.eclipse.equinox.internal.p2.engine.*;
+import org.eclipse.equinox.internal.p2.engine.phases.Install;
+import org.eclipse.equinox.internal.p2.touchpoint.eclipse.EclipseTouchpoint;
+import org.eclipse.equinox.internal.p2.touchpoint.eclipse.Util;
+import org.eclipse.equinox.internal.provisional.frameworkadmin.Manipulator;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.publisher.eclipse.BundlesAction;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.artifact.IFileArtifactRepository;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+import org.eclipse.equinox.spi.p2.publisher.PublisherHelper;
+
+/**
+ * Tests the engine performing the operands of a phase in parallel.
+ */
+public class ParallelPhaseTest extends AbstractProvisioningTest {
+	final AtomicInteger active = new AtomicInteger();
+	final AtomicInteger maxActive = new AtomicInteger();
+	final Set<String> executed = Collections.synchronizedSet(new HashSet<String>());
+	final Set<String> undone = Collections.synchronizedSet(new HashSet<String>());
+	boolean serialAlone = true;
+
+	class RecordingAction extends ProvisioningAction {
+		private final String id;
+
+		RecordingAction(String id) {
+			this.id = id;
+		}
+
+		@Override
+		public IStatus execute(Map<String, Object> parameters) {
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				if (id.startsWith("serial") && active.get() != 1)
+					serialAlone = false;
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				return Status.CANCEL_STATUS;
+			} finally {
+				active.decrementAndGet();
+			}
+			executed.add(id);
+			if (id.startsWith("fail"))
+				return new Status(IStatus.ERROR, "test", id);
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(Map<String, Object> parameters) {
+			undone.add(id);
+			return Status.OK_STATUS;
+		}
+	}
+
+	class SafeAction extends RecordingAction {
+		SafeAction(String id) {
+			super(id);
+		}
+	}
+
+	class ParallelPhase extends InstallableUnitPhase {
+		ParallelPhase() {
+			super("parallel", 1);
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			String id = operand.second().getId();
+			if (id.startsWith("serial"))
+				return Collections.singletonList(new RecordingAction(id));
+			return Collections.singletonList(new SafeAction(id));
+		}
+
+		@Override
+		protected boolean isParallelSafe(ProvisioningAction action) {
+			return action instanceof SafeAction;
+		}
+	}
+
+	/**
+	 * Adds the units to the profile and queries it, as the install event actions do.
+	 */
+	static class ProfileAction extends ProvisioningAction implements IParallelSafeAction {
+		@Override
+		public IStatus execute(Map<String, Object> parameters) {
+			Profile profile = (Profile) parameters.get("profile");
+			InstallableUnitOperand operand = (InstallableUnitOperand) parameters.get("operand");
+			IInstallableUnit unit = operand.second();
+			profile.addInstallableUnit(unit);
+			profile.setInstallableUnitProperty(unit, "installed", "true");
+			if (profile.query(QueryUtil.createIUQuery(unit.getId()), null).isEmpty())
+				return new Status(IStatus.ERROR, "test", unit.getId());
+			profile.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(Map<String, Object> parameters) {
+			return Status.OK_STATUS;
+		}
+	}
+
+	class ProfilePhase extends InstallableUnitPhase {
+		ProfilePhase() {
+			super("profile", 1);
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			return Collections.<ProvisioningAction> singletonList(new ProfileAction());
+		}
+	}
+
+	/**
+	 * Records the bundles of the framework configuration once the bundles are installed.
+	 */
+	class InspectPhase extends InstallableUnitPhase {
+		final Set<URI> bundles = Collections.synchronizedSet(new HashSet<URI>());
+
+		InspectPhase() {
+			super("inspect", 1);
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected IStatus initializeOperand(IProfile profile, InstallableUnitOperand operand, Map<String, Object> parameters, IProgressMonitor monitor) {
+			parameters.put(PARM_IU, operand.second());
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			return Collections.<ProvisioningAction> singletonList(new ProvisioningAction() {
+				@Override
+				public IStatus execute(Map<String, Object> parameters) {
+					Manipulator manipulator = (Manipulator) parameters.get(EclipseTouchpoint.PARM_MANIPULATOR);
+					for (BundleInfo bundle : manipulator.getConfigData().getBundles())
+						bundles.add(bundle.getLocation());
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public IStatus undo(Map<String, Object> parameters) {
+					return Status.OK_STATUS;
+				}
+			});
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.getProperties().remove(EngineActivator.PROP_ENGINE_PARALLELISM);
+		super.tearDown();
+	}
+
+	private IStatus perform(String... ids) {
+		IEngine engine = getEngine();
+		IProfile profile = createProfile("ParallelPhaseTest");
+		IProvisioningPlan plan = engine.createPlan(profile, null);
+		for (String id : ids) {
+			IInstallableUnit unit = createIU(id);
+			plan.addInstallableUnit(unit);
+		}
+		return engine.perform(plan, new PhaseSet(new Phase[] {new ParallelPhase()}), new NullProgressMonitor());
+	}
+
+	public void testSequentialByDefault() {
+		assertOK(perform("a", "b", "c", "d"));
+		assertEquals(4, executed.size());
+		assertEquals(1, maxActive.get());
+	}
+
+	public void testParallelOperands() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PARALLELISM, "4");
+		assertOK(perform("a", "b", "c", "d", "e", "f", "g", "h"));
+		assertEquals(8, executed.size());
+		assertTrue(maxActive.get() > 1);
+		assertTrue(maxActive.get() <= 4);
+		assertTrue(undone.isEmpty());
+	}
+
+	public void testUnsafeOperandsRunAlone() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PARALLELISM, "4");
+		assertOK(perform("a", "b", "c", "serial1", "d", "e", "serial2", "f"));
+		assertEquals(8, executed.size());
+		assertTrue(serialAlone);
+	}
+
+	public void testRollback() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PARALLELISM, "4");
+		IStatus result = perform("a", "b", "fail", "c", "d", "e", "f", "g");
+		assertEquals(IStatus.ERROR, result.getSeverity());
+		assertTrue(executed.contains("fail"));
+		// Every action executed by the operands started concurrently is undone
+		assertEquals(executed, undone);
+	}
+
+	public void testProfileChangedConcurrently() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PARALLELISM, "8");
+		Profile profile = new Profile(getAgent(), "ParallelPhaseTest", null, null);
+		EngineSession session = new EngineSession(getAgent(), profile, new ProvisioningContext(getAgent()));
+		Operand[] operands = new Operand[1000];
+		for (int i = 0; i < operands.length; i++)
+			operands[i] = new InstallableUnitOperand(null, createIU("iu" + i));
+		assertOK(new PhaseSet(new Phase[] {new ProfilePhase()}).perform(session, operands, new NullProgressMonitor()));
+		assertEquals(operands.length, profile.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet().size());
+		for (Operand operand : operands)
+			assertEquals("true", profile.getInstallableUnitProperty(((InstallableUnitOperand) operand).second(), "installed"));
+	}
+
+	public void testInstallBundles() throws IOException {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PARALLELISM, "4");
+		Map<String, String> properties = new HashMap<>();
+		File installFolder = getTempFolder();
+		properties.put(IProfile.PROP_INSTALL_FOLDER, installFolder.toString());
+		properties.put(IProfile.PROP_CACHE, installFolder.toString());
+		IProfile profile = createProfile("ParallelPhaseTest", properties);
+		IFileArtifactRepository bundlePool = Util.getBundlePoolRepository(getAgent(), profile);
+		File plugins = new File(installFolder, "plugins");
+		assertTrue(plugins.mkdirs());
+
+		IEngine engine = getEngine();
+		IProvisioningPlan plan = engine.createPlan(profile, null);
+		Set<URI> jars = new HashSet<>();
+		for (int i = 0; i < 16; i++) {
+			String id = "bundle" + i;
+			File jar = new File(plugins, id + "_1.0.0.jar");
+			writeBuffer(jar, new StringBuffer(id));
+			jars.add(jar.toURI());
+			IArtifactKey key = BundlesAction.createBundleArtifactKey(id, "1.0.0");
+			bundlePool.addDescriptor(PublisherHelper.createArtifactDescriptor(key, jar), new NullProgressMonitor());
+
+			MetadataFactory.InstallableUnitDescription description = new MetadataFactory.InstallableUnitDescription();
+			description.setId(id);
+			description.setVersion(Version.createOSGi(1, 0, 0));
+			description.setCapabilities(new IProvidedCapability[] {MetadataFactory.createProvidedCapability(BundlesAction.CAPABILITY_NS_OSGI_BUNDLE, id, Version.createOSGi(1, 0, 0))});
+			description.setArtifacts(new IArtifactKey[] {key});
+			description.setTouchpointType(PublisherHelper.TOUCHPOINT_OSGI);
+			description.addTouchpointData(MetadataFactory.createTouchpointData(Collections.singletonMap("install", "installBundle(bundle:${artifact})")));
+			plan.addInstallableUnit(MetadataFactory.createInstallableUnit(description));
+		}
+
+		InspectPhase inspect = new InspectPhase();
+		assertOK(engine.perform(plan, new PhaseSet(new Phase[] {new Install(1), inspect}), new NullProgressMonitor()));
+		// Every bundle installed concurrently is added to the shared framework configuration
+		assertTrue(inspect.bundles.containsAll(jars));
+		assertEquals(16, getProfile("ParallelPhaseTest").query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet().size());
+	}
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.engine;
+
+import java.util.*;
+import org.eclipse.core.runtime.*;
+import org.eclipse.equinox.internal.p2.engine.*;
+import org.eclipse.equinox.internal.p2.engine.phases.CheckTrust;
+import org.eclipse.equinox.internal.p2.metadata.ArtifactKey;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.engine.spi.ProvisioningAction;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRequest;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Tests the engine installing artifacts while they are downloaded.
+ */
+public class PipelinedPhaseSetTest extends AbstractProvisioningTest {
+	final List<String> downloaded = Collections.synchronizedList(new ArrayList<String>());
+	final List<String> installed = Collections.synchronizedList(new ArrayList<String>());
+	final List<String> undone = Collections.synchronizedList(new ArrayList<String>());
+	boolean installedAfterDownload = true;
+	int downloadedAtFirstInstall = -1;
+	int failAfter = -1;
+
+	static IArtifactKey getKey(String id) {
+		return new ArtifactKey("test", id, Version.emptyVersion);
+	}
+
+	static IInstallableUnit createArtifactIU(String id) {
+		MetadataFactory.InstallableUnitDescription description = new MetadataFactory.InstallableUnitDescription();
+		description.setId(id);
+		description.setVersion(Version.emptyVersion);
+		description.setArtifacts(new IArtifactKey[] {getKey(id)});
+		return MetadataFactory.createInstallableUnit(description);
+	}
+
+	static class TestRequest implements IArtifactRequest {
+		private final IArtifactKey key;
+
+		TestRequest(String id) {
+			this.key = getKey(id);
+		}
+
+		@Override
+		public IArtifactKey getArtifactKey() {
+			return key;
+		}
+
+		@Override
+		public void perform(IArtifactRepository sourceRepository, IProgressMonitor monitor) {
+			// nothing to transfer
+		}
+
+		@Override
+		public IStatus getResult() {
+			return Status.OK_STATUS;
+		}
+	}
+
+	class DownloadPhase extends InstallableUnitPhase {
+		private final List<String> ids = new ArrayList<>();
+
+		DownloadPhase() {
+			super("download", 1);
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			ids.add(operand.second().getId());
+			return null;
+		}
+
+		@Override
+		protected IStatus initializePhase(IProgressMonitor monitor, IProfile profile, Map<String, Object> parameters) {
+			// nothing is downloaded when rolling back
+			ids.clear();
+			return null;
+		}
+
+		@Override
+		protected IStatus completePhase(IProgressMonitor monitor, IProfile profile, Map<String, Object> parameters) {
+			ArtifactPipeline pipeline = (ArtifactPipeline) parameters.get(PARM_ARTIFACT_PIPELINE);
+			List<TestRequest> requests = new ArrayList<>();
+			for (String id : ids)
+				requests.add(new TestRequest(id));
+			if (pipeline == null)
+				return download(null, requests);
+			for (TestRequest request : requests)
+				pipeline.add(request);
+			pipeline.start(m -> download(pipeline, requests));
+			return Status.OK_STATUS;
+		}
+
+		// The artifacts are downloaded in the reverse order of the operands
+		private IStatus download(ArtifactPipeline pipeline, List<TestRequest> requests) {
+			for (int i = requests.size() - 1; i >= 0; i--) {
+				String id = ids.get(i);
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				}
+				downloaded.add(id);
+				if (pipeline != null)
+					pipeline.available(requests.get(i));
+				if (downloaded.size() == failAfter)
+					return new Status(IStatus.ERROR, "test", id);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	class InstallPhase extends InstallableUnitPhase {
+		InstallPhase() {
+			super("install", 1);
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return operand.second() != null;
+		}
+
+		@Override
+		protected Collection<IArtifactKey> getRequiredArtifacts(InstallableUnitOperand operand) {
+			return Collections.singletonList(getKey(operand.second().getId()));
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			final String id = operand.second().getId();
+			return Collections.<ProvisioningAction> singletonList(new ProvisioningAction() {
+				@Override
+				public IStatus execute(Map<String, Object> parameters) {
+					if (!downloaded.contains(id))
+						installedAfterDownload = false;
+					if (installed.isEmpty())
+						downloadedAtFirstInstall = downloaded.size();
+					installed.add(id);
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public IStatus undo(Map<String, Object> parameters) {
+					undone.add(id);
+					return Status.OK_STATUS;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Holds back the operands of the given ids until the download ends.
+	 */
+	class VerifyPhase extends InstallableUnitPhase {
+		final List<String> held;
+		final IStatus confirmation;
+		int downloadedAtConfirmation = -1;
+
+		VerifyPhase(IStatus confirmation, String... held) {
+			super("verify", 1);
+			this.held = Arrays.asList(held);
+			this.confirmation = confirmation;
+		}
+
+		@Override
+		protected boolean isApplicable(InstallableUnitOperand operand) {
+			return false;
+		}
+
+		@Override
+		protected List<ProvisioningAction> getActions(InstallableUnitOperand operand) {
+			return null;
+		}
+
+		@Override
+		protected IStatus initializePhase(IProgressMonitor monitor, IProfile profile, Map<String, Object> parameters) {
+			ArtifactPipeline pipeline = (ArtifactPipeline) parameters.get(PARM_ARTIFACT_PIPELINE);
+			pipeline.setVerifier(new ArtifactPipeline.Verifier() {
+				@Override
+				public IStatus verify(Operand operand) {
+					if (held.contains(((InstallableUnitOperand) operand).second().getId()))
+						return new Status(IStatus.INFO, "test", ArtifactPipeline.CONFIRMATION_REQUIRED, "held", null);
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public IStatus confirm() {
+					downloadedAtConfirmation = downloaded.size();
+					return confirmation;
+				}
+			});
+			return null;
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.getProperties().remove(EngineActivator.PROP_ENGINE_PIPELINED);
+		super.tearDown();
+	}
+
+	private IStatus perform(String... ids) {
+		return perform(new Phase[] {new DownloadPhase(), new InstallPhase()}, ids);
+	}
+
+	private IStatus perform(Phase[] phases, String... ids) {
+		IEngine engine = getEngine();
+		IProfile profile = createProfile("PipelinedPhaseSetTest");
+		IProvisioningPlan plan = engine.createPlan(profile, null);
+		for (String id : ids)
+			plan.addInstallableUnit(createArtifactIU(id));
+		return engine.perform(plan, new PhaseSet(phases), new NullProgressMonitor());
+	}
+
+	public void testNotPipelinedByDefault() {
+		assertOK(perform("a", "b", "c", "d"));
+		List<String> operandOrder = new ArrayList<>(downloaded);
+		Collections.reverse(operandOrder);
+		assertEquals(operandOrder, installed);
+	}
+
+	public void testInstallAsDownloaded() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PIPELINED, "true");
+		assertOK(perform("a", "b", "c", "d"));
+		// Each operand is installed once its artifact is available
+		assertEquals(downloaded, installed);
+		assertTrue(installedAfterDownload);
+		assertTrue(undone.isEmpty());
+	}
+
+	public void testInstallOverlapsDownloadAfterTrustCheck() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PIPELINED, "true");
+		// The trust is checked before installing, as in the default phase set
+		assertOK(perform(new Phase[] {new DownloadPhase(), new CheckTrust(1), new InstallPhase()}, "a", "b", "c", "d"));
+		assertEquals(downloaded, installed);
+		assertTrue(installedAfterDownload);
+		// The first operand is installed while the others are downloaded
+		assertTrue(String.valueOf(downloadedAtFirstInstall), downloadedAtFirstInstall < 4);
+	}
+
+	public void testHeldUntilConfirmed() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PIPELINED, "true");
+		VerifyPhase verify = new VerifyPhase(Status.OK_STATUS, "c");
+		assertOK(perform(new Phase[] {new DownloadPhase(), verify, new InstallPhase()}, "a", "b", "c", "d"));
+		// The held operand is installed once confirmed, after the download
+		assertEquals(Arrays.asList("d", "b", "a", "c"), installed);
+		assertEquals(4, verify.downloadedAtConfirmation);
+		assertTrue(String.valueOf(downloadedAtFirstInstall), downloadedAtFirstInstall < 4);
+	}
+
+	public void testConfirmationRejected() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PIPELINED, "true");
+		VerifyPhase verify = new VerifyPhase(Status.CANCEL_STATUS, "c");
+		IStatus result = perform(new Phase[] {new DownloadPhase(), verify, new InstallPhase()}, "a", "b", "c", "d");
+		assertEquals(IStatus.CANCEL, result.getSeverity());
+		assertEquals(Arrays.asList("d", "b", "a"), installed);
+		// The operands installed before the confirmation was rejected are rolled back
+		assertEquals(new HashSet<>(installed), new HashSet<>(undone));
+	}
+
+	public void testDownloadFailure() {
+		System.getProperties().put(EngineActivator.PROP_ENGINE_PIPELINED, "true");
+		failAfter = 2;
+		IStatus result = perform("a", "b", "c", "d");
+		assertEquals(IStatus.ERROR, result.getSeverity());
+		assertEquals(downloaded, installed);
+		// The operands installed before the download failed are rolled back
+		assertEquals(new HashSet<>(installed), new HashSet<>(undone));
+	}
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.engine;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.*;
+import org.eclipse.equinox.internal.p2.engine.*;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Tests the journal profile format, where the changes to a profile are written as deltas
+ * to its previous state.
+ */
+public class ProfileJournalTest extends AbstractProvisioningTest {
+	private static final String PROFILE_ID = "ProfileJournalTest";
+	private File folder;
+	private SimpleProfileRegistry registry;
+	private IInstallableUnit a;
+	private IInstallableUnit b1;
+	private IInstallableUnit b2;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.getProperties().put(EngineActivator.PROP_PROFILE_FORMAT, EngineActivator.PROFILE_FORMAT_JOURNAL);
+		folder = getTempFolder();
+		folder.mkdirs();
+		registry = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		a = createIU("A", Version.create("1.0.0"));
+		b1 = createIU("B", Version.create("1.0.0"));
+		b2 = createIU("B", Version.create("2.0.0"));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.getProperties().remove(EngineActivator.PROP_PROFILE_FORMAT);
+		delete(folder);
+		super.tearDown();
+	}
+
+	private void commit(Profile profile) {
+		profile.setChanged(false);
+		registry.lockProfile(profile);
+		try {
+			profile.setChanged(true);
+			registry.updateProfile(profile);
+		} finally {
+			registry.unlockProfile(profile);
+			profile.setChanged(false);
+		}
+	}
+
+	private File[] listFiles(final String extension) {
+		File profileFolder = new File(folder, PROFILE_ID + ".profile");
+		return profileFolder.listFiles((FileFilter) pathname -> pathname.getName().endsWith(extension));
+	}
+
+	/*
+	 * Commits three changes to a new profile, returns the timestamps of its four states
+	 */
+	private long[] commitChanges() throws ProvisionException {
+		Profile profile = (Profile) registry.addProfile(PROFILE_ID, Collections.singletonMap("p1", "v1"));
+		profile.addInstallableUnit(a);
+		profile.setInstallableUnitProperty(a, "k", "v");
+		commit(profile);
+		profile.addInstallableUnit(b1);
+		profile.setProperty("p2", "v2");
+		commit(profile);
+		profile.removeInstallableUnit(b1);
+		profile.addInstallableUnit(b2);
+		profile.removeProperty("p1");
+		profile.removeInstallableUnitProperty(a, "k");
+		commit(profile);
+		return registry.listProfileTimestamps(PROFILE_ID);
+	}
+
+	private void assertState(IProfile state, IInstallableUnit[] units, String[] properties, String unitProperty) {
+		assertNotNull(state);
+		assertEquals(new HashSet<>(Arrays.asList(units)), state.query(QueryUtil.createIUAnyQuery(), null).toUnmodifiableSet());
+		assertEquals(new HashSet<>(Arrays.asList(properties)), state.getProperties().keySet());
+		assertEquals(unitProperty, state.getInstallableUnitProperty(a, "k"));
+	}
+
+	public void testReplay() throws ProvisionException {
+		long[] timestamps = commitChanges();
+		assertEquals(4, timestamps.length);
+		assertEquals(1, listFiles(".profile.gz").length);
+		assertEquals(3, listFiles(".profile.delta.gz").length);
+
+		assertState(registry.getProfile(PROFILE_ID, timestamps[0]), new IInstallableUnit[0], new String[] {"p1"}, null);
+		assertState(registry.getProfile(PROFILE_ID, timestamps[1]), new IInstallableUnit[] {a}, new String[] {"p1"}, "v");
+		assertState(registry.getProfile(PROFILE_ID, timestamps[2]), new IInstallableUnit[] {a, b1}, new String[] {"p1", "p2"}, "v");
+
+		// The latest state is restored from the journal
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		IProfile profile = restored.getProfile(PROFILE_ID);
+		assertEquals(timestamps[3], profile.getTimestamp());
+		assertState(profile, new IInstallableUnit[] {a, b2}, new String[] {"p2"}, null);
+	}
+
+	public void testCompaction() throws ProvisionException {
+		Profile profile = (Profile) registry.addProfile(PROFILE_ID);
+		for (int i = 0; i < 21; i++) {
+			profile.setProperty("p", Integer.toString(i));
+			commit(profile);
+		}
+		// A snapshot is written after every twenty deltas
+		assertEquals(2, listFiles(".profile.gz").length);
+		assertEquals(20, listFiles(".profile.delta.gz").length);
+
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		assertEquals("20", restored.getProfile(PROFILE_ID).getProperty("p"));
+		long[] timestamps = registry.listProfileTimestamps(PROFILE_ID);
+		assertEquals("19", registry.getProfile(PROFILE_ID, timestamps[20]).getProperty("p"));
+	}
+
+	public void testRemoveState() throws ProvisionException {
+		long[] timestamps = commitChanges();
+		registry.removeProfile(PROFILE_ID, timestamps[0]);
+		registry.removeProfile(PROFILE_ID, timestamps[2]);
+		assertEquals(2, registry.listProfileTimestamps(PROFILE_ID).length);
+
+		// The states following the removed ones are written as snapshots
+		assertState(registry.getProfile(PROFILE_ID, timestamps[1]), new IInstallableUnit[] {a}, new String[] {"p1"}, "v");
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		assertState(restored.getProfile(PROFILE_ID), new IInstallableUnit[] {a, b2}, new String[] {"p2"}, null);
+		assertEquals(2, listFiles(".profile.gz").length);
+		assertEquals(0, listFiles(".profile.delta.gz").length);
+	}
+
+	public void testSnapshotFormat() throws ProvisionException {
+		System.getProperties().remove(EngineActivator.PROP_PROFILE_FORMAT);
+		Profile profile = (Profile) registry.addProfile(PROFILE_ID);
+		profile.addInstallableUnit(a);
+		commit(profile);
+		assertEquals(0, listFiles(".profile.delta.gz").length);
+
+		// Deltas apply to the states written as snapshots
+		System.getProperties().put(EngineActivator.PROP_PROFILE_FORMAT, EngineActivator.PROFILE_FORMAT_JOURNAL);
+		profile.addInstallableUnit(b1);
+		commit(profile);
+		assertEquals(1, listFiles(".profile.delta.gz").length);
+		SimpleProfileRegistry restored = new SimpleProfileRegistry(getAgent(), folder, null, false);
+		assertState(restored.getProfile(PROFILE_ID), new IInstallableUnit[] {a, b1}, new String[0], null);
+	}
+}
@@ -27,9 +27,11 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(FragmentMethodTest.class);
 		suite.addTestSuite(FragmentTest.class);
 		suite.addTestSuite(InstallableUnitTest.class);
+		suite.addTestSuite(IUMapTest.class);
 		suite.addTestSuite(IUPersistenceTest.class);
 		suite.addTestSuite(LatestIUTest.class);
 		suite.addTestSuite(LicenseTest.class);
+		suite.addTestSuite(MetadataPoolTest.class);
 		suite.addTestSuite(MultipleIUAndFragmentTest.class);
 		suite.addTestSuite(PersistNegation.class);
 		suite.addTestSuite(PersistFragment.class);
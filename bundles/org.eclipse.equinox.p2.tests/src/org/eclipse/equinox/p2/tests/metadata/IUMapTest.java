@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.metadata;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.IUMap;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+public class IUMapTest extends AbstractProvisioningTest {
+
+	public void testAddGetRemove() {
+		IUMap map = new IUMap();
+		IInstallableUnit a1 = createIU("a", Version.createOSGi(1, 0, 0));
+		IInstallableUnit a2 = createIU("a", Version.createOSGi(2, 0, 0));
+		IInstallableUnit b1 = createIU("b", Version.createOSGi(1, 0, 0));
+		map.add(a1);
+		map.add(a2);
+		map.add(b1);
+		map.add(createIU("a", Version.createOSGi(1, 0, 0)));
+
+		assertEquals(Arrays.asList(a1, a2), new ArrayList<>(map.getUnits("a")));
+		assertEquals(Collections.singletonList(b1), new ArrayList<>(map.getUnits("b")));
+		assertTrue(map.getUnits("c").isEmpty());
+		assertSame(a2, map.get("a", Version.createOSGi(2, 0, 0)));
+		assertTrue(map.contains(b1));
+
+		map.remove(a1);
+		assertEquals(Collections.singletonList(a2), new ArrayList<>(map.getUnits("a")));
+		map.remove(b1);
+		assertFalse(map.contains(b1));
+		assertTrue(map.getUnits("b").isEmpty());
+		assertEquals(Collections.singleton(a2), toSet(map));
+	}
+
+	public void testCloneIsIndependent() {
+		IUMap map = new IUMap();
+		IInstallableUnit a1 = createIU("a", Version.createOSGi(1, 0, 0));
+		IInstallableUnit a2 = createIU("a", Version.createOSGi(2, 0, 0));
+		map.add(a1);
+		IUMap copy = map.clone();
+		copy.add(a2);
+		map.remove(a1);
+		assertTrue(map.getUnits("a").isEmpty());
+		assertEquals(Arrays.asList(a1, a2), new ArrayList<>(copy.getUnits("a")));
+	}
+
+	public void testManyUnits() {
+		Random random = new Random(4711);
+		List<IInstallableUnit> all = new ArrayList<>();
+		for (int id = 0; id < 500; ++id)
+			for (int v = random.nextInt(4); v >= 0; --v)
+				all.add(createIU("iu" + id, Version.createOSGi(1, v, 0)));
+
+		IUMap map = new IUMap();
+		map.addAll(all);
+		assertEquals(new HashSet<>(all), toSet(map));
+
+		Set<IInstallableUnit> expected = new HashSet<>(all);
+		Collections.shuffle(all, random);
+		for (IInstallableUnit iu : all.subList(0, all.size() / 2)) {
+			map.remove(iu);
+			expected.remove(iu);
+		}
+		assertEquals(expected, toSet(map));
+		for (IInstallableUnit iu : expected)
+			assertTrue(map.getUnits(iu.getId()).contains(iu));
+		for (IInstallableUnit iu : all.subList(0, all.size() / 2))
+			assertFalse(map.contains(iu));
+
+		map.addAll(all);
+		assertEquals(new HashSet<>(all), toSet(map));
+		map.clear();
+		assertFalse(map.iterator().hasNext());
+	}
+
+	private static Set<IInstallableUnit> toSet(IUMap map) {
+		Set<IInstallableUnit> result = new HashSet<>();
+		for (Iterator<IInstallableUnit> iter = map.iterator(); iter.hasNext();)
+			assertTrue(result.add(iter.next()));
+		return result;
+	}
+}
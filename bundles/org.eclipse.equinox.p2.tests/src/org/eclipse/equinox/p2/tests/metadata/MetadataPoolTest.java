@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.metadata;
+
+import java.util.*;
+import org.eclipse.equinox.internal.p2.metadata.ConcurrentWeakPool;
+import org.eclipse.equinox.internal.p2.metadata.MetadataPool;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+public class MetadataPoolTest extends AbstractProvisioningTest {
+
+	public void testPoolCounts() {
+		ConcurrentWeakPool<String> pool = new ConcurrentWeakPool<>();
+		String a = pool.add(new String("a"));
+		assertSame(a, pool.add(new String("a")));
+		assertNotSame(a, pool.add(new String("b")));
+		assertNull(pool.add(null));
+		assertEquals(3, pool.getRequestCount());
+		assertEquals(1, pool.getHitCount());
+		assertEquals(2, pool.size());
+	}
+
+	public void testPoolRequiresSameClass() {
+		ConcurrentWeakPool<List<String>> pool = new ConcurrentWeakPool<>();
+		List<String> array = new ArrayList<>(Arrays.asList("a", "b"));
+		List<String> linked = new LinkedList<>(Arrays.asList("a", "b"));
+		assertEquals(array, linked);
+		assertSame(array, pool.add(array));
+		assertSame(linked, pool.add(linked));
+		assertSame(array, pool.add(new ArrayList<>(linked)));
+	}
+
+	public void testFactorySharesCapabilities() {
+		if (!MetadataPool.isEnabled())
+			return;
+		IProvidedCapability cap1 = MetadataFactory.createProvidedCapability("ns", new String("name"), Version.createOSGi(1, 0, 0));
+		IProvidedCapability cap2 = MetadataFactory.createProvidedCapability("ns", new String("name"), Version.createOSGi(1, 0, 0));
+		assertSame(cap1, cap2);
+
+		IRequirement req1 = MetadataFactory.createRequirement("ns", new String("name"), new VersionRange("[1.0.0,2.0.0)"), null, false, false);
+		IRequirement req2 = MetadataFactory.createRequirement("ns", new String("name"), new VersionRange("[1.0.0,2.0.0)"), null, false, false);
+		assertSame(req1, req2);
+	}
+
+	public void testSharedCapabilityIsNotAffectedByCaller() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("ns", "name");
+		IProvidedCapability cap1 = MetadataFactory.createProvidedCapability("ns", properties);
+		assertEquals(Version.emptyVersion, cap1.getVersion());
+		int hashCode = cap1.hashCode();
+
+		properties.put("ns", "other");
+		properties.put(IProvidedCapability.PROPERTY_VERSION, Version.createOSGi(1, 0, 0));
+		assertEquals("name", cap1.getName());
+		assertEquals(Version.emptyVersion, cap1.getVersion());
+		assertEquals(hashCode, cap1.hashCode());
+		try {
+			cap1.getProperties().put("ns", "other");
+			fail("The properties of a capability must not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	public void testDescriptionIsNotShared() {
+		IRequirement req1 = MetadataFactory.createRequirement("ns", "name", null, null, 1, 1, true, "first");
+		IRequirement req2 = MetadataFactory.createRequirement("ns", "name", null, null, 1, 1, true, "second");
+		assertEquals(req1, req2);
+		assertEquals("first", req1.getDescription());
+		assertEquals("second", req2.getDescription());
+	}
+}
@@ -11,6 +11,8 @@
 
 package org.eclipse.equinox.p2.tests.omniVersion;
 
+import org.eclipse.equinox.internal.p2.metadata.VersionFormat;
+import org.eclipse.equinox.internal.p2.metadata.VersionParser;
 import org.eclipse.equinox.p2.metadata.Version;
 
 /**
@@ -231,4 +233,32 @@ public class OSGiVersionTest extends VersionTesting {
 
 	}
 
+	public void testParsingMatchesOSGiFormat() {
+		String[] strings = {"1", "1.2", "1.2.3", "0", "0.0.0", "0.0.0.q", "1.2.3.abc-_XZ", "01.002.0003", "1.0.0.zzz", "123456789.1.1", "2147483647.0.0", "1.2.3.v20090112-1234"};
+		for (String s : strings) {
+			Version parsed = VersionParser.parse(s, 0, s.length());
+			Version generic = VersionFormat.OSGI_FORMAT.parse(s);
+			assertEquals(s, generic, parsed);
+			assertEquals(s, generic.hashCode(), parsed.hashCode());
+			assertEquals(s, generic.toString(), parsed.toString());
+			assertEquals(s, 0, parsed.compareTo(generic));
+		}
+
+		String[] invalid = {"1.", "1..2", "1.2.3.", "1.2.3.a b", "1.2.3.q.x", "1.2.3-x", "1.2.3.a+b"};
+		for (String s : invalid) {
+			try {
+				VersionParser.parse(s, 0, s.length());
+				fail("Expected " + s + " to be rejected");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	public void testCompareOSGi() {
+		Version[] ordered = {Version.emptyVersion, Version.parseVersion("0.0.0.a"), Version.parseVersion("1"), Version.parseVersion("1.0.0.a"), Version.parseVersion("1.0.0.b"), Version.parseVersion("1.0.1"), Version.parseVersion("1.1"), Version.parseVersion("2097151.0.0"), Version.parseVersion("2097152.0.0"), Version.parseVersion("2147483647.0.0"), Version.MAX_VERSION};
+		for (int i = 0; i < ordered.length; ++i)
+			for (int j = 0; j < ordered.length; ++j)
+				assertEquals(ordered[i] + " <=> " + ordered[j], Integer.signum(i - j), Integer.signum(ordered[i].compareTo(ordered[j])));
+	}
 }
@@ -11,8 +11,17 @@
 
 package org.eclipse.equinox.p2.tests.omniVersion;
 
+import java.io.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import junit.framework.TestCase;
+import org.eclipse.equinox.internal.p2.metadata.VersionFormat;
+import org.eclipse.equinox.internal.p2.metadata.VersionParser;
 import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
 
 /**
  * Simple performance comparison between OSGi version implementation and Omni Version.
@@ -121,6 +130,44 @@ public class PerformanceTest extends TestCase {
 		//System.out.printf("toString (%d versions): osgi=%d, omni=%d\n", units, osgiTime, omniTime);
 	}
 
+	/**
+	 * Compares parsing the version strings found in a real repository using the generic OSGi
+	 * version format with parsing them using the plain OSGi version parser.
+	 */
+	public void testRepositoryStringParsePerformance() throws IOException {
+		String[] strings = readRepositoryVersions("testData/galileoM7/content.jar");
+		assertTrue(strings.length > 0);
+
+		// Warm up both paths
+		for (int idx = 0; idx < 10; ++idx) {
+			genericParse(strings);
+			plainParse(strings);
+		}
+
+		long start = System.nanoTime();
+		for (int idx = 0; idx < 100; ++idx)
+			genericParse(strings);
+		long genericTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int idx = 0; idx < 100; ++idx)
+			plainParse(strings);
+		long plainTime = System.nanoTime() - start;
+
+		long units = 100L * strings.length;
+		System.out.printf("Repository string parsing (units %d): generic=%.2fms [%.3fus/unit], plain=%.2fms [%.3fus/unit], factor=%.2f\n", units, genericTime / 1e6, genericTime / 1e3 / units, plainTime / 1e6, plainTime / 1e3 / units, (double) genericTime / plainTime);
+	}
+
+	public static void genericParse(String[] strings) {
+		for (String s : strings)
+			VersionFormat.OSGI_FORMAT.parse(s);
+	}
+
+	public static void plainParse(String[] strings) {
+		for (String s : strings)
+			VersionParser.parse(s, 0, s.length());
+	}
+
 	public static void osgiVersionToString(org.osgi.framework.Version versions[]) {
 		// compare every version against all other versions
 		for (int i = 0; i < MUL * MUL * MUL; i++)
@@ -243,6 +290,27 @@ public class PerformanceTest extends TestCase {
 		return strings;
 	}
 
+	/**
+	 * Collect the distinct OSGi versions of the units in a content.jar. The execution of this
+	 * method does not take part in the time measurement
+	 */
+	private static String[] readRepositoryVersions(String entry) throws IOException {
+		Pattern versionPattern = Pattern.compile("version='([0-9][^'\\[\\(]*)'");
+		Set<String> versions = new LinkedHashSet<>();
+		try (ZipFile zip = new ZipFile(AbstractProvisioningTest.getTestData("Loading " + entry, entry))) {
+			ZipEntry content = zip.entries().nextElement();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(zip.getInputStream(content), "UTF-8"))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					Matcher matcher = versionPattern.matcher(line);
+					while (matcher.find())
+						versions.add(matcher.group(1));
+				}
+			}
+		}
+		return versions.toArray(new String[versions.size()]);
+	}
+
 	private static double factor(long osgiTime, long omniTime) {
 		double osgi = osgiTime;
 		double omni = omniTime;
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.perf;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.tests.harness.PerformanceTestRunner;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.internal.p2.director.SimplePlanner;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+
+/**
+ * Performance tests for the planner, comparing the optimization functions on the update of
+ * a profile holding many units that each have several newer versions available.
+ */
+public class PlannerPerformanceTest extends ProvisioningPerformanceTest {
+	private static final int REPEATS = 5;
+	private static final int IU_COUNT = 500;
+	private static final int VERSION_COUNT = 6;
+	private static final String PROP_RESOLUTION_CACHE = "eclipse.p2.planner.resolutionCache";
+
+	IInstallableUnit[][] ius;
+	IPlanner planner;
+	IProfile profile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// Every unit requires the next one in a version no higher than its own
+		ius = new IInstallableUnit[IU_COUNT][VERSION_COUNT];
+		IInstallableUnit[] all = new IInstallableUnit[IU_COUNT * VERSION_COUNT];
+		for (int i = 0; i < IU_COUNT; i++) {
+			for (int v = 0; v < VERSION_COUNT; v++) {
+				VersionRange range = new VersionRange(Version.createOSGi(1, 0, 0), true, Version.createOSGi(1, v, 0), true);
+				IRequirement next = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "org.eclipse.someiu" + ((i + 1) % IU_COUNT), range, null, false, false);
+				ius[i][v] = createIU("org.eclipse.someiu" + i, Version.createOSGi(1, v, 0), new IRequirement[] {next}, NO_PROPERTIES, true);
+				all[i * VERSION_COUNT + v] = ius[i][v];
+			}
+		}
+		createTestMetdataRepository(all);
+
+		// The resolution of an identical request must not be reused from one repetition to the next
+		System.setProperty(PROP_RESOLUTION_CACHE, "false");
+		planner = new SimplePlanner(getAgent());
+		profile = createProfile("PlannerPerformanceTest");
+		IInstallableUnit[] installed = new IInstallableUnit[IU_COUNT];
+		for (int i = 0; i < IU_COUNT; i++)
+			installed[i] = ius[i][0];
+		assertOK("install", installAsRoots(profile, installed, false, planner, createEngine()));
+		profile = getProfile(profile.getProfileId());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.clearProperty(PROP_RESOLUTION_CACHE);
+		super.tearDown();
+	}
+
+	public void testUpdateStandard() {
+		runUpdate(new ProvisioningContext(getAgent()), "Test update of " + IU_COUNT + " ius with the standard optimization function");
+	}
+
+	public void testUpdateLexicographic() {
+		ProvisioningContext context = new ProvisioningContext(getAgent());
+		context.setProperty("org.eclipse.equinox.p2.planner.optimization", "lexicographic");
+		runUpdate(context, "Test update of " + IU_COUNT + " ius with the lexicographic optimization function");
+	}
+
+	private void runUpdate(final ProvisioningContext context, String name) {
+		new PerformanceTestRunner() {
+			@Override
+			protected void test() {
+				// Update every other root to its highest version, the others follow
+				ProfileChangeRequest request = new ProfileChangeRequest(profile);
+				for (int i = 0; i < IU_COUNT; i += 2) {
+					request.remove(ius[i][0]);
+					request.add(ius[i][VERSION_COUNT - 1]);
+				}
+				IProvisioningPlan plan = planner.getProvisioningPlan(request, context, null);
+				assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+			}
+		}.run(this, name, REPEATS, 1);
+	}
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.perf;
+
+import java.lang.management.*;
+import java.util.*;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.internal.p2.director.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.query.Collector;
+import org.eclipse.equinox.p2.query.IQueryable;
+
+/**
+ * Measures the peak heap used to slice and encode a resolution problem over a large repository.
+ */
+public class SlicerPerformanceTest extends ProvisioningPerformanceTest {
+	private static final int ID_COUNT = 40000;
+	// Resolving a repository of 80,000 units used to take over 2GB of heap, about 26KB per unit
+	private static final int MAX_PEAK_BYTES_PER_UNIT = 12 * 1024;
+
+	public void testPeakHeap() {
+		IInstallableUnit[] available = new IInstallableUnit[ID_COUNT * 2 + 1];
+		IRequirement[] requirements = new IRequirement[ID_COUNT];
+		for (int i = 0; i < ID_COUNT; i++) {
+			available[2 * i] = createIU("iu" + i, Version.createOSGi(1, 0, 0));
+			available[2 * i + 1] = createIU("iu" + i, Version.createOSGi(2, 0, 0));
+			requirements[i] = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "iu" + i, VersionRange.emptyRange, null, false, false);
+		}
+		IInstallableUnit root = createIU("root", Version.createOSGi(1, 0, 0), requirements);
+		available[ID_COUNT * 2] = root;
+		QueryableArray repository = new QueryableArray(available);
+		Map<String, String> context = Collections.<String, String> emptyMap();
+
+		// Slice once so that the indexes of the repository are not measured
+		assertNotNull(new Slicer(repository, context, false).slice(new IInstallableUnit[] {root}, new NullProgressMonitor()));
+
+		List<MemoryPoolMXBean> pools = getHeapPools();
+		System.gc();
+		long before = 0;
+		for (MemoryPoolMXBean pool : pools) {
+			pool.resetPeakUsage();
+			before += pool.getUsage().getUsed();
+		}
+		Slicer slicer = new Slicer(repository, context, false);
+		IQueryable<IInstallableUnit> slice = slicer.slice(new IInstallableUnit[] {root}, new NullProgressMonitor());
+		Projector projector = new Projector(slice, context, new HashSet<IInstallableUnit>(), false);
+		projector.encode(root, new IInstallableUnit[0], new Collector<IInstallableUnit>(), Collections.singleton(root), new NullProgressMonitor());
+		long peak = 0;
+		for (MemoryPoolMXBean pool : pools)
+			peak += pool.getPeakUsage().getUsed();
+
+		assertEquals(available.length, ((Slice) slice).size());
+		long bytesPerUnit = (peak - before) / available.length;
+		System.out.println("Slicing and encoding " + available.length + " units peaked at " + bytesPerUnit + " bytes per unit");
+		assertTrue("Slicing and encoding peaked at " + bytesPerUnit + " bytes per unit", bytesPerUnit <= MAX_PEAK_BYTES_PER_UNIT);
+	}
+
+	private static List<MemoryPoolMXBean> getHeapPools() {
+		List<MemoryPoolMXBean> pools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid())
+				pools.add(pool);
+		}
+		return pools;
+	}
+}
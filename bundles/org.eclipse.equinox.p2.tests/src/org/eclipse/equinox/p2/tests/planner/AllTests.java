@@ -31,6 +31,8 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(AllOrbit.class);
 		suite.addTest(AllRequestFlexerTests.suite());
 		suite.addTestSuite(AnotherSingleton.class);
+		suite.addTestSuite(BackgroundExplanation.class);
+		suite.addTestSuite(BatchPlanningTest.class);
 		suite.addTestSuite(Bug207319.class);
 		suite.addTestSuite(Bug249605.class);
 		suite.addTestSuite(Bug252638.class);
@@ -74,6 +76,7 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(ExplanationLargeConflict.class);
 		suite.addTestSuite(ExplanationSeveralConflictingRoots.class);
 		suite.addTestSuite(FindRootsAfterUpdate.class);
+		suite.addTestSuite(FragmentHostIndexTest.class);
 		suite.addTestSuite(FromStrictToOptional.class);
 		suite.addTestSuite(GreedyRequirement.class);
 		suite.addTestSuite(InclusionRuleTest.class);
@@ -82,6 +85,7 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(IUPropertyRemoval.class);
 		suite.addTestSuite(IUWithFilter.class);
 		suite.addTestSuite(IUWithFilter2.class);
+		suite.addTestSuite(LexicographicOptimizationTest.class);
 		suite.addTestSuite(MinimalInstall.class);
 		suite.addTestSuite(MinimalInstall2.class);
 		suite.addTestSuite(MissingDependency.class);
@@ -135,8 +139,13 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(PatchTestUpdate5.class);
 		suite.addTestSuite(PatchTestUsingNegativeRequirement.class);
 		suite.addTestSuite(PermissiveSlicerTest.class);
+		suite.addTestSuite(PlannerStatisticsTest.class);
+		suite.addTestSuite(PortfolioSolverTest.class);
 		suite.addTestSuite(PP2ShouldFailToInstall.class);
+		suite.addTestSuite(ProblemReducerTest.class);
 		suite.addTestSuite(ResolvedIUInPCR.class);
+		suite.addTestSuite(RequirementMatchCacheTest.class);
+		suite.addTestSuite(RepeatedRequestTest.class);
 		//		suite.addTestSuite(ProvisioningPlanQueryTest.class); disabled, see bug 313812 
 		suite.addTestSuite(SDKPatchingTest1.class);
 		suite.addTestSuite(SDKPatchingTest2.class);
@@ -154,6 +163,7 @@ public class AllTests extends TestCase {
 		suite.addTestSuite(SimulatedSharedInstallTest.class);
 		suite.addTestSuite(SingletonOptionallyInstalled.class);
 		suite.addTestSuite(SingletonOptionallyInstalled2.class);
+		suite.addTestSuite(SliceTest.class);
 		suite.addTestSuite(SWTFragment.class);
 		suite.addTestSuite(SynchronizeOperationTest.class);
 		suite.addTestSuite(TestNoopChangeRequest.class);
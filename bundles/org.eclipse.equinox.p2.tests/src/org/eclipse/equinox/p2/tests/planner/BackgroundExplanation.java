@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.concurrent.*;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.internal.p2.director.Projector;
+import org.eclipse.equinox.internal.provisional.p2.director.PlannerStatus;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+public class BackgroundExplanation extends AbstractProvisioningTest {
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit x;
+	IInstallableUnit y;
+	private IProfile profile;
+	private IPlanner planner;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+
+		//X and Y need different versions of the singleton A
+		IRequirement c1 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 1.0.0]"), null, false, false);
+		x = createIU("X", Version.createOSGi(1, 0, 0), new IRequirement[] {c1});
+		IRequirement c2 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[2.0.0, 2.0.0]"), null, false, false);
+		y = createIU("Y", Version.createOSGi(1, 0, 0), new IRequirement[] {c2});
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, x, y});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+	}
+
+	public void testExplanationInBackground() throws Exception {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {x, y});
+		ProvisioningContext ctx = new ProvisioningContext(getAgent());
+		ctx.setProperty("org.eclipse.equinox.p2.director.explain.background", "true");
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, ctx, null);
+		assertEquals(IStatus.ERROR, plan.getStatus().getSeverity());
+		assertTrue(plan.getStatus() instanceof PlannerStatus);
+		PlannerStatus status = (PlannerStatus) plan.getStatus();
+		assertTrue(status.getRequestStatus().getExplanations().isEmpty());
+
+		PlannerStatus explained = status.getExplainedStatus().get(60, TimeUnit.SECONDS);
+		assertEquals(IStatus.ERROR, explained.getSeverity());
+		assertFalse(explained.getRequestStatus().getExplanations().isEmpty());
+		assertTrue(explained.getRequestStatus().getConflictsWithInstalledRoots().contains(x) || explained.getRequestStatus().getConflictsWithInstalledRoots().contains(y));
+	}
+
+	public void testCancel() throws Exception {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {x, y});
+		ProvisioningContext ctx = new ProvisioningContext(getAgent());
+		ctx.setProperty("org.eclipse.equinox.p2.director.explain.background", "true");
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, ctx, null);
+		PlannerStatus status = (PlannerStatus) plan.getStatus();
+		Future<PlannerStatus> explained = status.getExplainedStatus();
+		if (!explained.cancel(true))
+			// The explanation was already found
+			return;
+		assertTrue(explained.isCancelled());
+
+		// The job computing the explanation stops in a bounded time
+		long deadline = System.currentTimeMillis() + 60000;
+		while (Job.getJobManager().find(Projector.EXPLANATION_JOB_FAMILY).length > 0) {
+			assertTrue("The explanation is still computed after the cancel", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+
+		// Nothing is delivered once the computation stopped
+		try {
+			explained.get(0, TimeUnit.SECONDS);
+			fail("An explained status was delivered after the cancel");
+		} catch (CancellationException e) {
+			// Expected
+		}
+		assertTrue(status.getRequestStatus().getExplanations().isEmpty());
+		assertEquals(0, status.getStatistics().getExplanationTime());
+	}
+
+	public void testTimeBudget() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {x, y});
+		ProvisioningContext ctx = new ProvisioningContext(getAgent());
+		ctx.setProperty("org.eclipse.equinox.p2.director.explain.timeout", "1");
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, ctx, null);
+		assertEquals(IStatus.ERROR, plan.getStatus().getSeverity());
+		assertTrue(plan.getStatus() instanceof PlannerStatus);
+		// Without background computation the explanation, possibly partial, is already there
+		assertTrue(((PlannerStatus) plan.getStatus()).getExplainedStatus().isDone());
+		assertNotNull(((PlannerStatus) plan.getStatus()).getRequestStatus().getExplanations());
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.planner.IProfileChangeRequest;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Plans the changes of several profiles in one call.
+ */
+public class BatchPlanningTest extends AbstractProvisioningTest {
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit b;
+	IInstallableUnit x;
+	IInstallableUnit y;
+
+	IPlanner planner;
+	IEngine engine;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+
+		IRequirement reqA = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)"), null, false, false);
+		b = createIU("B", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA});
+		IRequirement reqA1 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 1.0.0]"), null, false, false);
+		x = createIU("X", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA1});
+		IRequirement reqA2 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[2.0.0, 2.0.0]"), null, false, false);
+		y = createIU("Y", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA2});
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, b, x, y});
+
+		planner = createPlanner();
+		engine = createEngine();
+	}
+
+	public void testBatch() {
+		IProfile profile1 = createProfile("TestProfile1." + getName());
+		IProfile profile2 = createProfile("TestProfile2." + getName());
+		IProfile profile3 = createProfile("TestProfile3." + getName());
+
+		IProfileChangeRequest req1 = planner.createChangeRequest(profile1);
+		req1.add(b);
+		IProfileChangeRequest req2 = planner.createChangeRequest(profile2);
+		req2.add(x);
+		IProfileChangeRequest req3 = planner.createChangeRequest(profile3);
+		req3.add(x);
+		req3.add(y);
+
+		IProvisioningPlan[] plans = planner.getProvisioningPlans(new IProfileChangeRequest[] {req1, req2, req3}, null, null);
+		assertEquals(3, plans.length);
+
+		assertEquals(IStatus.OK, plans[0].getStatus().getSeverity());
+		assertEquals(profile1.getProfileId(), plans[0].getProfile().getProfileId());
+		assertInstallOperand(plans[0], b);
+		assertInstallOperand(plans[0], a2);
+
+		assertEquals(IStatus.OK, plans[1].getStatus().getSeverity());
+		assertEquals(profile2.getProfileId(), plans[1].getProfile().getProfileId());
+		assertInstallOperand(plans[1], x);
+		assertInstallOperand(plans[1], a1);
+
+		assertEquals(IStatus.ERROR, plans[2].getStatus().getSeverity());
+	}
+
+	public void testSameAsSinglePlans() {
+		IProfile profile = createProfile("TestProfile." + getName());
+		IProfileChangeRequest req = planner.createChangeRequest(profile);
+		req.add(b);
+		assertOK("install B", install(req, planner, engine));
+		profile = getProfile(profile.getProfileId());
+
+		IProfileChangeRequest remove = planner.createChangeRequest(profile);
+		remove.remove(b);
+		IProfileChangeRequest add = planner.createChangeRequest(profile);
+		add.add(x);
+
+		IProfileChangeRequest[] requests = new IProfileChangeRequest[] {remove, add};
+		IProvisioningPlan[] plans = planner.getProvisioningPlans(requests, null, null);
+		for (int i = 0; i < requests.length; i++) {
+			IProvisioningPlan expected = planner.getProvisioningPlan(requests[i], null, null);
+			assertEquals(expected.getStatus().getSeverity(), plans[i].getStatus().getSeverity());
+			assertEquals(expected.getAdditions().query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet(), plans[i].getAdditions().query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet());
+			assertEquals(expected.getRemovals().query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet(), plans[i].getRemovals().query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet());
+		}
+	}
+}
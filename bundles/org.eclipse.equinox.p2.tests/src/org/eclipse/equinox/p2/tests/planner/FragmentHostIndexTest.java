@@ -0,0 +1,92 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.*;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.*;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProvisioningPlan;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.query.IQueryResult;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Associates fragments with their hosts once per problem and attaches them from the association.
+ */
+public class FragmentHostIndexTest extends AbstractProvisioningTest {
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit b;
+	IInstallableUnitFragment fa1;
+	IInstallableUnitFragment fa1Twin;
+	IInstallableUnitFragment fa2;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+		b = createIU("B", Version.create("1.0.0"), true);
+		fa1 = createIUFragment(a1, "FA1", Version.create("1.0.0"));
+		fa1Twin = createIUFragment(a1, "FA1Twin", Version.create("1.0.0"));
+		fa2 = createIUFragment(a2, "FA2", Version.create("1.0.0"));
+	}
+
+	public void testIndex() {
+		final QueryableArray units = new QueryableArray(new IInstallableUnit[] {a1, a2, b, fa1, fa1Twin, fa2});
+		final int[] lookups = new int[1];
+		FragmentHostIndex index = FragmentHostIndex.create(Arrays.asList(a1, a2, b, fa1, fa1Twin, fa2), req -> {
+			lookups[0]++;
+			return new ArrayList<>(units.query(QueryUtil.createMatchQuery(req.getMatches()), null).toUnmodifiableSet());
+		});
+		// The fragments with equal host requirements are looked up once
+		assertEquals(2, lookups[0]);
+		assertEquals(new HashSet<>(Arrays.asList(fa1, fa1Twin, fa2)), index.getFragments());
+		assertEquals(Collections.singletonList(a1), new ArrayList<>(index.getHosts(fa1)));
+		assertEquals(Collections.singletonList(a2), new ArrayList<>(index.getHosts(fa2)));
+		assertEquals(new HashSet<>(Arrays.asList(fa1, fa1Twin)), new HashSet<>(index.getFragments(a1)));
+		assertTrue(index.getFragments(b).isEmpty());
+
+		// Only the selected fragments and hosts remain
+		Set<IInstallableUnit> solution = new HashSet<>(Arrays.asList(a1, b, fa1, fa2));
+		FragmentHostIndex restricted = index.restrictTo(Arrays.asList(fa1, fa1Twin, fa2), solution::contains);
+		assertEquals(Collections.singleton(fa1), restricted.getFragments());
+		assertEquals(Collections.singletonList(fa1), restricted.getFragments(a1));
+		assertTrue(restricted.getFragments(a2).isEmpty());
+
+		Collection<IInstallableUnit> attached = AttachmentHelper.attachFragments(Arrays.asList(a1, b, fa1).iterator(), restricted);
+		assertEquals(3, attached.size());
+		for (IInstallableUnit iu : attached) {
+			if (iu.getId().equals("A"))
+				assertEquals(Collections.singletonList(fa1), iu.getFragments());
+			else
+				assertTrue(iu.getFragments().isEmpty());
+		}
+	}
+
+	public void testPlan() {
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, b, fa1, fa2});
+		IProfile profile = createProfile("TestProfile." + getName());
+		IPlanner planner = createPlanner();
+
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {a1, fa1});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		IQueryResult<IInstallableUnit> hosts = plan.getAdditions().query(QueryUtil.createIUQuery(a1), null);
+		assertEquals(1, queryResultSize(hosts));
+		assertEquals(Collections.singletonList(fa1), hosts.iterator().next().getFragments());
+		assertNoOperand(plan, fa2);
+	}
+}
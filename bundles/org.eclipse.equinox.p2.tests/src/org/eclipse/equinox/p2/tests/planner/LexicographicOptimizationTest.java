@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Plans with the lexicographic optimization function selected through the provisioning context.
+ */
+public class LexicographicOptimizationTest extends AbstractProvisioningTest {
+	private static final String OPTIMIZATION = "org.eclipse.equinox.p2.planner.optimization";
+
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit a3;
+	IInstallableUnit b1;
+	IInstallableUnit b2;
+	IInstallableUnit c;
+	IInstallableUnit d;
+	IInstallableUnit x1;
+	IInstallableUnit x2;
+
+	IPlanner planner;
+	IEngine engine;
+	IProfile profile;
+	ProvisioningContext context;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+		a3 = createIU("A", Version.create("3.0.0"), true);
+
+		IRequirement reqA = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)"), null, false, false);
+		b1 = createIU("B", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA}, NO_PROPERTIES, true);
+		b2 = createIU("B", Version.createOSGi(2, 0, 0), new IRequirement[] {reqA}, NO_PROPERTIES, true);
+
+		IRequirement optionalD = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "D", VersionRange.emptyRange, null, true, false, true);
+		c = createIU("C", Version.createOSGi(1, 0, 0), new IRequirement[] {optionalD});
+		d = createIU("D", Version.createOSGi(1, 0, 0), true);
+
+		x1 = createIU("X", Version.create("1.0.0"), true);
+		x2 = createIU("X", Version.create("2.0.0"), true);
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, a3, b1, b2, c, d, x1, x2});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+		engine = createEngine();
+		context = new ProvisioningContext(getAgent());
+		context.setProperty(OPTIMIZATION, "lexicographic");
+	}
+
+	public void testInstall() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b1, c});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, context, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertInstallOperand(plan, b1);
+		assertInstallOperand(plan, a2);
+		assertNoOperand(plan, a1);
+		assertNoOperand(plan, a3);
+		// The optional requirement is satisfied
+		assertInstallOperand(plan, c);
+		assertInstallOperand(plan, d);
+	}
+
+	public void testUpdate() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b1, x1});
+		req.add(a1);
+		assertOK("install B 1.0.0", install(req, planner, engine));
+		profile = getProfile(profile.getProfileId());
+
+		// Updating B leaves X alone and moves A to the highest version B accepts
+		req = new ProfileChangeRequest(profile);
+		req.remove(b1);
+		req.remove(a1);
+		req.addInstallableUnits(new IInstallableUnit[] {b2});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, context, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertInstallOperand(plan, b2);
+		assertInstallOperand(plan, a2);
+		assertUninstallOperand(plan, b1);
+		assertUninstallOperand(plan, a1);
+		assertNoOperand(plan, x2);
+		assertNoOperand(plan, a3);
+	}
+
+	public void testSameAsStandard() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b2, c, x1});
+		IProvisioningPlan lexicographic = planner.getProvisioningPlan(req, context, null);
+		IProvisioningPlan standard = planner.getProvisioningPlan(req, new ProvisioningContext(getAgent()), null);
+		assertEquals(IStatus.OK, lexicographic.getStatus().getSeverity());
+		assertEquals(IStatus.OK, standard.getStatus().getSeverity());
+		for (IInstallableUnit iu : new IInstallableUnit[] {a1, a2, a3, b1, b2, c, d, x1, x2})
+			assertEquals(iu.toString(), standard.getAdditions().query(QueryUtil.createIUQuery(iu), null).isEmpty(), lexicographic.getAdditions().query(QueryUtil.createIUQuery(iu), null).isEmpty());
+	}
+}
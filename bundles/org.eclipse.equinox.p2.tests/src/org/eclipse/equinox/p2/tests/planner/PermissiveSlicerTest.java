@@ -14,8 +14,10 @@ import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.equinox.internal.p2.director.PermissiveSlicer;
+import org.eclipse.equinox.internal.p2.director.Slicer;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.IProvidedCapability;
 import org.eclipse.equinox.p2.metadata.IRequirement;
@@ -49,6 +51,36 @@ public class PermissiveSlicerTest extends AbstractProvisioningTest {
 		//		assertOK("1.0", slicer.getStatus());
 	}
 
+	public void testParallelSlice() {
+		IInstallableUnit iu = repo.query(QueryUtil.createIUQuery("org.eclipse.rcp.feature.group"), new NullProgressMonitor()).iterator().next();
+		Slicer[] sequentialSlicers = {new PermissiveSlicer(repo, Collections.emptyMap(), true, false, true, false, false), new Slicer(repo, Collections.emptyMap(), true)};
+		Set<IInstallableUnit>[] sequential = sliceAll(sequentialSlicers, iu);
+
+		System.setProperty("eclipse.p2.slicer.parallelism", "4");
+		try {
+			Slicer[] parallelSlicers = {new PermissiveSlicer(repo, Collections.emptyMap(), true, false, true, false, false), new Slicer(repo, Collections.emptyMap(), true)};
+			Set<IInstallableUnit>[] parallel = sliceAll(parallelSlicers, iu);
+			for (int i = 0; i < sequential.length; i++) {
+				assertEquals(sequential[i], parallel[i]);
+				assertEquals(sequentialSlicers[i].getStatus().getChildren().length, parallelSlicers[i].getStatus().getChildren().length);
+			}
+			assertEquals(66, parallel[0].size());
+		} finally {
+			System.clearProperty("eclipse.p2.slicer.parallelism");
+		}
+	}
+
+	private Set<IInstallableUnit>[] sliceAll(Slicer[] slicers, IInstallableUnit iu) {
+		@SuppressWarnings("unchecked")
+		Set<IInstallableUnit>[] result = new Set[slicers.length];
+		for (int i = 0; i < slicers.length; i++) {
+			IQueryable<IInstallableUnit> slice = slicers[i].slice(new IInstallableUnit[] {iu}, new NullProgressMonitor());
+			assertNotNull(slice);
+			result[i] = slice.query(QueryUtil.createIUAnyQuery(), new NullProgressMonitor()).toUnmodifiableSet();
+		}
+		return result;
+	}
+
 	//Test with and without optional pieces
 	public void testSliceRCPWithOptionalPieces() {
 		PermissiveSlicer slicer = new PermissiveSlicer(repo, Collections.emptyMap(), false, false, true, false, false);
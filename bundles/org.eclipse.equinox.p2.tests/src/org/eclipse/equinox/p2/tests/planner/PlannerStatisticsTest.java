@@ -0,0 +1,114 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.SynchronousProvisioningListener;
+import org.eclipse.equinox.internal.provisional.p2.director.*;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProvisioningPlan;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Checks the statistics that the planner records while computing a plan.
+ */
+public class PlannerStatisticsTest extends AbstractProvisioningTest {
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit b;
+	IInstallableUnit x;
+
+	IPlanner planner;
+	IProfile profile;
+
+	final List<PlannerStatisticsEvent> events = new ArrayList<>();
+	final SynchronousProvisioningListener listener = o -> {
+		if (o instanceof PlannerStatisticsEvent)
+			events.add((PlannerStatisticsEvent) o);
+	};
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+
+		IRequirement reqA = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)"), null, false, false);
+		b = createIU("B", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA});
+		IRequirement reqA3 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[3.0.0, 3.0.0]"), null, false, false);
+		x = createIU("X", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA3});
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, b, x});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+		getEventBus().addListener(listener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		getEventBus().removeListener(listener);
+		super.tearDown();
+	}
+
+	public void testSuccess() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+
+		PlannerStatistics statistics = ((PlannerStatus) plan.getStatus()).getStatistics();
+		assertNotNull(statistics);
+		assertFalse(statistics.isReused());
+		assertTrue(statistics.getAvailableUnits() >= 4);
+		// The slice holds A 1.0.0, A 2.0.0, B and the unit representing the profile
+		assertEquals(4, statistics.getSliceSize());
+		assertTrue(statistics.getVariables() > 0);
+		assertTrue(statistics.getConstraints() > 0);
+		assertFalse(statistics.getSolverStatistics().isEmpty());
+		assertTrue(statistics.getDecisions() >= 0);
+		assertEquals(0, statistics.getExplanationTime());
+		assertTrue(statistics.getTotalTime() >= statistics.getSliceTime() + statistics.getEncodingTime() + statistics.getSolvingTime());
+
+		assertEquals(1, events.size());
+		assertSame(plan, events.get(0).getPlan());
+		assertSame(statistics, events.get(0).getStatistics());
+	}
+
+	public void testReuse() {
+		for (int i = 0; i < 2; i++) {
+			ProfileChangeRequest req = new ProfileChangeRequest(profile);
+			req.addInstallableUnits(new IInstallableUnit[] {b});
+			planner.getProvisioningPlan(req, null, null);
+		}
+		assertEquals(2, events.size());
+		assertFalse(events.get(0).getStatistics().isReused());
+		assertTrue(events.get(1).getStatistics().isReused());
+	}
+
+	public void testFailure() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {x});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.ERROR, plan.getStatus().getSeverity());
+
+		PlannerStatistics statistics = ((PlannerStatus) plan.getStatus()).getStatistics();
+		assertNotNull(statistics);
+		assertTrue(statistics.getTotalTime() >= statistics.getExplanationTime());
+		assertEquals(1, events.size());
+		assertSame(statistics, events.get(0).getStatistics());
+	}
+}
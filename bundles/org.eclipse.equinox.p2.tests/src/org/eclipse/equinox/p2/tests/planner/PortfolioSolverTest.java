@@ -0,0 +1,80 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProvisioningPlan;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Resolves with several differently configured solvers racing on each problem.
+ */
+public class PortfolioSolverTest extends AbstractProvisioningTest {
+	private static final String PROP_PORTFOLIO = "eclipse.p2.projector.portfolio";
+
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit x;
+	IInstallableUnit y;
+	IInstallableUnit z;
+
+	IPlanner planner;
+	IProfile profile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.setProperty(PROP_PORTFOLIO, "3");
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+
+		IRequirement c1 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 1.0.0]"), null, false, false);
+		x = createIU("X", Version.createOSGi(2, 0, 0), new IRequirement[] {c1});
+
+		IRequirement c2 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[2.0.0, 2.0.0]"), null, false, false);
+		y = createIU("Y", Version.createOSGi(2, 0, 0), new IRequirement[] {c2});
+
+		IRequirement c3 = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)"), null, false, false);
+		z = createIU("Z", Version.createOSGi(1, 0, 0), new IRequirement[] {c3});
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, x, y, z});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.clearProperty(PROP_PORTFOLIO);
+		super.tearDown();
+	}
+
+	public void testSatisfiable() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {z});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertInstallOperand(plan, z);
+		assertInstallOperand(plan, a2);
+		assertNoOperand(plan, a1);
+	}
+
+	public void testUnsatisfiable() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {x, y});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.ERROR, plan.getStatus().getSeverity());
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.*;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.*;
+import org.eclipse.equinox.internal.provisional.p2.director.PlannerStatus;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProvisioningPlan;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.query.IQueryable;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Removes the units that cannot be part of an optimal solution before encoding the problem.
+ */
+public class ProblemReducerTest extends AbstractProvisioningTest {
+	private static final String PROP_REDUCE = "eclipse.p2.planner.reduce";
+
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit a3;
+	IInstallableUnit b;
+	IInstallableUnit c;
+	IInstallableUnit d1;
+	IInstallableUnit d2;
+	IInstallableUnit x1;
+	IInstallableUnit x2;
+
+	IPlanner planner;
+	IProfile profile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.setProperty(PROP_REDUCE, "true");
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+		a3 = createIU("A", Version.create("3.0.0"), true);
+		b = createIU("B", Version.createOSGi(1, 0, 0), createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)")));
+		d1 = createIU("D", Version.create("1.0.0"), true);
+		d2 = createIU("D", Version.create("2.0.0"), true);
+		x1 = createIU("X", Version.create("1.0.0"), true);
+		x2 = createIU("X", Version.create("2.0.0"), true);
+
+		IRequirement[] reqs = new IRequirement[3];
+		reqs[0] = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "B", VersionRange.emptyRange, null, false, false);
+		reqs[1] = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "D", VersionRange.emptyRange, null, false, false);
+		reqs[2] = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "X", new VersionRange("[2.0.0, 2.0.0]"), null, false, false);
+		c = createIU("C", Version.createOSGi(1, 0, 0), reqs);
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, a3, b, c, d1, d2, x1, x2});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		System.clearProperty(PROP_REDUCE);
+		super.tearDown();
+	}
+
+	public void testReduction() {
+		IInstallableUnit entryPoint = createIU("entry", Version.createOSGi(1, 0, 0), createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "C", new VersionRange("[1.0.0, 1.0.0]")));
+		IQueryable<IInstallableUnit> slice = new QueryableArray(new IInstallableUnit[] {a1, a2, a3, b, c, d1, d2, x1, x2, entryPoint});
+		ProblemReducer reducer = new ProblemReducer(slice, Collections.<String, String> emptyMap(), Collections.<IInstallableUnit> emptySet(), false, new RequirementMatchCache(slice));
+		IQueryable<IInstallableUnit> reduced = reducer.reduce(entryPoint, new QueryableArray(new IInstallableUnit[0]), Collections.<IInstallableUnit> emptySet());
+
+		// X 1.0.0 conflicts with the required X 2.0.0, A 2.0.0 and D 2.0.0 are better than their previous version
+		assertEquals(new HashSet<>(Arrays.asList(x1, a1, d1)), new HashSet<>(reducer.getEliminated()));
+		assertEquals(4, reducer.getForcedCount());
+		assertEquals(1, reducer.getInfeasibleCount());
+		assertEquals(2, reducer.getDominatedCount());
+		assertNotContains(reduced.query(QueryUtil.createIUAnyQuery(), null), a1);
+		assertContains(reduced.query(QueryUtil.createIUAnyQuery(), null), a3);
+
+		// A version that is installed is kept
+		reducer = new ProblemReducer(slice, Collections.<String, String> emptyMap(), Collections.<IInstallableUnit> emptySet(), false, new RequirementMatchCache(slice));
+		reducer.reduce(entryPoint, new QueryableArray(new IInstallableUnit[] {d1}), Collections.<IInstallableUnit> emptySet());
+		assertEquals(new HashSet<>(Arrays.asList(x1, a1)), new HashSet<>(reducer.getEliminated()));
+	}
+
+	public void testSatisfiable() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {c});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertInstallOperand(plan, c);
+		assertInstallOperand(plan, b);
+		assertInstallOperand(plan, a2);
+		assertInstallOperand(plan, d2);
+		assertInstallOperand(plan, x2);
+		assertNoOperand(plan, a1);
+		assertNoOperand(plan, a3);
+		assertNoOperand(plan, d1);
+		assertNoOperand(plan, x1);
+	}
+
+	public void testUnsatisfiable() {
+		// Both versions of E need X 1.0.0, which conflicts with the X 2.0.0 needed by C
+		IRequirement reqX = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "X", new VersionRange("[1.0.0, 1.0.0]"), null, false, false);
+		IInstallableUnit e1 = createIU("E", Version.createOSGi(1, 0, 0), new IRequirement[] {reqX});
+		IInstallableUnit e2 = createIU("E", Version.createOSGi(2, 0, 0), new IRequirement[] {reqX});
+		IInstallableUnit f = createIU("F", Version.createOSGi(1, 0, 0), createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "E", new VersionRange("[1.0.0, 3.0.0)")));
+		createTestMetdataRepository(new IInstallableUnit[] {e1, e2, f});
+
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {c, f});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.ERROR, plan.getStatus().getSeverity());
+		// The explanation is computed on the problem before its reduction
+		assertFalse(((PlannerStatus) plan.getStatus()).getRequestStatus().getExplanations().isEmpty());
+	}
+}
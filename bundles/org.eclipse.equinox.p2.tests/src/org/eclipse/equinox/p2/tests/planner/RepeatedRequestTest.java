@@ -0,0 +1,95 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.equinox.internal.p2.director.ProfileChangeRequest;
+import org.eclipse.equinox.p2.engine.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.planner.IPlanner;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Issues the same or nearly the same request several times to one planner, which reuses
+ * the work done for the previous requests.
+ */
+public class RepeatedRequestTest extends AbstractProvisioningTest {
+	IInstallableUnit a1;
+	IInstallableUnit a2;
+	IInstallableUnit b;
+	IInstallableUnit c;
+
+	IPlanner planner;
+	IEngine engine;
+	IProfile profile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"), true);
+		a2 = createIU("A", Version.create("2.0.0"), true);
+
+		IRequirement reqA = MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0, 3.0.0)"), null, false, false);
+		b = createIU("B", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA});
+		c = createIU("C", Version.createOSGi(1, 0, 0), new IRequirement[] {reqA});
+
+		createTestMetdataRepository(new IInstallableUnit[] {a1, a2, b, c});
+
+		profile = createProfile("TestProfile." + getName());
+		planner = createPlanner();
+		engine = createEngine();
+	}
+
+	public void testIdenticalRequests() {
+		for (int i = 0; i < 3; i++) {
+			ProfileChangeRequest req = new ProfileChangeRequest(profile);
+			req.addInstallableUnits(new IInstallableUnit[] {b});
+			IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+			assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+			assertInstallOperand(plan, b);
+			assertInstallOperand(plan, a2);
+			assertNoOperand(plan, a1);
+			assertNoOperand(plan, c);
+		}
+	}
+
+	public void testAdditionalRoot() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertNoOperand(plan, c);
+
+		req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b, c});
+		plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertInstallOperand(plan, b);
+		assertInstallOperand(plan, c);
+		assertInstallOperand(plan, a2);
+	}
+
+	public void testRequestAfterProfileChange() {
+		ProfileChangeRequest req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b});
+		assertOK("install B", install(req, planner, engine));
+		profile = getProfile(profile.getProfileId());
+		assertProfileContains("B installed", profile, new IInstallableUnit[] {a2, b});
+
+		// The same request against the changed profile no longer adds anything
+		req = new ProfileChangeRequest(profile);
+		req.addInstallableUnits(new IInstallableUnit[] {b});
+		IProvisioningPlan plan = planner.getProvisioningPlan(req, null, null);
+		assertEquals(IStatus.OK, plan.getStatus().getSeverity());
+		assertNoOperand(plan, b);
+		assertNoOperand(plan, a2);
+	}
+}
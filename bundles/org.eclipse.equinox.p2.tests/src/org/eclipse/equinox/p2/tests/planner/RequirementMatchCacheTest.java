@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.*;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.internal.p2.director.*;
+import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.query.*;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+public class RequirementMatchCacheTest extends AbstractProvisioningTest {
+	private IInstallableUnit a1, a2, b1, c1, root;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		a1 = createIU("A", Version.create("1.0.0"));
+		a2 = createIU("A", Version.create("2.0.0"));
+		b1 = createIU("B", Version.create("1.0.0"), createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "A", new VersionRange("[1.0.0,2.0.0)")));
+		c1 = createIU("C", Version.create("1.0.0"), createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "A"));
+		// The root is not part of the available units but provides A itself
+		IProvidedCapability[] provides = new IProvidedCapability[] {MetadataFactory.createProvidedCapability(IInstallableUnit.NAMESPACE_IU_ID, "A", Version.create("1.5.0"))};
+		root = createIU("root", Version.create("1.0.0"), null, createRequiredCapabilities(IInstallableUnit.NAMESPACE_IU_ID, "B"), provides, NO_PROPERTIES, ITouchpointType.NONE, NO_TP_DATA, false);
+	}
+
+	public void testCacheHits() {
+		IQueryable<IInstallableUnit> queryable = new QueryableArray(new IInstallableUnit[] {a1, a2, b1});
+		RequirementMatchCache cache = new RequirementMatchCache(queryable);
+		IRequirement req = b1.getRequirements().iterator().next();
+		assertEquals(Collections.singletonList(a1), cache.getMatches(queryable, req));
+		assertEquals(Collections.singletonList(a1), cache.getMatches(queryable, req));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		// A different queryable invalidates the entries
+		IQueryable<IInstallableUnit> other = new QueryableArray(new IInstallableUnit[] {a2});
+		assertTrue(cache.getMatches(other, req).isEmpty());
+		assertEquals(2, cache.getMisses());
+	}
+
+	public void testRestrictedToSlice() {
+		IQueryable<IInstallableUnit> available = new QueryableArray(new IInstallableUnit[] {a1, a2, b1, c1});
+		Slicer slicer = new Slicer(available, Collections.<String, String> emptyMap(), true);
+		IQueryable<IInstallableUnit> slice = slicer.slice(new IInstallableUnit[] {root}, new NullProgressMonitor());
+		assertNotNull(slice);
+		int slicerMisses = slicer.getMatchCache().getMisses();
+
+		RequirementMatchCache cache = slicer.getMatchCache().restrictTo(slice);
+		for (IInstallableUnit iu : slice.query(QueryUtil.createIUAnyQuery(), null)) {
+			for (IRequirement req : iu.getRequirements()) {
+				Set<IInstallableUnit> expected = slice.query(QueryUtil.createMatchQuery(req.getMatches()), null).toUnmodifiableSet();
+				assertEquals(req.toString(), expected, new HashSet<>(cache.getMatches(slice, req)));
+			}
+		}
+		assertEquals(0, cache.getMisses());
+		assertEquals(slicerMisses, slicer.getMatchCache().getMisses());
+
+		// The root is not known to the slicer's cache but must still be found
+		IRequirement reqOnA = c1.getRequirements().iterator().next();
+		Set<IInstallableUnit> expected = new HashSet<>(Arrays.asList(a1, root));
+		assertEquals(expected, new HashSet<>(cache.getMatches(slice, reqOnA)));
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 IBM Corporation and others.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  Contributors:
+ *      IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.p2.tests.planner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import org.eclipse.equinox.internal.p2.director.Slice;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.tests.AbstractProvisioningTest;
+
+/**
+ * Tests the slice holding the units of a resolution problem.
+ */
+public class SliceTest extends AbstractProvisioningTest {
+	public void testSlice() {
+		IInstallableUnit a1 = createIU("A", Version.create("1.0.0"));
+		IInstallableUnit a2 = createIU("A", Version.create("2.0.0"));
+		IInstallableUnit b1 = createIU("B", Version.create("1.0.0"));
+
+		Slice slice = new Slice(1);
+		assertTrue(slice.add(a1));
+		assertTrue(slice.add(b1));
+		assertTrue(slice.add(a2));
+		assertFalse(slice.add(createIU("A", Version.create("1.0.0"))));
+		assertEquals(3, slice.size());
+		assertSame(b1, slice.getUnit(1));
+		assertTrue(slice.contains(createIU("A", Version.create("2.0.0"))));
+		assertFalse(slice.contains(createIU("B", Version.create("2.0.0"))));
+		assertEquals(new HashSet<>(Arrays.asList("A", "B")), slice.getIds());
+		assertEquals(Arrays.asList(a1, a2), slice.getUnits("A"));
+		assertTrue(slice.getUnits("C").isEmpty());
+
+		assertEquals(2, queryResultSize(slice.query(QueryUtil.createIUQuery("A"), null)));
+		assertEquals(1, queryResultSize(slice.query(QueryUtil.createIUQuery("A", Version.create("2.0.0")), null)));
+		assertEquals(3, queryResultSize(slice.query(QueryUtil.createIUAnyQuery(), null)));
+
+		Slice copy = new Slice(slice);
+		IInstallableUnit a3 = createIU("A", Version.create("3.0.0"));
+		assertTrue(copy.add(a3));
+		assertEquals(Arrays.asList(a1, a2, a3), copy.getUnits("A"));
+		assertEquals(Arrays.asList(a1, a2), slice.getUnits("A"));
+	}
+}
@@ -16,6 +16,7 @@ import java.util.*;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.equinox.internal.p2.director.QueryableArray;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.expression.ExpressionFactory;
 import org.eclipse.equinox.p2.metadata.*;
 import org.eclipse.equinox.p2.metadata.expression.*;
 import org.eclipse.equinox.p2.publisher.PublisherInfo;
@@ -375,4 +376,99 @@ public class EvaluatorTest extends AbstractProvisioningTest {
 
 		assertTrue("Query results are inconsistent.", set.size() == rt2.toSet().size());
 	}
+
+	public void testCompiledMatchesInterpreted() throws Exception {
+		IInstallableUnit[] units = new IInstallableUnit[20];
+		for (int idx = 0; idx < units.length; ++idx) {
+			Map<String, String> props = new HashMap<>();
+			props.put("p", "v" + (idx % 3));
+			IRequirement[] reqs = createRequiredCapabilities("java.package", "pkg" + (idx % 4), new VersionRange("[1.0.0,2.0.0)"));
+			units[idx] = createIU("foo" + (idx % 5), Version.createOSGi(1, idx, 0), null, reqs, NO_PROVIDES, props, ITouchpointType.NONE, NO_TP_DATA, false);
+		}
+		IRequirement req = MetadataFactory.createRequirement("java.package", "pkg1", null, null, false, false);
+		List<IMatchExpression<IInstallableUnit>> exprs = new ArrayList<>();
+		exprs.add(MetadataFactory.createRequirement(IInstallableUnit.NAMESPACE_IU_ID, "foo2", new VersionRange("[1.4.0,1.12.0)"), null, false, false).getMatches());
+		exprs.add(factory.matchExpression(parser.parse("properties['p'] == $0 && version >= $1"), "v1", Version.createOSGi(1, 5, 0)));
+		exprs.add(factory.matchExpression(parser.parse("id ~= /foo[12]/ || !(version < $0)"), Version.createOSGi(1, 15, 0)));
+		exprs.add(factory.matchExpression(parser.parse("requirements.exists(r | $0 ~= r)"), req));
+		exprs.add(factory.matchExpression(parser.parse("providedCapabilities.all(c | c.version > $0) && requirements.length == 1"), Version.createOSGi(1, 2, 0)));
+
+		boolean compilationEnabled = ExpressionFactory.isCompilationEnabled();
+		try {
+			for (IMatchExpression<IInstallableUnit> expr : exprs) {
+				boolean[] interpreted = new boolean[units.length];
+				ExpressionFactory.setCompilationEnabled(false);
+				for (int idx = 0; idx < units.length; ++idx)
+					interpreted[idx] = expr.isMatch(units[idx]);
+
+				// Repeat enough times for the expression to be compiled
+				ExpressionFactory.setCompilationEnabled(true);
+				for (int pass = 0; pass < 3; ++pass)
+					for (int idx = 0; idx < units.length; ++idx)
+						assertEquals(expr + " on " + units[idx], interpreted[idx], expr.isMatch(units[idx]));
+			}
+		} finally {
+			ExpressionFactory.setCompilationEnabled(compilationEnabled);
+		}
+	}
+
+	public void testLimitIsStreamed() throws Exception {
+		List<IInstallableUnit> units = new ArrayList<>();
+		for (int idx = 0; idx < 100; ++idx)
+			units.add(createIU("foo" + idx, Version.createOSGi(1, idx, 0)));
+		final int[] pulled = new int[1];
+		final Iterator<IInstallableUnit> source = units.iterator();
+		Iterator<IInstallableUnit> counting = new Iterator<IInstallableUnit>() {
+			@Override
+			public boolean hasNext() {
+				return source.hasNext();
+			}
+
+			@Override
+			public IInstallableUnit next() {
+				++pulled[0];
+				return source.next();
+			}
+		};
+
+		IQueryResult<IInstallableUnit> result = QueryUtil.createQuery("select(x | x.id ~= /foo1*/).limit(3)").perform(counting);
+		assertFalse(result.isEmpty());
+		assertEquals(2, pulled[0]);
+
+		Iterator<IInstallableUnit> first = result.iterator();
+		Iterator<IInstallableUnit> second = result.iterator();
+		for (int idx = 0; idx < 3; ++idx)
+			assertEquals(first.next(), second.next());
+		assertFalse(first.hasNext());
+		assertFalse(second.hasNext());
+		assertEquals(3, result.toUnmodifiableSet().size());
+		assertEquals(12, pulled[0]);
+	}
+
+	public void testSetOperationsOnEqualUnits() throws Exception {
+		List<IInstallableUnit> units = new ArrayList<>();
+		List<IInstallableUnit> copies = new ArrayList<>();
+		for (int idx = 0; idx < 20; ++idx) {
+			units.add(createIU("foo" + (idx % 4), Version.createOSGi(1, idx, 0)));
+			// Equal but not identical units
+			if (idx % 2 == 0)
+				copies.add(createIU("foo" + (idx % 4), Version.createOSGi(1, idx, 0)));
+		}
+
+		IQuery<IInstallableUnit> query1 = QueryUtil.createQuery("select(x | x.id == 'foo0')");
+		IQuery<IInstallableUnit> query2 = QueryUtil.createQuery("select(x | x.version >= $0)", Version.createOSGi(1, 10, 0));
+		IQueryResult<IInstallableUnit> result = QueryUtil.createCompoundQuery(query1, query2, true).perform(units.iterator());
+		assertEquals(2, queryResultSize(result));
+		assertContains(result, units.get(12));
+		assertContains(result, units.get(16));
+		assertEquals(13, queryResultSize(QueryUtil.createCompoundQuery(query1, query2, false).perform(units.iterator())));
+
+		assertEquals(10, queryResultSize(QueryUtil.createQuery("$0.intersect(everything)", copies).perform(units.iterator())));
+		assertEquals(20, queryResultSize(QueryUtil.createQuery("$0.union(everything).union($0)", copies).perform(units.iterator())));
+
+		result = QueryUtil.createQuery("select(x | x.id == 'foo0').intersect(select(x | x.version < $0)).union(select(x | x.id == 'foo2').intersect($1))", Version.createOSGi(1, 9, 0), copies).perform(units.iterator());
+		assertEquals(8, queryResultSize(result));
+		assertContains(result, units.get(8));
+		assertContains(result, units.get(18));
+	}
 }
@@ -11,8 +11,14 @@
 package org.eclipse.equinox.p2.tests.ql;
 
 import java.net.URI;
+import java.util.*;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.internal.p2.metadata.IUMap;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.internal.p2.metadata.expression.ExpressionFactory;
+import org.eclipse.equinox.internal.p2.metadata.index.*;
 import org.eclipse.equinox.p2.metadata.*;
+import org.eclipse.equinox.p2.metadata.index.IIndex;
 import org.eclipse.equinox.p2.query.*;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
@@ -63,6 +69,136 @@ public class TestIndexes extends AbstractProvisioningTest {
 		assertEquals(queryResultSize(result), 487);
 	}
 
+	public void testCapabilityIndexVersionRange() throws Exception {
+		List<IInstallableUnit> ius = new ArrayList<>();
+		for (int idx = 0; idx < 100; ++idx)
+			ius.add(createIU("foo", Version.createOSGi(1, idx, 0)));
+		ius.add(createIU("bar", Version.createOSGi(1, 5, 0)));
+		CapabilityIndex index = new CapabilityIndex(ius.iterator());
+
+		assertCandidates(index, createIURequirement("foo", new VersionRange("[1.10.0,1.20.0)")), 10);
+		assertCandidates(index, createIURequirement("foo", new VersionRange("(1.10.0,1.20.0]")), 10);
+		assertCandidates(index, createIURequirement("foo", new VersionRange("[1.42.0,1.42.0]")), 1);
+		assertCandidates(index, createIURequirement("foo", new VersionRange("1.90.0")), 10);
+		assertCandidates(index, createIURequirement("foo", new VersionRange("[2.0.0,3.0.0)")), 0);
+		assertCandidates(index, createIURequirement("foo", null), 100);
+		assertCandidates(index, createIURequirement("bar", new VersionRange("[1.0.0,2.0.0)")), 1);
+		assertCandidates(index, createIURequirement("baz", new VersionRange("[1.0.0,2.0.0)")), 0);
+	}
+
+	public void testPropertyIndexGroupQuery() throws Exception {
+		IMetadataRepository repo = getMDR("/testData/galileoM7");
+		Set<IInstallableUnit> all = repo.query(QueryUtil.createIUAnyQuery(), getMonitor()).toUnmodifiableSet();
+		IQuery<IInstallableUnit> query = QueryUtil.createIUGroupQuery();
+		IQueryResult<IInstallableUnit> result = repo.query(query, getMonitor());
+		assertFalse(result.isEmpty());
+		assertEquals(query.perform(all.iterator()).toUnmodifiableSet(), result.toUnmodifiableSet());
+	}
+
+	public void testPropertyIndex() throws Exception {
+		List<IInstallableUnit> ius = new ArrayList<>();
+		for (int idx = 0; idx < 10; ++idx) {
+			Map<String, String> props = new HashMap<>();
+			if (idx % 2 == 0)
+				props.put(QueryUtil.PROP_TYPE_GROUP, idx == 0 ? " TRUE " : "true");
+			if (idx % 5 == 0)
+				props.put(QueryUtil.PROP_TYPE_CATEGORY, "true");
+			props.put("other", "true");
+			ius.add(createIU("foo" + idx, Version.createOSGi(1, 0, 0), null, NO_REQUIRES, NO_PROVIDES, props, ITouchpointType.NONE, NO_TP_DATA, false));
+		}
+		PropertyIndex index = new PropertyIndex(ius.iterator());
+
+		assertCandidates(index, QueryUtil.createIUGroupQuery(), 5);
+		assertCandidates(index, QueryUtil.createIUCategoryQuery(), 2);
+		assertCandidates(index, QueryUtil.createIUPropertyQuery(QueryUtil.PROP_TYPE_GROUP, "false"), 0);
+		assertCandidates(index, QueryUtil.createMatchQuery("properties[$0] == true || properties[$1] == true", QueryUtil.PROP_TYPE_GROUP, QueryUtil.PROP_TYPE_CATEGORY), 6);
+		assertCandidates(index, QueryUtil.createMatchQuery("properties[$0] == true && id == $1", QueryUtil.PROP_TYPE_CATEGORY, "foo5"), 1);
+
+		// Not indexed
+		assertNull(getCandidates(index, QueryUtil.createIUPropertyQuery("other", "true")));
+		assertNull(getCandidates(index, QueryUtil.createIUPropertyQuery(QueryUtil.PROP_TYPE_GROUP, QueryUtil.ANY)));
+		assertNull(getCandidates(index, QueryUtil.createMatchQuery("properties[$0] == true || id == $1", QueryUtil.PROP_TYPE_GROUP, "foo1")));
+	}
+
+	public void testIdIndexPreferredOverPropertyIndex() throws Exception {
+		final List<IInstallableUnit> ius = new ArrayList<>();
+		for (int idx = 0; idx < 10; ++idx)
+			ius.add(createIU("foo" + idx, Version.createOSGi(1, 0, 0), null, NO_REQUIRES, NO_PROVIDES, Collections.singletonMap("other", "true"), ITouchpointType.NONE, NO_TP_DATA, false));
+		final IUMap map = new IUMap();
+		map.addAll(ius);
+		final int[] scanned = new int[1];
+		IndexProvider<IInstallableUnit> provider = new IndexProvider<IInstallableUnit>() {
+			@Override
+			public IIndex<IInstallableUnit> getIndex(String memberName) {
+				if (InstallableUnit.MEMBER_ID.equals(memberName))
+					return new IdIndex(map);
+				if (InstallableUnit.MEMBER_PROPERTIES.equals(memberName))
+					return new PropertyIndex(ius.iterator());
+				return null;
+			}
+
+			@Override
+			public Iterator<IInstallableUnit> everything() {
+				final Iterator<IInstallableUnit> itor = ius.iterator();
+				return new Iterator<IInstallableUnit>() {
+					@Override
+					public boolean hasNext() {
+						return itor.hasNext();
+					}
+
+					@Override
+					public IInstallableUnit next() {
+						++scanned[0];
+						return itor.next();
+					}
+				};
+			}
+
+			@Override
+			public Object getManagedProperty(Object client, String memberName, Object key) {
+				return null;
+			}
+		};
+
+		// The property index does not cover the key, so the id index answers
+		IQuery<IInstallableUnit> query = QueryUtil.createQuery("select(x | x.id == $0 && x.properties[$1] == true)", "foo3", "other");
+		assertEquals(1, queryResultSize(provider.query(query, getMonitor())));
+		query = QueryUtil.createMatchQuery("properties[$1] == true && id == $0", "foo3", "other");
+		assertEquals(1, queryResultSize(provider.query(query, getMonitor())));
+		assertEquals(0, scanned[0]);
+	}
+
+	private static void assertCandidates(PropertyIndex index, IQuery<IInstallableUnit> query, int expectedCount) {
+		Iterator<IInstallableUnit> candidates = getCandidates(index, query);
+		assertNotNull(candidates);
+		int count = 0;
+		while (candidates.hasNext())
+			if (((IMatchQuery<IInstallableUnit>) query).isMatch(candidates.next()))
+				++count;
+		assertEquals(expectedCount, count);
+	}
+
+	private static Iterator<IInstallableUnit> getCandidates(PropertyIndex index, IQuery<IInstallableUnit> query) {
+		ExpressionMatchQuery<IInstallableUnit> matchQuery = (ExpressionMatchQuery<IInstallableUnit>) query;
+		return index.getCandidates(matchQuery.getContext(), ExpressionFactory.THIS, matchQuery.getExpression());
+	}
+
+	private static void assertCandidates(CapabilityIndex index, IRequirement requirement, int expectedCount) {
+		assertCandidates(index, (ExpressionMatchQuery<IInstallableUnit>) QueryUtil.createMatchQuery(requirement.getMatches()), requirement, expectedCount);
+		assertCandidates(index, (ExpressionMatchQuery<IInstallableUnit>) QueryUtil.createMatchQuery("this ~= $0", requirement), requirement, expectedCount);
+	}
+
+	private static void assertCandidates(CapabilityIndex index, ExpressionMatchQuery<IInstallableUnit> query, IRequirement requirement, int expectedCount) {
+		Iterator<IInstallableUnit> candidates = index.getCandidates(query.getContext(), ExpressionFactory.THIS, query.getExpression());
+		assertNotNull(candidates);
+		int count = 0;
+		while (candidates.hasNext()) {
+			assertTrue(requirement.isMatch(candidates.next()));
+			++count;
+		}
+		assertEquals(expectedCount, count);
+	}
+
 	private IMetadataRepository getMDR(String uri) throws Exception {
 		URI metadataRepo = getTestData("1.1", uri).toURI();
 
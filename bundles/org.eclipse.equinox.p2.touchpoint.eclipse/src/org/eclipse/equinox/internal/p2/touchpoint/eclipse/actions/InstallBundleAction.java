@@ -14,6 +14,7 @@ import java.util.Map;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.equinox.frameworkadmin.BundleInfo;
+import org.eclipse.equinox.internal.p2.engine.IParallelSafeAction;
 import org.eclipse.equinox.internal.p2.touchpoint.eclipse.EclipseTouchpoint;
 import org.eclipse.equinox.internal.p2.touchpoint.eclipse.Util;
 import org.eclipse.equinox.internal.provisional.frameworkadmin.Manipulator;
@@ -25,7 +26,7 @@ import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.query.QueryUtil;
 import org.eclipse.osgi.util.NLS;
 
-public class InstallBundleAction extends ProvisioningAction {
+public class InstallBundleAction extends ProvisioningAction implements IParallelSafeAction {
 	public static final String ID = "installBundle"; //$NON-NLS-1$
 
 	public IStatus execute(Map<String, Object> parameters) {
@@ -72,7 +73,10 @@ public class InstallBundleAction extends ProvisioningAction {
 		BundleInfo bundleInfo = Util.createBundleInfo(bundleFile, iu);
 		if (bundleInfo == null)
 			return Util.createError(NLS.bind(Messages.failed_create_bundleinfo, iu));
-		manipulator.getConfigData().addBundle(bundleInfo);
+		// The manipulator is shared by the operands installed concurrently
+		synchronized (manipulator) {
+			manipulator.getConfigData().addBundle(bundleInfo);
+		}
 
 		return Status.OK_STATUS;
 	}